@@ -1,5 +1,6 @@
 package com.clockin.admin.controller;
 
+import com.clockin.admin.dto.response.WorkdayCalendarResponse;
 import com.clockin.admin.entity.Holiday;
 import com.clockin.admin.service.HolidayService;
 import com.clockin.common.response.Result;
@@ -114,6 +115,17 @@ public class HolidayController {
         return Result.success(holidayService.getHolidaysByDateRange(startDate, endDate));
     }
     
+    @GetMapping("/workday-calendar")
+    @Operation(summary = "獲取日期範圍內的工作日曆", description = "以位圖形式返回指定日期範圍內每一天是否為工作日")
+    public Result<WorkdayCalendarResponse> getWorkdayCalendar(
+            @Parameter(description = "開始日期，格式：yyyy-MM-dd") 
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @Parameter(description = "結束日期，格式：yyyy-MM-dd") 
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        
+        return Result.success(holidayService.getWorkdayCalendar(startDate, endDate));
+    }
+    
     @GetMapping("/type/{holidayType}/year/{year}")
     @Operation(summary = "獲取指定類型和年份的假日配置", description = "獲取指定類型和年份的所有假日配置")
     public Result<List<Holiday>> getByTypeAndYear(
@@ -0,0 +1,37 @@
+package com.clockin.admin.controller;
+
+import com.clockin.admin.dto.response.WorkConfigSnapshotResponse;
+import com.clockin.admin.service.WorkConfigSnapshotService;
+import com.clockin.common.response.Result;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 工作配置快照控制器
+ * <p>
+ * 供打卡服務同步假日與工作時間配置
+ */
+@RestController
+@RequestMapping("/api/admin/work-config")
+@RequiredArgsConstructor
+@Tag(name = "工作配置快照", description = "工作配置快照同步相關的API")
+public class WorkConfigSnapshotController {
+
+    private final WorkConfigSnapshotService workConfigSnapshotService;
+
+    @GetMapping("/version")
+    @Operation(summary = "獲取工作配置版本", description = "獲取當前工作配置快照的版本號")
+    public Result<String> getVersion() {
+        return Result.success(workConfigSnapshotService.getCurrentVersion());
+    }
+
+    @GetMapping("/snapshot")
+    @Operation(summary = "獲取工作配置快照", description = "獲取包含假日、工作時間配置及用戶配置關聯的完整快照")
+    public Result<WorkConfigSnapshotResponse> getSnapshot() {
+        return Result.success(workConfigSnapshotService.getSnapshot());
+    }
+}
@@ -0,0 +1,40 @@
+package com.clockin.admin.dto.response;
+
+import com.clockin.admin.entity.Holiday;
+import com.clockin.admin.entity.UserWorkTimeConfig;
+import com.clockin.admin.entity.WorkTimeConfig;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 工作配置快照響應
+ * <p>
+ * 提供給打卡服務在本地建立工作日與工作時間配置快照
+ */
+@Data
+@Schema(description = "工作配置快照響應")
+public class WorkConfigSnapshotResponse implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Schema(description = "快照版本")
+    private String version;
+
+    @Schema(description = "快照生成時間")
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime generatedTime;
+
+    @Schema(description = "啟用的假日配置")
+    private List<Holiday> holidays;
+
+    @Schema(description = "啟用的工作時間配置")
+    private List<WorkTimeConfig> workTimeConfigs;
+
+    @Schema(description = "啟用的用戶工作時間配置關聯")
+    private List<UserWorkTimeConfig> userWorkTimeConfigs;
+}
@@ -0,0 +1,34 @@
+package com.clockin.admin.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * 工作日曆響應
+ * <p>
+ * 以位圖表示日期範圍內每一天是否為工作日，第 i 個字元對應 startDate + i 天
+ */
+@Data
+@Schema(description = "工作日曆響應")
+public class WorkdayCalendarResponse implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Schema(description = "開始日期", example = "2025-03-01")
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate startDate;
+
+    @Schema(description = "結束日期", example = "2025-03-31")
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate endDate;
+
+    @Schema(description = "工作日位圖，1-工作日，0-休息日", example = "0011111001111100111110011111001")
+    private String workdays;
+
+    @Schema(description = "工作日天數", example = "21")
+    private Integer workdayCount;
+}
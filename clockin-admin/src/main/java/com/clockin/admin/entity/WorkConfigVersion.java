@@ -0,0 +1,38 @@
+package com.clockin.admin.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 工作配置版本實體
+ * <p>
+ * 只有一行，假日、工作時間配置及用戶配置關聯每次寫入時在同一事務內遞增
+ */
+@Data
+@Entity
+@Table(name = "work_config_version")
+public class WorkConfigVersion {
+
+    /**
+     * 固定為 1
+     */
+    @Id
+    private Long id;
+
+    /**
+     * 配置版本號，單調遞增
+     */
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    /**
+     * 最後遞增時間
+     */
+    @Column(name = "update_time")
+    private LocalDateTime updateTime;
+}
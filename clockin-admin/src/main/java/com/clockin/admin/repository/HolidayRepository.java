@@ -8,6 +8,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -78,4 +79,20 @@ public interface HolidayRepository extends JpaRepository<Holiday, Long>, JpaSpec
      */
     @Query("SELECT COUNT(h) FROM Holiday h WHERE h.year = :year AND h.month = :month AND h.status = 1")
     Long countByYearAndMonthAndStatusActive(@Param("year") Integer year, @Param("month") Integer month);
+    
+    /**
+     * 根據狀態查詢假日列表
+     *
+     * @param status 狀態
+     * @return 假日列表
+     */
+    List<Holiday> findByStatusOrderByHolidayDateAsc(Integer status);
+    
+    /**
+     * 查詢假日配置的最後更新時間
+     *
+     * @return 最後更新時間
+     */
+    @Query("SELECT MAX(h.updateTime) FROM Holiday h")
+    LocalDateTime findLatestUpdateTime();
 }
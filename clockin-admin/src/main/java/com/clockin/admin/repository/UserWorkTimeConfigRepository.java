@@ -8,6 +8,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -59,4 +60,20 @@ public interface UserWorkTimeConfigRepository extends JpaRepository<UserWorkTime
      */
     @Query("SELECT u FROM UserWorkTimeConfig u WHERE u.effectiveStartDate <= :date AND (u.effectiveEndDate IS NULL OR u.effectiveEndDate >= :date) AND u.status = 1")
     List<UserWorkTimeConfig> findAllEffectiveConfigsByDate(@Param("date") LocalDate date);
+    
+    /**
+     * 根據狀態查詢用戶工作時間配置關聯
+     *
+     * @param status 狀態
+     * @return 用戶工作時間配置關聯列表
+     */
+    List<UserWorkTimeConfig> findByStatus(Integer status);
+    
+    /**
+     * 查詢用戶工作時間配置關聯的最後更新時間
+     *
+     * @return 最後更新時間
+     */
+    @Query("SELECT MAX(u.updateTime) FROM UserWorkTimeConfig u")
+    LocalDateTime findLatestUpdateTime();
 }
@@ -0,0 +1,31 @@
+package com.clockin.admin.repository;
+
+import com.clockin.admin.entity.WorkConfigVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+/**
+ * 工作配置版本資源庫
+ */
+@Repository
+public interface WorkConfigVersionRepository extends JpaRepository<WorkConfigVersion, Long> {
+
+    /**
+     * 版本記錄的固定ID
+     */
+    long VERSION_ID = 1L;
+
+    /**
+     * 遞增配置版本，記錄不存在時建立
+     * <p>
+     * 單條語句完成，並發寫入時由行鎖串行化，不會丟失遞增
+     *
+     * @return 影響行數
+     */
+    @Modifying
+    @Query(value = "INSERT INTO work_config_version (id, version, update_time) VALUES (1, 1, NOW(3)) " +
+            "ON DUPLICATE KEY UPDATE version = version + 1, update_time = NOW(3)", nativeQuery = true)
+    int increment();
+}
@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -45,4 +46,12 @@ public interface WorkTimeConfigRepository extends JpaRepository<WorkTimeConfig,
      */
     @Query("SELECT COUNT(w) FROM WorkTimeConfig w WHERE w.isDefault = true")
     long countByIsDefaultTrue();
+    
+    /**
+     * 查詢工作時間配置的最後更新時間
+     *
+     * @return 最後更新時間
+     */
+    @Query("SELECT MAX(w.updateTime) FROM WorkTimeConfig w")
+    LocalDateTime findLatestUpdateTime();
 }
@@ -1,5 +1,6 @@
 package com.clockin.admin.service;
 
+import com.clockin.admin.dto.response.WorkdayCalendarResponse;
 import com.clockin.admin.entity.Holiday;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -103,6 +104,17 @@ public interface HolidayService {
      */
     boolean isHoliday(LocalDate date);
     
+    /**
+     * 獲取日期範圍內的工作日曆
+     * <p>
+     * 一次返回整段日期的工作日位圖，避免調用方逐日查詢
+     *
+     * @param startDate 開始日期
+     * @param endDate   結束日期
+     * @return 工作日曆
+     */
+    WorkdayCalendarResponse getWorkdayCalendar(LocalDate startDate, LocalDate endDate);
+    
     /**
      * 批量導入假日配置
      *
@@ -0,0 +1,32 @@
+package com.clockin.admin.service;
+
+import com.clockin.admin.dto.response.WorkConfigSnapshotResponse;
+
+/**
+ * 工作配置快照服務接口
+ */
+public interface WorkConfigSnapshotService {
+
+    /**
+     * 獲取當前工作配置版本
+     * <p>
+     * 假日、工作時間配置及用戶配置關聯任一變更都會產生新版本
+     *
+     * @return 配置版本
+     */
+    String getCurrentVersion();
+
+    /**
+     * 遞增配置版本
+     * <p>
+     * 寫入假日、工作時間配置或用戶配置關聯時，必須在寫入所在的事務內調用
+     */
+    void incrementVersion();
+
+    /**
+     * 獲取完整的工作配置快照
+     *
+     * @return 工作配置快照
+     */
+    WorkConfigSnapshotResponse getSnapshot();
+}
@@ -1,8 +1,11 @@
 package com.clockin.admin.service.impl;
 
+import com.clockin.admin.dto.response.WorkdayCalendarResponse;
 import com.clockin.admin.entity.Holiday;
 import com.clockin.admin.repository.HolidayRepository;
 import com.clockin.admin.service.HolidayService;
+import com.clockin.admin.service.WorkConfigSnapshotService;
+import com.clockin.common.calendar.WorkdayCalendarService;
 import jakarta.persistence.criteria.Predicate;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -13,8 +16,11 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -27,7 +33,14 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class HolidayServiceImpl implements HolidayService {
     
+    /**
+     * 工作日曆單次查詢的最大天數
+     */
+    private static final long MAX_CALENDAR_DAYS = 366 * 3;
+    
     private final HolidayRepository holidayRepository;
+    private final WorkdayCalendarService workdayCalendarService;
+    private final WorkConfigSnapshotService workConfigSnapshotService;
     
     @Override
     @Transactional
@@ -37,7 +50,10 @@ public class HolidayServiceImpl implements HolidayService {
             setYearMonthDayFromDate(holiday);
         }
         
-        return holidayRepository.save(holiday);
+        Holiday saved = holidayRepository.save(holiday);
+        workConfigSnapshotService.incrementVersion();
+        evictWorkdayCalendarAfterCommit();
+        return saved;
     }
     
     @Override
@@ -50,7 +66,10 @@ public class HolidayServiceImpl implements HolidayService {
             }
         });
         
-        return holidayRepository.saveAll(holidays);
+        List<Holiday> saved = holidayRepository.saveAll(holidays);
+        workConfigSnapshotService.incrementVersion();
+        evictWorkdayCalendarAfterCommit();
+        return saved;
     }
     
     @Override
@@ -61,13 +80,18 @@ public class HolidayServiceImpl implements HolidayService {
             setYearMonthDayFromDate(holiday);
         }
         
-        return holidayRepository.save(holiday);
+        Holiday saved = holidayRepository.save(holiday);
+        workConfigSnapshotService.incrementVersion();
+        evictWorkdayCalendarAfterCommit();
+        return saved;
     }
     
     @Override
     @Transactional
     public void deleteHoliday(Long id) {
         holidayRepository.deleteById(id);
+        workConfigSnapshotService.incrementVersion();
+        evictWorkdayCalendarAfterCommit();
     }
     
     @Override
@@ -111,6 +135,29 @@ public class HolidayServiceImpl implements HolidayService {
         return count != null && count > 0;
     }
     
+    @Override
+    public WorkdayCalendarResponse getWorkdayCalendar(LocalDate startDate, LocalDate endDate) {
+        if (startDate.isAfter(endDate)) {
+            throw new IllegalArgumentException("開始日期不能晚於結束日期");
+        }
+        long days = ChronoUnit.DAYS.between(startDate, endDate) + 1;
+        if (days > MAX_CALENDAR_DAYS) {
+            throw new IllegalArgumentException("日期範圍不能超過 " + MAX_CALENDAR_DAYS + " 天");
+        }
+        
+        StringBuilder workdays = new StringBuilder((int) days);
+        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
+            workdays.append(workdayCalendarService.isWorkDay(date) ? '1' : '0');
+        }
+        
+        WorkdayCalendarResponse calendar = new WorkdayCalendarResponse();
+        calendar.setStartDate(startDate);
+        calendar.setEndDate(endDate);
+        calendar.setWorkdays(workdays.toString());
+        calendar.setWorkdayCount(workdayCalendarService.countWorkingDays(startDate, endDate));
+        return calendar;
+    }
+    
     @Override
     @Transactional
     @CacheEvict(value = "holiday", allEntries = true)
@@ -124,7 +171,10 @@ public class HolidayServiceImpl implements HolidayService {
             }
         });
         
-        return holidayRepository.saveAll(holidays);
+        List<Holiday> saved = holidayRepository.saveAll(holidays);
+        workConfigSnapshotService.incrementVersion();
+        evictWorkdayCalendarAfterCommit();
+        return saved;
     }
     
     @Override
@@ -162,6 +212,23 @@ public class HolidayServiceImpl implements HolidayService {
     public void refreshHolidayCache(Integer year) {
         log.info("刷新 {} 年假日緩存", year);
         // 通過清除緩存，下次查詢時會自動從數據庫重新加載
+        workdayCalendarService.evictAll();
+    }
+    
+    /**
+     * 事務提交後清除工作日曆，避免提交前的並發查詢把舊配置重新載入並緩存
+     */
+    private void evictWorkdayCalendarAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            workdayCalendarService.evictAll();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                workdayCalendarService.evictAll();
+            }
+        });
     }
     
     /**
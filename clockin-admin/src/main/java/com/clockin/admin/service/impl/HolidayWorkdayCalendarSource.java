@@ -0,0 +1,68 @@
+package com.clockin.admin.service.impl;
+
+import com.clockin.admin.entity.Holiday;
+import com.clockin.admin.repository.HolidayRepository;
+import com.clockin.admin.service.WorkConfigSnapshotService;
+import com.clockin.common.calendar.WorkdayBitset;
+import com.clockin.common.calendar.WorkdayCalendarSource;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 基於假日配置表的工作日曆數據來源
+ * <p>
+ * admin 服務直接讀取假日配置表，版本與 record 服務拉取的工作配置快照版本相同，兩者可共用 Redis 中的位圖
+ */
+@Component
+@Primary
+@RequiredArgsConstructor
+public class HolidayWorkdayCalendarSource implements WorkdayCalendarSource {
+
+    private static final int STATUS_ENABLED = 1;
+
+    private final HolidayRepository holidayRepository;
+    private final WorkConfigSnapshotService workConfigSnapshotService;
+
+    /**
+     * 版本緩存時間，其他實例修改假日配置後最遲在此時間後生效
+     */
+    @Value("${clock-in.work-config.refresh-interval:30000}")
+    private long versionTtlMillis;
+
+    private volatile String version;
+
+    private volatile long versionExpireMillis;
+
+    @Override
+    public String getVersion() {
+        long now = System.currentTimeMillis();
+        if (version == null || now >= versionExpireMillis) {
+            version = workConfigSnapshotService.getCurrentVersion();
+            versionExpireMillis = now + versionTtlMillis;
+        }
+        return version;
+    }
+
+    @Override
+    public WorkdayBitset loadYear(int year) {
+        Map<LocalDate, Boolean> overrides = new HashMap<>();
+        for (Holiday holiday : holidayRepository.findByHolidayDateBetweenOrderByHolidayDateAsc(
+                LocalDate.of(year, 1, 1), LocalDate.of(year, 12, 31))) {
+            if (holiday.getHolidayDate() != null && Integer.valueOf(STATUS_ENABLED).equals(holiday.getStatus())) {
+                overrides.put(holiday.getHolidayDate(), WorkdayBitset.isWorkdayHolidayType(holiday.getHolidayType()));
+            }
+        }
+        return WorkdayBitset.of(year, overrides);
+    }
+
+    @Override
+    public void invalidate() {
+        version = null;
+    }
+}
@@ -5,6 +5,7 @@ import com.clockin.admin.entity.WorkTimeConfig;
 import com.clockin.admin.repository.UserWorkTimeConfigRepository;
 import com.clockin.admin.repository.WorkTimeConfigRepository;
 import com.clockin.admin.service.UserWorkTimeConfigService;
+import com.clockin.admin.service.WorkConfigSnapshotService;
 import com.clockin.admin.service.WorkTimeConfigService;
 import jakarta.persistence.criteria.Predicate;
 import lombok.RequiredArgsConstructor;
@@ -29,6 +30,7 @@ public class UserWorkTimeConfigServiceImpl implements UserWorkTimeConfigService
     private final UserWorkTimeConfigRepository userWorkTimeConfigRepository;
     private final WorkTimeConfigRepository workTimeConfigRepository;
     private final WorkTimeConfigService workTimeConfigService;
+    private final WorkConfigSnapshotService workConfigSnapshotService;
     
     @Override
     @Transactional
@@ -38,6 +40,7 @@ public class UserWorkTimeConfigServiceImpl implements UserWorkTimeConfigService
             clearCurrentUserConfig(userConfig.getUserId());
         }
         
+        workConfigSnapshotService.incrementVersion();
         return userWorkTimeConfigRepository.save(userConfig);
     }
     
@@ -51,6 +54,7 @@ public class UserWorkTimeConfigServiceImpl implements UserWorkTimeConfigService
             }
         });
         
+        workConfigSnapshotService.incrementVersion();
         return userWorkTimeConfigRepository.saveAll(userConfigs);
     }
     
@@ -76,6 +80,7 @@ public class UserWorkTimeConfigServiceImpl implements UserWorkTimeConfigService
         userConfig.setStatus(status);
         userConfig.setRemark(remark);
         
+        workConfigSnapshotService.incrementVersion();
         return userWorkTimeConfigRepository.save(userConfig);
     }
     
@@ -87,12 +92,14 @@ public class UserWorkTimeConfigServiceImpl implements UserWorkTimeConfigService
             clearCurrentUserConfig(userConfig.getUserId());
         }
         
+        workConfigSnapshotService.incrementVersion();
         return userWorkTimeConfigRepository.save(userConfig);
     }
     
     @Override
     @Transactional
     public void deleteUserConfig(Long id) {
+        workConfigSnapshotService.incrementVersion();
         userWorkTimeConfigRepository.deleteById(id);
     }
     
@@ -153,6 +160,7 @@ public class UserWorkTimeConfigServiceImpl implements UserWorkTimeConfigService
         
         // 設置為當前生效配置
         userConfig.setIsCurrent(true);
+        workConfigSnapshotService.incrementVersion();
         return userWorkTimeConfigRepository.save(userConfig);
     }
     
@@ -163,6 +171,7 @@ public class UserWorkTimeConfigServiceImpl implements UserWorkTimeConfigService
                 .orElseThrow(() -> new IllegalArgumentException("用戶工作時間配置關聯不存在"));
         
         userConfig.setStatus(1);
+        workConfigSnapshotService.incrementVersion();
         return userWorkTimeConfigRepository.save(userConfig);
     }
     
@@ -178,6 +187,7 @@ public class UserWorkTimeConfigServiceImpl implements UserWorkTimeConfigService
         }
         
         userConfig.setStatus(0);
+        workConfigSnapshotService.incrementVersion();
         return userWorkTimeConfigRepository.save(userConfig);
     }
     
@@ -0,0 +1,71 @@
+package com.clockin.admin.service.impl;
+
+import com.clockin.admin.dto.response.WorkConfigSnapshotResponse;
+import com.clockin.admin.entity.WorkConfigVersion;
+import com.clockin.admin.repository.HolidayRepository;
+import com.clockin.admin.repository.UserWorkTimeConfigRepository;
+import com.clockin.admin.repository.WorkConfigVersionRepository;
+import com.clockin.admin.repository.WorkTimeConfigRepository;
+import com.clockin.admin.service.WorkConfigSnapshotService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+/**
+ * 工作配置快照服務實現
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class WorkConfigSnapshotServiceImpl implements WorkConfigSnapshotService {
+
+    private static final int STATUS_ENABLED = 1;
+
+    private final HolidayRepository holidayRepository;
+    private final WorkTimeConfigRepository workTimeConfigRepository;
+    private final UserWorkTimeConfigRepository userWorkTimeConfigRepository;
+    private final WorkConfigVersionRepository workConfigVersionRepository;
+
+    @Override
+    @Transactional(readOnly = true)
+    public String getCurrentVersion() {
+        // 以單調遞增的版本號為主，同一秒內的多次修改也會產生新版本；
+        // 各表的記錄數與最後更新時間用於發現繞過服務直接修改數據庫的情況
+        long version = workConfigVersionRepository.findById(WorkConfigVersionRepository.VERSION_ID)
+                .map(WorkConfigVersion::getVersion)
+                .orElse(0L);
+        String fingerprint = version
+                + "|" + holidayRepository.count() + "@" + holidayRepository.findLatestUpdateTime()
+                + "|" + workTimeConfigRepository.count() + "@" + workTimeConfigRepository.findLatestUpdateTime()
+                + "|" + userWorkTimeConfigRepository.count() + "@" + userWorkTimeConfigRepository.findLatestUpdateTime();
+        return DigestUtils.md5DigestAsHex(fingerprint.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    @Transactional
+    public void incrementVersion() {
+        workConfigVersionRepository.increment();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public WorkConfigSnapshotResponse getSnapshot() {
+        // 先計算版本再讀取數據，若期間發生變更，下一次版本檢查會再次拉取
+        WorkConfigSnapshotResponse snapshot = new WorkConfigSnapshotResponse();
+        snapshot.setVersion(getCurrentVersion());
+        snapshot.setGeneratedTime(LocalDateTime.now());
+        snapshot.setHolidays(holidayRepository.findByStatusOrderByHolidayDateAsc(STATUS_ENABLED));
+        snapshot.setWorkTimeConfigs(workTimeConfigRepository.findByStatus(STATUS_ENABLED));
+        snapshot.setUserWorkTimeConfigs(userWorkTimeConfigRepository.findByStatus(STATUS_ENABLED));
+
+        log.debug("生成工作配置快照，版本: {}，假日: {}，工作時間配置: {}，用戶配置關聯: {}",
+                snapshot.getVersion(), snapshot.getHolidays().size(),
+                snapshot.getWorkTimeConfigs().size(), snapshot.getUserWorkTimeConfigs().size());
+        return snapshot;
+    }
+}
@@ -2,6 +2,7 @@ package com.clockin.admin.service.impl;
 
 import com.clockin.admin.entity.WorkTimeConfig;
 import com.clockin.admin.repository.WorkTimeConfigRepository;
+import com.clockin.admin.service.WorkConfigSnapshotService;
 import com.clockin.admin.service.WorkTimeConfigService;
 import jakarta.persistence.criteria.Predicate;
 import lombok.RequiredArgsConstructor;
@@ -28,6 +29,7 @@ import java.util.Optional;
 public class WorkTimeConfigServiceImpl implements WorkTimeConfigService {
     
     private final WorkTimeConfigRepository workTimeConfigRepository;
+    private final WorkConfigSnapshotService workConfigSnapshotService;
     
     @Override
     @Transactional
@@ -38,6 +40,7 @@ public class WorkTimeConfigServiceImpl implements WorkTimeConfigService {
             clearDefaultConfig();
         }
         
+        workConfigSnapshotService.incrementVersion();
         return workTimeConfigRepository.save(config);
     }
     
@@ -50,6 +53,7 @@ public class WorkTimeConfigServiceImpl implements WorkTimeConfigService {
             clearDefaultConfig();
         }
         
+        workConfigSnapshotService.incrementVersion();
         return workTimeConfigRepository.save(config);
     }
     
@@ -57,6 +61,7 @@ public class WorkTimeConfigServiceImpl implements WorkTimeConfigService {
     @Transactional
     @CacheEvict(value = "workTimeConfig", allEntries = true)
     public void deleteConfig(Long id) {
+        workConfigSnapshotService.incrementVersion();
         workTimeConfigRepository.deleteById(id);
     }
     
@@ -99,6 +104,7 @@ public class WorkTimeConfigServiceImpl implements WorkTimeConfigService {
             config.setStatus(1);
         }
         
+        workConfigSnapshotService.incrementVersion();
         return workTimeConfigRepository.save(config);
     }
     
@@ -114,6 +120,7 @@ public class WorkTimeConfigServiceImpl implements WorkTimeConfigService {
         WorkTimeConfig config = configOptional.get();
         config.setStatus(1);
         
+        workConfigSnapshotService.incrementVersion();
         return workTimeConfigRepository.save(config);
     }
     
@@ -134,6 +141,7 @@ public class WorkTimeConfigServiceImpl implements WorkTimeConfigService {
         }
         
         config.setStatus(0);
+        workConfigSnapshotService.incrementVersion();
         return workTimeConfigRepository.save(config);
     }
     
@@ -202,6 +210,7 @@ public class WorkTimeConfigServiceImpl implements WorkTimeConfigService {
         config.setStatus(1);         // 啟用狀態
         config.setRemark("系統自動創建的預設工作時間配置");
         
+        workConfigSnapshotService.incrementVersion();
         return workTimeConfigRepository.save(config);
     }
     
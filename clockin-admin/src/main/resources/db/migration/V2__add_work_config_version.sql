@@ -0,0 +1,7 @@
+-- 工作配置版本表，假日、工作時間配置及用戶配置關聯每次寫入時遞增
+CREATE TABLE IF NOT EXISTS `work_config_version` (
+  `id` bigint NOT NULL COMMENT '固定為 1',
+  `version` bigint NOT NULL COMMENT '配置版本號',
+  `update_time` datetime(3) DEFAULT NULL COMMENT '最後遞增時間',
+  PRIMARY KEY (`id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci COMMENT='工作配置版本表';
@@ -4,6 +4,7 @@ import com.clockin.admin.dto.HolidayDTO;
 import com.clockin.admin.entity.Holiday;
 import com.clockin.admin.repository.HolidayRepository;
 import com.clockin.admin.service.impl.HolidayServiceImpl;
+import com.clockin.common.calendar.WorkdayCalendarService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -14,6 +15,8 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDate;
 import java.util.Collections;
@@ -34,6 +37,12 @@ public class HolidayServiceTest {
     @Mock
     private HolidayRepository holidayRepository;
 
+    @Mock
+    private WorkdayCalendarService workdayCalendarService;
+
+    @Mock
+    private WorkConfigSnapshotService workConfigSnapshotService;
+
     @BeforeEach
     public void setup() {
         MockitoAnnotations.openMocks(this);
@@ -69,6 +78,24 @@ public class HolidayServiceTest {
         assertEquals(2025, result.getYear());
         
         verify(holidayRepository, times(1)).save(any(Holiday.class));
+        verify(workConfigSnapshotService, times(1)).incrementVersion();
+        verify(workdayCalendarService, times(1)).evictAll();
+    }
+    
+    @Test
+    public void testDeleteHolidayEvictsCalendarAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            holidayService.deleteHoliday(1L);
+            
+            verify(holidayRepository, times(1)).deleteById(1L);
+            verify(workdayCalendarService, never()).evictAll();
+            
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            verify(workdayCalendarService, times(1)).evictAll();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
     }
     
     @Test
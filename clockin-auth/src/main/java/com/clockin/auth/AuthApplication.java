@@ -3,12 +3,14 @@ package com.clockin.auth;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * 認證模組啟動類
  */
 @SpringBootApplication
 @EnableJpaAuditing
+@EnableScheduling
 public class AuthApplication {
 
     public static void main(String[] args) {
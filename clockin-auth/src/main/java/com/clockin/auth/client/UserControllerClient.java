@@ -4,9 +4,17 @@ import com.clockin.auth.common.R;
 import com.clockin.auth.dto.SysDepartmentDTO;
 import com.clockin.auth.dto.SysPositionDTO;
 import com.clockin.auth.dto.SysUserDTO;
+import com.clockin.auth.dto.UserChangeSet;
+import com.clockin.auth.dto.UserSnapshotPage;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
@@ -23,6 +31,25 @@ public interface UserControllerClient {
     @GetMapping("/{id}")
     R<SysUserDTO> getUserById(@PathVariable Long id);
 
+    @PostMapping("/batch")
+    R<List<SysUserDTO>> getUsersByIds(@RequestBody List<Long> ids);
+
+    /**
+     * 用戶目錄全量快照，按用戶ID分頁；第一頁帶 If-None-Match 且版本未變時返回 304
+     */
+    @GetMapping("/directory/snapshot")
+    ResponseEntity<R<UserSnapshotPage>> getUserSnapshot(
+            @RequestParam(value = "afterId", required = false) Long afterId,
+            @RequestParam(value = "size", defaultValue = "1000") int size,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch);
+
+    /**
+     * 用戶目錄自指定版本以來的變更
+     */
+    @GetMapping("/directory/changes")
+    R<UserChangeSet> getUserChanges(@RequestParam("since") String since,
+                                    @RequestParam(value = "size", defaultValue = "1000") int size);
+
     @GetMapping("/username/{username}")
     R<SysUserDTO> getUserByUsername(@PathVariable String username);
 
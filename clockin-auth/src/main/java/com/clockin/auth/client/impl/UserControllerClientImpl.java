@@ -5,11 +5,19 @@ import com.clockin.auth.common.R;
 import com.clockin.auth.dto.SysDepartmentDTO;
 import com.clockin.auth.dto.SysPositionDTO;
 import com.clockin.auth.dto.SysUserDTO;
+import com.clockin.auth.dto.UserChangeSet;
+import com.clockin.auth.dto.UserSnapshotPage;
 import com.clockin.auth.service.SysDepartmentService;
 import com.clockin.auth.service.SysPositionService;
 import com.clockin.auth.service.SysUserService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
@@ -23,6 +31,11 @@ import java.util.List;
 @RequiredArgsConstructor
 public class UserControllerClientImpl implements UserControllerClient {
 
+    /**
+     * 批量查詢用戶的最大數量
+     */
+    private static final int MAX_BATCH_SIZE = 1000;
+
     private final SysUserService userService;
     private final SysDepartmentService departmentService;
     private final SysPositionService positionService;
@@ -32,6 +45,42 @@ public class UserControllerClientImpl implements UserControllerClient {
         return R.success(userService.getUserById(id));
     }
 
+    @Override
+    public R<List<SysUserDTO>> getUsersByIds(@RequestBody List<Long> ids) {
+        if (ids != null && ids.size() > MAX_BATCH_SIZE) {
+            return R.fail("單次最多查詢 " + MAX_BATCH_SIZE + " 個用戶");
+        }
+        return R.success(userService.getUsersByIds(ids));
+    }
+
+    @Override
+    public ResponseEntity<R<UserSnapshotPage>> getUserSnapshot(
+            @RequestParam(value = "afterId", required = false) Long afterId,
+            @RequestParam(value = "size", defaultValue = "1000") int size,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (size < 1 || size > MAX_BATCH_SIZE) {
+            return ResponseEntity.ok(R.fail("每頁用戶數必須在 1-" + MAX_BATCH_SIZE + " 之間"));
+        }
+        // 只有第一頁按版本號判斷是否需要重新下載
+        if (afterId == null && ifNoneMatch != null) {
+            String version = userService.getUserDirectoryVersion();
+            if (ifNoneMatch.equals(toETag(version))) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(version).build();
+            }
+        }
+        UserSnapshotPage page = userService.getUserSnapshot(afterId, size);
+        return ResponseEntity.ok().eTag(page.getVersion()).body(R.success(page));
+    }
+
+    @Override
+    public R<UserChangeSet> getUserChanges(@RequestParam("since") String since,
+                                           @RequestParam(value = "size", defaultValue = "1000") int size) {
+        if (size < 1 || size > MAX_BATCH_SIZE) {
+            return R.fail("單次返回的變更數必須在 1-" + MAX_BATCH_SIZE + " 之間");
+        }
+        return R.success(userService.getUserChanges(since, size));
+    }
+
     @Override
     public R<SysUserDTO> getUserByUsername(@PathVariable("username") String username) {
         return R.success(userService.getUserByUsername(username));
@@ -66,4 +115,8 @@ public class UserControllerClientImpl implements UserControllerClient {
     public R<SysPositionDTO> getPositionById(@PathVariable("id") Long id) {
         return R.success(positionService.getPositionById(id));
     }
+
+    private static String toETag(String version) {
+        return "\"" + version + "\"";
+    }
 }
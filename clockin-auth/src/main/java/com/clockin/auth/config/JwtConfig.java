@@ -4,6 +4,8 @@ import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+
 /**
  * JWT 配置類
  */
@@ -21,4 +23,14 @@ public class JwtConfig {
      * JWT 過期時間（秒）
      */
     private Long expiration;
+
+    /**
+     * 簽名密鑰輪換間隔
+     */
+    private Duration keyRotationInterval = Duration.ofDays(7);
+
+    /**
+     * 新密鑰發布後延遲啟用的時間，需大於各服務刷新 JWKS 的間隔
+     */
+    private Duration keyActivationDelay = Duration.ofMinutes(10);
 }
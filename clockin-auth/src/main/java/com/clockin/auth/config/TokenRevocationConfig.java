@@ -0,0 +1,38 @@
+package com.clockin.auth.config;
+
+import com.clockin.auth.service.TokenRevocationService;
+import com.clockin.common.event.TokenRevocation;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+/**
+ * 令牌撤銷訂閱配置
+ */
+@Slf4j
+@Configuration
+public class TokenRevocationConfig {
+
+    /**
+     * 訂閱其他實例發布的令牌撤銷，本實例發布的消息重複應用不影響結果
+     */
+    @Bean
+    public RedisMessageListenerContainer tokenRevocationListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                          TokenRevocationService tokenRevocationService,
+                                                                          ObjectMapper objectMapper) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener((message, pattern) -> {
+            try {
+                tokenRevocationService.apply(objectMapper.readValue(message.getBody(), TokenRevocation.class));
+            } catch (Exception e) {
+                log.warn("處理令牌撤銷消息失敗: {}", e.getMessage());
+            }
+        }, new ChannelTopic(TokenRevocation.CHANNEL));
+        return container;
+    }
+}
@@ -0,0 +1,26 @@
+package com.clockin.auth.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * 用戶目錄同步配置
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "clock-in.user-directory")
+public class UserDirectoryConfig {
+
+    /**
+     * 增量同步只返回早於此時長的變更，避免更新時間較早但尚未提交的事務在版本號越過後被遺漏
+     */
+    private Duration settleDelay = Duration.ofSeconds(5);
+
+    /**
+     * 已刪除用戶墓碑的保留時長，更早的版本號需重新讀取全量快照
+     */
+    private Duration tombstoneRetention = Duration.ofDays(30);
+}
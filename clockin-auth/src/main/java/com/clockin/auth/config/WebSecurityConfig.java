@@ -1,6 +1,7 @@
 package com.clockin.auth.config;
 
 import com.clockin.auth.filter.JwtAuthenticationFilter;
+import com.clockin.auth.service.SigningKeyService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -55,6 +56,8 @@ public class WebSecurityConfig {
                         .requestMatchers("/auth/login", "/auth/register").permitAll()
                         .requestMatchers("/v3/api-docs/**", "/swagger-ui/**", "/swagger-ui.html").permitAll()
                         .requestMatchers("/actuator/**").permitAll()
+                        // 公鑰集供其他服務驗證令牌
+                        .requestMatchers(SigningKeyService.JWKS_PATH).permitAll()
                         // 其他所有請求都需要認證
                         .anyRequest().authenticated()
                 )
@@ -9,6 +9,7 @@ import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
 import org.springframework.web.bind.annotation.*;
 
 /**
@@ -44,8 +45,11 @@ public class AuthController {
      * 登出
      */
     @PostMapping("/logout")
-    public R<Void> logout() {
-        // JWT 無需在服務端處理登出，前端刪除令牌即可
+    public R<Void> logout(@RequestHeader(value = "Authorization", required = false) String authorization) {
+        // 撤銷當前令牌，其他服務經撤銷事件同步拒絕該令牌
+        if (StringUtils.startsWith(authorization, "Bearer ")) {
+            authService.logout(authorization.substring("Bearer ".length()));
+        }
         return R.success();
     }
 }
@@ -0,0 +1,33 @@
+package com.clockin.auth.controller;
+
+import com.clockin.auth.service.SigningKeyService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JWKS 控制器
+ * <p>
+ * 按 RFC 7517 格式返回公鑰集，不包裝在統一響應中
+ */
+@RestController
+@RequiredArgsConstructor
+public class JwksController {
+
+    private final SigningKeyService signingKeyService;
+
+    /**
+     * 獲取用於驗證令牌的公鑰集
+     */
+    @GetMapping(SigningKeyService.JWKS_PATH)
+    public ResponseEntity<Map<String, Object>> getJwks() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(1, TimeUnit.MINUTES))
+                .body(signingKeyService.getJwks());
+    }
+}
@@ -0,0 +1,43 @@
+package com.clockin.auth.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 用戶目錄自指定版本以來的變更
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserChangeSet {
+
+    /**
+     * 應用本次變更後的版本號，下次增量查詢從此版本繼續
+     */
+    private String version;
+
+    /**
+     * 新增或更新的用戶
+     */
+    private List<SysUserDTO> updated;
+
+    /**
+     * 已刪除的用戶ID
+     */
+    private List<Long> deletedIds;
+
+    /**
+     * 是否還有更多變更，為 true 時應以新版本號繼續查詢
+     */
+    private boolean hasMore;
+
+    /**
+     * 版本號已超出刪除記錄的保留期或無法識別，需重新讀取全量快照
+     */
+    private boolean resyncRequired;
+}
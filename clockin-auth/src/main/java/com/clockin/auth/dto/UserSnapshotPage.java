@@ -0,0 +1,36 @@
+package com.clockin.auth.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 用戶目錄全量快照的一頁
+ * <p>
+ * 按用戶ID升序分頁。消費方保存第一頁的版本號，讀完所有頁後以該版本號調用增量接口，
+ * 補回分頁期間發生的變更
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserSnapshotPage {
+
+    /**
+     * 目錄版本號，同時作為 ETag
+     */
+    private String version;
+
+    /**
+     * 本頁用戶
+     */
+    private List<SysUserDTO> users;
+
+    /**
+     * 下一頁的起始用戶ID，最後一頁為 null
+     */
+    private Long nextAfterId;
+}
@@ -18,7 +18,9 @@ import java.time.LocalDateTime;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "sys_department")
+@Table(name = "sys_department", indexes = {
+        @Index(name = "idx_path", columnList = "path")
+})
 public class SysDepartment {
 
     @Id
@@ -43,6 +45,12 @@ public class SysDepartment {
     @Column(name = "parent_id")
     private Long parentId;
 
+    /**
+     * 祖先路徑，由根部門至自身的ID以 / 分隔，如 /100/102/105/；子樹查詢按前綴匹配
+     */
+    @Column(name = "path", nullable = false, length = 500, columnDefinition = "varchar(500) default ''")
+    private String path;
+
     /**
      * 顯示順序
      */
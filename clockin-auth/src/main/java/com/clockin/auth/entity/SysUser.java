@@ -1,5 +1,6 @@
 package com.clockin.auth.entity;
 
+import com.clockin.auth.event.UserDepartmentPublisher;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -21,6 +22,7 @@ import java.util.Set;
 @NoArgsConstructor
 @AllArgsConstructor
 @Table(name = "sys_user")
+@EntityListeners(UserDepartmentPublisher.class)
 public class SysUser {
 
     @Id
@@ -127,6 +129,12 @@ public class SysUser {
     @Column(name = "last_login_ip", length = 50)
     private String lastLoginIp;
 
+    /**
+     * 角色版本，角色或權限變更時遞增，令牌中攜帶簽發時的版本
+     */
+    @Column(name = "role_version", nullable = false, columnDefinition = "int default 0")
+    private int roleVersion;
+
     /**
      * 角色列表
      */
@@ -0,0 +1,34 @@
+package com.clockin.auth.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 已刪除用戶墓碑，供用戶目錄增量同步通知消費方刪除本地副本
+ */
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "sys_user_tombstone", indexes = {
+        @Index(name = "idx_delete_time", columnList = "delete_time")
+})
+public class SysUserTombstone {
+
+    /**
+     * 用戶ID
+     */
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    /**
+     * 刪除時間
+     */
+    @Column(name = "delete_time", nullable = false)
+    private LocalDateTime deleteTime;
+}
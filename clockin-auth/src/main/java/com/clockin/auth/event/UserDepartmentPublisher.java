@@ -0,0 +1,62 @@
+package com.clockin.auth.event;
+
+import com.clockin.auth.entity.SysUser;
+import com.clockin.common.event.UserDepartmentChange;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 用戶部門變更發布器
+ * <p>
+ * 作為 {@link SysUser} 的實體監聽器，任何寫入路徑都會觸發；消息在事務提交後發布，
+ * 回滾的變更不會外發。發布失敗只記錄日誌，由訂閱方的定期對賬補齊
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserDepartmentPublisher {
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ObjectMapper objectMapper;
+
+    @PostPersist
+    @PostUpdate
+    public void onSaved(SysUser user) {
+        publishAfterCommit(new UserDepartmentChange(user.getId(), user.getDepartmentId(), System.currentTimeMillis()));
+    }
+
+    @PostRemove
+    public void onRemoved(SysUser user) {
+        publishAfterCommit(new UserDepartmentChange(user.getId(), null, System.currentTimeMillis()));
+    }
+
+    private void publishAfterCommit(UserDepartmentChange change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish(change);
+                }
+            });
+        } else {
+            publish(change);
+        }
+    }
+
+    private void publish(UserDepartmentChange change) {
+        try {
+            stringRedisTemplate.convertAndSend(UserDepartmentChange.CHANNEL, objectMapper.writeValueAsString(change));
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.warn("發布用戶 {} 的部門變更失敗: {}", change.getUserId(), e.getMessage());
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.clockin.auth.filter;
 
+import com.clockin.auth.service.TokenRevocationService;
 import com.clockin.auth.util.JwtTokenUtil;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -8,8 +10,12 @@ import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -17,9 +23,18 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
 /**
  * JWT 認證過濾器
+ * <p>
+ * 權限取自令牌中已簽名的 claims，驗證時不查詢數據庫；撤銷檢查只查本地撤銷列表。
+ * 不含用戶ID的舊令牌仍按用戶名載入用戶詳情，直到過期為止
  */
 @Slf4j
 @Component
@@ -28,7 +43,19 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenUtil jwtTokenUtil;
     private final UserDetailsService userDetailsService;
-    
+    private final TokenRevocationService tokenRevocationService;
+
+    /**
+     * 權限緩存的最大條目數
+     */
+    @Value("${jwt.authority-cache-size:10000}")
+    private int authorityCacheSize;
+
+    /**
+     * 按（用戶ID, 角色版本）緩存的權限列表，同一用戶的請求共用權限對象
+     */
+    private final Map<String, CachedAuthorities> authorityCache = new ConcurrentHashMap<>();
+
     private static final String AUTHORIZATION_HEADER = "Authorization";
     private static final String BEARER_PREFIX = "Bearer ";
 
@@ -37,30 +64,58 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             throws ServletException, IOException {
         try {
             String jwt = getJwtFromRequest(request);
-            
+
             if (StringUtils.isNotEmpty(jwt) && SecurityContextHolder.getContext().getAuthentication() == null) {
-                String username = jwtTokenUtil.getUsernameFromToken(jwt);
-                
-                if (StringUtils.isNotEmpty(username)) {
-                    UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                    
-                    if (jwtTokenUtil.validateToken(jwt, userDetails)) {
-                        UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                                userDetails, null, userDetails.getAuthorities());
-                        authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                        
-                        SecurityContextHolder.getContext().setAuthentication(authentication);
-                        log.debug("使用者 {} 通過 JWT 認證", username);
-                    }
+                // 簽名無效或已過期時拋出異常
+                Claims claims = jwtTokenUtil.getAllClaimsFromToken(jwt);
+                String username = claims.getSubject();
+                Long userId = claims.get(JwtTokenUtil.CLAIM_USER_ID, Long.class);
+
+                if (StringUtils.isNotEmpty(username)
+                        && !tokenRevocationService.isRevoked(claims.getId(), userId, claims.getIssuedAt())) {
+                    UserDetails userDetails = userId != null
+                            ? new User(username, "", getAuthorities(userId, claims))
+                            : userDetailsService.loadUserByUsername(username);
+
+                    UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                            userDetails, null, userDetails.getAuthorities());
+                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                    log.debug("使用者 {} 通過 JWT 認證", username);
                 }
             }
         } catch (Exception e) {
             log.error("JWT 認證過濾器執行失敗", e);
         }
-        
+
         filterChain.doFilter(request, response);
     }
-    
+
+    /**
+     * 從 claims 構建權限列表，相同角色版本的令牌權限相同，直接使用緩存
+     * <p>
+     * 緩存條目同時保存權限編碼，角色變更後未遞增版本時編碼不同，重新構建而不會沿用舊權限
+     */
+    private List<GrantedAuthority> getAuthorities(Long userId, Claims claims) {
+        String key = userId + ":" + claims.get(JwtTokenUtil.CLAIM_ROLE_VERSION, Integer.class);
+        Collection<?> codes = claims.get(JwtTokenUtil.CLAIM_AUTHORITIES, Collection.class);
+        CachedAuthorities cached = authorityCache.get(key);
+        if (cached != null && cached.codes.equals(codes)) {
+            return cached.authorities;
+        }
+
+        // 緩存滿時整體清空，條目可隨時由令牌重建
+        if (authorityCache.size() >= authorityCacheSize) {
+            authorityCache.clear();
+        }
+        List<GrantedAuthority> authorities = codes == null ? Collections.emptyList() : codes.stream()
+                .map(code -> (GrantedAuthority) new SimpleGrantedAuthority(String.valueOf(code)))
+                .collect(Collectors.toUnmodifiableList());
+        authorityCache.put(key, new CachedAuthorities(codes, authorities));
+        return authorities;
+    }
+
     /**
      * 從請求中獲取 JWT
      *
@@ -74,4 +129,19 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
         return null;
     }
+
+    /**
+     * 緩存的權限列表及其來源編碼
+     */
+    private static final class CachedAuthorities {
+
+        private final Object codes;
+
+        private final List<GrantedAuthority> authorities;
+
+        private CachedAuthorities(Collection<?> codes, List<GrantedAuthority> authorities) {
+            this.codes = codes != null ? codes : Collections.emptyList();
+            this.authorities = authorities;
+        }
+    }
 }
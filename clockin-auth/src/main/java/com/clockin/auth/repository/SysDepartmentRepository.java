@@ -2,6 +2,8 @@ package com.clockin.auth.repository;
 
 import com.clockin.auth.entity.SysDepartment;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -42,4 +44,27 @@ public interface SysDepartmentRepository extends JpaRepository<SysDepartment, Lo
      * @return 頂級部門列表
      */
     List<SysDepartment> findByParentIdIsNullOrderByOrderNum();
+
+    /**
+     * 按路徑前綴查詢部門及其所有子部門ID，自身排在最前
+     * <p>
+     * 前綴作為常量綁定，可以走 idx_path 範圍掃描；與另一張表的路徑拼接比較則無法使用索引
+     *
+     * @param path 部門路徑
+     * @return 部門及其子部門ID列表
+     */
+    @Query("SELECT d.id FROM SysDepartment d WHERE d.path LIKE :path% ORDER BY d.path")
+    List<Long> findSubtreeIds(String path);
+
+    /**
+     * 移動子樹時替換部門及其所有子部門的路徑前綴
+     *
+     * @param oldPrefix 原路徑
+     * @param newPrefix 新路徑
+     * @return 更新行數
+     */
+    @Modifying
+    @Query("UPDATE SysDepartment d SET d.path = CONCAT(:newPrefix, SUBSTRING(d.path, LENGTH(:oldPrefix) + 1)) "
+            + "WHERE d.path LIKE CONCAT(:oldPrefix, '%')")
+    int replacePathPrefix(String oldPrefix, String newPrefix);
 }
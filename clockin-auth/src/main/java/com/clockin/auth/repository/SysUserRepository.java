@@ -5,10 +5,14 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -120,4 +124,59 @@ public interface SysUserRepository extends JpaRepository<SysUser, Long>, JpaSpec
             @Param("status") Integer status,
             @Param("departmentId") Long departmentId,
             Pageable pageable);
+
+    /**
+     * 根據ID列表查詢用戶，同時載入部門及崗位，避免逐個延遲載入
+     *
+     * @param ids 用戶ID列表
+     * @return 用戶列表
+     */
+    @Query("SELECT u FROM SysUser u LEFT JOIN FETCH u.department LEFT JOIN FETCH u.position WHERE u.id IN :ids")
+    List<SysUser> findWithDepartmentAndPositionByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * 按ID順序查詢指定ID之後的一頁用戶，同時載入部門及崗位，用於用戶目錄全量快照
+     *
+     * @param afterId  起始用戶ID（不含）
+     * @param pageable 分頁，只使用條數
+     * @return 用戶列表
+     */
+    @Query("SELECT u FROM SysUser u LEFT JOIN FETCH u.department LEFT JOIN FETCH u.position "
+            + "WHERE u.id > :afterId ORDER BY u.id")
+    List<SysUser> findDirectoryPage(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * 按 (更新時間, ID) 順序查詢指定位置之後、截止時間之前更新的用戶，同時載入部門及崗位，用於用戶目錄增量同步
+     *
+     * @param time     起始更新時間（不含）
+     * @param id       起始更新時間相同時的起始用戶ID（不含）
+     * @param until    截止時間（含）
+     * @param pageable 分頁，只使用條數
+     * @return 用戶列表
+     */
+    @Query("SELECT u FROM SysUser u LEFT JOIN FETCH u.department LEFT JOIN FETCH u.position "
+            + "WHERE (u.updateTime > :time OR (u.updateTime = :time AND u.id > :id)) AND u.updateTime <= :until "
+            + "ORDER BY u.updateTime, u.id")
+    List<SysUser> findDirectoryChanges(@Param("time") LocalDateTime time, @Param("id") Long id,
+                                       @Param("until") LocalDateTime until, Pageable pageable);
+
+    /**
+     * 查詢截止時間之前最後更新的用戶
+     *
+     * @param until 截止時間（含）
+     * @return 用戶，沒有時為 null
+     */
+    SysUser findFirstByUpdateTimeLessThanEqualOrderByUpdateTimeDescIdDesc(LocalDateTime until);
+
+    /**
+     * 更新最後登入時間，不載入實體，也不觸發實體監聽器
+     *
+     * @param id            用戶ID
+     * @param lastLoginTime 登入時間
+     * @return 更新的行數
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE SysUser u SET u.lastLoginTime = :lastLoginTime WHERE u.id = :id")
+    int updateLastLoginTime(@Param("id") Long id, @Param("lastLoginTime") LocalDateTime lastLoginTime);
 }
@@ -0,0 +1,54 @@
+package com.clockin.auth.repository;
+
+import com.clockin.auth.entity.SysUserTombstone;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 已刪除用戶墓碑資料訪問層
+ */
+@Repository
+public interface SysUserTombstoneRepository extends JpaRepository<SysUserTombstone, Long> {
+
+    /**
+     * 按 (刪除時間, 用戶ID) 順序查詢指定位置之後、截止時間之前的墓碑
+     *
+     * @param time     起始刪除時間（不含）
+     * @param userId   起始刪除時間相同時的起始用戶ID（不含）
+     * @param until    截止時間（含）
+     * @param pageable 分頁，只使用條數
+     * @return 墓碑列表
+     */
+    @Query("SELECT t FROM SysUserTombstone t "
+            + "WHERE (t.deleteTime > :time OR (t.deleteTime = :time AND t.userId > :userId)) AND t.deleteTime <= :until "
+            + "ORDER BY t.deleteTime, t.userId")
+    List<SysUserTombstone> findDeletedAfter(@Param("time") LocalDateTime time, @Param("userId") Long userId,
+                                            @Param("until") LocalDateTime until, Pageable pageable);
+
+    /**
+     * 查詢截止時間之前的最後一條墓碑
+     *
+     * @param until 截止時間（含）
+     * @return 墓碑，沒有時為 null
+     */
+    SysUserTombstone findFirstByDeleteTimeLessThanEqualOrderByDeleteTimeDescUserIdDesc(LocalDateTime until);
+
+    /**
+     * 刪除過期的墓碑
+     *
+     * @param before 刪除時間早於此時間的墓碑
+     * @return 刪除條數
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM SysUserTombstone t WHERE t.deleteTime < :before")
+    int deleteByDeleteTimeBefore(@Param("before") LocalDateTime before);
+}
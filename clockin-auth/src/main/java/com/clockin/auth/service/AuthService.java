@@ -7,6 +7,7 @@ import com.clockin.auth.entity.SysUser;
 import com.clockin.auth.repository.SysUserRepository;
 import com.clockin.auth.util.JwtTokenUtil;
 import com.clockin.common.exception.BusinessException;
+import io.jsonwebtoken.Claims;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -17,6 +18,7 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -32,6 +34,7 @@ public class AuthService {
     private final JwtTokenUtil jwtTokenUtil;
     private final SysUserRepository userRepository;
     private final JwtConfig jwtConfig;
+    private final TokenRevocationService tokenRevocationService;
 
     /**
      * 用戶登錄
@@ -55,18 +58,21 @@ public class AuthService {
             // 獲取用戶信息
             UserDetails userDetails = (UserDetails) authentication.getPrincipal();
             
-            // 生成 JWT Token
-            String token = jwtTokenUtil.generateToken(userDetails);
+            // 獲取用戶信息
+            SysUser user = userRepository.findByUsername(userDetails.getUsername())
+                    .orElseThrow(() -> new BusinessException("用戶不存在"));
+            
+            // 生成 JWT Token，權限與角色版本寫入令牌，後續請求不再查詢用戶
+            String token = jwtTokenUtil.generateToken(user.getId(), user.getRoleVersion(), userDetails);
+            
+            // 更新最後登入時間
+            userRepository.updateLastLoginTime(user.getId(), LocalDateTime.now());
             
             // 獲取用戶角色
             List<String> roles = userDetails.getAuthorities().stream()
                     .map(GrantedAuthority::getAuthority)
                     .collect(Collectors.toList());
             
-            // 獲取用戶信息
-            SysUser user = userRepository.findByUsername(userDetails.getUsername())
-                    .orElseThrow(() -> new BusinessException("用戶不存在"));
-            
             // 構建登錄響應
             return LoginResponse.builder()
                     .userId(user.getId())
@@ -82,6 +88,23 @@ public class AuthService {
         }
     }
     
+    /**
+     * 用戶登出，將令牌加入撤銷列表直到其過期
+     *
+     * @param token JWT
+     */
+    public void logout(String token) {
+        try {
+            Claims claims = jwtTokenUtil.getAllClaimsFromToken(token);
+            if (claims.getId() != null) {
+                tokenRevocationService.revokeToken(claims.getId(), claims.getExpiration());
+            }
+        } catch (Exception e) {
+            // 令牌無效或已過期時無需撤銷
+            log.debug("登出令牌無效: {}", e.getMessage());
+        }
+    }
+
     /**
      * 獲取當前登錄用戶
      *
@@ -1,5 +1,6 @@
 package com.clockin.auth.service;
 
+import com.clockin.common.security.JwtVerifier;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
@@ -10,6 +11,7 @@ import org.springframework.stereotype.Service;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
 import java.util.Date;
 import java.util.HashMap;
@@ -32,6 +34,16 @@ public class JwtService {
     @Value("${jwt.cookie.name:CLOCKIN_TOKEN}")
     private String cookieName;
 
+    @Value("${jwt.verified-cache-size:1024}")
+    private int verifiedCacheSize;
+
+    /**
+     * 簽名密鑰及驗證器在首次使用時構建，之後共用
+     */
+    private volatile SecretKey signingKey;
+
+    private volatile JwtVerifier verifier;
+
     /**
      * 生成JWT令牌
      *
@@ -67,9 +79,27 @@ public class JwtService {
      *
      * @return 簽名密鑰
      */
-    private javax.crypto.SecretKey getSigningKey() {
-        byte[] keyBytes = secret.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
+    private SecretKey getSigningKey() {
+        SecretKey key = signingKey;
+        if (key == null) {
+            key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+            signingKey = key;
+        }
+        return key;
+    }
+
+    /**
+     * 獲取令牌驗證器
+     *
+     * @return 驗證器
+     */
+    private JwtVerifier getVerifier() {
+        JwtVerifier current = verifier;
+        if (current == null) {
+            current = new JwtVerifier(getSigningKey(), verifiedCacheSize);
+            verifier = current;
+        }
+        return current;
     }
 
     /**
@@ -116,17 +146,13 @@ public class JwtService {
     }
 
     /**
-     * 從令牌中獲取所有聲明
+     * 從令牌中獲取所有聲明，同一令牌的多次讀取只驗證一次簽名
      *
      * @param token 令牌
      * @return 所有聲明
      */
     private Claims getAllClaimsFromToken(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return getVerifier().verify(token).getClaims();
     }
 
     /**
@@ -0,0 +1,241 @@
+package com.clockin.auth.service;
+
+import com.clockin.auth.config.JwtConfig;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.PublicJwk;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * JWT 簽名密鑰服務
+ * <p>
+ * 以輪換的 EC P-256 密鑰（ES256）簽發令牌，公鑰經 {@link #JWKS_PATH} 發布，其他服務在本地驗證，不需要共享密鑰。
+ * 密鑰保存在 Redis 供所有實例共用，各實例在記憶體中保存一份並定期刷新。新密鑰發布後延遲啟用，
+ * 讓各服務先通過 JWKS 刷新取得公鑰；舊密鑰在被取代後保留到其簽發的令牌全部過期為止
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SigningKeyService {
+
+    /**
+     * 公鑰集路徑
+     */
+    public static final String JWKS_PATH = "/.well-known/jwks.json";
+
+    /**
+     * 密鑰ID與密鑰的 Redis 哈希
+     */
+    private static final String KEYS_KEY = "clockin:jwt-signing-keys";
+
+    private static final String KEY_ALGORITHM = "EC";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ObjectMapper objectMapper;
+    private final JwtConfig jwtConfig;
+
+    /**
+     * 按建立時間升序排列的密鑰
+     */
+    private volatile List<SigningKey> keys = Collections.emptyList();
+
+    private volatile Map<String, SigningKey> keysById = Collections.emptyMap();
+
+    /**
+     * 獲取當前用於簽名的密鑰，即已過啟用延遲的最新密鑰；首個密鑰建立後立即可用
+     *
+     * @return 簽名密鑰
+     */
+    public SigningKey getActiveKey() {
+        List<SigningKey> current = keys;
+        if (current.isEmpty()) {
+            rotate();
+            current = keys;
+            if (current.isEmpty()) {
+                throw new IllegalStateException("沒有可用的 JWT 簽名密鑰");
+            }
+        }
+
+        long activeBefore = System.currentTimeMillis() - jwtConfig.getKeyActivationDelay().toMillis();
+        for (int i = current.size() - 1; i > 0; i--) {
+            if (current.get(i).getCreatedAt() <= activeBefore) {
+                return current.get(i);
+            }
+        }
+        return current.get(0);
+    }
+
+    /**
+     * 按密鑰ID獲取驗證公鑰
+     *
+     * @param keyId 密鑰ID
+     * @return 公鑰，不存在時為 null
+     */
+    public PublicKey getPublicKey(String keyId) {
+        SigningKey key = keysById.get(keyId);
+        return key != null ? key.getPublicKey() : null;
+    }
+
+    /**
+     * 獲取公鑰集，包含尚未啟用及已被取代但仍在有效期內的密鑰
+     *
+     * @return JWKS
+     */
+    public Map<String, Object> getJwks() {
+        List<PublicJwk<PublicKey>> jwks = new ArrayList<>();
+        for (SigningKey key : keys) {
+            jwks.add(Jwks.builder().key(key.getPublicKey()).id(key.getKeyId()).build());
+        }
+        return Collections.singletonMap("keys", jwks);
+    }
+
+    /**
+     * 應用啟動後載入密鑰，沒有密鑰時建立首個密鑰
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void init() {
+        rotate();
+    }
+
+    /**
+     * 刷新密鑰；最新密鑰已超過輪換間隔時建立新密鑰，並刪除其簽發的令牌均已過期的舊密鑰
+     * <p>
+     * 多個實例同時輪換時可能各建立一個新密鑰，所有密鑰均會發布，不影響驗證
+     */
+    public synchronized void rotate() {
+        try {
+            reload();
+            long now = System.currentTimeMillis();
+            List<SigningKey> current = keys;
+            if (current.isEmpty()
+                    || current.get(current.size() - 1).getCreatedAt() + jwtConfig.getKeyRotationInterval().toMillis() <= now) {
+                SigningKey created = generate(now);
+                stringRedisTemplate.opsForHash().put(KEYS_KEY, created.getKeyId(), serialize(created));
+                log.info("已建立 JWT 簽名密鑰: {}", created.getKeyId());
+            }
+
+            // 密鑰在下一個密鑰啟用後不再簽發令牌，再經過令牌有效期即可刪除
+            long retention = jwtConfig.getKeyActivationDelay().toMillis() + jwtConfig.getExpiration() * 1000;
+            for (int i = 0; i < current.size() - 1; i++) {
+                if (current.get(i + 1).getCreatedAt() + retention <= now) {
+                    stringRedisTemplate.opsForHash().delete(KEYS_KEY, current.get(i).getKeyId());
+                    log.info("已刪除過期的 JWT 簽名密鑰: {}", current.get(i).getKeyId());
+                }
+            }
+            reload();
+        } catch (RuntimeException e) {
+            log.warn("刷新 JWT 簽名密鑰失敗，繼續使用已載入的 {} 個密鑰: {}", keys.size(), e.getMessage());
+            if (keys.isEmpty()) {
+                // Redis 不可用時使用本實例的臨時密鑰，其他服務只能在本實例的 JWKS 中取得公鑰
+                keys = List.of(generate(System.currentTimeMillis()));
+                keysById = Map.of(keys.get(0).getKeyId(), keys.get(0));
+            }
+        }
+    }
+
+    private void reload() {
+        Map<Object, Object> entries = stringRedisTemplate.opsForHash().entries(KEYS_KEY);
+        List<SigningKey> loaded = new ArrayList<>(entries.size());
+        for (Object value : entries.values()) {
+            loaded.add(deserialize((String) value));
+        }
+        loaded.sort(Comparator.comparingLong(SigningKey::getCreatedAt));
+
+        Map<String, SigningKey> byId = new HashMap<>();
+        loaded.forEach(key -> byId.put(key.getKeyId(), key));
+        keys = Collections.unmodifiableList(loaded);
+        keysById = Collections.unmodifiableMap(byId);
+    }
+
+    private SigningKey generate(long createdAt) {
+        KeyPair keyPair = Jwts.SIG.ES256.keyPair().build();
+        return new SigningKey(UUID.randomUUID().toString(), keyPair.getPrivate(), keyPair.getPublic(), createdAt);
+    }
+
+    private String serialize(SigningKey key) {
+        try {
+            Base64.Encoder encoder = Base64.getEncoder();
+            return objectMapper.writeValueAsString(new StoredKey(key.getKeyId(),
+                    encoder.encodeToString(key.getPrivateKey().getEncoded()),
+                    encoder.encodeToString(key.getPublicKey().getEncoded()),
+                    key.getCreatedAt()));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("序列化 JWT 簽名密鑰失敗", e);
+        }
+    }
+
+    private SigningKey deserialize(String value) {
+        try {
+            StoredKey stored = objectMapper.readValue(value, StoredKey.class);
+            Base64.Decoder decoder = Base64.getDecoder();
+            KeyFactory keyFactory = KeyFactory.getInstance(KEY_ALGORITHM);
+            PrivateKey privateKey = keyFactory.generatePrivate(
+                    new PKCS8EncodedKeySpec(decoder.decode(stored.getPrivateKey())));
+            PublicKey publicKey = keyFactory.generatePublic(
+                    new X509EncodedKeySpec(decoder.decode(stored.getPublicKey())));
+            return new SigningKey(stored.getKeyId(), privateKey, publicKey, stored.getCreatedAt());
+        } catch (JsonProcessingException | GeneralSecurityException e) {
+            throw new IllegalStateException("解析 JWT 簽名密鑰失敗", e);
+        }
+    }
+
+    /**
+     * 簽名密鑰
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class SigningKey {
+
+        private final String keyId;
+
+        private final PrivateKey privateKey;
+
+        private final PublicKey publicKey;
+
+        private final long createdAt;
+    }
+
+    /**
+     * Redis 中保存的密鑰，私鑰為 PKCS#8、公鑰為 X.509 編碼的 Base64
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    private static class StoredKey {
+
+        private String keyId;
+
+        private String privateKey;
+
+        private String publicKey;
+
+        private long createdAt;
+    }
+}
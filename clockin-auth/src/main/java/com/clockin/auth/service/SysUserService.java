@@ -1,10 +1,13 @@
 package com.clockin.auth.service;
 
 import com.clockin.auth.dto.SysUserDTO;
+import com.clockin.auth.dto.UserChangeSet;
+import com.clockin.auth.dto.UserSnapshotPage;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -124,10 +127,50 @@ public interface SysUserService {
      */
     List<SysUserDTO> getUsersByPosition(Long positionId);
 
+    /**
+     * 根據ID列表批量查詢用戶，不存在的ID會被忽略
+     *
+     * @param ids 用戶ID列表
+     * @return 用戶列表，不包含密碼及角色權限
+     */
+    List<SysUserDTO> getUsersByIds(Collection<Long> ids);
+
     /**
      * 批量刪除用戶
      *
      * @param ids 用戶ID列表
      */
     void batchDeleteUser(List<Long> ids);
+
+    /**
+     * 按用戶ID順序讀取用戶目錄全量快照的一頁
+     *
+     * @param afterId 起始用戶ID（不含），第一頁為 null
+     * @param size    每頁條數
+     * @return 快照頁
+     */
+    UserSnapshotPage getUserSnapshot(Long afterId, int size);
+
+    /**
+     * 獲取用戶目錄當前版本號
+     *
+     * @return 版本號
+     */
+    String getUserDirectoryVersion();
+
+    /**
+     * 查詢用戶目錄自指定版本以來的變更，按發生順序返回
+     *
+     * @param since 上次同步的版本號
+     * @param size  最多返回的變更條數
+     * @return 變更集
+     */
+    UserChangeSet getUserChanges(String since, int size);
+
+    /**
+     * 清理超過保留期的已刪除用戶墓碑
+     *
+     * @return 清理條數
+     */
+    int purgeUserTombstones();
 }
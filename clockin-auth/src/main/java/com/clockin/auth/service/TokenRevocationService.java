@@ -0,0 +1,138 @@
+package com.clockin.auth.service;
+
+import com.clockin.auth.config.JwtConfig;
+import com.clockin.common.event.TokenRevocation;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 令牌撤銷服務
+ * <p>
+ * 在記憶體中保存未過期的撤銷記錄，驗證令牌時只做兩次哈希查找。撤銷記錄保存到 Redis 並發布給其他實例，
+ * 實例啟動時從 Redis 載入；Redis 不可用時撤銷只在本實例生效
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TokenRevocationService {
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ObjectMapper objectMapper;
+    private final JwtConfig jwtConfig;
+
+    /**
+     * 已撤銷的令牌ID與過期時間
+     */
+    private final Map<String, Long> revokedTokens = new ConcurrentHashMap<>();
+
+    /**
+     * 用戶ID與令牌失效的簽發時間界限，值為 [簽發時間界限, 過期時間]
+     */
+    private final Map<Long, long[]> revokedUsers = new ConcurrentHashMap<>();
+
+    /**
+     * 檢查令牌是否已撤銷
+     *
+     * @param tokenId  令牌ID，舊令牌沒有時為 null
+     * @param userId   用戶ID
+     * @param issuedAt 簽發時間
+     * @return 是否已撤銷
+     */
+    public boolean isRevoked(String tokenId, Long userId, Date issuedAt) {
+        if (tokenId != null && revokedTokens.containsKey(tokenId)) {
+            return true;
+        }
+        long[] revokedUser = userId != null ? revokedUsers.get(userId) : null;
+        return revokedUser != null && (issuedAt == null || issuedAt.getTime() < revokedUser[0]);
+    }
+
+    /**
+     * 撤銷單個令牌，用於登出
+     *
+     * @param tokenId   令牌ID
+     * @param expiresAt 令牌過期時間
+     */
+    public void revokeToken(String tokenId, Date expiresAt) {
+        revoke(new TokenRevocation(tokenId, null, 0, expiresAt.getTime()));
+    }
+
+    /**
+     * 撤銷用戶當前已簽發的全部令牌，用於刪除用戶、變更角色或權限
+     *
+     * @param userId 用戶ID
+     */
+    public void revokeUser(Long userId) {
+        long now = System.currentTimeMillis();
+        // 簽發時間只精確到秒，同一秒內撤銷前後簽發的令牌無法區分，界限向上取整到下一秒，
+        // 寧可讓撤銷當秒重新登入的令牌失效，也不放過撤銷前簽發的令牌
+        long revokedBefore = (now / 1000 + 1) * 1000;
+        revoke(new TokenRevocation(null, userId, revokedBefore, now + jwtConfig.getExpiration() * 1000));
+    }
+
+    /**
+     * 應用撤銷記錄到本地撤銷列表
+     *
+     * @param revocation 撤銷記錄
+     */
+    public void apply(TokenRevocation revocation) {
+        long now = System.currentTimeMillis();
+        if (revocation.getExpiresAt() <= now) {
+            return;
+        }
+        if (revocation.getTokenId() != null) {
+            revokedTokens.put(revocation.getTokenId(), revocation.getExpiresAt());
+        }
+        if (revocation.getUserId() != null) {
+            revokedUsers.merge(revocation.getUserId(),
+                    new long[]{revocation.getRevokedBefore(), revocation.getExpiresAt()},
+                    (current, added) -> current[0] >= added[0] ? current : added);
+        }
+
+        // 撤銷不頻繁，在寫入時順帶清理過期記錄
+        revokedTokens.values().removeIf(expiresAt -> expiresAt <= now);
+        revokedUsers.values().removeIf(entry -> entry[1] <= now);
+    }
+
+    /**
+     * 應用啟動後從 Redis 載入未過期的撤銷記錄
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadDenylist() {
+        try {
+            long now = System.currentTimeMillis();
+            stringRedisTemplate.opsForZSet().removeRangeByScore(TokenRevocation.DENYLIST_KEY, 0, now);
+            Set<String> entries = stringRedisTemplate.opsForZSet().range(TokenRevocation.DENYLIST_KEY, 0, -1);
+            if (entries == null) {
+                return;
+            }
+            for (String entry : entries) {
+                apply(objectMapper.readValue(entry, TokenRevocation.class));
+            }
+            log.info("已載入 {} 條令牌撤銷記錄", entries.size());
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.warn("載入令牌撤銷記錄失敗: {}", e.getMessage());
+        }
+    }
+
+    private void revoke(TokenRevocation revocation) {
+        apply(revocation);
+        try {
+            String message = objectMapper.writeValueAsString(revocation);
+            stringRedisTemplate.opsForZSet().add(TokenRevocation.DENYLIST_KEY, message, revocation.getExpiresAt());
+            stringRedisTemplate.convertAndSend(TokenRevocation.CHANNEL, message);
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.warn("發布令牌撤銷記錄失敗，撤銷只在本實例生效: {}", e.getMessage());
+        }
+    }
+}
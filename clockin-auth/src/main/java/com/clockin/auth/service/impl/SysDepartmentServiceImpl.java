@@ -6,56 +6,83 @@ import com.clockin.common.exception.BusinessException;
 import com.clockin.auth.repository.SysDepartmentRepository;
 import com.clockin.auth.repository.SysUserRepository;
 import com.clockin.auth.service.SysDepartmentService;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheConfig;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
  * 部門服務實現類
+ * <p>
+ * 部門樹由一次全量查詢在記憶體中構建，子樹按祖先路徑前綴查詢。部門變更後在事務提交時
+ * 直接修改緩存中的部門樹，並只移除受影響的列表緩存，不再清空整個部門緩存
  */
+@Slf4j
 @Service
-@CacheConfig(cacheNames = "department")
+@CacheConfig(cacheNames = SysDepartmentServiceImpl.CACHE_NAME)
 public class SysDepartmentServiceImpl implements SysDepartmentService {
 
+    static final String CACHE_NAME = "department";
+
+    private static final String TREE_KEY = "tree";
+
+    private static final String PATH_SEPARATOR = "/";
+
+    /**
+     * 同級部門按顯示順序排列，與數據庫升序排序一致，未設置順序的排在最前
+     */
+    private static final Comparator<SysDepartmentDTO> ORDER = Comparator
+            .comparing(SysDepartmentDTO::getOrderNum, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(SysDepartmentDTO::getId);
+
     @Autowired
     private SysDepartmentRepository departmentRepository;
-    
+
     @Autowired
     private SysUserRepository userRepository;
 
+    @Autowired
+    private CacheManager cacheManager;
+
     @Override
     @Cacheable(key = "'tree'")
     public List<SysDepartmentDTO> getDepartmentTree() {
-        // 查詢頂級部門
-        List<SysDepartment> rootDepartments = departmentRepository.findByParentIdIsNullOrderByOrderNum();
-        
-        // 構建樹結構
-        return buildDepartmentTree(rootDepartments);
+        // 一次查詢全部部門，在記憶體中構建樹結構
+        return buildDepartmentTree(departmentRepository.findAll());
     }
 
     @Override
     @Cacheable(key = "'all:' + #status")
     public List<SysDepartmentDTO> getAllDepartments(Integer status) {
         List<SysDepartment> departments;
-        
+
         if (status != null) {
             departments = departmentRepository.findByStatus(status);
         } else {
             departments = departmentRepository.findAll();
         }
-        
-        return departments.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+
+        return convertToDTOs(departments);
     }
 
     @Override
@@ -63,179 +90,360 @@ public class SysDepartmentServiceImpl implements SysDepartmentService {
     public SysDepartmentDTO getDepartmentById(Long id) {
         SysDepartment department = departmentRepository.findById(id)
                 .orElseThrow(() -> new BusinessException("部門不存在"));
-        
+
         return convertToDTO(department);
     }
 
     @Override
     @Transactional
-    @CacheEvict(allEntries = true)
     public SysDepartmentDTO addDepartment(SysDepartmentDTO departmentDTO) {
         // 檢查部門編碼唯一性
-        if (departmentDTO.getDeptCode() != null && 
+        if (departmentDTO.getDeptCode() != null &&
                 departmentRepository.findByDeptCode(departmentDTO.getDeptCode()) != null) {
             throw new BusinessException("部門編碼已存在");
         }
-        
+
         // 檢查父部門是否存在
+        SysDepartment parent = null;
         if (departmentDTO.getParentId() != null) {
-            departmentRepository.findById(departmentDTO.getParentId())
+            parent = departmentRepository.findById(departmentDTO.getParentId())
                     .orElseThrow(() -> new BusinessException("父部門不存在"));
         }
-        
+
         SysDepartment department = new SysDepartment();
         BeanUtils.copyProperties(departmentDTO, department);
-        
+
         // 設置默認狀態為啟用
         if (department.getStatus() == null) {
             department.setStatus(1);
         }
-        
+
+        // 路徑包含自身ID，保存取得ID後再設置，提交時一併寫入
+        department.setPath(StringUtils.EMPTY);
         department = departmentRepository.save(department);
-        
-        return convertToDTO(department);
+        department.setPath(childPath(parent, department.getId()));
+
+        SysDepartmentDTO result = convertToDTO(department, parent);
+        updateCacheAfterCommit(department.getId(), null, result);
+        return result;
     }
 
     @Override
     @Transactional
-    @CacheEvict(allEntries = true)
     public SysDepartmentDTO updateDepartment(Long id, SysDepartmentDTO departmentDTO) {
         SysDepartment department = departmentRepository.findById(id)
                 .orElseThrow(() -> new BusinessException("部門不存在"));
-        
+
         // 檢查部門編碼唯一性
-        if (departmentDTO.getDeptCode() != null && 
+        if (departmentDTO.getDeptCode() != null &&
                 !departmentDTO.getDeptCode().equals(department.getDeptCode())) {
             SysDepartment existingDept = departmentRepository.findByDeptCode(departmentDTO.getDeptCode());
             if (existingDept != null && !existingDept.getId().equals(id)) {
                 throw new BusinessException("部門編碼已存在");
             }
         }
-        
+
         // 檢查父部門是否存在，且不能將自己設為父部門
+        SysDepartment parent = null;
         if (departmentDTO.getParentId() != null) {
             if (Objects.equals(departmentDTO.getParentId(), id)) {
                 throw new BusinessException("父部門不能為自己");
             }
-            
-            // 檢查父部門是否為自己的子部門
-            List<Long> childIds = getDepartmentAndChildIds(id);
-            if (childIds.contains(departmentDTO.getParentId())) {
+
+            parent = departmentRepository.findById(departmentDTO.getParentId())
+                    .orElseThrow(() -> new BusinessException("父部門不存在"));
+
+            // 檢查父部門是否為自己的子部門：子部門的路徑以自身路徑為前綴
+            if (StringUtils.isNotEmpty(department.getPath())
+                    && StringUtils.startsWith(parent.getPath(), department.getPath())) {
                 throw new BusinessException("父部門不能為自己的子部門");
             }
-            
-            departmentRepository.findById(departmentDTO.getParentId())
-                    .orElseThrow(() -> new BusinessException("父部門不存在"));
         }
-        
+
+        SysDepartment before = new SysDepartment();
+        BeanUtils.copyProperties(department, before);
+
         BeanUtils.copyProperties(departmentDTO, department);
         department.setId(id);  // 確保ID不變
-        
+
+        // 父部門變更時以一條語句替換整棵子樹的路徑前綴
+        String path = childPath(parent, id);
+        if (!path.equals(before.getPath())) {
+            if (StringUtils.isNotEmpty(before.getPath())) {
+                departmentRepository.replacePathPrefix(before.getPath(), path);
+            }
+            department.setPath(path);
+        }
+
         department = departmentRepository.save(department);
-        
-        return convertToDTO(department);
+
+        SysDepartmentDTO result = convertToDTO(department, parent);
+        updateCacheAfterCommit(id, before, result);
+        return result;
     }
 
     @Override
     @Transactional
-    @CacheEvict(allEntries = true)
     public void deleteDepartment(Long id) {
         // 檢查部門是否存在
         SysDepartment department = departmentRepository.findById(id)
                 .orElseThrow(() -> new BusinessException("部門不存在"));
-        
+
         // 檢查是否有子部門
         List<SysDepartment> children = departmentRepository.findByParentIdOrderByOrderNum(id);
         if (!children.isEmpty()) {
             throw new BusinessException("存在子部門，無法刪除");
         }
-        
+
         // 檢查是否有用戶關聯
         long userCount = userRepository.countByDepartmentId(id);
         if (userCount > 0) {
             throw new BusinessException("部門下存在用戶，無法刪除");
         }
-        
+
         departmentRepository.delete(department);
+        updateCacheAfterCommit(id, department, null);
     }
 
     @Override
     @Cacheable(key = "'children:' + #parentId")
     public List<SysDepartmentDTO> getChildDepartments(Long parentId) {
         List<SysDepartment> children = departmentRepository.findByParentIdOrderByOrderNum(parentId);
-        
-        return children.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+
+        return convertToDTOs(children);
     }
 
     @Override
     public List<Long> getDepartmentAndChildIds(Long departmentId) {
-        List<Long> ids = new ArrayList<>();
-        ids.add(departmentId);
-        
-        // 遞歸獲取所有子部門ID
-        addChildDepartmentIds(departmentId, ids);
-        
-        return ids;
+        // 先取部門路徑，再按常量前綴一次查出整棵子樹
+        String path = departmentRepository.findById(departmentId).map(SysDepartment::getPath).orElse(null);
+        List<Long> ids = path != null ? departmentRepository.findSubtreeIds(path) : List.of();
+        return ids.isEmpty() ? new ArrayList<>(List.of(departmentId)) : ids;
     }
 
     /**
-     * 遞歸獲取子部門ID
+     * 構建部門樹結構
      *
-     * @param parentId 父部門ID
-     * @param ids ID列表
+     * @param departments 全部部門
+     * @return 部門樹
      */
-    private void addChildDepartmentIds(Long parentId, List<Long> ids) {
-        List<SysDepartment> children = departmentRepository.findByParentIdOrderByOrderNum(parentId);
-        
-        for (SysDepartment child : children) {
-            ids.add(child.getId());
-            addChildDepartmentIds(child.getId(), ids);
+    private List<SysDepartmentDTO> buildDepartmentTree(List<SysDepartment> departments) {
+        Map<Long, SysDepartmentDTO> nodes = new LinkedHashMap<>();
+        departments.stream()
+                .map(this::toDTO)
+                .sorted(ORDER)
+                .forEach(dto -> {
+                    dto.setChildren(new ArrayList<>());
+                    nodes.put(dto.getId(), dto);
+                });
+
+        List<SysDepartmentDTO> tree = new ArrayList<>();
+        for (SysDepartmentDTO node : nodes.values()) {
+            if (node.getParentId() == null) {
+                tree.add(node);
+                continue;
+            }
+            // 父部門不存在的部門無法從頂級部門到達，不在樹中
+            SysDepartmentDTO parent = nodes.get(node.getParentId());
+            if (parent != null) {
+                node.setParentName(parent.getDeptName());
+                parent.getChildren().add(node);
+            }
         }
+
+        return tree;
     }
 
     /**
-     * 構建部門樹結構
+     * 事務提交後更新部門緩存，回滾的變更不會寫入緩存
      *
-     * @param rootDepartments 頂級部門
-     * @return 部門樹
+     * @param id     部門ID
+     * @param before 變更前的部門，新增時為 null
+     * @param after  變更後的部門，刪除時為 null
      */
-    private List<SysDepartmentDTO> buildDepartmentTree(List<SysDepartment> rootDepartments) {
-        List<SysDepartmentDTO> tree = new ArrayList<>();
-        
-        for (SysDepartment dept : rootDepartments) {
-            SysDepartmentDTO deptDTO = convertToDTO(dept);
-            
-            // 遞歸獲取子部門
-            deptDTO.setChildren(buildChildrenDepartmentTree(dept.getId()));
-            
-            tree.add(deptDTO);
+    private void updateCacheAfterCommit(Long id, SysDepartment before, SysDepartmentDTO after) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    updateCache(id, before, after);
+                }
+            });
+        } else {
+            updateCache(id, before, after);
+        }
+    }
+
+    private void updateCache(Long id, SysDepartment before, SysDepartmentDTO after) {
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        if (cache == null) {
+            return;
+        }
+        try {
+            if (after != null) {
+                cache.put(id, after);
+            } else {
+                cache.evict(id);
+            }
+
+            // 只移除受影響的全部部門列表、狀態列表及父部門的子部門列表
+            Set<Object> keys = new HashSet<>();
+            keys.add("all:null");
+            if (before != null) {
+                keys.add("all:" + before.getStatus());
+                keys.add("children:" + before.getParentId());
+            }
+            if (after != null) {
+                keys.add("all:" + after.getStatus());
+                keys.add("children:" + after.getParentId());
+            }
+
+            List<SysDepartmentDTO> children = updateTree(cache, id, before, after);
+
+            // 名稱變更時子部門的父部門名稱隨之變化
+            if (before != null && after != null && !Objects.equals(before.getDeptName(), after.getDeptName())) {
+                keys.add("children:" + id);
+                if (children == null) {
+                    children = convertToDTOs(departmentRepository.findByParentIdOrderByOrderNum(id));
+                }
+                children.forEach(child -> {
+                    keys.add(child.getId());
+                    keys.add("all:" + child.getStatus());
+                });
+            }
+            keys.forEach(cache::evict);
+        } catch (RuntimeException e) {
+            log.warn("更新部門 {} 的緩存失敗，清空部門緩存: {}", id, e.getMessage());
+            try {
+                cache.clear();
+            } catch (RuntimeException ignored) {
+                // 緩存不可用時由過期時間兜底
+            }
         }
-        
-        return tree;
     }
 
     /**
-     * 遞歸構建子部門樹結構
+     * 在緩存的部門樹中移除、插入或移動節點；未緩存部門樹時不處理
+     * <p>
+     * 多個實例同時變更部門時後寫入者覆蓋先寫入者，部門變更不頻繁，由緩存過期時間兜底
      *
-     * @param parentId 父部門ID
-     * @return 子部門樹
+     * @return 節點原有的子部門，未緩存部門樹時為 null
      */
-    private List<SysDepartmentDTO> buildChildrenDepartmentTree(Long parentId) {
-        List<SysDepartment> children = departmentRepository.findByParentIdOrderByOrderNum(parentId);
-        List<SysDepartmentDTO> childrenTree = new ArrayList<>();
-        
-        for (SysDepartment child : children) {
-            SysDepartmentDTO childDTO = convertToDTO(child);
-            
-            // 遞歸獲取子部門
-            childDTO.setChildren(buildChildrenDepartmentTree(child.getId()));
-            
-            childrenTree.add(childDTO);
+    @SuppressWarnings("unchecked")
+    private List<SysDepartmentDTO> updateTree(Cache cache, Long id, SysDepartment before, SysDepartmentDTO after) {
+        List<SysDepartmentDTO> tree = cache.get(TREE_KEY, List.class);
+        if (tree == null) {
+            return null;
+        }
+
+        SysDepartmentDTO node = removeNode(tree, id);
+        List<SysDepartmentDTO> children = node != null && node.getChildren() != null
+                ? node.getChildren() : new ArrayList<>();
+        if (after != null) {
+            List<SysDepartmentDTO> siblings = after.getParentId() == null ? tree : findChildren(tree, after.getParentId());
+            if (siblings == null) {
+                cache.evict(TREE_KEY);
+                return children;
+            }
+
+            SysDepartmentDTO updated = new SysDepartmentDTO();
+            BeanUtils.copyProperties(after, updated);
+            updated.setChildren(children);
+            children.forEach(child -> child.setParentName(updated.getDeptName()));
+
+            int index = 0;
+            while (index < siblings.size() && ORDER.compare(siblings.get(index), updated) < 0) {
+                index++;
+            }
+            siblings.add(index, updated);
+        }
+
+        cache.put(TREE_KEY, tree);
+        return children;
+    }
+
+    /**
+     * 從樹中移除節點
+     *
+     * @return 被移除的節點，不存在時為 null
+     */
+    private SysDepartmentDTO removeNode(List<SysDepartmentDTO> nodes, Long id) {
+        for (int i = 0; i < nodes.size(); i++) {
+            SysDepartmentDTO node = nodes.get(i);
+            if (Objects.equals(node.getId(), id)) {
+                return nodes.remove(i);
+            }
+            if (node.getChildren() != null) {
+                SysDepartmentDTO removed = removeNode(node.getChildren(), id);
+                if (removed != null) {
+                    return removed;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 查找樹中節點的子部門列表
+     *
+     * @return 子部門列表，節點不存在時為 null
+     */
+    private List<SysDepartmentDTO> findChildren(List<SysDepartmentDTO> nodes, Long id) {
+        for (SysDepartmentDTO node : nodes) {
+            if (node.getChildren() == null) {
+                node.setChildren(new ArrayList<>());
+            }
+            if (Objects.equals(node.getId(), id)) {
+                return node.getChildren();
+            }
+            List<SysDepartmentDTO> children = findChildren(node.getChildren(), id);
+            if (children != null) {
+                return children;
+            }
         }
-        
-        return childrenTree;
+        return null;
+    }
+
+    /**
+     * 子部門路徑
+     *
+     * @param parent 父部門，頂級部門為 null
+     * @param id     部門ID
+     * @return 路徑
+     */
+    private String childPath(SysDepartment parent, Long id) {
+        String parentPath = parent != null && StringUtils.isNotEmpty(parent.getPath()) ? parent.getPath() : PATH_SEPARATOR;
+        return parentPath + id + PATH_SEPARATOR;
+    }
+
+    /**
+     * 批量將實體轉換為DTO，父部門名稱一次查詢
+     *
+     * @param departments 部門實體
+     * @return 部門DTO列表
+     */
+    private List<SysDepartmentDTO> convertToDTOs(List<SysDepartment> departments) {
+        Map<Long, String> names = new HashMap<>();
+        departments.forEach(department -> names.put(department.getId(), department.getDeptName()));
+
+        Set<Long> missingParentIds = departments.stream()
+                .map(SysDepartment::getParentId)
+                .filter(parentId -> parentId != null && !names.containsKey(parentId))
+                .collect(Collectors.toSet());
+        if (!missingParentIds.isEmpty()) {
+            departmentRepository.findAllById(missingParentIds)
+                    .forEach(parent -> names.put(parent.getId(), parent.getDeptName()));
+        }
+
+        return departments.stream()
+                .map(department -> {
+                    SysDepartmentDTO dto = toDTO(department);
+                    if (department.getParentId() != null) {
+                        dto.setParentName(names.get(department.getParentId()));
+                    }
+                    return dto;
+                })
+                .collect(Collectors.toList());
     }
 
     /**
@@ -245,15 +453,27 @@ public class SysDepartmentServiceImpl implements SysDepartmentService {
      * @return 部門DTO
      */
     private SysDepartmentDTO convertToDTO(SysDepartment department) {
+        return convertToDTOs(Collections.singletonList(department)).get(0);
+    }
+
+    /**
+     * 將實體轉換為DTO，父部門已載入時不再查詢
+     *
+     * @param department 部門實體
+     * @param parent     父部門
+     * @return 部門DTO
+     */
+    private SysDepartmentDTO convertToDTO(SysDepartment department, SysDepartment parent) {
+        SysDepartmentDTO dto = toDTO(department);
+        if (parent != null) {
+            dto.setParentName(parent.getDeptName());
+        }
+        return dto;
+    }
+
+    private SysDepartmentDTO toDTO(SysDepartment department) {
         SysDepartmentDTO dto = new SysDepartmentDTO();
         BeanUtils.copyProperties(department, dto);
-        
-        // 如果有父部門，設置父部門名稱
-        if (department.getParentId() != null) {
-            departmentRepository.findById(department.getParentId())
-                    .ifPresent(parent -> dto.setParentName(parent.getDeptName()));
-        }
-        
         return dto;
     }
 }
@@ -1,20 +1,33 @@
 package com.clockin.auth.service.impl;
 
+import com.clockin.auth.config.UserDirectoryConfig;
 import com.clockin.auth.dto.SysUserDTO;
+import com.clockin.auth.dto.UserChangeSet;
+import com.clockin.auth.dto.UserSnapshotPage;
 import com.clockin.auth.entity.SysUser;
+import com.clockin.auth.entity.SysUserTombstone;
 import com.clockin.auth.repository.SysUserRepository;
+import com.clockin.auth.repository.SysUserTombstoneRepository;
 import com.clockin.auth.service.SysUserService;
+import com.clockin.auth.service.TokenRevocationService;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -27,6 +40,9 @@ import java.util.stream.Collectors;
 public class SysUserServiceImpl implements SysUserService {
 
     private final SysUserRepository userRepository;
+    private final TokenRevocationService tokenRevocationService;
+    private final SysUserTombstoneRepository tombstoneRepository;
+    private final UserDirectoryConfig userDirectoryConfig;
 
     @Override
     public SysUserDTO getUserByUsername(String username) {
@@ -59,9 +75,14 @@ public class SysUserServiceImpl implements SysUserService {
     }
 
     @Override
+    @Transactional
     public void deleteUser(Long id) {
         // 實際實現應該已存在
         userRepository.deleteById(id);
+        // 記錄墓碑，供用戶目錄增量同步通知消費方刪除
+        tombstoneRepository.save(new SysUserTombstone(id, LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS)));
+        // 已簽發的令牌不再查詢用戶，需顯式撤銷
+        tokenRevocationService.revokeUser(id);
     }
 
     @Override
@@ -74,9 +95,16 @@ public class SysUserServiceImpl implements SysUserService {
     }
 
     @Override
+    @Transactional
     public void updateUserStatus(Long id, Integer status) {
-        // 實際實現應該已存在
-        throw new UnsupportedOperationException("Method not implemented yet");
+        SysUser user = userRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("用戶不存在: " + id));
+        if (status.equals(user.getStatus())) {
+            return;
+        }
+        user.setStatus(status);
+        invalidateTokens(user);
+        userRepository.save(user);
     }
 
     @Override
@@ -114,4 +142,190 @@ public class SysUserServiceImpl implements SysUserService {
         // 實際實現應該已存在
         throw new UnsupportedOperationException("Method not implemented yet");
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<SysUserDTO> getUsersByIds(Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return List.of();
+        }
+        return userRepository.findWithDepartmentAndPositionByIdIn(ids).stream()
+                .map(this::toSummaryDTO)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public UserSnapshotPage getUserSnapshot(Long afterId, int size) {
+        // 版本號先於數據讀取，分頁期間的變更由之後的增量同步補回
+        String version = getUserDirectoryVersion();
+        List<SysUser> users = userRepository.findDirectoryPage(afterId != null ? afterId : 0L, PageRequest.of(0, size));
+        return UserSnapshotPage.builder()
+                .version(version)
+                .users(users.stream().map(this::toSummaryDTO).collect(Collectors.toList()))
+                .nextAfterId(users.size() < size ? null : users.get(users.size() - 1).getId())
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String getUserDirectoryVersion() {
+        LocalDateTime until = settledTime();
+        DirectoryPosition latest = DirectoryPosition.START;
+        SysUser user = userRepository.findFirstByUpdateTimeLessThanEqualOrderByUpdateTimeDescIdDesc(until);
+        if (user != null) {
+            latest = new DirectoryPosition(user.getUpdateTime(), user.getId());
+        }
+        SysUserTombstone tombstone = tombstoneRepository.findFirstByDeleteTimeLessThanEqualOrderByDeleteTimeDescUserIdDesc(until);
+        if (tombstone != null) {
+            DirectoryPosition deleted = new DirectoryPosition(tombstone.getDeleteTime(), tombstone.getUserId());
+            if (DirectoryPosition.ORDER.compare(deleted, latest) > 0) {
+                latest = deleted;
+            }
+        }
+        return latest.format();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public UserChangeSet getUserChanges(String since, int size) {
+        DirectoryPosition from = DirectoryPosition.parse(since);
+        LocalDateTime retainedSince = LocalDateTime.now().minus(userDirectoryConfig.getTombstoneRetention());
+        if (from == null || from.time.isBefore(retainedSince)) {
+            // 期間的刪除記錄可能已被清理，無法給出完整變更
+            return UserChangeSet.builder()
+                    .version(since)
+                    .updated(List.of())
+                    .deletedIds(List.of())
+                    .resyncRequired(true)
+                    .build();
+        }
+
+        // 兩個來源各多讀一條，合併後超過 size 即表示還有更多變更
+        LocalDateTime until = settledTime();
+        PageRequest limit = PageRequest.of(0, size + 1);
+        List<SysUser> users = userRepository.findDirectoryChanges(from.time, from.id, until, limit);
+        List<SysUserTombstone> tombstones = tombstoneRepository.findDeletedAfter(from.time, from.id, until, limit);
+
+        List<SysUserDTO> updated = new ArrayList<>();
+        List<Long> deletedIds = new ArrayList<>();
+        DirectoryPosition last = from;
+        int u = 0;
+        int t = 0;
+        while (updated.size() + deletedIds.size() < size && (u < users.size() || t < tombstones.size())) {
+            DirectoryPosition userPosition = u < users.size()
+                    ? new DirectoryPosition(users.get(u).getUpdateTime(), users.get(u).getId()) : null;
+            DirectoryPosition tombstonePosition = t < tombstones.size()
+                    ? new DirectoryPosition(tombstones.get(t).getDeleteTime(), tombstones.get(t).getUserId()) : null;
+            if (tombstonePosition == null
+                    || (userPosition != null && DirectoryPosition.ORDER.compare(userPosition, tombstonePosition) < 0)) {
+                updated.add(toSummaryDTO(users.get(u++)));
+                last = userPosition;
+            } else {
+                deletedIds.add(tombstones.get(t++).getUserId());
+                last = tombstonePosition;
+            }
+        }
+
+        return UserChangeSet.builder()
+                .version(last.format())
+                .updated(updated)
+                .deletedIds(deletedIds)
+                .hasMore(u < users.size() || t < tombstones.size())
+                .build();
+    }
+
+    @Override
+    public int purgeUserTombstones() {
+        int purged = tombstoneRepository.deleteByDeleteTimeBefore(
+                LocalDateTime.now().minus(userDirectoryConfig.getTombstoneRetention()));
+        if (purged > 0) {
+            log.info("已清理 {} 條過期的用戶刪除記錄", purged);
+        }
+        return purged;
+    }
+
+    /**
+     * 用戶角色或狀態變更後遞增角色版本並撤銷已簽發的令牌
+     * <p>
+     * 令牌攜帶簽發時的權限，驗證時不查詢數據庫，舊令牌必須撤銷；遞增版本使舊權限緩存不再命中
+     */
+    private void invalidateTokens(SysUser user) {
+        user.setRoleVersion(user.getRoleVersion() + 1);
+        tokenRevocationService.revokeUser(user.getId());
+    }
+
+    /**
+     * 增量同步的截止時間，更新時間晚於此時間的變更留待下次同步
+     */
+    private LocalDateTime settledTime() {
+        return LocalDateTime.now().minus(userDirectoryConfig.getSettleDelay());
+    }
+
+    /**
+     * 轉換為不含密碼及角色權限的用戶DTO
+     */
+    private SysUserDTO toSummaryDTO(SysUser user) {
+        return SysUserDTO.builder()
+                .id(user.getId())
+                .username(user.getUsername())
+                .name(user.getName())
+                .email(user.getEmail())
+                .phone(user.getPhone())
+                .avatar(user.getAvatar())
+                .gender(user.getGender())
+                .status(user.getStatus())
+                .departmentId(user.getDepartmentId())
+                .departmentName(user.getDepartment() != null ? user.getDepartment().getDeptName() : null)
+                .positionId(user.getPositionId())
+                .positionName(user.getPosition() != null ? user.getPosition().getPositionName() : null)
+                .createTime(user.getCreateTime())
+                .updateTime(user.getUpdateTime())
+                .lastLoginTime(user.getLastLoginTime())
+                .build();
+    }
+
+    /**
+     * 用戶目錄變更流中的位置，按 (更新或刪除時間, 用戶ID) 排序；版本號格式為「毫秒時間戳:用戶ID」
+     */
+    private static final class DirectoryPosition {
+
+        private static final DirectoryPosition START = new DirectoryPosition(
+                LocalDateTime.ofInstant(Instant.EPOCH, ZoneId.systemDefault()), 0L);
+
+        private static final Comparator<DirectoryPosition> ORDER = Comparator
+                .comparing((DirectoryPosition position) -> position.time)
+                .thenComparingLong(position -> position.id);
+
+        private final LocalDateTime time;
+
+        private final long id;
+
+        private DirectoryPosition(LocalDateTime time, long id) {
+            this.time = time;
+            this.id = id;
+        }
+
+        private String format() {
+            return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() + ":" + id;
+        }
+
+        /**
+         * @return 位置，格式不正確時為 null
+         */
+        private static DirectoryPosition parse(String version) {
+            if (version == null) {
+                return null;
+            }
+            int separator = version.indexOf(':');
+            try {
+                long millis = Long.parseLong(version.substring(0, Math.max(separator, 0)));
+                long id = Long.parseLong(version.substring(separator + 1));
+                return new DirectoryPosition(LocalDateTime.ofInstant(
+                        Instant.ofEpochMilli(millis), ZoneId.systemDefault()), id);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+    }
 }
@@ -0,0 +1,24 @@
+package com.clockin.auth.task;
+
+import com.clockin.auth.service.SigningKeyService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * JWT 簽名密鑰刷新及輪換任務
+ */
+@Component
+@RequiredArgsConstructor
+public class SigningKeyRotationTask {
+
+    private final SigningKeyService signingKeyService;
+
+    /**
+     * 定期載入其他實例建立的密鑰，到期時輪換
+     */
+    @Scheduled(fixedDelayString = "${jwt.key-refresh-interval:60000}", initialDelayString = "${jwt.key-refresh-interval:60000}")
+    public void rotateSigningKeys() {
+        signingKeyService.rotate();
+    }
+}
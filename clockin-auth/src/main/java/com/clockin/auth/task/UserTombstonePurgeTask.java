@@ -0,0 +1,24 @@
+package com.clockin.auth.task;
+
+import com.clockin.auth.service.SysUserService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 已刪除用戶墓碑清理任務
+ */
+@Component
+@RequiredArgsConstructor
+public class UserTombstonePurgeTask {
+
+    private final SysUserService userService;
+
+    /**
+     * 定期刪除超過保留期的墓碑，版本號早於保留期的消費方需重新讀取全量快照
+     */
+    @Scheduled(fixedDelayString = "${clock-in.user-directory.purge-interval:3600000}")
+    public void purgeUserTombstones() {
+        userService.purgeUserTombstones();
+    }
+}
@@ -1,30 +1,71 @@
 package com.clockin.auth.util;
 
 import com.clockin.auth.config.JwtConfig;
+import com.clockin.auth.service.SigningKeyService;
+import com.clockin.common.security.JwtVerifier;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
 import io.jsonwebtoken.security.Keys;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import java.nio.charset.StandardCharsets;
 import javax.crypto.SecretKey;
+import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * JWT Token 工具類
+ * <p>
+ * 以 {@link SigningKeyService} 的當前 EC 密鑰簽發令牌並在令牌頭寫入密鑰ID；
+ * 不含密鑰ID的舊令牌仍以 HMAC 密鑰驗證，直到過期為止
  */
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class JwtTokenUtil {
 
+    /**
+     * 用戶ID
+     */
+    public static final String CLAIM_USER_ID = "uid";
+
+    /**
+     * 簽發時的角色版本
+     */
+    public static final String CLAIM_ROLE_VERSION = "rv";
+
+    /**
+     * 權限列表（角色及權限編碼）
+     */
+    public static final String CLAIM_AUTHORITIES = "auth";
+
     private final JwtConfig jwtConfig;
+    private final SigningKeyService signingKeyService;
+
+    /**
+     * 已驗證令牌的緩存條目數
+     */
+    @Value("${jwt.verified-cache-size:1024}")
+    private int verifiedCacheSize;
+
+    /**
+     * 驗證器及舊令牌的 HMAC 密鑰在首次使用時構建，之後共用
+     */
+    private volatile JwtVerifier verifier;
+
+    private volatile SecretKey legacyKey;
 
     /**
      * 從 token 中獲取用戶名
@@ -60,17 +101,13 @@ public class JwtTokenUtil {
     }
 
     /**
-     * 從 token 中獲取所有 claims
+     * 驗證簽名及有效期並獲取所有 claims，近期驗證過的 token 直接取緩存
      *
      * @param token JWT token
      * @return claims
      */
-    private Claims getAllClaimsFromToken(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    public Claims getAllClaimsFromToken(String token) {
+        return getVerifier().verify(token).getClaims();
     }
 
     /**
@@ -95,6 +132,24 @@ public class JwtTokenUtil {
         return doGenerateToken(claims, userDetails.getUsername());
     }
 
+    /**
+     * 生成攜帶用戶ID、角色版本及權限的 token，驗證時不需要查詢數據庫
+     *
+     * @param userId      用戶ID
+     * @param roleVersion 角色版本
+     * @param userDetails 用戶詳情
+     * @return JWT token
+     */
+    public String generateToken(Long userId, int roleVersion, UserDetails userDetails) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(CLAIM_USER_ID, userId);
+        claims.put(CLAIM_ROLE_VERSION, roleVersion);
+        claims.put(CLAIM_AUTHORITIES, userDetails.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.toList()));
+        return doGenerateToken(claims, userDetails.getUsername());
+    }
+
     /**
      * 生成 token
      *
@@ -105,13 +160,16 @@ public class JwtTokenUtil {
     private String doGenerateToken(Map<String, Object> claims, String subject) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + jwtConfig.getExpiration() * 1000);
+        SigningKeyService.SigningKey signingKey = signingKeyService.getActiveKey();
         
         return Jwts.builder()
+                .header().keyId(signingKey.getKeyId()).and()
                 .claims(claims)
                 .subject(subject)
+                .id(UUID.randomUUID().toString())
                 .issuedAt(now)
                 .expiration(expiryDate)
-                .signWith(getSigningKey())
+                .signWith(signingKey.getPrivateKey())
                 .compact();
     }
 
@@ -133,12 +191,37 @@ public class JwtTokenUtil {
     }
 
     /**
-     * 獲取用於簽名的密鑰
+     * 獲取舊令牌使用的 HMAC 密鑰
      *
      * @return 密鑰
      */
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = jwtConfig.getSecret().getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
+    private SecretKey getLegacyKey() {
+        SecretKey key = legacyKey;
+        if (key == null) {
+            key = Keys.hmacShaKeyFor(jwtConfig.getSecret().getBytes(StandardCharsets.UTF_8));
+            legacyKey = key;
+        }
+        return key;
+    }
+
+    /**
+     * 獲取令牌驗證器
+     *
+     * @return 驗證器
+     */
+    private JwtVerifier getVerifier() {
+        JwtVerifier current = verifier;
+        if (current == null) {
+            current = new JwtVerifier(new LocatorAdapter<Key>() {
+                @Override
+                protected Key locate(JwsHeader header) {
+                    return header.getKeyId() != null
+                            ? signingKeyService.getPublicKey(header.getKeyId())
+                            : getLegacyKey();
+                }
+            }, verifiedCacheSize);
+            verifier = current;
+        }
+        return current;
     }
 }
@@ -0,0 +1,3 @@
+-- 用戶角色版本：角色或權限變更時遞增，令牌中攜帶簽發時的版本，權限緩存按（用戶ID, 角色版本）區分
+ALTER TABLE `sys_user`
+  ADD COLUMN `role_version` int NOT NULL DEFAULT '0' COMMENT '角色版本' AFTER `last_login_ip`;
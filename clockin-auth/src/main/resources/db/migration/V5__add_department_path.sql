@@ -0,0 +1,16 @@
+-- 部門祖先路徑：由根部門至自身的ID以 / 分隔，子樹查詢按前綴匹配，不再逐層遞歸查詢
+ALTER TABLE `sys_department`
+  ADD COLUMN `path` varchar(500) NOT NULL DEFAULT '' COMMENT '祖先路徑(如 /100/102/105/)' AFTER `parent_id`,
+  ADD KEY `idx_path` (`path`);
+
+-- 按父部門關係回填現有部門的路徑
+UPDATE `sys_department` d
+JOIN (
+  WITH RECURSIVE `tree` (`id`, `path`) AS (
+    SELECT `id`, CAST(CONCAT('/', `id`, '/') AS CHAR(500)) FROM `sys_department` WHERE `parent_id` IS NULL
+    UNION ALL
+    SELECT c.`id`, CONCAT(t.`path`, c.`id`, '/') FROM `sys_department` c JOIN `tree` t ON c.`parent_id` = t.`id`
+  )
+  SELECT `id`, `path` FROM `tree`
+) p ON p.`id` = d.`id`
+SET d.`path` = p.`path`;
@@ -0,0 +1,11 @@
+-- 用戶目錄增量同步：按 (update_time, id) 順序讀取變更，刪除的用戶以墓碑記錄
+ALTER TABLE `sys_user`
+    ADD KEY `idx_update_time` (`update_time`);
+
+-- 已刪除用戶墓碑表，保留期過後由定時任務清理
+CREATE TABLE IF NOT EXISTS `sys_user_tombstone` (
+    `user_id` bigint NOT NULL COMMENT '用戶ID',
+    `delete_time` datetime NOT NULL COMMENT '刪除時間',
+    PRIMARY KEY (`user_id`),
+    KEY `idx_delete_time` (`delete_time`)
+) ENGINE=InnoDB COMMENT='已刪除用戶墓碑表';
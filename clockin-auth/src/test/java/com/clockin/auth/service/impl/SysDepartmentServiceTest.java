@@ -0,0 +1,182 @@
+package com.clockin.auth.service.impl;
+
+import com.clockin.auth.dto.SysDepartmentDTO;
+import com.clockin.auth.entity.SysDepartment;
+import com.clockin.auth.repository.SysDepartmentRepository;
+import com.clockin.auth.repository.SysUserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * 部門樹緩存增量更新測試
+ */
+public class SysDepartmentServiceTest {
+
+    @InjectMocks
+    private SysDepartmentServiceImpl departmentService;
+
+    @Mock
+    private SysDepartmentRepository departmentRepository;
+
+    @Mock
+    private SysUserRepository userRepository;
+
+    @Spy
+    private ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager(SysDepartmentServiceImpl.CACHE_NAME);
+
+    private final Map<Long, SysDepartment> departments = new HashMap<>();
+
+    private Cache cache;
+
+    @BeforeEach
+    public void setup() {
+        MockitoAnnotations.openMocks(this);
+        // 總公司 ─┬─ 研發部 ── 後端組
+        //        └─ 市場部
+        department(1L, "總公司", null, 1, "/1/");
+        department(2L, "研發部", 1L, 1, "/1/2/");
+        department(3L, "市場部", 1L, 2, "/1/3/");
+        department(4L, "後端組", 2L, 1, "/1/2/4/");
+        when(departmentRepository.findById(any()))
+                .thenAnswer(invocation -> Optional.ofNullable(departments.get(invocation.<Long>getArgument(0))));
+        when(departmentRepository.findAll()).thenAnswer(invocation -> List.copyOf(departments.values()));
+        when(departmentRepository.save(any(SysDepartment.class))).thenAnswer(invocation -> {
+            SysDepartment department = invocation.getArgument(0);
+            if (department.getId() == null) {
+                department.setId(5L);
+            }
+            departments.put(department.getId(), department);
+            return department;
+        });
+
+        cache = cacheManager.getCache(SysDepartmentServiceImpl.CACHE_NAME);
+        // 未經 Spring 代理時 @Cacheable 不生效，手動放入部門樹
+        cache.put("tree", departmentService.getDepartmentTree());
+    }
+
+    @Test
+    public void testAddInsertsAtSortedPosition() {
+        SysDepartmentDTO result = departmentService.addDepartment(SysDepartmentDTO.builder()
+                .deptName("財務部").deptCode("FIN").parentId(1L).orderNum(2).build());
+
+        assertEquals(5L, result.getId());
+        assertEquals("總公司", result.getParentName());
+        assertEquals("/1/5/", departments.get(5L).getPath());
+        // 顯示順序相同時按ID排在後面
+        assertEquals(List.of(2L, 3L, 5L), ids(node(1L).getChildren()));
+        assertEquals("總公司", node(5L).getParentName());
+        assertSame(result, cache.get(5L, SysDepartmentDTO.class));
+        verify(departmentRepository, times(1)).findAll();
+    }
+
+    @Test
+    public void testMoveCarriesSubtree() {
+        departmentService.updateDepartment(2L, SysDepartmentDTO.builder()
+                .deptName("研發部").parentId(3L).orderNum(1).status(1).build());
+
+        verify(departmentRepository).replacePathPrefix("/1/2/", "/1/3/2/");
+        assertEquals(List.of(3L), ids(node(1L).getChildren()));
+        assertEquals(List.of(2L), ids(node(3L).getChildren()));
+        assertEquals(List.of(4L), ids(node(2L).getChildren()));
+        assertEquals("市場部", node(2L).getParentName());
+        assertEquals("研發部", node(4L).getParentName());
+    }
+
+    @Test
+    public void testRenameUpdatesChildrenParentName() {
+        cache.put(4L, SysDepartmentDTO.builder().id(4L).parentName("研發部").build());
+        cache.put("children:2", List.of());
+        cache.put("children:3", List.of());
+
+        departmentService.updateDepartment(2L, SysDepartmentDTO.builder()
+                .deptName("技術部").parentId(1L).orderNum(1).status(1).build());
+
+        verify(departmentRepository, never()).replacePathPrefix(any(), any());
+        assertEquals(List.of(2L, 3L), ids(node(1L).getChildren()));
+        assertEquals("技術部", node(2L).getDeptName());
+        assertEquals("技術部", node(4L).getParentName());
+        // 子部門的單項緩存與子部門列表隨之失效，不相關的列表保留
+        assertNull(cache.get(4L));
+        assertNull(cache.get("children:2"));
+        assertNotNull(cache.get("children:3"));
+    }
+
+    @Test
+    public void testDeleteRemovesNode() {
+        cache.put("children:2", List.of());
+
+        departmentService.deleteDepartment(4L);
+
+        verify(departmentRepository).delete(departments.get(4L));
+        assertTrue(node(2L).getChildren().isEmpty());
+        assertNull(find(tree(), 4L));
+        assertNull(cache.get("children:2"));
+    }
+
+    @Test
+    public void testUnknownParentEvictsTree() {
+        // 父部門存在於數據庫但不在緩存的樹中
+        department(9L, "孤立部門", 99L, 1, "/99/9/");
+
+        departmentService.addDepartment(SysDepartmentDTO.builder().deptName("子部門").parentId(9L).build());
+
+        assertNull(cache.get("tree"));
+    }
+
+    @Test
+    public void testDepartmentAndChildIdsUsePathPrefix() {
+        when(departmentRepository.findSubtreeIds("/1/2/")).thenReturn(List.of(2L, 4L));
+
+        assertEquals(List.of(2L, 4L), departmentService.getDepartmentAndChildIds(2L));
+        assertEquals(List.of(42L), departmentService.getDepartmentAndChildIds(42L));
+        verify(departmentRepository, never()).findSubtreeIds(isNull());
+    }
+
+    private void department(Long id, String name, Long parentId, Integer orderNum, String path) {
+        departments.put(id, SysDepartment.builder()
+                .id(id).deptName(name).parentId(parentId).orderNum(orderNum).path(path).status(1).build());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<SysDepartmentDTO> tree() {
+        return cache.get("tree", List.class);
+    }
+
+    private SysDepartmentDTO node(Long id) {
+        SysDepartmentDTO node = find(tree(), id);
+        assertNotNull(node, "部門 " + id + " 不在樹中");
+        return node;
+    }
+
+    private static SysDepartmentDTO find(List<SysDepartmentDTO> nodes, Long id) {
+        for (SysDepartmentDTO node : nodes) {
+            if (id.equals(node.getId())) {
+                return node;
+            }
+            SysDepartmentDTO found = find(node.getChildren(), id);
+            if (found != null) {
+                return found;
+            }
+        }
+        return null;
+    }
+
+    private static List<Long> ids(List<SysDepartmentDTO> nodes) {
+        return nodes.stream().map(SysDepartmentDTO::getId).toList();
+    }
+}
@@ -0,0 +1,150 @@
+package com.clockin.auth.service.impl;
+
+import com.clockin.auth.config.UserDirectoryConfig;
+import com.clockin.auth.dto.SysUserDTO;
+import com.clockin.auth.dto.UserChangeSet;
+import com.clockin.auth.entity.SysUser;
+import com.clockin.auth.entity.SysUserTombstone;
+import com.clockin.auth.repository.SysUserRepository;
+import com.clockin.auth.repository.SysUserTombstoneRepository;
+import com.clockin.auth.service.TokenRevocationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * 用戶目錄增量變更測試
+ */
+public class SysUserServiceTest {
+
+    @Mock
+    private SysUserRepository userRepository;
+
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
+    @Mock
+    private SysUserTombstoneRepository tombstoneRepository;
+
+    private SysUserServiceImpl userService;
+
+    private LocalDateTime base;
+
+    @BeforeEach
+    public void setup() {
+        MockitoAnnotations.openMocks(this);
+        UserDirectoryConfig config = new UserDirectoryConfig();
+        config.setSettleDelay(Duration.ofSeconds(5));
+        config.setTombstoneRetention(Duration.ofDays(30));
+        userService = new SysUserServiceImpl(userRepository, tokenRevocationService, tombstoneRepository, config);
+        // 版本號精確到毫秒
+        base = LocalDateTime.now().minusHours(1).truncatedTo(ChronoUnit.MILLIS);
+    }
+
+    @Test
+    public void testMergesUsersAndTombstonesInOrder() {
+        when(userRepository.findDirectoryChanges(any(), any(), any(), any())).thenReturn(List.of(
+                user(3L, base.plusSeconds(1)), user(1L, base.plusSeconds(2))));
+        when(tombstoneRepository.findDeletedAfter(any(), any(), any(), any())).thenReturn(List.of(
+                new SysUserTombstone(2L, base.plusSeconds(1)), new SysUserTombstone(5L, base.plusSeconds(3))));
+
+        UserChangeSet changes = userService.getUserChanges(version(base, 0L), 10);
+
+        // 同一時間按ID排序：墓碑 2 在用戶 3 之前
+        assertEquals(List.of(3L, 1L), changes.getUpdated().stream().map(SysUserDTO::getId).toList());
+        assertEquals(List.of(2L, 5L), changes.getDeletedIds());
+        assertEquals(version(base.plusSeconds(3), 5L), changes.getVersion());
+        assertFalse(changes.isHasMore());
+        assertFalse(changes.isResyncRequired());
+    }
+
+    @Test
+    public void testQueriesFromVersionUntilSettledTime() {
+        LocalDateTime before = LocalDateTime.now().minusSeconds(5);
+
+        userService.getUserChanges(version(base, 7L), 20);
+
+        LocalDateTime after = LocalDateTime.now().minusSeconds(5);
+        ArgumentCaptor<LocalDateTime> until = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(userRepository).findDirectoryChanges(eq(base), eq(7L), until.capture(), eq(PageRequest.of(0, 21)));
+        verify(tombstoneRepository).findDeletedAfter(base, 7L, until.getValue(), PageRequest.of(0, 21));
+        // 未穩定的最近變更留待下次同步
+        assertFalse(until.getValue().isBefore(before));
+        assertFalse(until.getValue().isAfter(after));
+    }
+
+    @Test
+    public void testVersionStopsAtLastConsumedChange() {
+        when(userRepository.findDirectoryChanges(any(), any(), any(), any())).thenReturn(List.of(
+                user(3L, base.plusSeconds(1)), user(1L, base.plusSeconds(2))));
+        when(tombstoneRepository.findDeletedAfter(any(), any(), any(), any())).thenReturn(List.of(
+                new SysUserTombstone(2L, base.plusSeconds(1))));
+
+        UserChangeSet changes = userService.getUserChanges(version(base, 0L), 2);
+
+        assertEquals(List.of(3L), changes.getUpdated().stream().map(SysUserDTO::getId).toList());
+        assertEquals(List.of(2L), changes.getDeletedIds());
+        assertEquals(version(base.plusSeconds(1), 3L), changes.getVersion());
+        assertTrue(changes.isHasMore());
+    }
+
+    @Test
+    public void testHasMoreWhenOnlyTombstonesRemain() {
+        when(tombstoneRepository.findDeletedAfter(any(), any(), any(), any())).thenReturn(List.of(
+                new SysUserTombstone(2L, base.plusSeconds(1)), new SysUserTombstone(4L, base.plusSeconds(2))));
+
+        UserChangeSet changes = userService.getUserChanges(version(base, 0L), 1);
+
+        assertTrue(changes.getUpdated().isEmpty());
+        assertEquals(List.of(2L), changes.getDeletedIds());
+        assertEquals(version(base.plusSeconds(1), 2L), changes.getVersion());
+        assertTrue(changes.isHasMore());
+    }
+
+    @Test
+    public void testNoChangesKeepsVersion() {
+        String since = version(base, 9L);
+
+        UserChangeSet changes = userService.getUserChanges(since, 10);
+
+        assertEquals(since, changes.getVersion());
+        assertTrue(changes.getUpdated().isEmpty());
+        assertTrue(changes.getDeletedIds().isEmpty());
+        assertFalse(changes.isHasMore());
+    }
+
+    @Test
+    public void testInvalidOrExpiredVersionRequiresResync() {
+        String expired = version(LocalDateTime.now().minusDays(31), 1L);
+        for (String since : new String[]{null, "", "abc", "123", "abc:1", expired}) {
+            UserChangeSet changes = userService.getUserChanges(since, 10);
+
+            assertTrue(changes.isResyncRequired(), String.valueOf(since));
+            assertEquals(since, changes.getVersion());
+            assertTrue(changes.getUpdated().isEmpty());
+            assertTrue(changes.getDeletedIds().isEmpty());
+        }
+        verifyNoInteractions(userRepository, tombstoneRepository);
+    }
+
+    private static SysUser user(Long id, LocalDateTime updateTime) {
+        return SysUser.builder().id(id).username("user" + id).updateTime(updateTime).build();
+    }
+
+    private static String version(LocalDateTime time, Long id) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() + ":" + id;
+    }
+}
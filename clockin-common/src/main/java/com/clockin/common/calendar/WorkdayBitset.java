@@ -0,0 +1,193 @@
+package com.clockin.common.calendar;
+
+import com.clockin.common.util.DateTimeUtil;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * 單一年度的工作日位圖
+ * <p>
+ * 第 n 位（從 0 開始）對應當年第 n + 1 天，1 表示工作日。366 位以 6 個 long 保存，
+ * 區間內的工作日數量以 popcount 計算，不需要逐日判斷。實例不可變，可在執行緒間共享。
+ */
+public final class WorkdayBitset {
+
+    private static final int WORDS = 6;
+
+    /**
+     * 視為工作日的假日類型：3-特殊工作日，4-工作日，其餘啟用的假日配置一律視為休息日
+     */
+    private static final Set<Integer> WORKDAY_HOLIDAY_TYPES = Set.of(3, 4);
+
+    private static final int ENCODED_BYTES = WORDS * Long.BYTES;
+
+    private final int year;
+
+    private final long[] words;
+
+    private WorkdayBitset(int year, long[] words) {
+        this.year = year;
+        this.words = words;
+    }
+
+    /**
+     * 根據判斷函數建立年度位圖
+     *
+     * @param year      年份
+     * @param isWorkDay 判斷指定日期是否為工作日
+     * @return 年度位圖
+     */
+    public static WorkdayBitset of(int year, Predicate<LocalDate> isWorkDay) {
+        long[] words = new long[WORDS];
+        for (LocalDate date = LocalDate.of(year, 1, 1); date.getYear() == year; date = date.plusDays(1)) {
+            if (isWorkDay.test(date)) {
+                int index = date.getDayOfYear() - 1;
+                words[index >>> 6] |= 1L << index;
+            }
+        }
+        return new WorkdayBitset(year, words);
+    }
+
+    /**
+     * 根據假日配置建立年度位圖，沒有配置的日期週一至週五為工作日
+     *
+     * @param year      年份
+     * @param overrides 日期與是否為工作日的映射
+     * @return 年度位圖
+     */
+    public static WorkdayBitset of(int year, Map<LocalDate, Boolean> overrides) {
+        return of(year, date -> overrides.getOrDefault(date, !DateTimeUtil.isWeekend(date)));
+    }
+
+    /**
+     * 判斷假日配置類型是否表示工作日
+     *
+     * @param holidayType 假日類型
+     * @return 是否為工作日
+     */
+    public static boolean isWorkdayHolidayType(Integer holidayType) {
+        return holidayType != null && WORKDAY_HOLIDAY_TYPES.contains(holidayType);
+    }
+
+    /**
+     * 從 {@link #encode()} 的結果還原年度位圖
+     *
+     * @param year    年份
+     * @param encoded Base64 編碼的位圖
+     * @return 年度位圖
+     */
+    public static WorkdayBitset decode(int year, String encoded) {
+        byte[] bytes = Base64.getDecoder().decode(encoded);
+        if (bytes.length != ENCODED_BYTES) {
+            throw new IllegalArgumentException("工作日位圖長度不正確: " + bytes.length);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        long[] words = new long[WORDS];
+        for (int i = 0; i < WORDS; i++) {
+            words[i] = buffer.getLong();
+        }
+        return new WorkdayBitset(year, words);
+    }
+
+    /**
+     * 編碼為 Base64 字串，用於寫入 Redis 等外部緩存
+     *
+     * @return Base64 編碼的位圖
+     */
+    public String encode() {
+        ByteBuffer buffer = ByteBuffer.allocate(ENCODED_BYTES);
+        for (long word : words) {
+            buffer.putLong(word);
+        }
+        return Base64.getEncoder().encodeToString(buffer.array());
+    }
+
+    public int getYear() {
+        return year;
+    }
+
+    /**
+     * 檢查指定日期是否為工作日
+     *
+     * @param date 日期，必須屬於本年度
+     * @return 是否為工作日
+     */
+    public boolean isWorkDay(LocalDate date) {
+        int index = indexOf(date);
+        return (words[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * 統計日期區間內的工作日數量（包含首尾）
+     *
+     * @param startDate 開始日期，必須屬於本年度
+     * @param endDate   結束日期，必須屬於本年度
+     * @return 工作日數量，開始日期晚於結束日期時為 0
+     */
+    public int countWorkingDays(LocalDate startDate, LocalDate endDate) {
+        int from = indexOf(startDate);
+        int to = indexOf(endDate);
+        if (from > to) {
+            return 0;
+        }
+
+        int fromWord = from >>> 6;
+        int toWord = to >>> 6;
+        int count = 0;
+        for (int i = fromWord; i <= toWord; i++) {
+            long word = words[i];
+            if (i == fromWord) {
+                word &= -1L << from;
+            }
+            if (i == toWord) {
+                word &= -1L >>> (63 - (to & 63));
+            }
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * 查找指定日期之後（不含當天）本年度內的第一個工作日
+     *
+     * @param date 日期，必須屬於本年度
+     * @return 下一個工作日，本年度內沒有時為 null
+     */
+    public LocalDate nextWorkingDay(LocalDate date) {
+        int from = indexOf(date) + 1;
+        int i = from >>> 6;
+        if (i >= WORDS) {
+            return null;
+        }
+
+        long word = words[i] & (-1L << from);
+        while (word == 0) {
+            if (++i == WORDS) {
+                return null;
+            }
+            word = words[i];
+        }
+        return LocalDate.ofYearDay(year, (i << 6) + Long.numberOfTrailingZeros(word) + 1);
+    }
+
+    /**
+     * 第一個工作日
+     *
+     * @return 本年度第一個工作日，沒有時為 null
+     */
+    public LocalDate firstWorkingDay() {
+        return isWorkDay(LocalDate.of(year, 1, 1)) ? LocalDate.of(year, 1, 1) : nextWorkingDay(LocalDate.of(year, 1, 1));
+    }
+
+    private int indexOf(LocalDate date) {
+        if (date.getYear() != year) {
+            throw new IllegalArgumentException("日期 " + date + " 不屬於 " + year + " 年");
+        }
+        return date.getDayOfYear() - 1;
+    }
+}
@@ -0,0 +1,100 @@
+package com.clockin.common.calendar;
+
+import java.time.LocalDate;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.IntFunction;
+
+/**
+ * 工作日曆
+ * <p>
+ * 按年度載入 {@link WorkdayBitset} 並保存在記憶體中，跨年度的查詢會拆分到各年度位圖上計算
+ */
+public class WorkdayCalendar {
+
+    /**
+     * 查找下一個工作日時最多向後搜索的年數
+     */
+    private static final int MAX_SEARCH_YEARS = 10;
+
+    private final IntFunction<WorkdayBitset> loader;
+
+    private final ConcurrentMap<Integer, WorkdayBitset> years = new ConcurrentHashMap<>();
+
+    /**
+     * @param loader 年度位圖載入函數，同一年度只會在首次使用時調用一次
+     */
+    public WorkdayCalendar(IntFunction<WorkdayBitset> loader) {
+        this.loader = loader;
+    }
+
+    /**
+     * 獲取指定年度的位圖
+     *
+     * @param year 年份
+     * @return 年度位圖
+     */
+    public WorkdayBitset getYear(int year) {
+        return years.computeIfAbsent(year, loader::apply);
+    }
+
+    /**
+     * 檢查指定日期是否為工作日
+     *
+     * @param date 日期
+     * @return 是否為工作日
+     */
+    public boolean isWorkDay(LocalDate date) {
+        return getYear(date.getYear()).isWorkDay(date);
+    }
+
+    /**
+     * 統計日期區間內的工作日數量（包含首尾）
+     *
+     * @param startDate 開始日期
+     * @param endDate   結束日期
+     * @return 工作日數量，開始日期晚於結束日期時為 0
+     */
+    public int countWorkingDays(LocalDate startDate, LocalDate endDate) {
+        int count = 0;
+        for (int year = startDate.getYear(); year <= endDate.getYear(); year++) {
+            LocalDate from = year == startDate.getYear() ? startDate : LocalDate.of(year, 1, 1);
+            LocalDate to = year == endDate.getYear() ? endDate : LocalDate.of(year, 12, 31);
+            count += getYear(year).countWorkingDays(from, to);
+        }
+        return count;
+    }
+
+    /**
+     * 查找指定日期之後（不含當天）的第一個工作日
+     *
+     * @param date 日期
+     * @return 下一個工作日
+     */
+    public LocalDate nextWorkingDay(LocalDate date) {
+        LocalDate next = getYear(date.getYear()).nextWorkingDay(date);
+        for (int year = date.getYear() + 1; next == null && year <= date.getYear() + MAX_SEARCH_YEARS; year++) {
+            next = getYear(year).firstWorkingDay();
+        }
+        if (next == null) {
+            throw new IllegalStateException(date + " 之後 " + MAX_SEARCH_YEARS + " 年內沒有工作日");
+        }
+        return next;
+    }
+
+    /**
+     * 清除指定年度的位圖，下次使用時重新載入
+     *
+     * @param year 年份
+     */
+    public void invalidate(int year) {
+        years.remove(year);
+    }
+
+    /**
+     * 清除所有年度的位圖
+     */
+    public void invalidateAll() {
+        years.clear();
+    }
+}
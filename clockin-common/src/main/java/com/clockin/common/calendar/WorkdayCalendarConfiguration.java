@@ -0,0 +1,20 @@
+package com.clockin.common.calendar;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+/**
+ * 工作日曆配置
+ * <p>
+ * 各服務只需提供一個 {@link WorkdayCalendarSource}，即可共用同一套位圖緩存邏輯
+ */
+@Configuration
+public class WorkdayCalendarConfiguration {
+
+    @Bean
+    public WorkdayCalendarService workdayCalendarService(WorkdayCalendarSource workdayCalendarSource,
+                                                         StringRedisTemplate stringRedisTemplate) {
+        return new WorkdayCalendarServiceImpl(workdayCalendarSource, stringRedisTemplate);
+    }
+}
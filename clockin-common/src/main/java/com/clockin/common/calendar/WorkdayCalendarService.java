@@ -0,0 +1,41 @@
+package com.clockin.common.calendar;
+
+import java.time.LocalDate;
+
+/**
+ * 工作日曆服務接口
+ * <p>
+ * 以每年一個工作日位圖回答工作日相關查詢，位圖同時保存在記憶體及 Redis 中，供 admin 與 record 服務共用
+ */
+public interface WorkdayCalendarService {
+
+    /**
+     * 檢查指定日期是否為工作日
+     *
+     * @param date 日期
+     * @return 是否為工作日
+     */
+    boolean isWorkDay(LocalDate date);
+
+    /**
+     * 統計日期區間內的工作日數量（包含首尾）
+     *
+     * @param startDate 開始日期
+     * @param endDate   結束日期
+     * @return 工作日數量
+     */
+    int countWorkingDays(LocalDate startDate, LocalDate endDate);
+
+    /**
+     * 查找指定日期之後（不含當天）的第一個工作日
+     *
+     * @param date 日期
+     * @return 下一個工作日
+     */
+    LocalDate nextWorkingDay(LocalDate date);
+
+    /**
+     * 清除本地的工作日曆，假日配置變更後調用
+     */
+    void evictAll();
+}
@@ -0,0 +1,107 @@
+package com.clockin.common.calendar;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 工作日曆服務實現
+ * <p>
+ * 記憶體中按配置版本保存年度位圖，版本變更時整體替換；Redis 中的位圖以版本及年份為鍵，
+ * 相同版本的 admin 與 record 實例可直接共用，無需各自重建。由 {@link WorkdayCalendarConfiguration} 註冊
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class WorkdayCalendarServiceImpl implements WorkdayCalendarService {
+
+    private static final String REDIS_KEY_PREFIX = "clockin:workday-calendar:";
+
+    private static final Duration REDIS_TTL = Duration.ofDays(7);
+
+    private final WorkdayCalendarSource workdayCalendarSource;
+    private final StringRedisTemplate stringRedisTemplate;
+
+    private final AtomicReference<VersionedCalendar> current = new AtomicReference<>();
+
+    @Override
+    public boolean isWorkDay(LocalDate date) {
+        return calendar().isWorkDay(date);
+    }
+
+    @Override
+    public int countWorkingDays(LocalDate startDate, LocalDate endDate) {
+        return calendar().countWorkingDays(startDate, endDate);
+    }
+
+    @Override
+    public LocalDate nextWorkingDay(LocalDate date) {
+        return calendar().nextWorkingDay(date);
+    }
+
+    @Override
+    public void evictAll() {
+        workdayCalendarSource.invalidate();
+        current.set(null);
+    }
+
+    /**
+     * 獲取與當前配置版本一致的日曆
+     */
+    private WorkdayCalendar calendar() {
+        String version = workdayCalendarSource.getVersion();
+        VersionedCalendar calendar = current.get();
+        while (calendar == null || !Objects.equals(calendar.version, version)) {
+            VersionedCalendar created = new VersionedCalendar(version,
+                    new WorkdayCalendar(year -> loadYear(version, year)));
+            if (current.compareAndSet(calendar, created)) {
+                log.debug("工作日曆切換到版本: {}", version);
+                return created.calendar;
+            }
+            calendar = current.get();
+        }
+        return calendar.calendar;
+    }
+
+    /**
+     * 載入年度位圖，優先讀取 Redis，未命中時由數據來源建立並寫回
+     */
+    private WorkdayBitset loadYear(String version, int year) {
+        if (version == null) {
+            return workdayCalendarSource.loadYear(year);
+        }
+
+        String key = REDIS_KEY_PREFIX + version + ":" + year;
+        try {
+            String encoded = stringRedisTemplate.opsForValue().get(key);
+            if (encoded != null) {
+                return WorkdayBitset.decode(year, encoded);
+            }
+        } catch (Exception e) {
+            log.warn("從 Redis 讀取 {} 年工作日曆失敗: {}", year, e.getMessage());
+        }
+
+        WorkdayBitset bitset = workdayCalendarSource.loadYear(year);
+        try {
+            stringRedisTemplate.opsForValue().set(key, bitset.encode(), REDIS_TTL);
+        } catch (Exception e) {
+            log.warn("寫入 {} 年工作日曆到 Redis 失敗: {}", year, e.getMessage());
+        }
+        return bitset;
+    }
+
+    private static final class VersionedCalendar {
+
+        private final String version;
+        private final WorkdayCalendar calendar;
+
+        private VersionedCalendar(String version, WorkdayCalendar calendar) {
+            this.version = version;
+            this.calendar = calendar;
+        }
+    }
+}
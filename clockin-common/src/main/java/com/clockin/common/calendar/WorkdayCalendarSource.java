@@ -0,0 +1,30 @@
+package com.clockin.common.calendar;
+
+/**
+ * 工作日曆數據來源
+ * <p>
+ * 為 {@link WorkdayCalendarService} 提供年度位圖及其所基於的配置版本
+ */
+public interface WorkdayCalendarSource {
+
+    /**
+     * 獲取當前假日配置版本，每次查詢工作日曆時都會調用，實現必須足夠輕量
+     *
+     * @return 配置版本，尚未確定時為 null，此時建立的位圖不會寫入共享緩存
+     */
+    String getVersion();
+
+    /**
+     * 建立指定年度的工作日位圖
+     *
+     * @param year 年份
+     * @return 年度位圖
+     */
+    WorkdayBitset loadYear(int year);
+
+    /**
+     * 通知來源配置已變更
+     */
+    default void invalidate() {
+    }
+}
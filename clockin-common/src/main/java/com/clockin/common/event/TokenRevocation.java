@@ -0,0 +1,48 @@
+package com.clockin.common.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 令牌撤銷消息
+ * <p>
+ * 撤銷單個令牌（登出）或用戶在某時間之前簽發的全部令牌（刪除用戶、變更角色）。
+ * 認證服務以 JSON 發布到 {@link #CHANNEL}，同時保存到 {@link #DENYLIST_KEY} 有序集合（分數為 {@link #expiresAt}），
+ * 各實例啟動時從有序集合載入，運行期間通過訂閱更新本地的撤銷列表
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenRevocation {
+
+    /**
+     * Redis 發布訂閱頻道
+     */
+    public static final String CHANNEL = "clockin:token-revocation";
+
+    /**
+     * 保存未過期撤銷記錄的 Redis 有序集合
+     */
+    public static final String DENYLIST_KEY = "clockin:token-denylist";
+
+    /**
+     * 令牌ID（jti），撤銷用戶全部令牌時為 null
+     */
+    private String tokenId;
+
+    /**
+     * 用戶ID，撤銷單個令牌時為 null
+     */
+    private Long userId;
+
+    /**
+     * 撤銷用戶令牌時，簽發時間早於此時間（毫秒時間戳）的令牌失效
+     */
+    private long revokedBefore;
+
+    /**
+     * 撤銷記錄可以丟棄的時間（毫秒時間戳），即受影響的令牌全部過期的時間
+     */
+    private long expiresAt;
+}
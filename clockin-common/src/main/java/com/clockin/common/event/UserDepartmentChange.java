@@ -0,0 +1,37 @@
+package com.clockin.common.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 用戶所屬部門變更消息
+ * <p>
+ * 認證服務在用戶新增、修改或刪除的事務提交後以 JSON 發布到 {@link #CHANNEL}，
+ * 打卡服務據此維護本地的用戶部門表。發布訂閱不保證送達，訂閱方需要定期全量對賬
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserDepartmentChange {
+
+    /**
+     * Redis 發布訂閱頻道
+     */
+    public static final String CHANNEL = "clockin:user-department";
+
+    /**
+     * 用戶ID
+     */
+    private Long userId;
+
+    /**
+     * 所屬部門ID，用戶已刪除或未分配部門時為 null
+     */
+    private Long departmentId;
+
+    /**
+     * 變更時間（毫秒時間戳），訂閱方只應用比已保存的更新的消息
+     */
+    private long changedAt;
+}
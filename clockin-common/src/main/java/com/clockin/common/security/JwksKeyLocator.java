@@ -0,0 +1,92 @@
+package com.clockin.common.security;
+
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.security.Jwk;
+import io.jsonwebtoken.security.JwkSet;
+import io.jsonwebtoken.security.Jwks;
+import lombok.extern.slf4j.Slf4j;
+
+import java.security.Key;
+import java.security.PublicKey;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * 按密鑰ID查找 JWKS 公鑰的定位器
+ * <p>
+ * 公鑰保存在本地，驗證令牌時只做一次哈希查找，由 {@link #refresh()} 定期在背景更新。
+ * 遇到未知的密鑰ID時不在請求中等待遠端調用，只觸發一次限頻的異步刷新並拒絕該令牌；
+ * 簽發方在新密鑰發布一段時間後才開始使用，正常輪換不會出現未知的密鑰ID
+ */
+@Slf4j
+public class JwksKeyLocator extends LocatorAdapter<Key> {
+
+    private final Supplier<String> jwksSource;
+
+    private final long minRefreshInterval;
+
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+
+    private volatile Map<String, PublicKey> keys = Collections.emptyMap();
+
+    private volatile long lastRefreshTime;
+
+    /**
+     * @param jwksSource         讀取 JWKS JSON 的函數
+     * @param minRefreshInterval 未知密鑰ID觸發刷新的最小間隔（毫秒）
+     */
+    public JwksKeyLocator(Supplier<String> jwksSource, long minRefreshInterval) {
+        this.jwksSource = jwksSource;
+        this.minRefreshInterval = minRefreshInterval;
+    }
+
+    @Override
+    protected Key locate(JwsHeader header) {
+        String keyId = header.getKeyId();
+        if (keyId == null) {
+            return null;
+        }
+        PublicKey key = keys.get(keyId);
+        if (key == null && System.currentTimeMillis() - lastRefreshTime >= minRefreshInterval) {
+            refreshAsync();
+        }
+        return key;
+    }
+
+    /**
+     * 重新讀取 JWKS 並替換本地公鑰，失敗時保留原有公鑰
+     */
+    public void refresh() {
+        lastRefreshTime = System.currentTimeMillis();
+        try {
+            JwkSet jwkSet = Jwks.setParser().build().parse(jwksSource.get());
+            Map<String, PublicKey> loaded = new HashMap<>();
+            for (Jwk<?> jwk : jwkSet.getKeys()) {
+                if (jwk.getId() != null && jwk.toKey() instanceof PublicKey publicKey) {
+                    loaded.put(jwk.getId(), publicKey);
+                }
+            }
+            keys = Collections.unmodifiableMap(loaded);
+            log.debug("已載入 {} 個 JWKS 公鑰", loaded.size());
+        } catch (RuntimeException e) {
+            log.warn("刷新 JWKS 失敗，繼續使用已載入的 {} 個公鑰: {}", keys.size(), e.getMessage());
+        }
+    }
+
+    private void refreshAsync() {
+        if (refreshing.compareAndSet(false, true)) {
+            CompletableFuture.runAsync(() -> {
+                try {
+                    refresh();
+                } finally {
+                    refreshing.set(false);
+                }
+            });
+        }
+    }
+}
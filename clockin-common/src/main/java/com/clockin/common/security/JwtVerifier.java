@@ -0,0 +1,91 @@
+package com.clockin.common.security;
+
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.Locator;
+
+import javax.crypto.SecretKey;
+import java.security.Key;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * JWT 驗證器
+ * <p>
+ * 簽名密鑰及解析器在建立時構建一次，之後只讀，可在執行緒間共享。最近驗證過的令牌按簽名保存在 LRU 緩存中，
+ * 同一令牌的後續請求不再重複驗證簽名及解析 JSON；命中時仍比對完整令牌並檢查有效期。
+ */
+public final class JwtVerifier {
+
+    private final JwtParser parser;
+
+    private final Map<String, VerifiedToken> cache;
+
+    /**
+     * @param key       簽名密鑰
+     * @param cacheSize 已驗證令牌的緩存條目數，0 表示不緩存
+     */
+    public JwtVerifier(SecretKey key, int cacheSize) {
+        this(Jwts.parser().verifyWith(key).build(), cacheSize);
+    }
+
+    /**
+     * @param keyLocator 按令牌頭（如密鑰ID）查找驗證密鑰
+     * @param cacheSize  已驗證令牌的緩存條目數，0 表示不緩存
+     */
+    public JwtVerifier(Locator<Key> keyLocator, int cacheSize) {
+        this(Jwts.parser().keyLocator(keyLocator).build(), cacheSize);
+    }
+
+    private JwtVerifier(JwtParser parser, int cacheSize) {
+        this.parser = parser;
+        this.cache = cacheSize > 0 ? Collections.synchronizedMap(new LruMap(cacheSize)) : null;
+    }
+
+    /**
+     * 驗證令牌簽名及有效期
+     *
+     * @param token JWT
+     * @return 已驗證的令牌
+     * @throws io.jsonwebtoken.JwtException 簽名無效、格式錯誤或已過期
+     */
+    public VerifiedToken verify(String token) {
+        if (cache == null) {
+            return parse(token);
+        }
+
+        String signature = token.substring(token.lastIndexOf('.') + 1);
+        VerifiedToken cached = cache.get(signature);
+        if (cached != null && cached.getToken().equals(token) && !cached.isExpired(System.currentTimeMillis())) {
+            return cached;
+        }
+
+        // 未命中或已過期時重新解析，過期令牌由解析器拋出異常
+        VerifiedToken verified = parse(token);
+        cache.put(signature, verified);
+        return verified;
+    }
+
+    private VerifiedToken parse(String token) {
+        return new VerifiedToken(token, parser.parseSignedClaims(token).getPayload());
+    }
+
+    /**
+     * 按訪問順序淘汰的定長映射
+     */
+    private static final class LruMap extends LinkedHashMap<String, VerifiedToken> {
+
+        private final int maxSize;
+
+        private LruMap(int maxSize) {
+            super(16, 0.75f, true);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, VerifiedToken> eldest) {
+            return size() > maxSize;
+        }
+    }
+}
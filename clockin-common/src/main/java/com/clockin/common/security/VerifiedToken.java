@@ -0,0 +1,83 @@
+package com.clockin.common.security;
+
+import io.jsonwebtoken.Claims;
+
+import java.util.Date;
+
+/**
+ * 已驗證簽名的 JWT
+ * <p>
+ * 常用的標準聲明在驗證時讀取一次，其餘聲明經 {@link #get(String, Class)} 按類型讀取。實例不可變，可在執行緒間共享
+ */
+public final class VerifiedToken {
+
+    private final String token;
+
+    private final Claims claims;
+
+    private final String subject;
+
+    private final String tokenId;
+
+    private final Date issuedAt;
+
+    private final Date expiration;
+
+    VerifiedToken(String token, Claims claims) {
+        this.token = token;
+        this.claims = claims;
+        this.subject = claims.getSubject();
+        this.tokenId = claims.getId();
+        this.issuedAt = claims.getIssuedAt();
+        this.expiration = claims.getExpiration();
+    }
+
+    /**
+     * 原始令牌字串
+     */
+    String getToken() {
+        return token;
+    }
+
+    /**
+     * 檢查令牌在指定時間是否已過期
+     *
+     * @param now 當前時間毫秒數
+     * @return 是否已過期
+     */
+    public boolean isExpired(long now) {
+        return expiration != null && expiration.getTime() <= now;
+    }
+
+    /**
+     * 按類型讀取聲明
+     *
+     * @param name 聲明名稱
+     * @param type 聲明類型
+     * @param <T>  聲明類型
+     * @return 聲明值，不存在時為 null
+     */
+    public <T> T get(String name, Class<T> type) {
+        return claims.get(name, type);
+    }
+
+    public Claims getClaims() {
+        return claims;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public String getTokenId() {
+        return tokenId;
+    }
+
+    public Date getIssuedAt() {
+        return issuedAt;
+    }
+
+    public Date getExpiration() {
+        return expiration;
+    }
+}
@@ -0,0 +1,131 @@
+package com.clockin.common.calendar;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 工作日位圖測試
+ */
+public class WorkdayBitsetTest {
+
+    @Test
+    public void testLastDayOfCommonYear() {
+        LocalDate lastDay = LocalDate.of(2025, 12, 31);
+        WorkdayBitset bitset = WorkdayBitset.of(2025, Map.of());
+
+        assertTrue(bitset.isWorkDay(lastDay));
+        assertEquals(1, bitset.countWorkingDays(lastDay, lastDay));
+        assertNull(bitset.nextWorkingDay(lastDay));
+        assertEquals(261, bitset.countWorkingDays(LocalDate.of(2025, 1, 1), lastDay));
+
+        WorkdayBitset holiday = WorkdayBitset.of(2025, Map.of(lastDay, false));
+        assertFalse(holiday.isWorkDay(lastDay));
+        assertEquals(0, holiday.countWorkingDays(lastDay, lastDay));
+        assertEquals(260, holiday.countWorkingDays(LocalDate.of(2025, 1, 1), lastDay));
+    }
+
+    @Test
+    public void testLeapYearDay366() {
+        LocalDate day366 = LocalDate.ofYearDay(2024, 366);
+        assertEquals(LocalDate.of(2024, 12, 31), day366);
+
+        WorkdayBitset bitset = WorkdayBitset.of(2024, Map.of());
+        assertTrue(bitset.isWorkDay(LocalDate.of(2024, 2, 29)));
+        assertTrue(bitset.isWorkDay(day366));
+        assertEquals(day366, bitset.nextWorkingDay(LocalDate.of(2024, 12, 30)));
+        assertEquals(262, bitset.countWorkingDays(LocalDate.of(2024, 1, 1), day366));
+
+        WorkdayBitset onlyLastDay = WorkdayBitset.of(2024, day366::equals);
+        assertEquals(1, onlyLastDay.countWorkingDays(LocalDate.of(2024, 1, 1), day366));
+        assertEquals(day366, onlyLastDay.firstWorkingDay());
+        assertEquals(day366, onlyLastDay.nextWorkingDay(LocalDate.of(2024, 1, 1)));
+    }
+
+    @Test
+    public void testRangesSpanningWords() {
+        // 第 64、65 天分別位於第一、二個 long 的邊界
+        LocalDate lastOfFirstWord = LocalDate.ofYearDay(2024, 64);
+        LocalDate firstOfSecondWord = LocalDate.ofYearDay(2024, 65);
+        WorkdayBitset allDays = WorkdayBitset.of(2024, date -> true);
+
+        assertEquals(2, allDays.countWorkingDays(lastOfFirstWord, firstOfSecondWord));
+        assertEquals(1, allDays.countWorkingDays(lastOfFirstWord, lastOfFirstWord));
+        assertEquals(1, allDays.countWorkingDays(firstOfSecondWord, firstOfSecondWord));
+        assertEquals(366, allDays.countWorkingDays(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31)));
+        assertEquals(firstOfSecondWord, allDays.nextWorkingDay(lastOfFirstWord));
+
+        WorkdayBitset sparse = WorkdayBitset.of(2024, date -> date.getDayOfYear() == 1 || date.getDayOfYear() == 300);
+        assertEquals(LocalDate.ofYearDay(2024, 300), sparse.nextWorkingDay(LocalDate.of(2024, 1, 1)));
+        assertEquals(1, sparse.countWorkingDays(LocalDate.ofYearDay(2024, 2), LocalDate.of(2024, 12, 31)));
+    }
+
+    @Test
+    public void testCountMatchesDayByDay() {
+        Predicate<LocalDate> rule = date -> date.getDayOfYear() % 3 != 0 && date.getDayOfMonth() != 13;
+        WorkdayBitset bitset = WorkdayBitset.of(2024, rule);
+
+        for (int from = 1; from <= 366; from++) {
+            int expected = 0;
+            for (int to = from; to <= 366; to++) {
+                LocalDate end = LocalDate.ofYearDay(2024, to);
+                if (rule.test(end)) {
+                    expected++;
+                }
+                assertEquals(expected, bitset.countWorkingDays(LocalDate.ofYearDay(2024, from), end),
+                        "day " + from + " to " + to);
+            }
+        }
+        assertEquals(0, bitset.countWorkingDays(LocalDate.of(2024, 6, 2), LocalDate.of(2024, 6, 1)));
+    }
+
+    @Test
+    public void testWorkdayHolidayTypes() {
+        assertFalse(WorkdayBitset.isWorkdayHolidayType(1));
+        assertFalse(WorkdayBitset.isWorkdayHolidayType(2));
+        assertTrue(WorkdayBitset.isWorkdayHolidayType(3));
+        assertTrue(WorkdayBitset.isWorkdayHolidayType(4));
+        assertFalse(WorkdayBitset.isWorkdayHolidayType(null));
+
+        // 週六補班（類型 3）、週日調為工作日（類型 4）、週一法定假日（類型 1）
+        LocalDate saturday = LocalDate.of(2025, 1, 4);
+        LocalDate sunday = LocalDate.of(2025, 1, 5);
+        LocalDate monday = LocalDate.of(2025, 1, 6);
+        Map<LocalDate, Boolean> overrides = new HashMap<>();
+        overrides.put(saturday, WorkdayBitset.isWorkdayHolidayType(3));
+        overrides.put(sunday, WorkdayBitset.isWorkdayHolidayType(4));
+        overrides.put(monday, WorkdayBitset.isWorkdayHolidayType(1));
+
+        WorkdayBitset bitset = WorkdayBitset.of(2025, overrides);
+        assertTrue(bitset.isWorkDay(saturday));
+        assertTrue(bitset.isWorkDay(sunday));
+        assertFalse(bitset.isWorkDay(monday));
+        assertEquals(sunday, bitset.nextWorkingDay(saturday));
+        assertEquals(LocalDate.of(2025, 1, 7), bitset.nextWorkingDay(sunday));
+    }
+
+    @Test
+    public void testEncodeAndDecode() {
+        WorkdayBitset bitset = WorkdayBitset.of(2024, date -> date.getDayOfYear() % 7 == 0 || date.getDayOfYear() == 366);
+        WorkdayBitset decoded = WorkdayBitset.decode(2024, bitset.encode());
+
+        for (LocalDate date = LocalDate.of(2024, 1, 1); date.getYear() == 2024; date = date.plusDays(1)) {
+            assertEquals(bitset.isWorkDay(date), decoded.isWorkDay(date), date.toString());
+        }
+        assertThrows(IllegalArgumentException.class, () -> WorkdayBitset.decode(2024, "AAAA"));
+    }
+
+    @Test
+    public void testRejectsDateOfOtherYear() {
+        WorkdayBitset bitset = WorkdayBitset.of(2025, Map.of());
+
+        assertThrows(IllegalArgumentException.class, () -> bitset.isWorkDay(LocalDate.of(2024, 12, 31)));
+        assertThrows(IllegalArgumentException.class,
+                () -> bitset.countWorkingDays(LocalDate.of(2025, 12, 1), LocalDate.of(2026, 1, 1)));
+    }
+}
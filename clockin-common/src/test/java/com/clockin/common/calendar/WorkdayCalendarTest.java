@@ -0,0 +1,68 @@
+package com.clockin.common.calendar;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 工作日曆測試
+ */
+public class WorkdayCalendarTest {
+
+    private static final LocalDate NEW_YEAR_2025 = LocalDate.of(2025, 1, 1);
+
+    private final WorkdayCalendar calendar = new WorkdayCalendar(year -> year == 2025
+            ? WorkdayBitset.of(year, Map.of(NEW_YEAR_2025, false))
+            : WorkdayBitset.of(year, Map.of()));
+
+    @Test
+    public void testCountWorkingDaysAcrossYears() {
+        // 2024-12-30（週一）至 2025-01-03（週五），元旦為假日
+        assertEquals(4, calendar.countWorkingDays(LocalDate.of(2024, 12, 30), LocalDate.of(2025, 1, 3)));
+        assertEquals(1, calendar.countWorkingDays(LocalDate.of(2024, 12, 31), NEW_YEAR_2025));
+        assertEquals(262 + 260 + 261,
+                calendar.countWorkingDays(LocalDate.of(2024, 1, 1), LocalDate.of(2026, 12, 31)));
+        assertEquals(0, calendar.countWorkingDays(NEW_YEAR_2025, LocalDate.of(2024, 12, 31)));
+    }
+
+    @Test
+    public void testNextWorkingDayAcrossYears() {
+        assertEquals(LocalDate.of(2025, 1, 2), calendar.nextWorkingDay(LocalDate.of(2024, 12, 31)));
+        assertEquals(LocalDate.of(2026, 1, 1), calendar.nextWorkingDay(LocalDate.of(2025, 12, 31)));
+        assertEquals(LocalDate.of(2025, 1, 6), calendar.nextWorkingDay(LocalDate.of(2025, 1, 3)));
+    }
+
+    @Test
+    public void testNextWorkingDayWithoutWorkdays() {
+        WorkdayCalendar empty = new WorkdayCalendar(year -> WorkdayBitset.of(year, date -> false));
+
+        assertThrows(IllegalStateException.class, () -> empty.nextWorkingDay(LocalDate.of(2024, 12, 31)));
+    }
+
+    @Test
+    public void testLoadsEachYearOnce() {
+        AtomicInteger loads = new AtomicInteger();
+        WorkdayCalendar counting = new WorkdayCalendar(year -> {
+            loads.incrementAndGet();
+            return WorkdayBitset.of(year, Map.of());
+        });
+
+        assertTrue(counting.isWorkDay(LocalDate.of(2024, 12, 31)));
+        counting.countWorkingDays(LocalDate.of(2024, 1, 1), LocalDate.of(2025, 6, 30));
+        counting.nextWorkingDay(LocalDate.of(2024, 12, 31));
+        assertEquals(2, loads.get());
+
+        counting.invalidate(2024);
+        counting.isWorkDay(LocalDate.of(2024, 2, 29));
+        assertEquals(3, loads.get());
+
+        counting.invalidateAll();
+        counting.isWorkDay(LocalDate.of(2024, 2, 29));
+        counting.isWorkDay(NEW_YEAR_2025);
+        assertEquals(5, loads.get());
+    }
+}
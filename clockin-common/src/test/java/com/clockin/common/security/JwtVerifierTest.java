@@ -0,0 +1,131 @@
+package com.clockin.common.security;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.ProtectedHeader;
+import io.jsonwebtoken.security.SignatureException;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JWT 驗證器測試
+ */
+public class JwtVerifierTest {
+
+    private static final SecretKey KEY = Jwts.SIG.HS256.key().build();
+
+    @Test
+    public void testCacheHitReturnsSameToken() {
+        JwtVerifier verifier = new JwtVerifier(KEY, 16);
+        String token = token(KEY, "alice", 60_000);
+
+        VerifiedToken first = verifier.verify(token);
+        assertEquals("alice", first.getSubject());
+        assertEquals(7L, first.get("userId", Long.class));
+        assertSame(first, verifier.verify(token));
+    }
+
+    @Test
+    public void testWithoutCacheParsesEveryTime() {
+        JwtVerifier verifier = new JwtVerifier(KEY, 0);
+        String token = token(KEY, "alice", 60_000);
+
+        assertNotSame(verifier.verify(token), verifier.verify(token));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEntryIsEvicted() {
+        JwtVerifier verifier = new JwtVerifier(KEY, 1);
+        String alice = token(KEY, "alice", 60_000);
+        String bob = token(KEY, "bob", 60_000);
+
+        VerifiedToken first = verifier.verify(alice);
+        verifier.verify(bob);
+        assertNotSame(first, verifier.verify(alice));
+    }
+
+    @Test
+    public void testExpiredTokenIsRejected() {
+        JwtVerifier verifier = new JwtVerifier(KEY, 16);
+
+        assertThrows(ExpiredJwtException.class, () -> verifier.verify(token(KEY, "alice", -60_000)));
+    }
+
+    @Test
+    public void testCachedTokenIsRejectedAfterExpiry() throws InterruptedException {
+        JwtVerifier verifier = new JwtVerifier(KEY, 16);
+        // 有效期精確到秒，取至少一秒之後的整秒，避免驗證前已過期
+        long expiresAt = (System.currentTimeMillis() / 1000 + 2) * 1000;
+        String token = Jwts.builder().subject("alice").expiration(new Date(expiresAt)).signWith(KEY).compact();
+
+        VerifiedToken verified = verifier.verify(token);
+        assertFalse(verified.isExpired(expiresAt - 1));
+        assertTrue(verified.isExpired(expiresAt));
+
+        Thread.sleep(Math.max(0, expiresAt - System.currentTimeMillis()) + 50);
+        assertThrows(ExpiredJwtException.class, () -> verifier.verify(token));
+    }
+
+    @Test
+    public void testCachedSignatureWithOtherPayloadIsRejected() {
+        JwtVerifier verifier = new JwtVerifier(KEY, 16);
+        String token = token(KEY, "alice", 60_000);
+        verifier.verify(token);
+
+        // 沿用已緩存的簽名但替換聲明，不能命中緩存
+        String[] parts = token.split("\\.");
+        String payload = Base64.getUrlEncoder().withoutPadding().encodeToString(
+                "{\"sub\":\"mallory\",\"userId\":1}".getBytes(StandardCharsets.UTF_8));
+        String forged = parts[0] + "." + payload + "." + parts[2];
+
+        assertThrows(SignatureException.class, () -> verifier.verify(forged));
+    }
+
+    @Test
+    public void testTokenSignedWithOtherKeyIsRejected() {
+        JwtVerifier verifier = new JwtVerifier(KEY, 16);
+
+        assertThrows(SignatureException.class,
+                () -> verifier.verify(token(Jwts.SIG.HS256.key().build(), "alice", 60_000)));
+        assertThrows(JwtException.class, () -> verifier.verify("not.a.jwt"));
+    }
+
+    @Test
+    public void testKeyLocatorSelectsKeyById() {
+        SecretKey previous = Jwts.SIG.HS256.key().build();
+        Map<String, Key> keys = Map.of("k1", previous, "k2", KEY);
+        JwtVerifier verifier = new JwtVerifier(new LocatorAdapter<>() {
+            @Override
+            protected Key locate(ProtectedHeader header) {
+                return keys.get(header.getKeyId());
+            }
+        }, 16);
+
+        String current = Jwts.builder().header().keyId("k2").and().subject("alice").signWith(KEY).compact();
+        String rotated = Jwts.builder().header().keyId("k1").and().subject("bob").signWith(previous).compact();
+
+        assertEquals("alice", verifier.verify(current).getSubject());
+        assertEquals("bob", verifier.verify(rotated).getSubject());
+    }
+
+    private static String token(SecretKey key, String subject, long ttlMillis) {
+        long now = System.currentTimeMillis();
+        return Jwts.builder()
+                .subject(subject)
+                .claim("userId", 7L)
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + ttlMillis))
+                .signWith(key)
+                .compact();
+    }
+}
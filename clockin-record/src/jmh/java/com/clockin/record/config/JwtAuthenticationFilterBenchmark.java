@@ -0,0 +1,82 @@
+package com.clockin.record.config;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.io.Encoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import com.clockin.common.security.JwksKeyLocator;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JWT 認證過濾器單次請求耗時
+ * <p>
+ * cacheSize 為 0 時每個請求都驗證簽名並解析 claims，大於 0 時同一令牌的後續請求命中已驗證令牌緩存。
+ * 運行：mvn -P jmh -pl clockin-record -am test-compile exec:exec
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final String SECRET = Encoders.BASE64.encode(
+            "ClockInBenchmarkSecretKey-0123456789abcdef".getBytes(StandardCharsets.UTF_8));
+
+    @Param({"0", "1024"})
+    private int cacheSize;
+
+    private JwtAuthenticationFilter filter;
+
+    private MockHttpServletRequest request;
+
+    @Setup
+    public void setUp() {
+        // 不配置 JWKS，以 HMAC 密鑰驗證
+        filter = new JwtAuthenticationFilter(new DefaultListableBeanFactory().getBeanProvider(JwksKeyLocator.class));
+        ReflectionTestUtils.setField(filter, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(filter, "verifiedCacheSize", cacheSize);
+
+        String token = Jwts.builder()
+                .subject("benchmark@clockin.com")
+                .claim("userId", 1L)
+                .claim("roles", "ROLE_USER,ROLE_ADMIN")
+                .issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1)))
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)))
+                .compact();
+
+        request = new MockHttpServletRequest("GET", "/record/today");
+        request.addHeader("Authorization", "Bearer " + token);
+    }
+
+    @Benchmark
+    public Object doFilter() throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+        Object authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+}
@@ -1,7 +1,9 @@
 package com.clockin.record;
 
+import com.clockin.common.calendar.WorkdayCalendarConfiguration;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Import;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 import org.springframework.scheduling.annotation.EnableScheduling;
 
@@ -11,6 +13,7 @@ import org.springframework.scheduling.annotation.EnableScheduling;
 @SpringBootApplication
 @EnableJpaAuditing
 @EnableScheduling
+@Import(WorkdayCalendarConfiguration.class)
 public class RecordApplication {
 
     public static void main(String[] args) {
@@ -4,11 +4,17 @@ import com.clockin.record.common.R;
 import com.clockin.record.dto.DepartmentDTO;
 import com.clockin.record.dto.PositionDTO;
 import com.clockin.record.dto.SysUserDTO;
+import com.clockin.record.dto.UserChangeSet;
+import com.clockin.record.dto.UserSnapshotPage;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.service.annotation.GetExchange;
 import org.springframework.web.service.annotation.HttpExchange;
+import org.springframework.web.service.annotation.PostExchange;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -28,6 +34,36 @@ public interface AuthServiceClient {
     @GetExchange("/user/{id}")
     R<SysUserDTO> getUserById(@PathVariable("id") Long id);
 
+    /**
+     * 根據ID列表批量獲取用戶信息
+     *
+     * @param ids 用戶ID列表，單次不超過 1000 個
+     * @return 用戶列表，不存在的ID不會出現在結果中
+     */
+    @PostExchange("/batch")
+    R<List<SysUserDTO>> getUsersByIds(@RequestBody Collection<Long> ids);
+
+    /**
+     * 按用戶ID分頁讀取用戶目錄全量快照
+     *
+     * @param afterId 起始用戶ID（不含），第一頁為 null
+     * @param size    每頁條數，不超過 1000
+     * @return 快照頁
+     */
+    @GetExchange("/directory/snapshot")
+    R<UserSnapshotPage> getUserSnapshot(@RequestParam(value = "afterId", required = false) Long afterId,
+                                        @RequestParam("size") int size);
+
+    /**
+     * 查詢用戶目錄自指定版本以來的變更
+     *
+     * @param since 上次同步的版本號
+     * @param size  最多返回的變更條數，不超過 1000
+     * @return 變更集
+     */
+    @GetExchange("/directory/changes")
+    R<UserChangeSet> getUserChanges(@RequestParam("since") String since, @RequestParam("size") int size);
+
     /**
      * 根據用戶名獲取用戶信息
      *
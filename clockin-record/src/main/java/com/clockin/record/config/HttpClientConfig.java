@@ -4,8 +4,12 @@ import com.clockin.record.client.AuthServiceClient;
 import com.clockin.record.service.WorkConfigClient;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.web.client.RestClient;
 import org.springframework.web.client.support.RestClientAdapter;
 import org.springframework.web.context.request.RequestContextHolder;
@@ -13,6 +17,8 @@ import org.springframework.web.context.request.ServletRequestAttributes;
 import org.springframework.web.service.invoker.HttpServiceProxyFactory;
 
 import jakarta.servlet.http.HttpServletRequest;
+import java.net.http.HttpClient;
+import java.time.Duration;
 
 /**
  * HTTP 客戶端配置
@@ -27,47 +33,59 @@ public class HttpClientConfig {
     @Value("${clockin.admin.baseUrl}")
     private String adminBaseUrl;
 
+    @Value("${clock-in.http-client.connect-timeout:5000}")
+    private long connectTimeout;
+
+    @Value("${clock-in.http-client.read-timeout:10000}")
+    private long readTimeout;
+
+    /**
+     * 兩個客戶端共用的 JDK HttpClient；啟用虛擬線程時，其內部的異步處理也在虛擬線程中執行
+     *
+     * @param environment 環境配置
+     * @return HttpClient
+     */
+    @Bean
+    public HttpClient clockInHttpClient(Environment environment) {
+        HttpClient.Builder builder = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(connectTimeout));
+        if (Threading.VIRTUAL.isActive(environment)) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("http-client-");
+            executor.setVirtualThreads(true);
+            builder.executor(executor);
+        }
+        return builder.build();
+    }
+
     /**
      * 認證服務客戶端
      *
+     * @param clockInHttpClient HTTP 客戶端
      * @return AuthServiceClient
      */
     @Bean
-    public AuthServiceClient authServiceClient() {
-        RestClient restClient = RestClient.builder()
-                .baseUrl(authBaseUrl)
-                .requestInterceptor((request, body, execution) -> {
-                    // 從當前請求中獲取 Authorization 頭
-                    ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
-                    if (attributes != null) {
-                        HttpServletRequest servletRequest = attributes.getRequest();
-                        String authHeader = servletRequest.getHeader("Authorization");
-                        
-                        if (authHeader != null && !authHeader.isEmpty()) {
-                            // 將 Authorization 頭傳遞給 HTTP 請求
-                            request.getHeaders().add("Authorization", authHeader);
-                            log.debug("HTTP 客戶端添加 Authorization 頭: {}", authHeader);
-                        }
-                    }
-                    return execution.execute(request, body);
-                })
-                .build();
-
-        RestClientAdapter adapter = RestClientAdapter.create(restClient);
-        HttpServiceProxyFactory factory = HttpServiceProxyFactory.builderFor(adapter).build();
-        
-        return factory.createClient(AuthServiceClient.class);
+    public AuthServiceClient authServiceClient(HttpClient clockInHttpClient) {
+        return createClient(clockInHttpClient, authBaseUrl, AuthServiceClient.class);
     }
     
     /**
      * 工作配置服務客戶端
      *
+     * @param clockInHttpClient HTTP 客戶端
      * @return WorkConfigClient
      */
     @Bean
-    public WorkConfigClient workConfigClient() {
+    public WorkConfigClient workConfigClient(HttpClient clockInHttpClient) {
+        return createClient(clockInHttpClient, adminBaseUrl, WorkConfigClient.class);
+    }
+
+    private <T> T createClient(HttpClient httpClient, String baseUrl, Class<T> clientType) {
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(Duration.ofMillis(readTimeout));
+
         RestClient restClient = RestClient.builder()
-                .baseUrl(adminBaseUrl)
+                .baseUrl(baseUrl)
+                .requestFactory(requestFactory)
                 .requestInterceptor((request, body, execution) -> {
                     // 從當前請求中獲取 Authorization 頭
                     ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
@@ -88,6 +106,6 @@ public class HttpClientConfig {
         RestClientAdapter adapter = RestClientAdapter.create(restClient);
         HttpServiceProxyFactory factory = HttpServiceProxyFactory.builderFor(adapter).build();
         
-        return factory.createClient(WorkConfigClient.class);
+        return factory.createClient(clientType);
     }
 }
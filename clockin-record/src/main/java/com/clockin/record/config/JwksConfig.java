@@ -0,0 +1,45 @@
+package com.clockin.record.config;
+
+import com.clockin.common.security.JwksKeyLocator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+/**
+ * JWKS 配置
+ * <p>
+ * 配置 jwt.jwks-uri 後以認證服務發布的公鑰驗證令牌，公鑰由 {@link com.clockin.record.task.JwksRefreshTask} 定期刷新
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "jwt", name = "jwks-uri")
+public class JwksConfig {
+
+    @Value("${jwt.jwks-uri}")
+    private String jwksUri;
+
+    @Value("${jwt.jwks-min-refresh-interval:30000}")
+    private long minRefreshInterval;
+
+    @Value("${clock-in.http-client.read-timeout:10000}")
+    private long readTimeout;
+
+    /**
+     * 認證服務公鑰定位器
+     *
+     * @param clockInHttpClient HTTP 客戶端
+     * @return JwksKeyLocator
+     */
+    @Bean
+    public JwksKeyLocator jwksKeyLocator(HttpClient clockInHttpClient) {
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(clockInHttpClient);
+        requestFactory.setReadTimeout(Duration.ofMillis(readTimeout));
+        RestClient restClient = RestClient.builder().requestFactory(requestFactory).build();
+        return new JwksKeyLocator(() -> restClient.get().uri(jwksUri).retrieve().body(String.class), minRefreshInterval);
+    }
+}
@@ -1,8 +1,10 @@
 package com.clockin.record.config;
 
+import com.clockin.common.security.JwksKeyLocator;
+import com.clockin.common.security.JwtVerifier;
+import com.clockin.common.security.VerifiedToken;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
-import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 import jakarta.servlet.FilterChain;
@@ -11,6 +13,7 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -19,7 +22,6 @@ import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
-import javax.crypto.SecretKey;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.Collection;
@@ -27,34 +29,47 @@ import java.util.stream.Collectors;
 
 /**
  * JWT 認證過濾器
+ * <p>
+ * 配置 jwt.jwks-uri 時按令牌頭的密鑰ID以認證服務發布的公鑰驗證，否則以共享的 HMAC 密鑰驗證
  */
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    private final ObjectProvider<JwksKeyLocator> jwksKeyLocator;
+
     @Value("${jwt.secret:ClockInAuthSecretKey2025@ziv}")
     private String jwtSecret;
 
+    /**
+     * 已驗證令牌的緩存條目數
+     */
+    @Value("${jwt.verified-cache-size:1024}")
+    private int verifiedCacheSize;
+
+    /**
+     * 首次使用時構建，之後所有請求共用
+     */
+    private volatile JwtVerifier verifier;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
         try {
             String jwt = parseJwt(request);
             if (jwt != null) {
-                // 驗證 JWT - 使用 JJWT 0.12.x 的新 API
-                Claims claims = Jwts.parser()
-                        .verifyWith(getSigningKey())
-                        .build()
-                        .parseSignedClaims(jwt)
-                        .getPayload();
+                // 驗證 JWT，近期驗證過的令牌直接取緩存
+                VerifiedToken token = getVerifier().verify(jwt);
+                Claims claims = token.getClaims();
 
-                String username = claims.getSubject();
+                String username = token.getSubject();
                 
                 // 從 JWT 獲取權限
                 Collection<SimpleGrantedAuthority> authorities = null;
-                if (claims.get("roles") != null) {
-                    authorities = Arrays.stream(claims.get("roles").toString().split(","))
+                Object roles = claims.get("roles");
+                if (roles != null) {
+                    authorities = Arrays.stream(roles.toString().split(","))
                             .map(SimpleGrantedAuthority::new)
                             .collect(Collectors.toList());
                 }
@@ -62,6 +77,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 // 設置認證
                 UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
                         username, null, authorities);
+                // 保留 JWT 聲明，供獲取用戶ID等信息
+                authentication.setDetails(claims);
                 SecurityContextHolder.getContext().setAuthentication(authentication);
                 log.debug("設置 SecurityContext 認證: {}", username);
             }
@@ -86,11 +103,18 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     }
 
     /**
-     * 獲取簽名密鑰
-     * @return JWT 簽名用的 SecretKey
+     * 獲取令牌驗證器
+     * @return 以 JWKS 公鑰或簽名密鑰構建的驗證器
      */
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(jwtSecret);
-        return Keys.hmacShaKeyFor(keyBytes);
+    private JwtVerifier getVerifier() {
+        JwtVerifier current = verifier;
+        if (current == null) {
+            JwksKeyLocator locator = jwksKeyLocator.getIfAvailable();
+            current = locator != null
+                    ? new JwtVerifier(locator, verifiedCacheSize)
+                    : new JwtVerifier(Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret)), verifiedCacheSize);
+            verifier = current;
+        }
+        return current;
     }
 }
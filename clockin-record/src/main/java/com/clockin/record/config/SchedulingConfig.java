@@ -1,8 +1,11 @@
 package com.clockin.record.config;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.SimpleAsyncTaskScheduler;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 
 /**
@@ -16,6 +19,7 @@ public class SchedulingConfig {
      * 配置線程池任務調度器
      */
     @Bean
+    @ConditionalOnThreading(Threading.PLATFORM)
     public ThreadPoolTaskScheduler taskScheduler() {
         ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
         scheduler.setPoolSize(5);
@@ -27,4 +31,17 @@ public class SchedulingConfig {
         });
         return scheduler;
     }
+
+    /**
+     * 啟用虛擬線程（spring.threads.virtual.enabled=true，Java 21）時，每個排程任務在獨立的虛擬線程中執行
+     */
+    @Bean(name = "taskScheduler")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public SimpleAsyncTaskScheduler virtualThreadTaskScheduler() {
+        SimpleAsyncTaskScheduler scheduler = new SimpleAsyncTaskScheduler();
+        scheduler.setVirtualThreads(true);
+        scheduler.setThreadNamePrefix("clock-in-task-");
+        scheduler.setTaskTerminationTimeout(60_000);
+        return scheduler;
+    }
 }
@@ -0,0 +1,39 @@
+package com.clockin.record.config;
+
+import com.clockin.common.event.UserDepartmentChange;
+import com.clockin.record.service.UserDepartmentService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+/**
+ * 用戶部門變更訂閱配置
+ */
+@Slf4j
+@Configuration
+public class UserDepartmentSyncConfig {
+
+    /**
+     * 訂閱認證服務發布的用戶部門變更
+     */
+    @Bean
+    public RedisMessageListenerContainer userDepartmentListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                         UserDepartmentService userDepartmentService,
+                                                                         ObjectMapper objectMapper) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener((message, pattern) -> {
+            try {
+                userDepartmentService.apply(objectMapper.readValue(message.getBody(), UserDepartmentChange.class));
+            } catch (Exception e) {
+                // 遺漏的變更由定期對賬補齊
+                log.warn("處理用戶部門變更失敗: {}", e.getMessage());
+            }
+        }, new ChannelTopic(UserDepartmentChange.CHANNEL));
+        return container;
+    }
+}
@@ -0,0 +1,96 @@
+package com.clockin.record.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * 虛擬線程固定（pinning）診斷
+ * <p>
+ * 虛擬線程在 synchronized 區塊或本地方法中阻塞時無法卸載，會佔住載體線程；JDBC 驅動內部的 synchronized 是最常見的來源。
+ * 通過 JFR 的 jdk.VirtualThreadPinned 事件記錄超過閾值的固定，計入指標，並對每個不同的阻塞位置輸出一次堆疊
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnThreading(Threading.VIRTUAL)
+@ConditionalOnProperty(name = "clock-in.virtual-threads.pinning-monitor.enabled", havingValue = "true", matchIfMissing = true)
+public class VirtualThreadPinningMonitor {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private static final int LOGGED_FRAMES = 12;
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * 固定時間超過該值才記錄（毫秒）
+     */
+    @Value("${clock-in.virtual-threads.pinning-monitor.threshold:20}")
+    private long threshold;
+
+    /**
+     * 已輸出過堆疊的阻塞位置
+     */
+    private final Set<String> reportedSites = ConcurrentHashMap.newKeySet();
+
+    private RecordingStream recordingStream;
+    private Timer pinnedTimer;
+
+    @PostConstruct
+    public void start() {
+        pinnedTimer = Timer.builder("clockin.virtual-threads.pinned")
+                .description("虛擬線程固定在載體線程上的時間")
+                .register(meterRegistry);
+
+        recordingStream = new RecordingStream();
+        recordingStream.enable(PINNED_EVENT).withThreshold(Duration.ofMillis(threshold)).withStackTrace();
+        recordingStream.onEvent(PINNED_EVENT, this::onPinned);
+        recordingStream.startAsync();
+        log.info("虛擬線程固定診斷已啟動，閾值 {} 毫秒", threshold);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (recordingStream != null) {
+            recordingStream.close();
+        }
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinnedTimer.record(event.getDuration());
+
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        if (stackTrace == null) {
+            return;
+        }
+        List<String> frames = stackTrace.getFrames().stream()
+                .filter(RecordedFrame::isJavaFrame)
+                .limit(LOGGED_FRAMES)
+                .map(frame -> frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                        + ":" + frame.getLineNumber())
+                .collect(Collectors.toList());
+        if (!frames.isEmpty() && reportedSites.add(frames.get(0))) {
+            log.warn("虛擬線程被固定 {} 毫秒，位置:\n\tat {}", event.getDuration().toMillis(),
+                    String.join("\n\tat ", frames));
+        }
+    }
+}
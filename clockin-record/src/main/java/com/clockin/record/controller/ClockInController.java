@@ -7,6 +7,7 @@ import com.clockin.record.dto.ClockInStatisticsDTO;
 import com.clockin.record.entity.ClockInRecord;
 import com.clockin.record.entity.ClockInSummary;
 import com.clockin.record.service.ClockInService;
+import io.jsonwebtoken.Claims;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -166,6 +167,11 @@ public class ClockInController {
             throw new SecurityException("用戶未登錄");
         }
         
+        // 令牌中帶有用戶ID時直接使用
+        if (authentication.getDetails() instanceof Claims claims && claims.get("userId") != null) {
+            return Long.valueOf(claims.get("userId").toString());
+        }
+
         // 在實際應用中，應該從認證信息中獲取用戶ID
         // 這裡簡化處理，從Principal中獲取用戶名，實際可能需要查詢數據庫或從JWT中解析
         String username = authentication.getName();
@@ -1,7 +1,6 @@
 package com.clockin.record.controller;
 
 import com.clockin.record.dto.ApiResponse;
-import com.clockin.record.dto.HolidayConfigDTO;
 import com.clockin.record.entity.HolidayConfig;
 import com.clockin.record.exception.BusinessException;
 import com.clockin.record.service.HolidayConfigService;
@@ -9,11 +8,9 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
-import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
-import org.springframework.http.HttpStatus;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
@@ -82,39 +79,42 @@ public class HolidayConfigController {
     }
 
     @PostMapping
-    @ResponseStatus(HttpStatus.CREATED)
-    @Operation(summary = "創建節假日配置", description = "創建新的節假日配置")
+    @Deprecated
+    @Operation(summary = "創建節假日配置（已停用）", description = "節假日配置改由 admin 服務維護，調用時返回錯誤", deprecated = true)
     @PreAuthorize("hasRole('ADMIN')")
-    public ApiResponse<HolidayConfig> createHoliday(@Valid @RequestBody HolidayConfigDTO holidayDTO) {
-        HolidayConfig createdHoliday = holidayConfigService.createHolidayConfig(holidayDTO);
-        return ApiResponse.success("創建節假日配置成功", createdHoliday);
+    public ApiResponse<HolidayConfig> createHoliday() {
+        throw readOnly();
     }
 
     @PutMapping("/{id}")
-    @Operation(summary = "更新節假日配置", description = "根據ID更新節假日配置")
+    @Deprecated
+    @Operation(summary = "更新節假日配置（已停用）", description = "節假日配置改由 admin 服務維護，調用時返回錯誤", deprecated = true)
     @PreAuthorize("hasRole('ADMIN')")
-    public ApiResponse<HolidayConfig> updateHoliday(
-            @PathVariable Long id, @Valid @RequestBody HolidayConfigDTO holidayDTO) {
-        HolidayConfig updatedHoliday = holidayConfigService.updateHolidayConfig(id, holidayDTO);
-        return ApiResponse.success("更新節假日配置成功", updatedHoliday);
+    public ApiResponse<HolidayConfig> updateHoliday(@PathVariable Long id) {
+        throw readOnly();
     }
 
     @DeleteMapping("/{id}")
-    @ResponseStatus(HttpStatus.NO_CONTENT)
-    @Operation(summary = "刪除節假日配置", description = "根據ID刪除節假日配置")
+    @Deprecated
+    @Operation(summary = "刪除節假日配置（已停用）", description = "節假日配置改由 admin 服務維護，調用時返回錯誤", deprecated = true)
     @PreAuthorize("hasRole('ADMIN')")
     public ApiResponse<String> deleteHoliday(@PathVariable Long id) {
-        holidayConfigService.deleteById(id);
-        return ApiResponse.success("刪除節假日配置成功");
+        throw readOnly();
     }
 
     @PostMapping("/batch")
-    @ResponseStatus(HttpStatus.CREATED)
-    @Operation(summary = "批量導入節假日", description = "批量導入節假日配置")
+    @Deprecated
+    @Operation(summary = "批量導入節假日（已停用）", description = "節假日配置改由 admin 服務維護，調用時返回錯誤", deprecated = true)
     @PreAuthorize("hasRole('ADMIN')")
-    public ApiResponse<List<HolidayConfig>> batchImportHolidays(
-            @Valid @RequestBody List<HolidayConfigDTO> holidays) {
-        List<HolidayConfig> importedHolidays = holidayConfigService.batchImportHolidays(holidays);
-        return ApiResponse.success(String.format("成功導入 %d 個節假日配置", importedHolidays.size()), importedHolidays);
+    public ApiResponse<List<HolidayConfig>> batchImportHolidays() {
+        throw readOnly();
+    }
+
+    /**
+     * 節假日配置的寫入不會進入工作日曆，直接拒絕，避免調用方誤以為修改已生效
+     */
+    private BusinessException readOnly() {
+        log.warn("拒絕寫入 record 服務的節假日配置，工作日判斷以 admin 服務的假日配置為準");
+        return new BusinessException("節假日配置已改由 admin 服務維護，請在 admin 服務的假日管理中修改");
     }
 }
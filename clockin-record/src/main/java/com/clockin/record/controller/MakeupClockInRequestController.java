@@ -1,6 +1,7 @@
 package com.clockin.record.controller;
 
 import com.clockin.record.dto.ApiResponse;
+import com.clockin.record.dto.CursorPage;
 import com.clockin.record.dto.MakeupClockInRequestDTO;
 import com.clockin.record.entity.MakeupClockInRequest;
 import com.clockin.record.service.MakeupClockInRequestService;
@@ -149,6 +150,54 @@ public class MakeupClockInRequestController {
         return ApiResponse.success(requests);
     }
 
+    @GetMapping("/user/scroll")
+    @Operation(summary = "游標分頁獲取當前用戶的補卡申請列表")
+    @PreAuthorize("hasAuthority('MAKEUP_CLOCK_IN_VIEW')")
+    public ApiResponse<CursorPage<MakeupClockInRequestDTO>> scrollUserRequests(
+            @Parameter(description = "上一頁返回的游標，第一頁不傳") @RequestParam(required = false) String cursor,
+            @Parameter(description = "每頁大小") @RequestParam(defaultValue = "10") int size,
+            @Parameter(description = "是否返回總數（超過上限時為近似值）") @RequestParam(defaultValue = "false") boolean withTotal) {
+        // 獲取當前登錄用戶
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        Long userId = Long.parseLong(authentication.getName());
+
+        return ApiResponse.success(makeupClockInRequestService.scrollUserRequests(userId, cursor, size, withTotal));
+    }
+
+    @GetMapping("/user/{userId}/scroll")
+    @Operation(summary = "游標分頁獲取指定用戶的補卡申請列表")
+    @PreAuthorize("hasAuthority('MAKEUP_CLOCK_IN_ADMIN')")
+    public ApiResponse<CursorPage<MakeupClockInRequestDTO>> scrollUserRequestsById(
+            @Parameter(description = "用戶ID") @PathVariable Long userId,
+            @Parameter(description = "上一頁返回的游標，第一頁不傳") @RequestParam(required = false) String cursor,
+            @Parameter(description = "每頁大小") @RequestParam(defaultValue = "10") int size,
+            @Parameter(description = "是否返回總數（超過上限時為近似值）") @RequestParam(defaultValue = "false") boolean withTotal) {
+        return ApiResponse.success(makeupClockInRequestService.scrollUserRequests(userId, cursor, size, withTotal));
+    }
+
+    @GetMapping("/pending/scroll")
+    @Operation(summary = "游標分頁獲取待審批的補卡申請列表")
+    @PreAuthorize("hasAuthority('MAKEUP_CLOCK_IN_APPROVE')")
+    public ApiResponse<CursorPage<MakeupClockInRequestDTO>> scrollPendingRequests(
+            @Parameter(description = "上一頁返回的游標，第一頁不傳") @RequestParam(required = false) String cursor,
+            @Parameter(description = "每頁大小") @RequestParam(defaultValue = "10") int size,
+            @Parameter(description = "是否返回總數（超過上限時為近似值）") @RequestParam(defaultValue = "false") boolean withTotal) {
+        return ApiResponse.success(makeupClockInRequestService
+                .scrollRequestsByStatus(MakeupClockInRequest.RequestStatus.PENDING, cursor, size, withTotal));
+    }
+
+    @GetMapping("/department/{departmentId}/scroll")
+    @Operation(summary = "游標分頁獲取部門待審批的補卡申請列表")
+    @PreAuthorize("hasAuthority('MAKEUP_CLOCK_IN_APPROVE')")
+    public ApiResponse<CursorPage<MakeupClockInRequestDTO>> scrollDepartmentRequests(
+            @Parameter(description = "部門ID") @PathVariable Long departmentId,
+            @Parameter(description = "上一頁返回的游標，第一頁不傳") @RequestParam(required = false) String cursor,
+            @Parameter(description = "每頁大小") @RequestParam(defaultValue = "10") int size,
+            @Parameter(description = "是否返回總數（超過上限時為近似值）") @RequestParam(defaultValue = "false") boolean withTotal) {
+        return ApiResponse.success(makeupClockInRequestService
+                .scrollDepartmentRequests(departmentId, MakeupClockInRequest.RequestStatus.PENDING, cursor, size, withTotal));
+    }
+
     @PostMapping("/{id}/approve")
     @Operation(summary = "審批補卡申請")
     @PreAuthorize("hasAuthority('MAKEUP_CLOCK_IN_APPROVE')")
@@ -2,6 +2,7 @@ package com.clockin.record.controller.api;
 
 import com.clockin.record.dto.ApiResponse;
 import com.clockin.record.dto.ClockRecordDTO;
+import com.clockin.record.dto.CursorPage;
 import com.clockin.record.service.ClockRecordDTOService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -121,6 +122,22 @@ public class ClockApiController {
         return ResponseEntity.ok(ApiResponse.success(records));
     }
 
+    @GetMapping("/scroll")
+    @Operation(summary = "游標分頁查詢打卡記錄",
+            description = "按打卡日期降序分頁，下一頁傳入上一頁返回的 nextCursor；翻頁深度不影響查詢耗時")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<ApiResponse<CursorPage<ClockRecordDTO>>> scrollRecords(
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate date,
+            @RequestParam(required = false) Boolean isAbnormal,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "false") boolean withTotal) {
+
+        CursorPage<ClockRecordDTO> records = clockRecordDTOService.scrollRecords(null, date, isAbnormal, cursor, size,
+                withTotal);
+        return ResponseEntity.ok(ApiResponse.success(records));
+    }
+
     @GetMapping("/admin/all")
     @Operation(summary = "獲取所有用戶今日打卡", description = "獲取所有用戶的今日打卡記錄（管理員使用）")
     @PreAuthorize("hasRole('ADMIN')")
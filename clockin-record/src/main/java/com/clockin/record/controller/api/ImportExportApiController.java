@@ -1,23 +1,35 @@
 package com.clockin.record.controller.api;
 
 import com.clockin.record.common.R;
+import com.clockin.record.dto.ExportJobDTO;
+import com.clockin.record.dto.ExportJobRequest;
+import com.clockin.record.dto.ImportResultDTO;
+import com.clockin.record.enums.ExportFormat;
+import com.clockin.record.enums.ExportType;
+import com.clockin.record.exception.ApiException;
+import com.clockin.record.service.ExportJobService;
 import com.clockin.record.service.ImportExportService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.InputStream;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 
@@ -32,10 +44,11 @@ import java.time.format.DateTimeFormatter;
 public class ImportExportApiController {
 
     private final ImportExportService importExportService;
+    private final ExportJobService exportJobService;
 
-    @Operation(summary = "導入打卡記錄", description = "從Excel文件批量導入打卡記錄")
+    @Operation(summary = "導入打卡記錄", description = "從Excel文件批量導入打卡記錄，錯誤行可通過返回的任務ID下載")
     @PostMapping("/import/clock-records")
-    public R<Integer> importClockRecords(
+    public R<ImportResultDTO> importClockRecords(
             @Parameter(description = "Excel文件") @RequestParam("file") MultipartFile file) {
         
         if (file.isEmpty()) {
@@ -43,56 +56,70 @@ public class ImportExportApiController {
         }
         
         String originalFilename = file.getOriginalFilename();
-        if (originalFilename == null || (!originalFilename.endsWith(".xlsx") && !originalFilename.endsWith(".xls"))) {
-            return R.fail("文件格式不正確，僅支持 .xlsx 或 .xls 格式");
+        if (originalFilename == null || !originalFilename.endsWith(".xlsx")) {
+            return R.fail("文件格式不正確，僅支持 .xlsx 格式");
         }
         
         try {
-            // 驗證模板格式
-            String validationResult = importExportService.validateExcelTemplate(file);
-            if (validationResult != null) {
-                return R.fail(validationResult);
-            }
-            
-            // 導入數據
-            int count = importExportService.importClockRecordsFromExcel(file);
-            return R.ok(count, "成功導入 " + count + " 條打卡記錄");
+            // 表頭在導入時一併校驗，不再單獨讀取一次文件
+            ImportResultDTO result = importExportService.importClockRecordsFromExcel(file);
+            return R.ok(result, "成功導入 " + result.getSuccessRows() + " 條打卡記錄，失敗 "
+                    + result.getFailedRows() + " 條");
+        } catch (ApiException e) {
+            return R.fail(e.getMessage());
         } catch (Exception e) {
             log.error("導入打卡記錄失敗", e);
             return R.fail("導入失敗：" + e.getMessage());
         }
     }
 
-    @Operation(summary = "導出打卡記錄", description = "將打卡記錄導出為Excel文件")
+    @Operation(summary = "導出打卡記錄", description = "將打卡記錄導出為Excel、CSV或gzip壓縮的CSV文件")
     @GetMapping("/export/clock-records")
-    public ResponseEntity<InputStreamResource> exportClockRecords(
+    public ResponseEntity<StreamingResponseBody> exportClockRecords(
             @Parameter(description = "開始日期 (格式: yyyy-MM-dd)")
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @Parameter(description = "結束日期 (格式: yyyy-MM-dd)")
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
             @Parameter(description = "用戶ID（為空則導出所有用戶）") @RequestParam(required = false) Long userId,
-            @Parameter(description = "部門ID（為空則不按部門篩選）") @RequestParam(required = false) Long departmentId) {
+            @Parameter(description = "部門ID（為空則不按部門篩選）") @RequestParam(required = false) Long departmentId,
+            @Parameter(description = "文件格式") @RequestParam(defaultValue = "XLSX") ExportFormat format) {
         
-        try {
-            InputStream excelStream = importExportService.exportClockRecordsToExcel(startDate, endDate, userId, departmentId);
-            
-            // 生成文件名
-            String fileName = "打卡記錄_" + startDate.format(DateTimeFormatter.ofPattern("yyyyMMdd")) + 
-                    "_" + endDate.format(DateTimeFormatter.ofPattern("yyyyMMdd")) + ".xlsx";
-            String encodedFileName = URLEncoder.encode(fileName, StandardCharsets.UTF_8.toString())
-                    .replaceAll("\\+", "%20");
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.add(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + encodedFileName);
-            
-            return ResponseEntity.ok()
-                    .headers(headers)
-                    .contentType(MediaType.parseMediaType("application/vnd.ms-excel"))
-                    .body(new InputStreamResource(excelStream));
-        } catch (Exception e) {
-            log.error("導出打卡記錄失敗", e);
-            throw new RuntimeException("導出失敗：" + e.getMessage());
+        if (startDate.isAfter(endDate)) {
+            throw new ApiException("開始日期不能晚於結束日期");
         }
+
+        // 生成文件名
+        String fileName = "打卡記錄_" + startDate.format(DateTimeFormatter.ofPattern("yyyyMMdd")) + 
+                "_" + endDate.format(DateTimeFormatter.ofPattern("yyyyMMdd")) + "." + format.getExtension();
+        ExportJobRequest request = ExportJobRequest.builder()
+                .type(ExportType.CLOCK_RECORDS).format(format)
+                .startDate(startDate).endDate(endDate).userId(userId).departmentId(departmentId)
+                .build();
+        return exportResponse(fileName, format, out -> importExportService.export(request, out, null));
+    }
+
+    @Operation(summary = "導出每日考勤匯總", description = "將每日考勤匯總導出為Excel、CSV或gzip壓縮的CSV文件")
+    @GetMapping("/export/clock-in-summaries")
+    public ResponseEntity<StreamingResponseBody> exportClockInSummaries(
+            @Parameter(description = "開始日期 (格式: yyyy-MM-dd)")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @Parameter(description = "結束日期 (格式: yyyy-MM-dd)")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @Parameter(description = "用戶ID（為空則導出所有用戶）") @RequestParam(required = false) Long userId,
+            @Parameter(description = "部門ID（為空則不按部門篩選）") @RequestParam(required = false) Long departmentId,
+            @Parameter(description = "文件格式") @RequestParam(defaultValue = "XLSX") ExportFormat format) {
+
+        if (startDate.isAfter(endDate)) {
+            throw new ApiException("開始日期不能晚於結束日期");
+        }
+
+        String fileName = "每日考勤匯總_" + startDate.format(DateTimeFormatter.ofPattern("yyyyMMdd")) +
+                "_" + endDate.format(DateTimeFormatter.ofPattern("yyyyMMdd")) + "." + format.getExtension();
+        ExportJobRequest request = ExportJobRequest.builder()
+                .type(ExportType.CLOCK_IN_SUMMARIES).format(format)
+                .startDate(startDate).endDate(endDate).userId(userId).departmentId(departmentId)
+                .build();
+        return exportResponse(fileName, format, out -> importExportService.export(request, out, null));
     }
 
     @Operation(summary = "下載導入模板", description = "下載打卡記錄導入模板")
@@ -120,93 +147,119 @@ public class ImportExportApiController {
 
     @Operation(summary = "導出考勤統計報表", description = "將考勤統計導出為Excel文件")
     @GetMapping("/export/attendance-statistics")
-    public ResponseEntity<InputStreamResource> exportAttendanceStatistics(
+    public ResponseEntity<StreamingResponseBody> exportAttendanceStatistics(
             @Parameter(description = "年份") @RequestParam int year,
             @Parameter(description = "月份 (1-12)") @RequestParam int month,
             @Parameter(description = "部門ID（為空則導出所有部門）") @RequestParam(required = false) Long departmentId) {
         
-        try {
-            InputStream excelStream = importExportService.exportAttendanceStatistics(year, month, departmentId);
-            
-            // 生成文件名
-            String fileName = "考勤統計_" + year + "年" + month + "月.xlsx";
-            String encodedFileName = URLEncoder.encode(fileName, StandardCharsets.UTF_8.toString())
-                    .replaceAll("\\+", "%20");
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.add(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + encodedFileName);
-            
-            return ResponseEntity.ok()
-                    .headers(headers)
-                    .contentType(MediaType.parseMediaType("application/vnd.ms-excel"))
-                    .body(new InputStreamResource(excelStream));
-        } catch (Exception e) {
-            log.error("導出考勤統計報表失敗", e);
-            throw new RuntimeException("導出失敗：" + e.getMessage());
-        }
+        // 生成文件名
+        String fileName = "考勤統計_" + year + "年" + month + "月.xlsx";
+        return excelResponse(fileName, out ->
+                importExportService.exportAttendanceStatistics(year, month, departmentId, out));
     }
 
     @Operation(summary = "導出用戶打卡記錄", description = "將特定用戶的打卡記錄導出為Excel文件")
     @GetMapping("/export/user-records/{userId}")
-    public ResponseEntity<InputStreamResource> exportUserClockRecords(
+    public ResponseEntity<StreamingResponseBody> exportUserClockRecords(
             @Parameter(description = "用戶ID") @PathVariable Long userId,
             @Parameter(description = "開始日期 (格式: yyyy-MM-dd)")
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @Parameter(description = "結束日期 (格式: yyyy-MM-dd)")
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
         
-        try {
-            InputStream excelStream = importExportService.exportUserClockRecords(userId, startDate, endDate);
-            
-            // 生成文件名
-            String fileName = "用戶打卡記錄_" + userId + "_" + 
-                    startDate.format(DateTimeFormatter.ofPattern("yyyyMMdd")) + 
-                    "_" + endDate.format(DateTimeFormatter.ofPattern("yyyyMMdd")) + ".xlsx";
-            String encodedFileName = URLEncoder.encode(fileName, StandardCharsets.UTF_8.toString())
-                    .replaceAll("\\+", "%20");
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.add(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + encodedFileName);
-            
-            return ResponseEntity.ok()
-                    .headers(headers)
-                    .contentType(MediaType.parseMediaType("application/vnd.ms-excel"))
-                    .body(new InputStreamResource(excelStream));
-        } catch (Exception e) {
-            log.error("導出用戶打卡記錄失敗", e);
-            throw new RuntimeException("導出失敗：" + e.getMessage());
+        if (startDate.isAfter(endDate)) {
+            throw new ApiException("開始日期不能晚於結束日期");
         }
+
+        // 生成文件名
+        String fileName = "用戶打卡記錄_" + userId + "_" + 
+                startDate.format(DateTimeFormatter.ofPattern("yyyyMMdd")) + 
+                "_" + endDate.format(DateTimeFormatter.ofPattern("yyyyMMdd")) + ".xlsx";
+        return excelResponse(fileName, out ->
+                importExportService.exportUserClockRecords(userId, startDate, endDate, out));
     }
 
-    @Operation(summary = "導出部門請假記錄", description = "將部門的請假記錄導出為Excel文件")
+    @Operation(summary = "導出部門請假記錄", description = "將部門的請假記錄導出為Excel、CSV或gzip壓縮的CSV文件")
     @GetMapping("/export/department-leave/{departmentId}")
-    public ResponseEntity<InputStreamResource> exportDepartmentLeaveRecords(
+    public ResponseEntity<StreamingResponseBody> exportDepartmentLeaveRecords(
             @Parameter(description = "部門ID") @PathVariable Long departmentId,
             @Parameter(description = "開始日期 (格式: yyyy-MM-dd)")
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @Parameter(description = "結束日期 (格式: yyyy-MM-dd)")
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @Parameter(description = "文件格式") @RequestParam(defaultValue = "XLSX") ExportFormat format) {
         
-        try {
-            InputStream excelStream = importExportService.exportDepartmentLeaveRecords(departmentId, startDate, endDate);
-            
-            // 生成文件名
-            String fileName = "部門請假記錄_" + departmentId + "_" + 
-                    startDate.format(DateTimeFormatter.ofPattern("yyyyMMdd")) + 
-                    "_" + endDate.format(DateTimeFormatter.ofPattern("yyyyMMdd")) + ".xlsx";
-            String encodedFileName = URLEncoder.encode(fileName, StandardCharsets.UTF_8.toString())
-                    .replaceAll("\\+", "%20");
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.add(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + encodedFileName);
-            
-            return ResponseEntity.ok()
-                    .headers(headers)
-                    .contentType(MediaType.parseMediaType("application/vnd.ms-excel"))
-                    .body(new InputStreamResource(excelStream));
-        } catch (Exception e) {
-            log.error("導出部門請假記錄失敗", e);
-            throw new RuntimeException("導出失敗：" + e.getMessage());
+        if (startDate.isAfter(endDate)) {
+            throw new ApiException("開始日期不能晚於結束日期");
         }
+
+        // 生成文件名
+        String fileName = "部門請假記錄_" + departmentId + "_" + 
+                startDate.format(DateTimeFormatter.ofPattern("yyyyMMdd")) + 
+                "_" + endDate.format(DateTimeFormatter.ofPattern("yyyyMMdd")) + "." + format.getExtension();
+        ExportJobRequest request = ExportJobRequest.builder()
+                .type(ExportType.DEPARTMENT_LEAVE).format(format)
+                .startDate(startDate).endDate(endDate).departmentId(departmentId)
+                .build();
+        return exportResponse(fileName, format, out -> importExportService.export(request, out, null));
+    }
+
+    @Operation(summary = "提交導出任務", description = "在後台生成導出文件，返回任務ID；有效期內相同參數的任務直接複用")
+    @PostMapping("/jobs")
+    public R<ExportJobDTO> submitExportJob(@Valid @RequestBody ExportJobRequest request) {
+        return R.ok(exportJobService.submit(request));
+    }
+
+    @Operation(summary = "查詢導出任務", description = "查詢導出任務的狀態及已寫出的行數")
+    @GetMapping("/jobs/{jobId}")
+    public R<ExportJobDTO> getExportJob(@Parameter(description = "任務ID") @PathVariable String jobId) {
+        return R.ok(exportJobService.getJob(jobId));
+    }
+
+    @Operation(summary = "下載導出文件", description = "下載已完成任務的文件，支持 Range 請求斷點續傳")
+    @GetMapping("/jobs/{jobId}/file")
+    public ResponseEntity<Resource> downloadExportFile(@Parameter(description = "任務ID") @PathVariable String jobId) {
+        ExportJobDTO job = exportJobService.getJob(jobId);
+        Path file = exportJobService.getFile(jobId);
+        String encodedFileName = URLEncoder.encode(job.getFileName(), StandardCharsets.UTF_8).replaceAll("\\+", "%20");
+
+        // 返回 Resource 時由框架處理 Range 請求，響應 206 及對應的字節區間
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + encodedFileName)
+                .eTag(jobId + "-" + job.getFileSize())
+                .contentType(MediaType.parseMediaType(job.getFormat().getContentType()))
+                .body(new FileSystemResource(file));
+    }
+
+    /**
+     * 構建Excel串流下載響應
+     *
+     * @param fileName 文件名
+     * @param body     寫出內容
+     * @return 響應
+     */
+    private ResponseEntity<StreamingResponseBody> excelResponse(String fileName, StreamingResponseBody body) {
+        return exportResponse(fileName, ExportFormat.XLSX, body);
+    }
+
+    /**
+     * 構建串流下載響應，文件在寫出時直接輸出到響應流，不在記憶體中生成完整文件
+     *
+     * @param fileName 文件名
+     * @param format   文件格式
+     * @param body     寫出內容
+     * @return 響應
+     */
+    private ResponseEntity<StreamingResponseBody> exportResponse(String fileName, ExportFormat format,
+                                                                 StreamingResponseBody body) {
+        String encodedFileName = URLEncoder.encode(fileName, StandardCharsets.UTF_8).replaceAll("\\+", "%20");
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + encodedFileName);
+
+        return ResponseEntity.ok()
+                .headers(headers)
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .body(body);
     }
 }
@@ -4,6 +4,7 @@ import com.clockin.record.enums.ClockInType;
 import com.fasterxml.jackson.annotation.JsonFormat;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -45,4 +46,8 @@ public class ClockInRequest {
 
     @Schema(description = "是否補卡", example = "false")
     private Boolean isMakeup = false;
+
+    @Schema(description = "冪等鍵，重試時傳入相同的值將返回首次打卡的結果", example = "3f2b7c9e-5d1a-4e8b-9c6f-0a1b2c3d4e5f")
+    @Size(max = 64, message = "冪等鍵長度不能超過64個字符")
+    private String idempotencyKey;
 }
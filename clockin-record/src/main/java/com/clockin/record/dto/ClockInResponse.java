@@ -51,7 +51,7 @@ public class ClockInResponse {
     @Schema(description = "備註", example = "外出客戶拜訪")
     private String remark;
 
-    @Schema(description = "是否是第一次打卡", example = "true")
+    @Schema(description = "是否是第一次打卡，打卡已寫入隊列（queued）時為空", example = "true")
     private Boolean isFirstClockIn;
 
     @Schema(description = "標準上班時間", example = "09:00:00")
@@ -64,4 +64,7 @@ public class ClockInResponse {
 
     @Schema(description = "提示消息", example = "打卡成功")
     private String message;
+
+    @Schema(description = "是否已受理但尚未寫入數據庫，為 true 時打卡記錄ID為空", example = "false")
+    private Boolean queued;
 }
@@ -0,0 +1,63 @@
+package com.clockin.record.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 游標分頁結果DTO
+ * <p>
+ * 下一頁以 nextCursor 請求，查詢從上一頁最後一行之後開始，與翻到第幾頁無關
+ *
+ * @param <T> 數據類型
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "游標分頁結果")
+public class CursorPage<T> {
+
+    @Schema(description = "本頁數據")
+    private List<T> content;
+
+    @Schema(description = "下一頁的游標，沒有下一頁時為空")
+    private String nextCursor;
+
+    @Schema(description = "是否有下一頁")
+    private boolean hasNext;
+
+    @Schema(description = "總數，只在請求時提供；超過上限時為上限值")
+    private Long total;
+
+    @Schema(description = "總數是否精確，超過上限時為 false")
+    private Boolean totalExact;
+
+    /**
+     * 替換本頁數據，保留游標與總數
+     *
+     * @param content 新的數據
+     * @param <R>     新的數據類型
+     * @return 新的分頁結果
+     */
+    public <R> CursorPage<R> withContent(List<R> content) {
+        return new CursorPage<>(content, nextCursor, hasNext, total, totalExact);
+    }
+
+    /**
+     * 逐條轉換本頁數據
+     *
+     * @param mapper 轉換函數
+     * @param <R>    新的數據類型
+     * @return 新的分頁結果
+     */
+    public <R> CursorPage<R> map(Function<? super T, ? extends R> mapper) {
+        return withContent(content.stream().map(mapper).collect(Collectors.toList()));
+    }
+}
@@ -0,0 +1,63 @@
+package com.clockin.record.dto;
+
+import com.clockin.record.enums.ExportFormat;
+import com.clockin.record.enums.ExportJobStatus;
+import com.clockin.record.enums.ExportType;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 導出任務DTO
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "導出任務")
+public class ExportJobDTO {
+
+    @Schema(description = "任務ID")
+    private String jobId;
+
+    @Schema(description = "導出類型")
+    private ExportType type;
+
+    @Schema(description = "文件格式")
+    private ExportFormat format;
+
+    @Schema(description = "任務狀態")
+    private ExportJobStatus status;
+
+    @Schema(description = "已寫出的行數")
+    private Long rowsWritten;
+
+    @Schema(description = "文件大小（字節），完成後提供")
+    private Long fileSize;
+
+    @Schema(description = "文件名")
+    private String fileName;
+
+    @Schema(description = "失敗原因")
+    private String errorMessage;
+
+    @Schema(description = "提交時間")
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime submittedTime;
+
+    @Schema(description = "完成時間")
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime completedTime;
+
+    @Schema(description = "文件過期時間，過期後需重新提交")
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime expireTime;
+
+    @Schema(description = "是否複用了相同參數的已有任務")
+    private Boolean reused;
+}
@@ -0,0 +1,59 @@
+package com.clockin.record.dto;
+
+import com.clockin.record.enums.ExportFormat;
+import com.clockin.record.enums.ExportType;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * 導出任務請求DTO
+ * <p>
+ * 各導出類型使用的參數：打卡記錄使用日期範圍及可選的用戶、部門；
+ * 考勤統計使用年月及可選的部門；部門請假記錄使用部門及日期範圍；
+ * 每日考勤匯總使用日期範圍及可選的用戶、部門
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "導出任務請求")
+public class ExportJobRequest {
+
+    @Schema(description = "導出類型", example = "CLOCK_RECORDS", required = true)
+    @NotNull(message = "導出類型不能為空")
+    private ExportType type;
+
+    @Schema(description = "文件格式，默認為 XLSX", example = "CSV_GZIP")
+    private ExportFormat format;
+
+    @Schema(description = "開始日期，格式：yyyy-MM-dd", example = "2025-01-01")
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate startDate;
+
+    @Schema(description = "結束日期，格式：yyyy-MM-dd", example = "2025-03-31")
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate endDate;
+
+    @Schema(description = "用戶ID")
+    private Long userId;
+
+    @Schema(description = "部門ID")
+    private Long departmentId;
+
+    @Schema(description = "年份", example = "2025")
+    private Integer year;
+
+    @Schema(description = "月份 (1-12)", example = "3")
+    @Min(value = 1, message = "月份必須在1到12之間")
+    @Max(value = 12, message = "月份必須在1到12之間")
+    private Integer month;
+}
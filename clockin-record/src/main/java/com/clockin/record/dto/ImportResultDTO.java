@@ -0,0 +1,35 @@
+package com.clockin.record.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 導入結果DTO
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "導入結果")
+public class ImportResultDTO {
+
+    @Schema(description = "數據行數")
+    private Long totalRows;
+
+    @Schema(description = "成功寫入的行數")
+    private Long successRows;
+
+    @Schema(description = "失敗的行數")
+    private Long failedRows;
+
+    @Schema(description = "錯誤文件的任務ID，通過導出任務下載接口獲取，沒有錯誤時為空")
+    private String errorFileJobId;
+
+    @Schema(description = "前若干條錯誤信息，完整內容見錯誤文件")
+    private List<String> errors;
+}
@@ -0,0 +1,37 @@
+package com.clockin.record.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 用戶目錄自指定版本以來的變更（供record模組使用）
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserChangeSet {
+
+    /**
+     * 應用本次變更後的版本號
+     */
+    private String version;
+
+    private List<SysUserDTO> updated;
+
+    private List<Long> deletedIds;
+
+    /**
+     * 是否還有更多變更
+     */
+    private boolean hasMore;
+
+    /**
+     * 是否需要重新讀取全量快照
+     */
+    private boolean resyncRequired;
+}
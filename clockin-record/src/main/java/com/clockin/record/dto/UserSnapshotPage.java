@@ -0,0 +1,30 @@
+package com.clockin.record.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 用戶目錄全量快照的一頁（供record模組使用）
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserSnapshotPage {
+
+    /**
+     * 目錄版本號，讀完所有頁後以第一頁的版本號查詢增量變更
+     */
+    private String version;
+
+    private List<SysUserDTO> users;
+
+    /**
+     * 下一頁的起始用戶ID，最後一頁為 null
+     */
+    private Long nextAfterId;
+}
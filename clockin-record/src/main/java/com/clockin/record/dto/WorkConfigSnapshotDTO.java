@@ -0,0 +1,123 @@
+package com.clockin.record.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * 工作配置快照DTO
+ * <p>
+ * 對應 admin 服務 /api/admin/work-config/snapshot 的響應，僅保留打卡判斷所需的欄位
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "工作配置快照")
+public class WorkConfigSnapshotDTO {
+
+    @Schema(description = "快照版本")
+    private String version;
+
+    @Schema(description = "快照生成時間")
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime generatedTime;
+
+    @Schema(description = "啟用的假日配置")
+    private List<Holiday> holidays;
+
+    @Schema(description = "啟用的工作時間配置")
+    private List<WorkTime> workTimeConfigs;
+
+    @Schema(description = "啟用的用戶工作時間配置關聯")
+    private List<UserWorkTime> userWorkTimeConfigs;
+
+    /**
+     * 假日配置
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(description = "假日配置")
+    public static class Holiday {
+
+        @Schema(description = "假日日期", example = "2025-01-01")
+        private LocalDate holidayDate;
+
+        @Schema(description = "假日類型: 1-法定假日, 2-公司假日, 3-特殊工作日, 4-工作日", example = "1")
+        private Integer holidayType;
+
+        @Schema(description = "狀態: 0-停用, 1-啟用", example = "1")
+        private Integer status;
+    }
+
+    /**
+     * 工作時間配置
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(description = "工作時間配置")
+    public static class WorkTime {
+
+        @Schema(description = "配置ID")
+        private Long id;
+
+        @Schema(description = "上班時間", example = "09:00:00")
+        private LocalTime workStartTime;
+
+        @Schema(description = "下班時間", example = "18:00:00")
+        private LocalTime workEndTime;
+
+        @Schema(description = "彈性工作時間（分鐘）", example = "30")
+        private Integer flexibleDuration;
+
+        @Schema(description = "是否啟用彈性工作時間", example = "true")
+        private Boolean enableFlexibleTime;
+
+        @Schema(description = "是否為預設配置", example = "true")
+        private Boolean isDefault;
+
+        @Schema(description = "狀態: 0-停用, 1-啟用", example = "1")
+        private Integer status;
+    }
+
+    /**
+     * 用戶工作時間配置關聯
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(description = "用戶工作時間配置關聯")
+    public static class UserWorkTime {
+
+        @Schema(description = "用戶ID")
+        private Long userId;
+
+        @Schema(description = "工作時間配置ID")
+        private Long configId;
+
+        @Schema(description = "生效開始日期", example = "2025-01-01")
+        private LocalDate effectiveStartDate;
+
+        @Schema(description = "生效結束日期", example = "2025-12-31")
+        private LocalDate effectiveEndDate;
+
+        @Schema(description = "是否為當前生效配置", example = "true")
+        private Boolean isCurrent;
+
+        @Schema(description = "狀態: 0-停用, 1-啟用", example = "1")
+        private Integer status;
+    }
+}
@@ -0,0 +1,53 @@
+package com.clockin.record.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * 工作日曆DTO
+ * <p>
+ * 對應 admin 服務 /api/admin/holiday/workday-calendar 的響應，workdays 第 i 個字元對應 startDate + i 天
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "工作日曆")
+public class WorkdayCalendarDTO {
+
+    @Schema(description = "開始日期")
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate startDate;
+
+    @Schema(description = "結束日期")
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate endDate;
+
+    @Schema(description = "工作日位圖，1-工作日，0-休息日")
+    private String workdays;
+
+    @Schema(description = "工作日天數")
+    private Integer workdayCount;
+
+    /**
+     * 檢查指定日期是否為工作日
+     *
+     * @param date 日期，必須在日曆範圍內
+     * @return 是否為工作日
+     */
+    @JsonIgnore
+    public boolean isWorkDay(LocalDate date) {
+        if (date.isBefore(startDate) || date.isAfter(endDate)) {
+            throw new IllegalArgumentException("日期 " + date + " 不在日曆範圍內");
+        }
+        return workdays.charAt((int) ChronoUnit.DAYS.between(startDate, date)) == '1';
+    }
+}
@@ -22,7 +22,9 @@ import java.time.LocalTime;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "t_attendance_rule")
+@Table(name = "t_attendance_rule", indexes = {
+        @Index(name = "idx_department_priority", columnList = "department_id, is_deleted, is_enabled, priority")
+})
 @EntityListeners(AuditingEntityListener.class)
 public class AttendanceRule {
 
@@ -22,7 +22,12 @@ import java.time.LocalTime;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "clock_in_record")
+@Table(name = "clock_in_record", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_user_date_type_time", columnNames = {"user_id", "clock_date", "clock_type", "clock_time"})
+}, indexes = {
+        @Index(name = "idx_user_date_deleted_time", columnList = "user_id, clock_date, is_deleted, clock_time"),
+        @Index(name = "idx_date_deleted_user_time", columnList = "clock_date, is_deleted, user_id, clock_time")
+})
 public class ClockInRecord {
 
     @Id
@@ -20,7 +20,13 @@ import java.time.LocalTime;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "clock_in_summary")
+@Table(name = "clock_in_summary", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_user_date", columnNames = {"user_id", "clock_date"})
+}, indexes = {
+        @Index(name = "idx_user_date_status",
+                columnList = "user_id, clock_date, is_deleted, absence_type, clock_in_status, clock_out_status"),
+        @Index(name = "idx_date_deleted_user", columnList = "clock_date, is_deleted, user_id, absence_type, work_duration")
+})
 public class ClockInSummary {
 
     @Id
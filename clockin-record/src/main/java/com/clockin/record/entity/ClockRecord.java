@@ -3,7 +3,9 @@ package com.clockin.record.entity;
 import com.clockin.common.entity.BaseEntity;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.experimental.Accessors;
@@ -18,7 +20,11 @@ import java.time.LocalDateTime;
 @EqualsAndHashCode(callSuper = true)
 @Accessors(chain = true)
 @Entity
-@Table(name = "clock_record")
+@Table(name = "clock_record", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_clock_record_user_date", columnNames = {"user_id", "clock_date"})
+}, indexes = {
+        @Index(name = "idx_clock_date", columnList = "clock_date")
+})
 public class ClockRecord extends BaseEntity {
 
     /**
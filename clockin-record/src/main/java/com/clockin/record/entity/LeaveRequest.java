@@ -19,7 +19,10 @@ import java.time.LocalDateTime;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "leave_request")
+@Table(name = "leave_request", indexes = {
+        @Index(name = "idx_leave_user_start", columnList = "user_id, start_time"),
+        @Index(name = "idx_leave_status_start", columnList = "status, start_time")
+})
 public class LeaveRequest {
 
     @Id
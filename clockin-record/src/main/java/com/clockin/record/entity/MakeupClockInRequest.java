@@ -19,7 +19,10 @@ import java.time.LocalDateTime;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "makeup_clock_in_request")
+@Table(name = "makeup_clock_in_request", indexes = {
+        @Index(name = "idx_makeup_user_date", columnList = "user_id, request_date"),
+        @Index(name = "idx_makeup_status_date", columnList = "status, request_date")
+})
 public class MakeupClockInRequest {
 
     @Id
@@ -0,0 +1,103 @@
+package com.clockin.record.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 打卡匯總重算分區檢查點實體
+ * <p>
+ * 每條記錄對應一個（日期 × 用戶ID區間）分區，重算任務中斷後可跳過已完成的分區繼續執行
+ */
+@Data
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "summary_recalculation_checkpoint", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_job_partition", columnNames = {"job_key", "clock_date", "from_user_id"})
+})
+public class SummaryRecalculationCheckpoint {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * 任務標識，如 monthly:2025-03
+     */
+    @Column(name = "job_key", nullable = false, length = 64)
+    private String jobKey;
+
+    /**
+     * 分區日期
+     */
+    @Column(name = "clock_date", nullable = false)
+    private LocalDate clockDate;
+
+    /**
+     * 分區起始用戶ID（包含）
+     */
+    @Column(name = "from_user_id", nullable = false)
+    private Long fromUserId;
+
+    /**
+     * 分區結束用戶ID（包含）
+     */
+    @Column(name = "to_user_id", nullable = false)
+    private Long toUserId;
+
+    /**
+     * 分區狀態
+     */
+    @Column(name = "status", nullable = false, length = 20)
+    @Enumerated(EnumType.STRING)
+    private Status status;
+
+    /**
+     * 成功處理的用戶數
+     */
+    @Column(name = "processed_count")
+    private Integer processedCount;
+
+    /**
+     * 創建時間
+     */
+    @CreationTimestamp
+    @Column(name = "create_time", updatable = false)
+    private LocalDateTime createTime;
+
+    /**
+     * 更新時間
+     */
+    @UpdateTimestamp
+    @Column(name = "update_time")
+    private LocalDateTime updateTime;
+
+    /**
+     * 分區狀態枚舉
+     */
+    public enum Status {
+        /**
+         * 待處理
+         */
+        PENDING,
+
+        /**
+         * 已完成
+         */
+        COMPLETED,
+
+        /**
+         * 處理失敗，下次恢復時重試
+         */
+        FAILED
+    }
+}
@@ -0,0 +1,41 @@
+package com.clockin.record.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 用戶部門投影實體
+ * <p>
+ * 認證服務中用戶所屬部門在本庫的副本，供部門範圍的查詢以子查詢過濾用戶，
+ * 由 {@link com.clockin.record.repository.UserDepartmentJdbcRepository} 維護
+ */
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "user_department", indexes = {
+        @Index(name = "idx_department_user", columnList = "department_id, user_id")
+})
+public class UserDepartment {
+
+    /**
+     * 用戶ID
+     */
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    /**
+     * 部門ID，用戶已刪除或未分配部門時為 null
+     */
+    @Column(name = "department_id")
+    private Long departmentId;
+
+    /**
+     * 最後變更時間（毫秒時間戳）
+     */
+    @Column(name = "changed_at", nullable = false)
+    private Long changedAt;
+}
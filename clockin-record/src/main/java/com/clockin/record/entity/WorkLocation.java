@@ -21,7 +21,9 @@ import java.time.LocalDateTime;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "t_work_location")
+@Table(name = "t_work_location", indexes = {
+        @Index(name = "idx_deleted_enabled", columnList = "is_deleted, is_enabled")
+})
 @EntityListeners(AuditingEntityListener.class)
 public class WorkLocation {
 
@@ -0,0 +1,37 @@
+package com.clockin.record.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 導出文件格式枚舉
+ */
+@Getter
+@AllArgsConstructor
+public enum ExportFormat {
+
+    /**
+     * Excel 工作簿
+     */
+    XLSX("xlsx", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"),
+
+    /**
+     * UTF-8 編碼的 CSV
+     */
+    CSV("csv", "text/csv;charset=UTF-8"),
+
+    /**
+     * gzip 壓縮的 CSV，適用於數據倉庫定時抽取
+     */
+    CSV_GZIP("csv.gz", "application/gzip");
+
+    /**
+     * 文件擴展名
+     */
+    private final String extension;
+
+    /**
+     * 響應的內容類型
+     */
+    private final String contentType;
+}
@@ -0,0 +1,37 @@
+package com.clockin.record.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 導出任務狀態枚舉
+ */
+@Getter
+@AllArgsConstructor
+public enum ExportJobStatus {
+
+    /**
+     * 排隊中
+     */
+    QUEUED("排隊中"),
+
+    /**
+     * 導出中
+     */
+    RUNNING("導出中"),
+
+    /**
+     * 已完成，可下載
+     */
+    COMPLETED("已完成"),
+
+    /**
+     * 失敗
+     */
+    FAILED("失敗");
+
+    /**
+     * 狀態描述
+     */
+    private final String desc;
+}
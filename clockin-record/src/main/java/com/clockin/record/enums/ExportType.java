@@ -0,0 +1,42 @@
+package com.clockin.record.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 導出類型枚舉
+ */
+@Getter
+@AllArgsConstructor
+public enum ExportType {
+
+    /**
+     * 打卡記錄
+     */
+    CLOCK_RECORDS("打卡記錄"),
+
+    /**
+     * 考勤統計報表
+     */
+    ATTENDANCE_STATISTICS("考勤統計"),
+
+    /**
+     * 部門請假記錄
+     */
+    DEPARTMENT_LEAVE("部門請假記錄"),
+
+    /**
+     * 每日考勤匯總
+     */
+    CLOCK_IN_SUMMARIES("每日考勤匯總"),
+
+    /**
+     * 導入錯誤記錄，由導入流程生成，不能直接提交
+     */
+    IMPORT_ERRORS("導入錯誤記錄");
+
+    /**
+     * 類型描述，同時用作文件名前綴
+     */
+    private final String desc;
+}
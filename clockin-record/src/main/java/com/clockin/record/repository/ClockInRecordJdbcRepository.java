@@ -0,0 +1,66 @@
+package com.clockin.record.repository;
+
+import com.clockin.record.entity.ClockInRecord;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 打卡記錄批量寫入資源庫
+ * <p>
+ * 後台批量寫入時使用 JDBC 批處理，配合 rewriteBatchedStatements 合併為多值插入。
+ * 與已有記錄的 uk_user_date_type_time 重複的打卡不再寫入，其他數據錯誤仍使整批失敗
+ */
+@Repository
+@RequiredArgsConstructor
+public class ClockInRecordJdbcRepository {
+
+    /**
+     * 打卡類型與狀態按序號保存，與實體的 EnumType.ORDINAL 映射一致
+     */
+    private static final String INSERT_SQL = "INSERT INTO clock_in_record " +
+            "(user_id, clock_date, clock_time, clock_type, status, location, device, remark, " +
+            "create_time, update_time, is_deleted) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE id = id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * 批量插入打卡記錄，不回填記錄ID；相同用戶、日期、類型及時間的打卡已存在時跳過
+     *
+     * @param records 打卡記錄列表
+     * @return 每條語句影響的行數
+     */
+    public int[] batchInsert(List<ClockInRecord> records) {
+        LocalDateTime now = LocalDateTime.now();
+        return jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ClockInRecord record = records.get(i);
+                ps.setLong(1, record.getUserId());
+                ps.setObject(2, record.getClockDate());
+                ps.setObject(3, record.getClockTime());
+                ps.setInt(4, record.getClockType().ordinal());
+                ps.setInt(5, record.getStatus().ordinal());
+                ps.setString(6, record.getLocation());
+                ps.setString(7, record.getDevice());
+                ps.setString(8, record.getRemark());
+                ps.setObject(9, now);
+                ps.setObject(10, now);
+                ps.setInt(11, record.getIsDeleted());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return records.size();
+            }
+        });
+    }
+}
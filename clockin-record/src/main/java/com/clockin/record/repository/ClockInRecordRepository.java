@@ -2,6 +2,7 @@ package com.clockin.record.repository;
 
 import com.clockin.record.entity.ClockInRecord;
 import com.clockin.record.enums.ClockInType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
@@ -9,6 +10,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -51,6 +53,19 @@ public interface ClockInRecordRepository extends JpaRepository<ClockInRecord, Lo
     boolean existsByUserIdAndClockDateAndClockTypeAndIsDeleted(
             Long userId, LocalDate clockDate, ClockInType clockType, Integer isDeleted);
 
+    /**
+     * 檢查指定時間的打卡記錄是否存在
+     *
+     * @param userId    用戶ID
+     * @param clockDate 打卡日期
+     * @param clockType 打卡類型
+     * @param clockTime 打卡時間
+     * @param isDeleted 是否刪除
+     * @return 是否存在
+     */
+    boolean existsByUserIdAndClockDateAndClockTypeAndClockTimeAndIsDeleted(
+            Long userId, LocalDate clockDate, ClockInType clockType, LocalTime clockTime, Integer isDeleted);
+
     /**
      * 統計用戶在指定日期範圍內的打卡記錄數量
      *
@@ -76,4 +91,67 @@ public interface ClockInRecordRepository extends JpaRepository<ClockInRecord, Lo
             @Param("startDate") LocalDate startDate,
             @Param("endDate") LocalDate endDate,
             @Param("isDeleted") Integer isDeleted);
+
+    /**
+     * 按用戶ID升序查詢指定日期、用戶ID區間內有打卡記錄的用戶，用於分塊處理
+     *
+     * @param clockDate   打卡日期
+     * @param isDeleted   是否刪除
+     * @param fromUserId  起始用戶ID（包含）
+     * @param toUserId    結束用戶ID（包含）
+     * @param pageable    分頁參數，只使用其大小
+     * @return 用戶ID列表
+     */
+    @Query("SELECT DISTINCT r.userId FROM ClockInRecord r WHERE r.clockDate = :clockDate AND r.isDeleted = :isDeleted " +
+            "AND r.userId >= :fromUserId AND r.userId <= :toUserId ORDER BY r.userId")
+    List<Long> findUserIdsByClockDateAfter(
+            @Param("clockDate") LocalDate clockDate,
+            @Param("isDeleted") Integer isDeleted,
+            @Param("fromUserId") Long fromUserId,
+            @Param("toUserId") Long toUserId,
+            Pageable pageable);
+
+    /**
+     * 統計指定日期、用戶ID區間內有打卡記錄的用戶數量
+     *
+     * @param clockDate   打卡日期
+     * @param isDeleted   是否刪除
+     * @param fromUserId  起始用戶ID（包含）
+     * @param toUserId    結束用戶ID（包含）
+     * @return 用戶數量
+     */
+    @Query("SELECT COUNT(DISTINCT r.userId) FROM ClockInRecord r WHERE r.clockDate = :clockDate AND r.isDeleted = :isDeleted " +
+            "AND r.userId >= :fromUserId AND r.userId <= :toUserId")
+    long countUsersByClockDate(
+            @Param("clockDate") LocalDate clockDate,
+            @Param("isDeleted") Integer isDeleted,
+            @Param("fromUserId") Long fromUserId,
+            @Param("toUserId") Long toUserId);
+
+    /**
+     * 查詢日期範圍內打卡記錄的最小及最大用戶ID，用於劃分用戶區間
+     *
+     * @param startDate 開始日期
+     * @param endDate   結束日期
+     * @param isDeleted 是否刪除
+     * @return [最小用戶ID, 最大用戶ID]，沒有記錄時兩者皆為 null
+     */
+    @Query("SELECT MIN(r.userId), MAX(r.userId) FROM ClockInRecord r " +
+            "WHERE r.clockDate BETWEEN :startDate AND :endDate AND r.isDeleted = :isDeleted")
+    List<Object[]> findUserIdRangeByClockDateBetween(
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate,
+            @Param("isDeleted") Integer isDeleted);
+
+    /**
+     * 查詢用戶ID區間內指定日期的打卡記錄，按用戶ID及打卡時間升序
+     *
+     * @param clockDate  打卡日期
+     * @param isDeleted  是否刪除
+     * @param fromUserId 起始用戶ID（包含）
+     * @param toUserId   結束用戶ID（包含）
+     * @return 打卡記錄列表
+     */
+    List<ClockInRecord> findByClockDateAndIsDeletedAndUserIdBetweenOrderByUserIdAscClockTimeAsc(
+            LocalDate clockDate, Integer isDeleted, Long fromUserId, Long toUserId);
 }
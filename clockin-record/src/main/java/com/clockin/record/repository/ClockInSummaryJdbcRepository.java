@@ -0,0 +1,166 @@
+package com.clockin.record.repository;
+
+import com.clockin.record.entity.ClockInSummary;
+import com.clockin.record.enums.AbsenceType;
+import com.clockin.record.enums.ClockInStatus;
+import com.clockin.record.enums.ClockInType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 打卡匯總寫入資源庫
+ * <p>
+ * 以 JDBC upsert 寫入匯總，依賴 (user_id, clock_date) 唯一鍵，避免逐筆查詢後再保存
+ */
+@Repository
+@RequiredArgsConstructor
+public class ClockInSummaryJdbcRepository {
+
+    private static final String INSERT_SQL = "INSERT INTO clock_in_summary " +
+            "(user_id, clock_date, clock_in_time, clock_in_status, clock_out_time, clock_out_status, " +
+            "work_duration, absence_type, create_time, update_time, is_deleted) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0) ";
+
+    private static final String UPSERT_SQL = INSERT_SQL +
+            "ON DUPLICATE KEY UPDATE " +
+            "clock_in_time = VALUES(clock_in_time), " +
+            "clock_in_status = VALUES(clock_in_status), " +
+            "clock_out_time = VALUES(clock_out_time), " +
+            "clock_out_status = VALUES(clock_out_status), " +
+            "work_duration = VALUES(work_duration), " +
+            "absence_type = VALUES(absence_type), " +
+            "update_time = VALUES(update_time), " +
+            "is_deleted = 0";
+
+    /**
+     * 合併上班打卡：較早的上班時間覆蓋原值
+     */
+    private static final String MERGE_CLOCK_IN_SQL = mergeSql("clock_in", "clock_out", "<=");
+
+    /**
+     * 合併下班打卡：較晚的下班時間覆蓋原值
+     */
+    private static final String MERGE_CLOCK_OUT_SQL = mergeSql("clock_out", "clock_in", ">=");
+
+    /**
+     * 區間內當日已沒有有效打卡記錄的匯總，條件與軟刪除語句共用
+     */
+    private static final String WITHOUT_RECORDS_CONDITION = "s.clock_date = ? AND s.user_id BETWEEN ? AND ? " +
+            "AND s.is_deleted = 0 AND NOT EXISTS (SELECT 1 FROM clock_in_record r " +
+            "WHERE r.user_id = s.user_id AND r.clock_date = s.clock_date AND r.is_deleted = 0)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * 批量新增或更新打卡匯總
+     *
+     * @param summaries 打卡匯總列表
+     * @return 每條語句影響的行數
+     */
+    public int[] batchUpsert(List<ClockInSummary> summaries) {
+        LocalDateTime now = LocalDateTime.now();
+        return jdbcTemplate.batchUpdate(UPSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                setInsertValues(ps, summaries.get(i), now);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return summaries.size();
+            }
+        });
+    }
+
+    /**
+     * 軟刪除用戶ID區間內當日已沒有有效打卡記錄的匯總，打卡記錄全部刪除後匯總不再保留舊值
+     *
+     * @param date       日期
+     * @param fromUserId 起始用戶ID（包含）
+     * @param toUserId   結束用戶ID（包含）
+     * @return 被軟刪除匯總的用戶ID
+     */
+    public List<Long> softDeleteWithoutRecords(LocalDate date, long fromUserId, long toUserId) {
+        List<Long> userIds = jdbcTemplate.queryForList(
+                "SELECT s.user_id FROM clock_in_summary s WHERE " + WITHOUT_RECORDS_CONDITION + " FOR UPDATE",
+                Long.class, date, fromUserId, toUserId);
+        if (!userIds.isEmpty()) {
+            jdbcTemplate.update("UPDATE clock_in_summary s SET s.is_deleted = 1, s.update_time = ? WHERE "
+                    + WITHOUT_RECORDS_CONDITION, LocalDateTime.now(), date, fromUserId, toUserId);
+        }
+        return userIds;
+    }
+
+    /**
+     * 將單條打卡記錄增量合併到當日匯總
+     * <p>
+     * 在單條語句內完成比較與更新，同一用戶多台設備同時打卡時不會互相覆蓋。
+     * 已軟刪除的匯總視為不存在，合併後恢復為有效記錄
+     *
+     * @param initial   匯總不存在時插入的內容，即僅包含該打卡記錄的匯總
+     * @param clockType 打卡類型
+     * @param workDay   當日是否為工作日
+     * @return 影響的行數
+     */
+    public int mergeRecord(ClockInSummary initial, ClockInType clockType, boolean workDay) {
+        String sql = clockType == ClockInType.CLOCK_IN ? MERGE_CLOCK_IN_SQL : MERGE_CLOCK_OUT_SQL;
+        LocalDateTime now = LocalDateTime.now();
+        return jdbcTemplate.update(sql, ps -> {
+            setInsertValues(ps, initial, now);
+            ps.setBoolean(11, workDay);
+        });
+    }
+
+    private static void setInsertValues(PreparedStatement ps, ClockInSummary summary, LocalDateTime now) throws SQLException {
+        ps.setLong(1, summary.getUserId());
+        ps.setObject(2, summary.getClockDate());
+        ps.setObject(3, summary.getClockInTime(), Types.TIME);
+        ps.setObject(4, summary.getClockInStatus(), Types.INTEGER);
+        ps.setObject(5, summary.getClockOutTime(), Types.TIME);
+        ps.setObject(6, summary.getClockOutStatus(), Types.INTEGER);
+        ps.setObject(7, summary.getWorkDuration(), Types.INTEGER);
+        ps.setInt(8, summary.getAbsenceType());
+        ps.setObject(9, now);
+        ps.setObject(10, now);
+    }
+
+    /**
+     * 生成增量合併語句
+     * <p>
+     * MySQL 按順序執行 UPDATE 子句中的賦值，後面的表達式讀到的是已更新的值：
+     * 先更新狀態再更新時間（兩者使用同一判斷條件），之後以新值推導時長與缺勤類型，最後才清除刪除標記。
+     * 推導規則與 ClockInSummaryCalculator 一致
+     *
+     * @param column      本次打卡對應的欄位前綴
+     * @param otherColumn 另一類打卡的欄位前綴
+     * @param comparison  新時間覆蓋原值的比較運算符
+     */
+    private static String mergeSql(String column, String otherColumn, String comparison) {
+        String take = "is_deleted = 1 OR " + column + "_time IS NULL OR VALUES(" + column + "_time) "
+                + comparison + " " + column + "_time";
+        return INSERT_SQL +
+                "ON DUPLICATE KEY UPDATE " +
+                column + "_status = IF(" + take + ", VALUES(" + column + "_status), " + column + "_status), " +
+                column + "_time = IF(" + take + ", VALUES(" + column + "_time), " + column + "_time), " +
+                otherColumn + "_status = IF(is_deleted = 1, NULL, " + otherColumn + "_status), " +
+                otherColumn + "_time = IF(is_deleted = 1, NULL, " + otherColumn + "_time), " +
+                "work_duration = IF(clock_in_time IS NULL OR clock_out_time IS NULL, NULL, " +
+                "GREATEST(TIME_TO_SEC(TIMEDIFF(clock_out_time, clock_in_time)) DIV 60, 0)), " +
+                "absence_type = IF(?, CASE " +
+                "WHEN clock_out_status = " + ClockInStatus.EARLY_LEAVE.getValue() + " THEN " + AbsenceType.EARLY_LEAVE.getValue() + " " +
+                "WHEN clock_in_status IS NULL THEN " + AbsenceType.ABSENCE.getValue() + " " +
+                "WHEN clock_in_status = " + ClockInStatus.LATE.getValue() + " THEN " + AbsenceType.LATE.getValue() + " " +
+                "ELSE " + AbsenceType.NORMAL.getValue() + " END, " + AbsenceType.NORMAL.getValue() + "), " +
+                "update_time = VALUES(update_time), " +
+                "is_deleted = 0";
+    }
+}
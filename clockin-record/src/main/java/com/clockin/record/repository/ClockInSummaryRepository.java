@@ -64,8 +64,8 @@ public interface ClockInSummaryRepository extends JpaRepository<ClockInSummary,
     @Query(value = "SELECT s.clock_date, " +
             "COUNT(CASE WHEN s.absence_type = 0 THEN 1 END) * 1.0 / COUNT(*) AS attendance_rate " +
             "FROM clock_in_summary s " +
-            "JOIN sys_user u ON s.user_id = u.id " +
-            "WHERE u.department_id = :departmentId " +
+            "JOIN user_department ud ON s.user_id = ud.user_id " +
+            "WHERE ud.department_id = :departmentId " +
             "AND s.clock_date BETWEEN :startDate AND :endDate " +
             "AND s.is_deleted = :isDeleted " +
             "GROUP BY s.clock_date " +
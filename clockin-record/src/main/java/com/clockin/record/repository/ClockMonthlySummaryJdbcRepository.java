@@ -0,0 +1,221 @@
+package com.clockin.record.repository;
+
+import com.clockin.record.enums.AbsenceType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 打卡月報表資源庫
+ * <p>
+ * 由 clock_in_summary 的日匯總按用戶、月份彙總後 upsert 到 clock_monthly_summary，依賴 (user_id, year, month) 唯一鍵
+ */
+@Repository
+@RequiredArgsConstructor
+public class ClockMonthlySummaryJdbcRepository {
+
+    /**
+     * 月報表狀態：未完成（月份進行中，隨日匯總增量更新）
+     */
+    public static final int STATUS_OPEN = 0;
+
+    /**
+     * 月報表狀態：已完成（月結時已全量重建）
+     */
+    public static final int STATUS_CLOSED = 1;
+
+    /**
+     * 工作時長超過該值（分鐘）視為加班，超出標準工作時長的部分計為加班時長
+     */
+    private static final int OVERTIME_LIMIT = 600;
+
+    private static final int STANDARD_WORK_DURATION = 540;
+
+    private static final String ROLLUP_SQL = "INSERT INTO clock_monthly_summary " +
+            "(user_id, year, month, work_days, work_hours, overtime_hours, normal_count, late_count, " +
+            "early_leave_count, absent_count, leave_count, outside_work_count, overtime_count, status, " +
+            "create_time, update_time) " +
+            "SELECT user_id, :year, :month, " +
+            "SUM(CASE WHEN absence_type IN (" + type(AbsenceType.NORMAL) + ", " + type(AbsenceType.LATE) + ", " +
+            type(AbsenceType.EARLY_LEAVE) + ", " + type(AbsenceType.OUTSIDE_WORK) + ") THEN 1 ELSE 0 END), " +
+            "ROUND(COALESCE(SUM(work_duration), 0) / 60, 2), " +
+            "ROUND(SUM(CASE WHEN work_duration > " + OVERTIME_LIMIT + " THEN work_duration - " + STANDARD_WORK_DURATION +
+            " ELSE 0 END) / 60, 2), " +
+            countOf(AbsenceType.NORMAL) + ", " +
+            countOf(AbsenceType.LATE) + ", " +
+            countOf(AbsenceType.EARLY_LEAVE) + ", " +
+            countOf(AbsenceType.ABSENCE) + ", " +
+            countOf(AbsenceType.LEAVE) + ", " +
+            countOf(AbsenceType.OUTSIDE_WORK) + ", " +
+            "SUM(CASE WHEN work_duration > " + OVERTIME_LIMIT + " THEN 1 ELSE 0 END), " +
+            ":status, NOW(), NOW() " +
+            "FROM clock_in_summary " +
+            "WHERE clock_date BETWEEN :startDate AND :endDate AND is_deleted = 0%s " +
+            "GROUP BY user_id " +
+            "ON DUPLICATE KEY UPDATE " +
+            "work_days = VALUES(work_days), " +
+            "work_hours = VALUES(work_hours), " +
+            "overtime_hours = VALUES(overtime_hours), " +
+            "normal_count = VALUES(normal_count), " +
+            "late_count = VALUES(late_count), " +
+            "early_leave_count = VALUES(early_leave_count), " +
+            "absent_count = VALUES(absent_count), " +
+            "leave_count = VALUES(leave_count), " +
+            "outside_work_count = VALUES(outside_work_count), " +
+            "overtime_count = VALUES(overtime_count), " +
+            "status = %s, " +
+            "update_time = VALUES(update_time)";
+
+    /**
+     * 刪除日匯總已全部不存在的月報表
+     */
+    private static final String DELETE_ORPHANS_SQL = "DELETE FROM clock_monthly_summary " +
+            "WHERE year = :year AND month = :month%s AND NOT EXISTS (" +
+            "SELECT 1 FROM clock_in_summary s WHERE s.user_id = clock_monthly_summary.user_id " +
+            "AND s.clock_date BETWEEN :startDate AND :endDate AND s.is_deleted = 0)";
+
+    private static final String SELECT_SQL = "SELECT user_id, year, month, work_days, work_hours, overtime_hours, " +
+            "normal_count, late_count, early_leave_count, absent_count, leave_count, outside_work_count, " +
+            "overtime_count, status FROM clock_monthly_summary WHERE year = :year AND month = :month";
+
+    private static final RowMapper<MonthlySummary> ROW_MAPPER = (rs, rowNum) -> new MonthlySummary(
+            rs.getLong("user_id"),
+            rs.getInt("year"),
+            rs.getInt("month"),
+            rs.getInt("work_days"),
+            (int) Math.round(rs.getDouble("work_hours") * 60),
+            (int) Math.round(rs.getDouble("overtime_hours") * 60),
+            rs.getInt("normal_count"),
+            rs.getInt("late_count"),
+            rs.getInt("early_leave_count"),
+            rs.getInt("absent_count"),
+            rs.getInt("leave_count"),
+            rs.getInt("outside_work_count"),
+            rs.getInt("overtime_count"),
+            rs.getInt("status"));
+
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    /**
+     * 按日匯總重新彙總指定用戶的月報表，不改變月報表的完成狀態
+     *
+     * @param month   月份
+     * @param userIds 用戶ID
+     * @return 影響的行數
+     */
+    public int refreshUsers(YearMonth month, Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return 0;
+        }
+        MapSqlParameterSource params = params(month, STATUS_OPEN).addValue("userIds", userIds);
+        String userFilter = " AND user_id IN (:userIds)";
+        int updated = namedParameterJdbcTemplate.update(String.format(ROLLUP_SQL, userFilter, "status"), params);
+        return updated + namedParameterJdbcTemplate.update(String.format(DELETE_ORPHANS_SQL, userFilter), params);
+    }
+
+    /**
+     * 按日匯總重建整月的月報表
+     *
+     * @param month  月份
+     * @param status 重建後的狀態
+     * @return 影響的行數
+     */
+    public int rebuildMonth(YearMonth month, int status) {
+        MapSqlParameterSource params = params(month, status);
+        int updated = namedParameterJdbcTemplate.update(String.format(ROLLUP_SQL, "", "VALUES(status)"), params);
+        return updated + namedParameterJdbcTemplate.update(String.format(DELETE_ORPHANS_SQL, ""), params);
+    }
+
+    /**
+     * 查詢整月的月報表，使用 idx_year_month 索引
+     *
+     * @param month 月份
+     * @return 月報表列表
+     */
+    public List<MonthlySummary> findByMonth(YearMonth month) {
+        return namedParameterJdbcTemplate.query(SELECT_SQL, params(month, STATUS_OPEN), ROW_MAPPER);
+    }
+
+    /**
+     * 查詢用戶的月報表
+     *
+     * @param userId 用戶ID
+     * @param month  月份
+     * @return 月報表，不存在時為 null
+     */
+    public MonthlySummary findByUserAndMonth(Long userId, YearMonth month) {
+        List<MonthlySummary> summaries = namedParameterJdbcTemplate.query(SELECT_SQL + " AND user_id = :userId",
+                params(month, STATUS_OPEN).addValue("userId", userId), ROW_MAPPER);
+        return summaries.isEmpty() ? null : summaries.get(0);
+    }
+
+    private static MapSqlParameterSource params(YearMonth month, int status) {
+        return new MapSqlParameterSource()
+                .addValue("year", month.getYear())
+                .addValue("month", month.getMonthValue())
+                .addValue("startDate", month.atDay(1))
+                .addValue("endDate", month.atEndOfMonth())
+                .addValue("status", status);
+    }
+
+    private static String type(AbsenceType type) {
+        return String.valueOf(type.getValue());
+    }
+
+    private static String countOf(AbsenceType type) {
+        return "SUM(CASE WHEN absence_type = " + type(type) + " THEN 1 ELSE 0 END)";
+    }
+
+    /**
+     * 單個用戶的月報表
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class MonthlySummary {
+
+        private final long userId;
+
+        private final int year;
+
+        private final int month;
+
+        /**
+         * 出勤天數：正常、遲到、早退及外勤
+         */
+        private final int workDays;
+
+        /**
+         * 總工作時長（分鐘）
+         */
+        private final int workMinutes;
+
+        /**
+         * 總加班時長（分鐘）
+         */
+        private final int overtimeMinutes;
+
+        private final int normalCount;
+
+        private final int lateCount;
+
+        private final int earlyLeaveCount;
+
+        private final int absentCount;
+
+        private final int leaveCount;
+
+        private final int outsideWorkCount;
+
+        private final int overtimeCount;
+
+        private final int status;
+    }
+}
@@ -0,0 +1,84 @@
+package com.clockin.record.repository;
+
+import com.clockin.record.entity.ClockRecord;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 打卡記錄（clock_record）批量寫入資源庫
+ * <p>
+ * 以 JDBC 批處理 upsert，依賴 (user_id, clock_date) 唯一鍵；配合 rewriteBatchedStatements 合併為多值語句，
+ * 避免 IDENTITY 主鍵使 Hibernate 逐筆插入
+ */
+@Repository
+@RequiredArgsConstructor
+public class ClockRecordJdbcRepository {
+
+    private static final String UPSERT_SQL = "INSERT INTO clock_record " +
+            "(user_id, clock_date, clock_in_time, clock_out_time, clock_type, work_location, ip_address, " +
+            "device_info, remark, is_abnormal, abnormal_reason, work_duration, is_holiday, holiday_type, " +
+            "create_time, update_time, deleted) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0) " +
+            "ON DUPLICATE KEY UPDATE " +
+            "clock_in_time = VALUES(clock_in_time), " +
+            "clock_out_time = VALUES(clock_out_time), " +
+            "clock_type = VALUES(clock_type), " +
+            "work_location = VALUES(work_location), " +
+            "ip_address = VALUES(ip_address), " +
+            "device_info = VALUES(device_info), " +
+            "remark = VALUES(remark), " +
+            "is_abnormal = VALUES(is_abnormal), " +
+            "abnormal_reason = VALUES(abnormal_reason), " +
+            "work_duration = VALUES(work_duration), " +
+            "is_holiday = VALUES(is_holiday), " +
+            "holiday_type = VALUES(holiday_type), " +
+            "update_time = VALUES(update_time), " +
+            "deleted = 0";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * 批量新增或覆蓋打卡記錄，同一用戶同一日期已有記錄時以導入內容覆蓋
+     *
+     * @param records 打卡記錄列表
+     * @return 每條語句影響的行數
+     */
+    public int[] batchUpsert(List<ClockRecord> records) {
+        LocalDateTime now = LocalDateTime.now();
+        return jdbcTemplate.batchUpdate(UPSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ClockRecord record = records.get(i);
+                ps.setLong(1, record.getUserId());
+                ps.setObject(2, record.getClockDate());
+                ps.setObject(3, record.getClockInTime(), Types.TIMESTAMP);
+                ps.setObject(4, record.getClockOutTime(), Types.TIMESTAMP);
+                ps.setObject(5, record.getClockType(), Types.INTEGER);
+                ps.setString(6, record.getWorkLocation());
+                ps.setString(7, record.getIpAddress());
+                ps.setString(8, record.getDeviceInfo());
+                ps.setString(9, record.getRemark());
+                ps.setObject(10, record.getIsAbnormal(), Types.BOOLEAN);
+                ps.setString(11, record.getAbnormalReason());
+                ps.setObject(12, record.getWorkDuration(), Types.INTEGER);
+                ps.setObject(13, record.getIsHoliday(), Types.BOOLEAN);
+                ps.setObject(14, record.getHolidayType(), Types.INTEGER);
+                ps.setObject(15, now);
+                ps.setObject(16, now);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return records.size();
+            }
+        });
+    }
+}
@@ -0,0 +1,150 @@
+package com.clockin.record.repository;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 考勤統計聚合資源庫
+ * <p>
+ * 以一條分組聚合語句計算日期區間內每個用戶的考勤指標，取代逐用戶查詢打卡記錄後在記憶體中統計
+ */
+@Repository
+@RequiredArgsConstructor
+public class ClockRecordStatisticsJdbcRepository {
+
+    /**
+     * 內層查詢先為每條記錄標記是否工作日及是否異常，外層按用戶聚合；
+     * 遲到、早退、加班的判斷規則與原逐條統計一致
+     */
+    private static final String AGGREGATE_SQL = "SELECT user_id, " +
+            "COUNT(DISTINCT CASE WHEN work_day THEN clock_date END) AS workday_record_days, " +
+            "SUM(CASE WHEN work_day AND NOT abnormal THEN 1 ELSE 0 END) AS normal_days, " +
+            "SUM(CASE WHEN work_day AND abnormal THEN 1 ELSE 0 END) AS abnormal_days, " +
+            "SUM(CASE WHEN work_day THEN COALESCE(work_duration, 0) ELSE 0 END) AS total_work_duration, " +
+            "SUM(CASE WHEN work_day AND NOT abnormal AND clock_in_time IS NOT NULL " +
+            "AND TIME(clock_in_time) <= :lateLimit THEN 1 ELSE 0 END) AS on_time_days, " +
+            "SUM(CASE WHEN work_day AND abnormal AND TIME(clock_in_time) > :lateLimit THEN 1 " +
+            "WHEN work_day AND NOT abnormal AND (clock_in_time IS NULL OR TIME(clock_in_time) > :lateLimit) THEN 1 " +
+            "ELSE 0 END) AS late_days, " +
+            "SUM(CASE WHEN work_day AND TIME(clock_out_time) < :earlyLeaveLimit THEN 1 ELSE 0 END) AS early_leave_days, " +
+            "SUM(CASE WHEN work_day AND NOT abnormal AND work_duration > :overtimeLimit THEN 1 " +
+            "WHEN NOT work_day AND work_duration > 0 THEN 1 ELSE 0 END) AS overtime_days, " +
+            "SUM(CASE WHEN work_day AND NOT abnormal AND work_duration > :overtimeLimit THEN work_duration - :standardDuration " +
+            "WHEN NOT work_day AND work_duration > 0 THEN work_duration ELSE 0 END) AS overtime_duration " +
+            "FROM (SELECT user_id, clock_date, clock_in_time, clock_out_time, work_duration, " +
+            "%s AS work_day, COALESCE(is_abnormal, 0) = 1 AS abnormal " +
+            "FROM clock_record WHERE clock_date BETWEEN :startDate AND :endDate%s) r " +
+            "GROUP BY user_id";
+
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    /**
+     * 按用戶聚合日期區間內的打卡記錄
+     *
+     * @param startDate 開始日期
+     * @param endDate   結束日期
+     * @param workDays  區間內的工作日
+     * @param userIds   用戶ID，為 null 時統計所有用戶
+     * @param rules     考勤判斷規則
+     * @return 每個有打卡記錄的用戶一條聚合結果
+     */
+    public List<UserAggregate> aggregateByUser(LocalDate startDate, LocalDate endDate, Collection<LocalDate> workDays,
+                                               Collection<Long> userIds, Rules rules) {
+        if (userIds != null && userIds.isEmpty()) {
+            return List.of();
+        }
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("startDate", startDate)
+                .addValue("endDate", endDate)
+                .addValue("workDays", workDays)
+                .addValue("userIds", userIds)
+                .addValue("lateLimit", rules.lateLimit)
+                .addValue("earlyLeaveLimit", rules.earlyLeaveLimit)
+                .addValue("overtimeLimit", rules.overtimeLimit)
+                .addValue("standardDuration", rules.standardDuration);
+        String sql = String.format(AGGREGATE_SQL,
+                workDays.isEmpty() ? "FALSE" : "clock_date IN (:workDays)",
+                userIds == null ? "" : " AND user_id IN (:userIds)");
+
+        return namedParameterJdbcTemplate.query(sql, params, (rs, rowNum) -> new UserAggregate(
+                rs.getLong("user_id"),
+                rs.getInt("workday_record_days"),
+                rs.getInt("normal_days"),
+                rs.getInt("abnormal_days"),
+                rs.getInt("total_work_duration"),
+                rs.getInt("on_time_days"),
+                rs.getInt("late_days"),
+                rs.getInt("early_leave_days"),
+                rs.getInt("overtime_days"),
+                rs.getInt("overtime_duration")));
+    }
+
+    /**
+     * 考勤判斷規則
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Rules {
+
+        /**
+         * 上班打卡晚於該時間視為遲到
+         */
+        private final LocalTime lateLimit;
+
+        /**
+         * 下班打卡早於該時間視為早退
+         */
+        private final LocalTime earlyLeaveLimit;
+
+        /**
+         * 工作日工作時長超過該值（分鐘）視為加班
+         */
+        private final int overtimeLimit;
+
+        /**
+         * 標準工作時長（分鐘）
+         */
+        private final int standardDuration;
+    }
+
+    /**
+     * 單個用戶的聚合結果
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class UserAggregate {
+
+        private final long userId;
+
+        /**
+         * 有打卡記錄的工作日數
+         */
+        private final int workdayRecordDays;
+
+        private final int normalDays;
+
+        private final int abnormalDays;
+
+        private final int totalWorkDuration;
+
+        private final int onTimeDays;
+
+        private final int lateDays;
+
+        private final int earlyLeaveDays;
+
+        private final int overtimeDays;
+
+        private final int overtimeDuration;
+    }
+}
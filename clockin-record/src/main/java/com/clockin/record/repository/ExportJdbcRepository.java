@@ -0,0 +1,107 @@
+package com.clockin.record.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.Collection;
+
+/**
+ * 導出查詢資源庫
+ * <p>
+ * 以 MySQL 串流結果集逐行讀取（fetch size 為 Integer.MIN_VALUE），結果不在記憶體中累積，
+ * 適用於不限行數的導出。讀取期間佔用一個連接，回調中不能在同一連接上執行其他查詢
+ */
+@Repository
+public class ExportJdbcRepository {
+
+    private static final String CLOCK_RECORD_SQL = "SELECT user_id, clock_date, clock_in_time, clock_out_time, " +
+            "work_duration, is_abnormal, abnormal_reason, work_location, remark " +
+            "FROM clock_record WHERE clock_date BETWEEN :startDate AND :endDate%s " +
+            "ORDER BY clock_date, user_id";
+
+    private static final String CLOCK_IN_SUMMARY_SQL = "SELECT user_id, clock_date, clock_in_time, clock_in_status, " +
+            "clock_out_time, clock_out_status, work_duration, absence_type, remark " +
+            "FROM clock_in_summary WHERE clock_date BETWEEN :startDate AND :endDate AND is_deleted = 0%s " +
+            "ORDER BY clock_date, user_id";
+
+    private static final String LEAVE_REQUEST_SQL = "SELECT user_id, user_name, leave_type, start_time, end_time, " +
+            "total_days, reason, status, approver_name, approval_time " +
+            "FROM leave_request WHERE user_id IN (:userIds) " +
+            "AND start_time < :endExclusive AND end_time >= :startDate " +
+            "ORDER BY start_time, user_id";
+
+    private final NamedParameterJdbcTemplate streamingTemplate;
+
+    public ExportJdbcRepository(DataSource dataSource) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.setFetchSize(Integer.MIN_VALUE);
+        this.streamingTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    /**
+     * 逐行讀取打卡記錄
+     *
+     * @param startDate 開始日期
+     * @param endDate   結束日期
+     * @param userIds   用戶ID，為 null 時不按用戶過濾
+     * @param handler   行處理器
+     */
+    public void streamClockRecords(LocalDate startDate, LocalDate endDate, Collection<Long> userIds,
+                                   RowCallbackHandler handler) {
+        if (userIds != null && userIds.isEmpty()) {
+            return;
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("startDate", startDate)
+                .addValue("endDate", endDate)
+                .addValue("userIds", userIds);
+        String sql = String.format(CLOCK_RECORD_SQL, userIds == null ? "" : " AND user_id IN (:userIds)");
+        streamingTemplate.query(sql, params, handler);
+    }
+
+    /**
+     * 逐行讀取每日考勤匯總
+     *
+     * @param startDate 開始日期
+     * @param endDate   結束日期
+     * @param userIds   用戶ID，為 null 時不按用戶過濾
+     * @param handler   行處理器
+     */
+    public void streamClockInSummaries(LocalDate startDate, LocalDate endDate, Collection<Long> userIds,
+                                       RowCallbackHandler handler) {
+        if (userIds != null && userIds.isEmpty()) {
+            return;
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("startDate", startDate)
+                .addValue("endDate", endDate)
+                .addValue("userIds", userIds);
+        String sql = String.format(CLOCK_IN_SUMMARY_SQL, userIds == null ? "" : " AND user_id IN (:userIds)");
+        streamingTemplate.query(sql, params, handler);
+    }
+
+    /**
+     * 逐行讀取與日期範圍有交集的請假申請
+     *
+     * @param startDate 開始日期
+     * @param endDate   結束日期
+     * @param userIds   用戶ID
+     * @param handler   行處理器
+     */
+    public void streamLeaveRequests(LocalDate startDate, LocalDate endDate, Collection<Long> userIds,
+                                    RowCallbackHandler handler) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("startDate", startDate.atStartOfDay())
+                .addValue("endExclusive", endDate.plusDays(1).atStartOfDay())
+                .addValue("userIds", userIds);
+        streamingTemplate.query(LEAVE_REQUEST_SQL, params, handler);
+    }
+}
@@ -4,6 +4,7 @@ import com.clockin.record.entity.LeaveRequest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -15,7 +16,7 @@ import java.util.List;
  * 請假申請數據訪問層
  */
 @Repository
-public interface LeaveRequestRepository extends JpaRepository<LeaveRequest, Long> {
+public interface LeaveRequestRepository extends JpaRepository<LeaveRequest, Long>, JpaSpecificationExecutor<LeaveRequest> {
 
     /**
      * 根據用戶ID查詢請假申請，分頁
@@ -89,7 +90,7 @@ public interface LeaveRequestRepository extends JpaRepository<LeaveRequest, Long
      * @return 請假申請分頁結果
      */
     @Query("SELECT l FROM LeaveRequest l WHERE l.userId IN " +
-            "(SELECT u.id FROM SysUser u WHERE u.departmentId = :departmentId) " +
+            "(SELECT ud.userId FROM UserDepartment ud WHERE ud.departmentId = :departmentId) " +
             "AND l.status = :status ORDER BY l.startTime DESC")
     Page<LeaveRequest> findByDepartmentIdAndStatus(
             @Param("departmentId") Long departmentId, 
@@ -4,6 +4,7 @@ import com.clockin.record.entity.MakeupClockInRequest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -15,7 +16,7 @@ import java.util.List;
  * 補卡申請數據訪問層
  */
 @Repository
-public interface MakeupClockInRequestRepository extends JpaRepository<MakeupClockInRequest, Long> {
+public interface MakeupClockInRequestRepository extends JpaRepository<MakeupClockInRequest, Long>, JpaSpecificationExecutor<MakeupClockInRequest> {
 
     /**
      * 根據用戶ID和日期範圍查詢補卡申請
@@ -74,7 +75,7 @@ public interface MakeupClockInRequestRepository extends JpaRepository<MakeupCloc
      * @return 補卡申請分頁結果
      */
     @Query("SELECT m FROM MakeupClockInRequest m WHERE m.userId IN " +
-            "(SELECT u.id FROM SysUser u WHERE u.departmentId = :departmentId) " +
+            "(SELECT ud.userId FROM UserDepartment ud WHERE ud.departmentId = :departmentId) " +
             "AND m.status = :status ORDER BY m.requestDate DESC")
     Page<MakeupClockInRequest> findByDepartmentIdAndStatus(
             @Param("departmentId") Long departmentId, 
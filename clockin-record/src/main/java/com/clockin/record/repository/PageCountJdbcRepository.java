@@ -0,0 +1,112 @@
+package com.clockin.record.repository;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+
+/**
+ * 分頁總數查詢資源庫
+ * <p>
+ * 游標分頁的總數為可選項，只計數到上限為止：子查詢帶 LIMIT，掃描的行數不超過上限，
+ * 超過時返回上限值並標記為不精確
+ */
+@Repository
+@RequiredArgsConstructor
+public class PageCountJdbcRepository {
+
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    /**
+     * 計數上限
+     */
+    @Value("${clock-in.pagination.count-limit:10000}")
+    private int countLimit;
+
+    /**
+     * 統計打卡記錄數，條件與打卡記錄分頁查詢一致
+     *
+     * @param userId     用戶ID，為 null 時不過濾
+     * @param date       打卡日期，為 null 時不過濾
+     * @param isAbnormal 是否異常，為 null 時不過濾
+     * @return 記錄數
+     */
+    public Count countClockRecords(Long userId, LocalDate date, Boolean isAbnormal) {
+        StringBuilder where = new StringBuilder("1 = 1");
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        if (userId != null) {
+            where.append(" AND user_id = :userId");
+            params.addValue("userId", userId);
+        }
+        if (date != null) {
+            where.append(" AND clock_date = :date");
+            params.addValue("date", date);
+        }
+        if (isAbnormal != null) {
+            where.append(" AND is_abnormal = :isAbnormal");
+            params.addValue("isAbnormal", isAbnormal);
+        }
+        return count("clock_record", where, params);
+    }
+
+    /**
+     * 統計申請數，適用於請假申請及補卡申請
+     *
+     * @param table        表名，leave_request 或 makeup_clock_in_request
+     * @param userId       申請人ID，為 null 時不過濾
+     * @param departmentId 申請人所屬部門ID，為 null 時不過濾
+     * @param status       狀態，為 null 時不過濾
+     * @return 申請數
+     */
+    public Count countRequests(String table, Long userId, Long departmentId, String status) {
+        if (!"leave_request".equals(table) && !"makeup_clock_in_request".equals(table)) {
+            throw new IllegalArgumentException("不支持的表: " + table);
+        }
+        StringBuilder where = new StringBuilder("1 = 1");
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        if (userId != null) {
+            where.append(" AND user_id = :userId");
+            params.addValue("userId", userId);
+        }
+        if (departmentId != null) {
+            where.append(" AND user_id IN (SELECT user_id FROM user_department WHERE department_id = :departmentId)");
+            params.addValue("departmentId", departmentId);
+        }
+        if (status != null) {
+            where.append(" AND status = :status");
+            params.addValue("status", status);
+        }
+        return count(table, where, params);
+    }
+
+    private Count count(String table, CharSequence where, MapSqlParameterSource params) {
+        params.addValue("limit", countLimit + 1);
+        Long count = namedParameterJdbcTemplate.queryForObject("SELECT COUNT(*) FROM (SELECT 1 FROM " + table + " WHERE " + where
+                + " LIMIT :limit) t", params, Long.class);
+        long value = count != null ? count : 0;
+        return value > countLimit ? new Count(countLimit, false) : new Count(value, true);
+    }
+
+    /**
+     * 計數結果
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Count {
+
+        /**
+         * 記錄數，不精確時為上限值
+         */
+        private final long value;
+
+        /**
+         * 是否精確
+         */
+        private final boolean exact;
+    }
+}
@@ -0,0 +1,187 @@
+package com.clockin.record.repository;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 按日期範圍分區的表維護資源庫
+ * <p>
+ * 表名及分區名由調用方提供，不能來自用戶輸入
+ */
+@Repository
+@RequiredArgsConstructor
+public class PartitionJdbcRepository {
+
+    /**
+     * 上界為 MAXVALUE 的分區名
+     */
+    public static final String MAX_PARTITION = "pmax";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * 查詢表的分區，按分區順序排列
+     *
+     * @param table 表名
+     * @return 分區列表，表未分區時為空
+     */
+    public List<Partition> findPartitions(String table) {
+        return jdbcTemplate.query("SELECT PARTITION_NAME, PARTITION_DESCRIPTION FROM information_schema.PARTITIONS " +
+                        "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND PARTITION_NAME IS NOT NULL " +
+                        "ORDER BY PARTITION_ORDINAL_POSITION",
+                (rs, rowNum) -> new Partition(rs.getString(1), parseBound(rs.getString(2))), table);
+    }
+
+    /**
+     * 從 pmax 分區拆分出新的分區
+     *
+     * @param table      表名
+     * @param partitions 新分區，按上界升序
+     */
+    public void splitMaxPartition(String table, List<Partition> partitions) {
+        String definitions = partitions.stream()
+                .map(partition -> "PARTITION " + partition.getName() + " VALUES LESS THAN ('" + partition.getUpperBound() + "')")
+                .collect(Collectors.joining(", "));
+        jdbcTemplate.execute("ALTER TABLE " + table + " REORGANIZE PARTITION " + MAX_PARTITION + " INTO (" +
+                definitions + ", PARTITION " + MAX_PARTITION + " VALUES LESS THAN (MAXVALUE))");
+    }
+
+    /**
+     * 查詢表的欄位
+     *
+     * @param table 表名
+     * @return 欄位名列表
+     */
+    public List<String> findColumns(String table) {
+        return jdbcTemplate.queryForList("SELECT COLUMN_NAME FROM information_schema.COLUMNS " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? ORDER BY ORDINAL_POSITION", String.class, table);
+    }
+
+    /**
+     * 建立與分區表結構相同但不分區的空暫存表，用於交換分區
+     *
+     * @param table        分區表名
+     * @param stagingTable 暫存表名，必須不存在
+     */
+    public void createStagingTable(String table, String stagingTable) {
+        jdbcTemplate.execute("CREATE TABLE " + stagingTable + " LIKE " + table);
+        jdbcTemplate.execute("ALTER TABLE " + stagingTable + " REMOVE PARTITIONING");
+    }
+
+    /**
+     * 檢查表是否存在
+     *
+     * @param table 表名
+     * @return 是否存在
+     */
+    public boolean tableExists(String table) {
+        Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM information_schema.TABLES " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?", Integer.class, table);
+        return count != null && count > 0;
+    }
+
+    /**
+     * 把分區的數據整體交換到空暫存表並刪除分區
+     * <p>
+     * 交換及刪除在表寫鎖內完成，兩步之間不會有新行寫入分區，暫存表中的數據即為被刪除的全部數據。
+     * 兩步都只修改元數據，持鎖時間很短
+     *
+     * @param table        分區表名
+     * @param partition    分區名
+     * @param stagingTable 空暫存表名
+     */
+    public void detachPartition(String table, String partition, String stagingTable) {
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("LOCK TABLES " + table + " WRITE, " + stagingTable + " WRITE");
+                try {
+                    statement.execute("ALTER TABLE " + table + " EXCHANGE PARTITION " + partition +
+                            " WITH TABLE " + stagingTable);
+                    statement.execute("ALTER TABLE " + table + " DROP PARTITION " + partition);
+                } finally {
+                    statement.execute("UNLOCK TABLES");
+                }
+            }
+            return null;
+        });
+    }
+
+    /**
+     * 按ID區間分批把暫存表的數據寫入歸檔表，已存在的行以暫存表為準覆蓋，中斷後可重新執行
+     *
+     * @param stagingTable 暫存表名
+     * @param archiveTable 歸檔表名
+     * @param columns      複製的欄位
+     * @param batchSize    每條語句覆蓋的ID區間大小
+     * @return 寫入歸檔表的行數
+     */
+    public long copyToArchive(String stagingTable, String archiveTable, List<String> columns, int batchSize) {
+        Long[] range = jdbcTemplate.queryForObject("SELECT MIN(id), MAX(id) FROM " + stagingTable,
+                (rs, rowNum) -> new Long[]{rs.getObject(1, Long.class), rs.getObject(2, Long.class)});
+        if (range == null || range[0] == null) {
+            return 0;
+        }
+
+        String columnList = String.join(", ", columns);
+        String sql = "REPLACE INTO " + archiveTable + " (" + columnList + ") SELECT " + columnList +
+                " FROM " + stagingTable + " WHERE id BETWEEN ? AND ?";
+        long copied = 0;
+        for (long from = range[0]; from <= range[1]; from += batchSize) {
+            copied += jdbcTemplate.update(sql, from, Math.min(from + batchSize - 1, range[1]));
+        }
+        return copied;
+    }
+
+    /**
+     * 統計暫存表中未出現在歸檔表的行數
+     *
+     * @param stagingTable 暫存表名
+     * @param archiveTable 歸檔表名
+     * @return 行數
+     */
+    public long countMissingInArchive(String stagingTable, String archiveTable) {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + stagingTable + " t " +
+                "LEFT JOIN " + archiveTable + " a ON a.id = t.id WHERE a.id IS NULL", Long.class);
+        return count != null ? count : 0;
+    }
+
+    /**
+     * 刪除表
+     *
+     * @param table 表名
+     */
+    public void dropTable(String table) {
+        jdbcTemplate.execute("DROP TABLE " + table);
+    }
+
+    private static LocalDate parseBound(String description) {
+        if (description == null || "MAXVALUE".equalsIgnoreCase(description)) {
+            return null;
+        }
+        return LocalDate.parse(description.replace("'", ""));
+    }
+
+    /**
+     * 分區
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Partition {
+
+        private final String name;
+
+        /**
+         * 上界（不包含），pmax 分區為 null
+         */
+        private final LocalDate upperBound;
+    }
+}
@@ -0,0 +1,57 @@
+package com.clockin.record.repository;
+
+import com.clockin.record.entity.SummaryRecalculationCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 打卡匯總重算分區檢查點資源庫
+ */
+@Repository
+public interface SummaryRecalculationCheckpointRepository extends JpaRepository<SummaryRecalculationCheckpoint, Long> {
+
+    /**
+     * 查詢任務的所有分區
+     *
+     * @param jobKey 任務標識
+     * @return 分區列表
+     */
+    List<SummaryRecalculationCheckpoint> findByJobKeyOrderByClockDateAscFromUserIdAsc(String jobKey);
+
+    /**
+     * 查詢尚有未完成分區的任務
+     *
+     * @return 任務標識列表
+     */
+    @Query("SELECT DISTINCT c.jobKey FROM SummaryRecalculationCheckpoint c " +
+            "WHERE c.status <> com.clockin.record.entity.SummaryRecalculationCheckpoint.Status.COMPLETED")
+    List<String> findUnfinishedJobKeys();
+
+    /**
+     * 查詢所有分區均已完成且最後更新早於指定時間的任務
+     *
+     * @param before 時間
+     * @return 任務標識列表
+     */
+    @Query("SELECT c.jobKey FROM SummaryRecalculationCheckpoint c GROUP BY c.jobKey " +
+            "HAVING MAX(c.updateTime) < :before AND SUM(CASE WHEN c.status <> " +
+            "com.clockin.record.entity.SummaryRecalculationCheckpoint.Status.COMPLETED THEN 1 ELSE 0 END) = 0")
+    List<String> findCompletedJobKeysBefore(@Param("before") LocalDateTime before);
+
+    /**
+     * 刪除任務的所有分區
+     *
+     * @param jobKeys 任務標識列表
+     * @return 刪除的分區數
+     */
+    @Modifying
+    @Query("DELETE FROM SummaryRecalculationCheckpoint c WHERE c.jobKey IN :jobKeys")
+    int deleteByJobKeys(@Param("jobKeys") Collection<String> jobKeys);
+}
@@ -0,0 +1,91 @@
+package com.clockin.record.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 用戶部門投影資源庫
+ * <p>
+ * 每行帶變更時間，寫入時只有更新的變更才覆蓋部門，消息亂序或對賬與消息交錯時結果一致。
+ * 用戶刪除後保留部門為空的行，避免延遲到達的舊消息把用戶加回部門
+ */
+@Repository
+@RequiredArgsConstructor
+public class UserDepartmentJdbcRepository {
+
+    /**
+     * MySQL 按書寫順序賦值，部門需在變更時間更新之前判斷
+     */
+    private static final String UPSERT_SQL = "INSERT INTO user_department (user_id, department_id, changed_at) " +
+            "VALUES (?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE " +
+            "department_id = IF(VALUES(changed_at) >= changed_at, VALUES(department_id), department_id), " +
+            "changed_at = GREATEST(changed_at, VALUES(changed_at))";
+
+    private static final int BATCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * 應用單個用戶的部門變更
+     *
+     * @param userId       用戶ID
+     * @param departmentId 部門ID，用戶已刪除或未分配部門時為 null
+     * @param changedAt    變更時間（毫秒時間戳）
+     */
+    public void apply(Long userId, Long departmentId, long changedAt) {
+        jdbcTemplate.update(UPSERT_SQL, ps -> {
+            ps.setLong(1, userId);
+            setDepartment(ps, 2, departmentId);
+            ps.setLong(3, changedAt);
+        });
+    }
+
+    /**
+     * 以全量快照對賬：快照中的用戶按快照時間寫入，快照時間之前未再變更且不在快照中的用戶清空部門
+     *
+     * @param departments 用戶ID與部門ID的映射
+     * @param snapshotAt  快照時間（毫秒時間戳）
+     * @return 被清空部門的用戶數
+     */
+    public int applySnapshot(Map<Long, Long> departments, long snapshotAt) {
+        List<Map.Entry<Long, Long>> entries = new ArrayList<>(departments.entrySet());
+        for (int from = 0; from < entries.size(); from += BATCH_SIZE) {
+            List<Map.Entry<Long, Long>> batch = entries.subList(from, Math.min(from + BATCH_SIZE, entries.size()));
+            jdbcTemplate.batchUpdate(UPSERT_SQL, batch, batch.size(), (ps, entry) -> {
+                ps.setLong(1, entry.getKey());
+                setDepartment(ps, 2, entry.getValue());
+                ps.setLong(3, snapshotAt);
+            });
+        }
+        return jdbcTemplate.update("UPDATE user_department SET department_id = NULL " +
+                "WHERE changed_at < ? AND department_id IS NOT NULL", snapshotAt);
+    }
+
+    /**
+     * 刪除早於指定時間的空部門行
+     *
+     * @param before 時間（毫秒時間戳）
+     * @return 刪除的行數
+     */
+    public int purgeRemoved(long before) {
+        return jdbcTemplate.update("DELETE FROM user_department WHERE department_id IS NULL AND changed_at < ?",
+                before);
+    }
+
+    private static void setDepartment(PreparedStatement ps, int index, Long departmentId) throws SQLException {
+        if (departmentId != null) {
+            ps.setLong(index, departmentId);
+        } else {
+            ps.setNull(index, Types.BIGINT);
+        }
+    }
+}
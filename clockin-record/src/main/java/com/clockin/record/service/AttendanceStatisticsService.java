@@ -50,6 +50,8 @@ public interface AttendanceStatisticsService {
 
     /**
      * 生成月度考勤報表
+     * <p>
+     * 讀取由打卡日匯總彙總的月報表，不再逐日重新計算
      *
      * @param year  年份
      * @param month 月份（1-12）
@@ -0,0 +1,31 @@
+package com.clockin.record.service;
+
+import com.clockin.record.dto.ClockInResponse;
+
+import java.util.Optional;
+
+/**
+ * 打卡冪等服務接口
+ * <p>
+ * 以用戶ID及客戶端提供的冪等鍵保存首次打卡的響應，重試時直接返回原響應
+ */
+public interface ClockInIdempotencyService {
+
+    /**
+     * 查詢冪等鍵對應的打卡響應
+     *
+     * @param userId         用戶ID
+     * @param idempotencyKey 冪等鍵
+     * @return 首次打卡的響應，未記錄時為空
+     */
+    Optional<ClockInResponse> find(Long userId, String idempotencyKey);
+
+    /**
+     * 保存冪等鍵對應的打卡響應
+     *
+     * @param userId         用戶ID
+     * @param idempotencyKey 冪等鍵
+     * @param response       打卡響應
+     */
+    void save(Long userId, String idempotencyKey, ClockInResponse response);
+}
@@ -0,0 +1,30 @@
+package com.clockin.record.service;
+
+import java.time.LocalDate;
+
+/**
+ * 打卡匯總批量重算服務接口
+ */
+public interface ClockInSummaryBatchService {
+
+    /**
+     * 重算指定日期所有有打卡記錄用戶的匯總
+     * <p>
+     * 按用戶ID分塊讀取打卡記錄，在記憶體中計算後批量 upsert，每塊獨立提交
+     *
+     * @param date 日期
+     * @return 成功處理的用戶數
+     */
+    int recalculate(LocalDate date);
+
+    /**
+     * 重算指定日期、用戶ID區間內有打卡記錄用戶的匯總
+     *
+     * @param date       日期
+     * @param fromUserId 起始用戶ID（包含）
+     * @param toUserId   結束用戶ID（包含）
+     * @return 成功處理的用戶數
+     * @throws IllegalStateException 區間內有用戶處理失敗時拋出，已成功的塊不會回滾
+     */
+    int recalculate(LocalDate date, long fromUserId, long toUserId);
+}
@@ -1,6 +1,7 @@
 package com.clockin.record.service;
 
 import com.clockin.record.dto.ClockRecordDTO;
+import com.clockin.record.dto.CursorPage;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
@@ -88,6 +89,20 @@ public interface ClockRecordDTOService {
      */
     Page<ClockRecordDTO> getRecordsPage(Long userId, LocalDate date, Boolean isAbnormal, Pageable pageable);
 
+    /**
+     * 游標分頁查詢打卡記錄，按打卡日期及ID降序
+     *
+     * @param userId     用戶ID，可為 null
+     * @param date       日期，可為 null
+     * @param isAbnormal 是否異常，可為 null
+     * @param cursor     上一頁返回的游標，第一頁為 null
+     * @param size       每頁行數
+     * @param withTotal  是否統計總數
+     * @return 分頁數據
+     */
+    CursorPage<ClockRecordDTO> scrollRecords(Long userId, LocalDate date, Boolean isAbnormal, String cursor, int size,
+                                             boolean withTotal);
+
     /**
      * 獲取用戶最近一次打卡記錄
      *
@@ -0,0 +1,59 @@
+package com.clockin.record.service;
+
+import com.clockin.record.dto.ExportJobDTO;
+import com.clockin.record.dto.ExportJobRequest;
+import com.clockin.record.enums.ExportType;
+
+import java.nio.file.Path;
+
+/**
+ * 導出任務服務接口
+ * <p>
+ * 大文件導出在後台線程池中生成到本地磁盤，請求線程只負責提交、查詢進度及下載
+ */
+public interface ExportJobService {
+
+    /**
+     * 提交導出任務
+     * <p>
+     * 有效期內已有相同參數的任務（排隊中、導出中或已完成）時直接返回該任務
+     *
+     * @param request 導出任務請求
+     * @return 導出任務
+     */
+    ExportJobDTO submit(ExportJobRequest request);
+
+    /**
+     * 將已生成的文件登記為已完成的任務，供下載及按有效期清理
+     *
+     * @param type     文件類型
+     * @param fileName 下載文件名
+     * @param source   已生成的 Excel 文件，登記後移動到任務目錄
+     * @param rows     文件的數據行數
+     * @return 導出任務
+     */
+    ExportJobDTO storeFile(ExportType type, String fileName, Path source, long rows);
+
+    /**
+     * 查詢導出任務
+     *
+     * @param jobId 任務ID
+     * @return 導出任務
+     */
+    ExportJobDTO getJob(String jobId);
+
+    /**
+     * 獲取已完成任務的文件
+     *
+     * @param jobId 任務ID
+     * @return 文件路徑
+     */
+    Path getFile(String jobId);
+
+    /**
+     * 刪除過期的任務及文件
+     *
+     * @return 刪除的任務數
+     */
+    int cleanExpired();
+}
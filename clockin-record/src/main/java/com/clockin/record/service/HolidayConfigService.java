@@ -1,6 +1,5 @@
 package com.clockin.record.service;
 
-import com.clockin.record.dto.HolidayConfigDTO;
 import com.clockin.record.entity.HolidayConfig;
 
 import java.time.LocalDate;
@@ -9,25 +8,20 @@ import java.util.Optional;
 
 /**
  * 節假日配置服務接口
+ * <p>
+ * 工作日判斷統一以 admin 服務的假日配置生成的工作日曆為準，本服務的節假日配置僅供查詢展示，
+ * 不再提供增刪改
  */
 public interface HolidayConfigService {
 
     /**
-     * 判斷指定日期是否為工作日
+     * 判斷指定日期是否為工作日，結果來自工作日曆
      *
      * @param date 指定日期
      * @return 是否為工作日
      */
     boolean isWorkday(LocalDate date);
 
-    /**
-     * 保存節假日配置
-     *
-     * @param config 節假日配置
-     * @return 保存後的節假日配置
-     */
-    HolidayConfig saveHolidayConfig(HolidayConfig config);
-
     /**
      * 根據ID查詢節假日配置
      *
@@ -69,36 +63,4 @@ public interface HolidayConfigService {
      * @return 節假日列表
      */
     List<HolidayConfig> findHolidaysBetween(LocalDate startDate, LocalDate endDate);
-
-    /**
-     * 刪除節假日配置
-     *
-     * @param id 配置ID
-     */
-    void deleteById(Long id);
-
-    /**
-     * 批量導入節假日配置
-     *
-     * @param holidays 節假日配置列表
-     * @return 導入成功的節假日配置列表
-     */
-    List<HolidayConfig> batchImportHolidays(List<HolidayConfigDTO> holidays);
-
-    /**
-     * 創建節假日配置
-     *
-     * @param holidayDTO 節假日配置DTO
-     * @return 創建後的節假日配置
-     */
-    HolidayConfig createHolidayConfig(HolidayConfigDTO holidayDTO);
-
-    /**
-     * 更新節假日配置
-     *
-     * @param id 配置ID
-     * @param holidayDTO 節假日配置DTO
-     * @return 更新後的節假日配置
-     */
-    HolidayConfig updateHolidayConfig(Long id, HolidayConfigDTO holidayDTO);
 }
@@ -1,12 +1,16 @@
 package com.clockin.record.service;
 
 import com.clockin.record.dto.ClockRecordDTO;
+import com.clockin.record.dto.ExportJobRequest;
+import com.clockin.record.dto.ImportResultDTO;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
+import java.util.function.LongConsumer;
 
 /**
  * 數據導入導出服務接口
@@ -15,28 +19,45 @@ public interface ImportExportService {
 
     /**
      * 從Excel文件批量導入打卡記錄
+     * <p>
+     * 以 SAX 逐行解析並分塊寫入，同一用戶同一天的記錄已存在時覆蓋。
+     * 單行錯誤不影響其他行，錯誤行寫入錯誤文件，可通過導出任務下載
      *
-     * @param file Excel文件
-     * @return 成功導入的記錄數
+     * @param file Excel文件（.xlsx）
+     * @return 導入結果
      */
-    int importClockRecordsFromExcel(MultipartFile file);
+    ImportResultDTO importClockRecordsFromExcel(MultipartFile file);
 
     /**
      * 導出打卡記錄到Excel
+     * <p>
+     * 逐行讀取並以串流方式寫出，記憶體佔用與行數無關
      *
      * @param startDate 開始日期
      * @param endDate   結束日期
      * @param userId    用戶ID（為null則導出所有用戶）
      * @param departmentId 部門ID（為null則不按部門篩選）
-     * @return Excel文件的輸入流
+     * @param out       輸出流，方法返回時不關閉
+     * @return 導出的記錄數
+     */
+    long exportClockRecordsToExcel(LocalDate startDate, LocalDate endDate, Long userId, Long departmentId,
+                                   OutputStream out);
+
+    /**
+     * 按導出任務請求導出Excel
+     *
+     * @param request  導出任務請求
+     * @param out      輸出流，方法返回時不關閉
+     * @param progress 已寫出行數的通知，可為 null
+     * @return 導出的記錄數
      */
-    InputStream exportClockRecordsToExcel(LocalDate startDate, LocalDate endDate, Long userId, Long departmentId);
+    long export(ExportJobRequest request, OutputStream out, LongConsumer progress);
 
     /**
      * 驗證Excel模板格式是否正確
      *
      * @param file Excel文件
-     * @return 驗證結果信息
+     * @return 錯誤信息，格式正確時為 null
      */
     String validateExcelTemplate(MultipartFile file);
 
@@ -53,15 +74,16 @@ public interface ImportExportService {
      * @param year  年份
      * @param month 月份
      * @param departmentId 部門ID（為null則導出所有部門）
-     * @return Excel文件的輸入流
+     * @param out   輸出流，方法返回時不關閉
+     * @return 導出的記錄數
      */
-    InputStream exportAttendanceStatistics(int year, int month, Long departmentId);
+    long exportAttendanceStatistics(int year, int month, Long departmentId, OutputStream out);
 
     /**
      * 批量處理導入的打卡數據
      *
      * @param records 打卡記錄列表
-     * @return 處理結果，包含成功和失敗的記錄
+     * @return 處理結果，包含總數（total）、成功數（success）、失敗數（failed）和錯誤信息（errors）
      */
     Map<String, Object> processBatchImport(List<ClockRecordDTO> records);
 
@@ -71,9 +93,10 @@ public interface ImportExportService {
      * @param userId 用戶ID
      * @param startDate 開始日期
      * @param endDate 結束日期
-     * @return Excel文件的輸入流
+     * @param out 輸出流，方法返回時不關閉
+     * @return 導出的記錄數
      */
-    InputStream exportUserClockRecords(Long userId, LocalDate startDate, LocalDate endDate);
+    long exportUserClockRecords(Long userId, LocalDate startDate, LocalDate endDate, OutputStream out);
     
     /**
      * 導出部門的請假記錄
@@ -81,7 +104,8 @@ public interface ImportExportService {
      * @param departmentId 部門ID
      * @param startDate 開始日期
      * @param endDate 結束日期
-     * @return Excel文件的輸入流
+     * @param out 輸出流，方法返回時不關閉
+     * @return 導出的記錄數
      */
-    InputStream exportDepartmentLeaveRecords(Long departmentId, LocalDate startDate, LocalDate endDate);
+    long exportDepartmentLeaveRecords(Long departmentId, LocalDate startDate, LocalDate endDate, OutputStream out);
 }
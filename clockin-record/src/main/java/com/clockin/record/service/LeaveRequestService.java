@@ -1,5 +1,6 @@
 package com.clockin.record.service;
 
+import com.clockin.record.dto.CursorPage;
 import com.clockin.record.dto.LeaveRequestDTO;
 import com.clockin.record.entity.LeaveRequest;
 import org.springframework.data.domain.Page;
@@ -125,4 +126,40 @@ public interface LeaveRequestService {
      * @return 請假申請DTO列表
      */
     List<LeaveRequestDTO> getUserApprovedLeaveInDateRange(Long userId, LocalDateTime startTime, LocalDateTime endTime);
+
+    /**
+     * 游標分頁獲取用戶的請假申請，按開始時間及ID降序
+     *
+     * @param userId 用戶ID
+     * @param cursor 上一頁返回的游標，第一頁為 null
+     * @param size 每頁行數
+     * @param withTotal 是否統計總數
+     * @return 請假申請DTO分頁結果
+     */
+    CursorPage<LeaveRequestDTO> scrollUserRequests(Long userId, String cursor, int size, boolean withTotal);
+
+    /**
+     * 游標分頁根據狀態獲取請假申請，按開始時間及ID降序
+     *
+     * @param status 狀態
+     * @param cursor 上一頁返回的游標，第一頁為 null
+     * @param size 每頁行數
+     * @param withTotal 是否統計總數
+     * @return 請假申請DTO分頁結果
+     */
+    CursorPage<LeaveRequestDTO> scrollRequestsByStatus(LeaveRequest.RequestStatus status, String cursor, int size,
+            boolean withTotal);
+
+    /**
+     * 游標分頁獲取部門的請假申請，按開始時間及ID降序
+     *
+     * @param departmentId 部門ID
+     * @param status 狀態
+     * @param cursor 上一頁返回的游標，第一頁為 null
+     * @param size 每頁行數
+     * @param withTotal 是否統計總數
+     * @return 請假申請DTO分頁結果
+     */
+    CursorPage<LeaveRequestDTO> scrollDepartmentRequests(Long departmentId, LeaveRequest.RequestStatus status,
+            String cursor, int size, boolean withTotal);
 }
@@ -1,5 +1,6 @@
 package com.clockin.record.service;
 
+import com.clockin.record.dto.CursorPage;
 import com.clockin.record.dto.MakeupClockInRequestDTO;
 import com.clockin.record.entity.MakeupClockInRequest;
 import org.springframework.data.domain.Page;
@@ -114,4 +115,40 @@ public interface MakeupClockInRequestService {
      * @return 待審批補卡申請數量
      */
     long countPendingRequests();
+
+    /**
+     * 游標分頁獲取用戶的補卡申請，按補卡日期及ID降序
+     *
+     * @param userId 用戶ID
+     * @param cursor 上一頁返回的游標，第一頁為 null
+     * @param size 每頁行數
+     * @param withTotal 是否統計總數
+     * @return 補卡申請DTO分頁結果
+     */
+    CursorPage<MakeupClockInRequestDTO> scrollUserRequests(Long userId, String cursor, int size, boolean withTotal);
+
+    /**
+     * 游標分頁根據狀態獲取補卡申請，按補卡日期及ID降序
+     *
+     * @param status 狀態
+     * @param cursor 上一頁返回的游標，第一頁為 null
+     * @param size 每頁行數
+     * @param withTotal 是否統計總數
+     * @return 補卡申請DTO分頁結果
+     */
+    CursorPage<MakeupClockInRequestDTO> scrollRequestsByStatus(MakeupClockInRequest.RequestStatus status, String cursor, int size,
+            boolean withTotal);
+
+    /**
+     * 游標分頁獲取部門的補卡申請，按補卡日期及ID降序
+     *
+     * @param departmentId 部門ID
+     * @param status 狀態
+     * @param cursor 上一頁返回的游標，第一頁為 null
+     * @param size 每頁行數
+     * @param withTotal 是否統計總數
+     * @return 補卡申請DTO分頁結果
+     */
+    CursorPage<MakeupClockInRequestDTO> scrollDepartmentRequests(Long departmentId, MakeupClockInRequest.RequestStatus status,
+            String cursor, int size, boolean withTotal);
 }
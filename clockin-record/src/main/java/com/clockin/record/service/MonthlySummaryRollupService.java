@@ -0,0 +1,57 @@
+package com.clockin.record.service;
+
+import com.clockin.record.repository.ClockMonthlySummaryJdbcRepository.MonthlySummary;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 打卡月報表彙總服務接口
+ * <p>
+ * 日匯總變更後標記對應的用戶月份，定期只重算被標記的月報表；月結時整月重建
+ */
+public interface MonthlySummaryRollupService {
+
+    /**
+     * 標記用戶在指定日期所屬月份的月報表需要更新
+     * <p>
+     * 在事務中調用時於提交後才生效
+     *
+     * @param userId 用戶ID
+     * @param date   日匯總日期
+     */
+    void markChanged(Long userId, LocalDate date);
+
+    /**
+     * 標記一組用戶在指定日期所屬月份的月報表需要更新
+     *
+     * @param userIds 用戶ID
+     * @param date    日匯總日期
+     */
+    void markChanged(Collection<Long> userIds, LocalDate date);
+
+    /**
+     * 更新所有已標記的月報表
+     *
+     * @return 更新的用戶月份數
+     */
+    int flush();
+
+    /**
+     * 月結：按日匯總重建整月的月報表並標記為已完成
+     *
+     * @param month 月份
+     * @return 影響的行數
+     */
+    int closeMonth(YearMonth month);
+
+    /**
+     * 獲取整月的月報表，月份從未彙總過時先重建
+     *
+     * @param month 月份
+     * @return 月報表列表
+     */
+    List<MonthlySummary> getMonth(YearMonth month);
+}
@@ -0,0 +1,23 @@
+package com.clockin.record.service;
+
+/**
+ * 打卡記錄分區及歸檔服務接口
+ * <p>
+ * 打卡記錄表按月分區，熱表只保留最近幾個月，過期分區搬到壓縮歸檔表後刪除
+ */
+public interface PunchArchiveService {
+
+    /**
+     * 提前建立未來月份的分區
+     *
+     * @return 新建的分區數
+     */
+    int createPartitions();
+
+    /**
+     * 歸檔超過保留期的分區
+     *
+     * @return 歸檔的分區數
+     */
+    int archiveExpiredPartitions();
+}
@@ -0,0 +1,27 @@
+package com.clockin.record.service;
+
+import com.clockin.record.entity.ClockInRecord;
+
+/**
+ * 打卡寫入隊列服務接口
+ * <p>
+ * 啟用後打卡記錄先寫入持久化隊列並立即返回，由後台批量寫入數據庫並更新匯總
+ */
+public interface PunchIngestionService {
+
+    /**
+     * 提交打卡記錄
+     *
+     * @param record  已完成校驗及狀態判斷的打卡記錄
+     * @param workDay 打卡日期是否為工作日
+     * @throws com.clockin.common.exception.BusinessException 隊列積壓超過上限時
+     */
+    void submit(ClockInRecord record, boolean workDay);
+
+    /**
+     * 獲取尚未寫入數據庫的打卡數量
+     *
+     * @return 積壓數量
+     */
+    long getBacklog();
+}
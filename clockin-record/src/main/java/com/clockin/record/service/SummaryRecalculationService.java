@@ -0,0 +1,37 @@
+package com.clockin.record.service;
+
+import java.time.YearMonth;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 打卡匯總分區重算服務接口
+ * <p>
+ * 將整月重算拆分為（日期 × 用戶ID區間）分區並行執行，每個分區完成後記錄檢查點。
+ * 任務在服務自有的協調線程上執行，調用方（如排程線程）提交後立即返回
+ */
+public interface SummaryRecalculationService {
+
+    /**
+     * 重算指定月份的打卡匯總
+     * <p>
+     * 若該月份有未完成的上次執行，只執行未完成的分區；否則重新劃分分區並全部執行
+     *
+     * @param month 月份
+     * @return 全部分區結束後完成，結果為本次成功處理的用戶日數
+     */
+    CompletableFuture<Integer> recalculateMonth(YearMonth month);
+
+    /**
+     * 恢復所有中斷的重算任務
+     *
+     * @return 全部任務結束後完成，結果為本次成功處理的用戶日數
+     */
+    CompletableFuture<Integer> resumeUnfinished();
+
+    /**
+     * 刪除已全部完成且超過保留期的任務檢查點
+     *
+     * @return 刪除的分區數
+     */
+    int purgeCompletedCheckpoints();
+}
@@ -0,0 +1,25 @@
+package com.clockin.record.service;
+
+import com.clockin.common.event.UserDepartmentChange;
+
+/**
+ * 用戶部門投影服務接口
+ * <p>
+ * 在打卡庫中維護用戶與部門的對應關係，按部門篩選時直接在本庫關聯，不再依賴認證庫的用戶表
+ */
+public interface UserDepartmentService {
+
+    /**
+     * 應用認證服務發布的部門變更
+     *
+     * @param change 部門變更
+     */
+    void apply(UserDepartmentChange change);
+
+    /**
+     * 以用戶目錄的全量快照對賬，補齊遺漏的變更消息
+     *
+     * @return 寫入的用戶數
+     */
+    int reconcile();
+}
@@ -0,0 +1,51 @@
+package com.clockin.record.service;
+
+import com.clockin.record.dto.DepartmentDTO;
+import com.clockin.record.dto.SysUserDTO;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 用戶目錄服務接口
+ * <p>
+ * 在本地保存全部部門及其用戶，批量統計時直接按部門取用戶，不再逐部門調用認證服務
+ */
+public interface UserDirectoryService {
+
+    /**
+     * 獲取所有部門
+     *
+     * @return 部門列表
+     */
+    List<DepartmentDTO> getDepartments();
+
+    /**
+     * 獲取部門信息
+     *
+     * @param departmentId 部門ID
+     * @return 部門信息，不存在時為 null
+     */
+    DepartmentDTO getDepartment(Long departmentId);
+
+    /**
+     * 獲取部門內的用戶，已填充部門名稱
+     *
+     * @param departmentId 部門ID
+     * @return 用戶列表
+     */
+    List<SysUserDTO> getUsersByDepartment(Long departmentId);
+
+    /**
+     * 直接從認證服務讀取完整的用戶快照，不使用也不替換本地目錄
+     *
+     * @return 用戶ID與部門ID的映射，未分配部門的用戶不包含在內
+     * @throws IllegalStateException 快照讀取失敗或不完整時
+     */
+    Map<Long, Long> loadUserDepartments();
+
+    /**
+     * 丟棄本地目錄，下次使用時重新載入
+     */
+    void evict();
+}
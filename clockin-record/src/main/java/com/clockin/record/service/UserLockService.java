@@ -0,0 +1,24 @@
+package com.clockin.record.service;
+
+import java.util.function.Supplier;
+
+/**
+ * 用戶級互斥鎖服務接口
+ * <p>
+ * 同一用戶的打卡寫入需要串行執行，避免並發請求同時通過「是否已打卡」的檢查；
+ * 不同用戶之間互不阻塞，不使用全局鎖
+ */
+public interface UserLockService {
+
+    /**
+     * 持有用戶鎖執行操作
+     * <p>
+     * 操作中如有事務，應在操作內部開啟並提交，確保其他請求取得鎖時已能看到本次寫入
+     *
+     * @param userId 用戶ID
+     * @param action 需要串行執行的操作
+     * @param <T>    返回值類型
+     * @return 操作結果
+     */
+    <T> T executeWithLock(Long userId, Supplier<T> action);
+}
@@ -3,8 +3,12 @@ package com.clockin.record.service;
 import com.clockin.record.dto.DepartmentDTO;
 import com.clockin.record.dto.PositionDTO;
 import com.clockin.record.dto.SysUserDTO;
+import com.clockin.record.dto.UserChangeSet;
+import com.clockin.record.dto.UserSnapshotPage;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 用戶服務接口
@@ -21,6 +25,34 @@ public interface UserService {
      */
     SysUserDTO getUserById(Long id);
 
+    /**
+     * 根據ID列表批量獲取用戶信息
+     * <p>
+     * 已緩存的用戶直接返回，其餘用戶以一次批量調用獲取
+     *
+     * @param ids 用戶ID列表
+     * @return 用戶ID與用戶信息的映射，獲取失敗的用戶不在其中
+     */
+    Map<Long, SysUserDTO> getUsersByIds(Collection<Long> ids);
+
+    /**
+     * 讀取用戶目錄全量快照的一頁
+     *
+     * @param afterId 起始用戶ID（不含），第一頁為 null
+     * @param size    每頁條數
+     * @return 快照頁，獲取失敗時為 null
+     */
+    UserSnapshotPage getUserSnapshot(Long afterId, int size);
+
+    /**
+     * 查詢用戶目錄自指定版本以來的變更
+     *
+     * @param since 上次同步的版本號
+     * @param size  最多返回的變更條數
+     * @return 變更集，獲取失敗時為 null
+     */
+    UserChangeSet getUserChanges(String since, int size);
+
     /**
      * 根據用戶名獲取用戶信息
      *
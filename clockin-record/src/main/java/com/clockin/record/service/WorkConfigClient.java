@@ -1,5 +1,8 @@
 package com.clockin.record.service;
 
+import com.clockin.common.response.Result;
+import com.clockin.record.dto.WorkConfigSnapshotDTO;
+import com.clockin.record.dto.WorkdayCalendarDTO;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestParam;
@@ -59,6 +62,18 @@ public interface WorkConfigClient {
     @GetExchange("/holiday/is-workday")
     boolean isWorkDay(@RequestParam("date") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date);
 
+    /**
+     * 批量獲取日期範圍內的工作日曆，取代逐日調用 {@link #isWorkDay(LocalDate)}
+     *
+     * @param startDate 開始日期
+     * @param endDate   結束日期
+     * @return 工作日曆
+     */
+    @GetExchange("/api/admin/holiday/workday-calendar")
+    Result<WorkdayCalendarDTO> getWorkdayCalendar(
+            @RequestParam("startDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam("endDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate);
+
     /**
      * 獲取指定年月的假期數量
      *
@@ -68,4 +83,20 @@ public interface WorkConfigClient {
      */
     @GetExchange("/holiday/count/{year}/{month}")
     int getHolidayCount(@PathVariable("year") int year, @PathVariable("month") int month);
+
+    /**
+     * 獲取當前工作配置快照版本
+     *
+     * @return 快照版本
+     */
+    @GetExchange("/api/admin/work-config/version")
+    Result<String> getWorkConfigVersion();
+
+    /**
+     * 獲取完整的工作配置快照（假日、工作時間配置、用戶配置關聯）
+     *
+     * @return 工作配置快照
+     */
+    @GetExchange("/api/admin/work-config/snapshot")
+    Result<WorkConfigSnapshotDTO> getWorkConfigSnapshot();
 }
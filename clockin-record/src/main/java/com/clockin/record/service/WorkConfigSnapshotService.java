@@ -0,0 +1,79 @@
+package com.clockin.record.service;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Map;
+
+/**
+ * 工作配置本地快照服務接口
+ * <p>
+ * 在本地保存 admin 服務的假日、工作時間配置及用戶配置關聯，打卡流程直接查詢本地快照，不再發起遠程調用
+ */
+public interface WorkConfigSnapshotService {
+
+    /**
+     * 獲取快照中的假日配置
+     * <p>
+     * 僅供工作日曆建立年度位圖使用，業務代碼應通過 {@link com.clockin.common.calendar.WorkdayCalendarService} 判斷工作日
+     *
+     * @return 日期與是否為工作日的映射，快照尚未載入時為 null
+     */
+    Map<LocalDate, Boolean> getWorkdayOverrides();
+
+    /**
+     * 獲取用戶在指定日期的標準上班時間
+     *
+     * @param userId 用戶ID
+     * @param date   日期
+     * @return 標準上班時間
+     */
+    LocalTime getStandardClockInTime(Long userId, LocalDate date);
+
+    /**
+     * 獲取用戶在指定日期的標準下班時間
+     *
+     * @param userId 用戶ID
+     * @param date   日期
+     * @return 標準下班時間
+     */
+    LocalTime getStandardClockOutTime(Long userId, LocalDate date);
+
+    /**
+     * 獲取用戶在指定日期的遲到閾值（分鐘）
+     *
+     * @param userId 用戶ID
+     * @param date   日期
+     * @return 遲到閾值
+     */
+    int getLateThresholdMinutes(Long userId, LocalDate date);
+
+    /**
+     * 獲取用戶在指定日期的早退閾值（分鐘）
+     *
+     * @param userId 用戶ID
+     * @param date   日期
+     * @return 早退閾值
+     */
+    int getEarlyLeaveThresholdMinutes(Long userId, LocalDate date);
+
+    /**
+     * 從 admin 服務重新拉取完整快照
+     *
+     * @return 是否刷新成功
+     */
+    boolean refresh();
+
+    /**
+     * 檢查 admin 服務的配置版本，版本變更時才拉取完整快照
+     *
+     * @return 是否拉取了新快照
+     */
+    boolean refreshIfChanged();
+
+    /**
+     * 獲取當前快照版本
+     *
+     * @return 快照版本，尚未載入時為 null
+     */
+    String getVersion();
+}
@@ -1,20 +1,23 @@
 package com.clockin.record.service.impl;
 
+import com.clockin.common.calendar.WorkdayCalendarService;
 import com.clockin.record.dto.AttendanceStatisticsDTO;
 import com.clockin.record.dto.DepartmentDTO;
 import com.clockin.record.dto.SysUserDTO;
-import com.clockin.record.entity.ClockRecord;
 import com.clockin.record.exception.ApiException;
+import com.clockin.record.repository.ClockMonthlySummaryJdbcRepository.MonthlySummary;
+import com.clockin.record.repository.ClockRecordStatisticsJdbcRepository;
 import com.clockin.record.service.AttendanceStatisticsService;
-import com.clockin.record.service.ClockRecordService;
+import com.clockin.record.service.MonthlySummaryRollupService;
+import com.clockin.record.service.UserDirectoryService;
 import com.clockin.record.service.UserService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
-import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.time.YearMonth;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -27,8 +30,11 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class AttendanceStatisticsServiceImpl implements AttendanceStatisticsService {
 
-    private final ClockRecordService clockRecordService;
+    private final ClockRecordStatisticsJdbcRepository statisticsRepository;
     private final UserService userService;
+    private final UserDirectoryService userDirectoryService;
+    private final WorkdayCalendarService workdayCalendarService;
+    private final MonthlySummaryRollupService monthlySummaryRollupService;
 
     // 標準上班時間（9:00）
     private static final LocalTime STANDARD_WORK_START_TIME = LocalTime.of(9, 0);
@@ -43,123 +49,21 @@ public class AttendanceStatisticsServiceImpl implements AttendanceStatisticsServ
     // 加班閾值（分鐘）
     private static final int OVERTIME_THRESHOLD = 60;
 
+    private static final ClockRecordStatisticsJdbcRepository.Rules RULES = new ClockRecordStatisticsJdbcRepository.Rules(
+            STANDARD_WORK_START_TIME.plusMinutes(LATE_THRESHOLD),
+            STANDARD_WORK_END_TIME.minusMinutes(EARLY_LEAVE_THRESHOLD),
+            STANDARD_WORK_DURATION + OVERTIME_THRESHOLD,
+            STANDARD_WORK_DURATION);
+
     @Override
     public AttendanceStatisticsDTO getUserStatistics(Long userId, LocalDate startDate, LocalDate endDate) {
-        // 1. 獲取用戶信息
+        // 獲取用戶信息
         SysUserDTO user = userService.getUserById(userId);
         if (user == null) {
             throw new ApiException("用戶不存在");
         }
 
-        // 2. 獲取用戶在日期範圍內的打卡記錄
-        List<ClockRecord> records = clockRecordService.getRecordsByUserAndDateRange(userId, startDate, endDate);
-
-        // 3. 計算工作日和休息日
-        Map<LocalDate, Boolean> workingDayMap = calculateWorkingDays(startDate, endDate);
-        int workingDays = (int) workingDayMap.values().stream().filter(isWorkingDay -> isWorkingDay).count();
-        int holidayDays = (int) workingDayMap.values().stream().filter(isWorkingDay -> !isWorkingDay).count();
-
-        // 4. 統計打卡情況
-        Map<LocalDate, ClockRecord> recordMap = records.stream()
-                .collect(Collectors.toMap(ClockRecord::getClockDate, record -> record));
-
-        int normalDays = 0;
-        int abnormalDays = 0;
-        int missingDays = 0;
-        int onTimeDays = 0;
-        int lateDays = 0;
-        int earlyLeaveDays = 0;
-        int overtimeDays = 0;
-        int totalWorkDuration = 0;
-        int overtimeDuration = 0;
-
-        for (Map.Entry<LocalDate, Boolean> entry : workingDayMap.entrySet()) {
-            LocalDate date = entry.getKey();
-            boolean isWorkingDay = entry.getValue();
-
-            if (isWorkingDay) {
-                ClockRecord record = recordMap.get(date);
-                if (record == null) {
-                    // 工作日未打卡
-                    missingDays++;
-                } else if (Boolean.TRUE.equals(record.getIsAbnormal())) {
-                    // 打卡異常
-                    abnormalDays++;
-                    // 計算工作時長
-                    if (record.getWorkDuration() != null) {
-                        totalWorkDuration += record.getWorkDuration();
-                    }
-                    // 檢查是否遲到或早退
-                    if (record.getClockInTime() != null && 
-                            record.getClockInTime().toLocalTime().isAfter(STANDARD_WORK_START_TIME.plusMinutes(LATE_THRESHOLD))) {
-                        lateDays++;
-                    }
-                    if (record.getClockOutTime() != null && 
-                            record.getClockOutTime().toLocalTime().isBefore(STANDARD_WORK_END_TIME.minusMinutes(EARLY_LEAVE_THRESHOLD))) {
-                        earlyLeaveDays++;
-                    }
-                } else {
-                    // 正常打卡
-                    normalDays++;
-                    // 計算工作時長
-                    if (record.getWorkDuration() != null) {
-                        totalWorkDuration += record.getWorkDuration();
-                        if (record.getWorkDuration() > STANDARD_WORK_DURATION + OVERTIME_THRESHOLD) {
-                            overtimeDays++;
-                            overtimeDuration += (record.getWorkDuration() - STANDARD_WORK_DURATION);
-                        }
-                    }
-                    // 檢查是否準時到達
-                    if (record.getClockInTime() != null && 
-                            !record.getClockInTime().toLocalTime().isAfter(STANDARD_WORK_START_TIME.plusMinutes(LATE_THRESHOLD))) {
-                        onTimeDays++;
-                    } else {
-                        lateDays++;
-                    }
-                    // 檢查是否早退
-                    if (record.getClockOutTime() != null && 
-                            record.getClockOutTime().toLocalTime().isBefore(STANDARD_WORK_END_TIME.minusMinutes(EARLY_LEAVE_THRESHOLD))) {
-                        earlyLeaveDays++;
-                    }
-                }
-            } else {
-                // 休息日，檢查是否加班
-                ClockRecord record = recordMap.get(date);
-                if (record != null && record.getWorkDuration() != null && record.getWorkDuration() > 0) {
-                    overtimeDays++;
-                    overtimeDuration += record.getWorkDuration();
-                }
-            }
-        }
-
-        // 5. 計算平均工作時長
-        int averageWorkDuration = normalDays > 0 ? totalWorkDuration / normalDays : 0;
-
-        // 6. 構建統計對象
-        AttendanceStatisticsDTO statistics = new AttendanceStatisticsDTO();
-        statistics.setUserId(userId);
-        statistics.setUserName(user.getUsername());
-        statistics.setDepartmentId(user.getDepartmentId());
-        statistics.setDepartmentName(user.getDepartmentName());
-        statistics.setStartDate(startDate);
-        statistics.setEndDate(endDate);
-        statistics.setNormalDays(normalDays);
-        statistics.setAbnormalDays(abnormalDays);
-        statistics.setMissingDays(missingDays);
-        statistics.setWorkingDays(workingDays);
-        statistics.setHolidayDays(holidayDays);
-        statistics.setTotalWorkDuration(totalWorkDuration);
-        statistics.setTotalWorkDurationFormatted(formatDuration(totalWorkDuration));
-        statistics.setAverageWorkDuration(averageWorkDuration);
-        statistics.setAverageWorkDurationFormatted(formatDuration(averageWorkDuration));
-        statistics.setOnTimeDays(onTimeDays);
-        statistics.setLateDays(lateDays);
-        statistics.setEarlyLeaveDays(earlyLeaveDays);
-        statistics.setOvertimeDays(overtimeDays);
-        statistics.setOvertimeDuration(overtimeDuration);
-        statistics.setOvertimeDurationFormatted(formatDuration(overtimeDuration));
-
-        return statistics;
+        return calculateStatistics(Collections.singletonList(user), startDate, endDate, false).get(0);
     }
 
     @Override
@@ -180,52 +84,48 @@ public class AttendanceStatisticsServiceImpl implements AttendanceStatisticsServ
         }
 
         // 獲取部門內所有用戶
-        List<SysUserDTO> users = userService.getUsersByDepartment(departmentId);
+        List<SysUserDTO> users = userDirectoryService.getUsersByDepartment(departmentId);
         if (users.isEmpty()) {
             return Collections.emptyList();
         }
 
-        // 獲取每個用戶的統計數據
-        List<AttendanceStatisticsDTO> statisticsList = new ArrayList<>();
-        for (SysUserDTO user : users) {
-            try {
-                AttendanceStatisticsDTO statistics = getUserStatistics(user.getId(), startDate, endDate);
-                statisticsList.add(statistics);
-            } catch (Exception e) {
-                log.error("獲取用戶考勤統計異常，用戶ID: {}, 錯誤信息: {}", user.getId(), e.getMessage());
-            }
-        }
-
-        return statisticsList;
+        return calculateStatistics(users, startDate, endDate, false);
     }
 
     @Override
     public List<AttendanceStatisticsDTO> getAllUserStatistics(LocalDate startDate, LocalDate endDate) {
-        // 獲取所有部門
-        List<DepartmentDTO> departments = userService.getAllDepartments();
-
-        // 獲取所有用戶統計數據
-        List<AttendanceStatisticsDTO> allStatistics = new ArrayList<>();
-        for (DepartmentDTO department : departments) {
-            try {
-                List<AttendanceStatisticsDTO> departmentStatistics = getDepartmentStatistics(department.getId(), startDate, endDate);
-                allStatistics.addAll(departmentStatistics);
-            } catch (Exception e) {
-                log.error("獲取部門考勤統計異常，部門ID: {}, 錯誤信息: {}", department.getId(), e.getMessage());
-            }
+        // 按部門順序收集所有用戶，一次聚合查詢統計全部用戶
+        List<SysUserDTO> users = new ArrayList<>();
+        for (DepartmentDTO department : userDirectoryService.getDepartments()) {
+            users.addAll(userDirectoryService.getUsersByDepartment(department.getId()));
+        }
+        if (users.isEmpty()) {
+            return Collections.emptyList();
         }
 
-        return allStatistics;
+        return calculateStatistics(users, startDate, endDate, true);
     }
 
     @Override
     public List<AttendanceStatisticsDTO> generateMonthlyReport(int year, int month) {
         // 獲取指定月份的開始和結束日期
-        LocalDate startDate = LocalDate.of(year, month, 1);
-        LocalDate endDate = startDate.plusMonths(1).minusDays(1);
+        YearMonth yearMonth = YearMonth.of(year, month);
+        LocalDate startDate = yearMonth.atDay(1);
+        LocalDate endDate = yearMonth.atEndOfMonth();
+        int workingDays = workdayCalendarService.countWorkingDays(startDate, endDate);
+        int holidayDays = yearMonth.lengthOfMonth() - workingDays;
 
-        // 獲取所有用戶的考勤統計
-        return getAllUserStatistics(startDate, endDate);
+        // 由月報表讀取，整月只需一次按月份的索引掃描
+        Map<Long, MonthlySummary> summaries = monthlySummaryRollupService.getMonth(yearMonth).stream()
+                .collect(Collectors.toMap(MonthlySummary::getUserId, summary -> summary));
+
+        List<AttendanceStatisticsDTO> report = new ArrayList<>();
+        for (DepartmentDTO department : userDirectoryService.getDepartments()) {
+            for (SysUserDTO user : userDirectoryService.getUsersByDepartment(department.getId())) {
+                report.add(toStatistics(user, summaries.get(user.getId()), startDate, endDate, workingDays, holidayDays));
+            }
+        }
+        return report;
     }
 
     @Override
@@ -240,25 +140,133 @@ public class AttendanceStatisticsServiceImpl implements AttendanceStatisticsServ
     }
 
     /**
-     * 計算指定日期範圍內的工作日和休息日
+     * 統計一組用戶在日期範圍內的考勤情況
+     * <p>
+     * 所有用戶共用一次工作日計算及一條分組聚合查詢，沒有打卡記錄的用戶按全部缺勤統計
+     *
+     * @param users     用戶列表，結果按相同順序返回
+     * @param startDate 開始日期
+     * @param endDate   結束日期
+     * @param allUsers  是否為全部用戶，是時聚合查詢不再按用戶ID過濾
+     * @return 考勤統計列表
+     */
+    private List<AttendanceStatisticsDTO> calculateStatistics(List<SysUserDTO> users, LocalDate startDate,
+                                                              LocalDate endDate, boolean allUsers) {
+        // 1. 計算工作日和休息日
+        List<LocalDate> workDays = calculateWorkingDays(startDate, endDate);
+        int workingDays = workDays.size();
+        int holidayDays = (int) ChronoUnit.DAYS.between(startDate, endDate) + 1 - workingDays;
+
+        // 2. 按用戶聚合打卡記錄
+        Set<Long> userIds = allUsers ? null : users.stream().map(SysUserDTO::getId).collect(Collectors.toSet());
+        Map<Long, ClockRecordStatisticsJdbcRepository.UserAggregate> aggregates = statisticsRepository
+                .aggregateByUser(startDate, endDate, workDays, userIds, RULES).stream()
+                .collect(Collectors.toMap(ClockRecordStatisticsJdbcRepository.UserAggregate::getUserId,
+                        aggregate -> aggregate));
+
+        // 3. 構建統計對象
+        List<AttendanceStatisticsDTO> statisticsList = new ArrayList<>(users.size());
+        for (SysUserDTO user : users) {
+            ClockRecordStatisticsJdbcRepository.UserAggregate aggregate = aggregates.get(user.getId());
+            int normalDays = aggregate != null ? aggregate.getNormalDays() : 0;
+            int totalWorkDuration = aggregate != null ? aggregate.getTotalWorkDuration() : 0;
+            int overtimeDuration = aggregate != null ? aggregate.getOvertimeDuration() : 0;
+            int averageWorkDuration = normalDays > 0 ? totalWorkDuration / normalDays : 0;
+
+            AttendanceStatisticsDTO statistics = new AttendanceStatisticsDTO();
+            statistics.setUserId(user.getId());
+            statistics.setUserName(user.getUsername());
+            statistics.setDepartmentId(user.getDepartmentId());
+            statistics.setDepartmentName(user.getDepartmentName());
+            statistics.setStartDate(startDate);
+            statistics.setEndDate(endDate);
+            statistics.setNormalDays(normalDays);
+            statistics.setAbnormalDays(aggregate != null ? aggregate.getAbnormalDays() : 0);
+            statistics.setMissingDays(workingDays - (aggregate != null ? aggregate.getWorkdayRecordDays() : 0));
+            statistics.setWorkingDays(workingDays);
+            statistics.setHolidayDays(holidayDays);
+            statistics.setTotalWorkDuration(totalWorkDuration);
+            statistics.setTotalWorkDurationFormatted(formatDuration(totalWorkDuration));
+            statistics.setAverageWorkDuration(averageWorkDuration);
+            statistics.setAverageWorkDurationFormatted(formatDuration(averageWorkDuration));
+            statistics.setOnTimeDays(aggregate != null ? aggregate.getOnTimeDays() : 0);
+            statistics.setLateDays(aggregate != null ? aggregate.getLateDays() : 0);
+            statistics.setEarlyLeaveDays(aggregate != null ? aggregate.getEarlyLeaveDays() : 0);
+            statistics.setOvertimeDays(aggregate != null ? aggregate.getOvertimeDays() : 0);
+            statistics.setOvertimeDuration(overtimeDuration);
+            statistics.setOvertimeDurationFormatted(formatDuration(overtimeDuration));
+            statisticsList.add(statistics);
+        }
+
+        return statisticsList;
+    }
+
+    /**
+     * 將月報表轉換為考勤統計
+     * <p>
+     * 月報表由打卡日匯總彙總而來：遲到、早退計為異常，工作日中既未出勤也未請假的天數計為缺勤
+     *
+     * @param user        用戶
+     * @param summary     月報表，用戶當月沒有日匯總時為 null
+     * @param startDate   開始日期
+     * @param endDate     結束日期
+     * @param workingDays 工作日數量
+     * @param holidayDays 休息日數量
+     * @return 考勤統計
+     */
+    private AttendanceStatisticsDTO toStatistics(SysUserDTO user, MonthlySummary summary, LocalDate startDate,
+                                                 LocalDate endDate, int workingDays, int holidayDays) {
+        int workDays = summary != null ? summary.getWorkDays() : 0;
+        int totalWorkDuration = summary != null ? summary.getWorkMinutes() : 0;
+        int overtimeDuration = summary != null ? summary.getOvertimeMinutes() : 0;
+        int leaveDays = summary != null ? summary.getLeaveCount() : 0;
+        int averageWorkDuration = workDays > 0 ? totalWorkDuration / workDays : 0;
+
+        AttendanceStatisticsDTO statistics = new AttendanceStatisticsDTO();
+        statistics.setUserId(user.getId());
+        statistics.setUserName(user.getUsername());
+        statistics.setDepartmentId(user.getDepartmentId());
+        statistics.setDepartmentName(user.getDepartmentName());
+        statistics.setStartDate(startDate);
+        statistics.setEndDate(endDate);
+        statistics.setNormalDays(summary != null ? summary.getNormalCount() : 0);
+        statistics.setAbnormalDays(summary != null ? summary.getLateCount() + summary.getEarlyLeaveCount() : 0);
+        statistics.setMissingDays(Math.max(workingDays - workDays - leaveDays, 0));
+        statistics.setWorkingDays(workingDays);
+        statistics.setHolidayDays(holidayDays);
+        statistics.setTotalWorkDuration(totalWorkDuration);
+        statistics.setTotalWorkDurationFormatted(formatDuration(totalWorkDuration));
+        statistics.setAverageWorkDuration(averageWorkDuration);
+        statistics.setAverageWorkDurationFormatted(formatDuration(averageWorkDuration));
+        statistics.setOnTimeDays(summary != null ? summary.getNormalCount() + summary.getOutsideWorkCount() : 0);
+        statistics.setLateDays(summary != null ? summary.getLateCount() : 0);
+        statistics.setEarlyLeaveDays(summary != null ? summary.getEarlyLeaveCount() : 0);
+        statistics.setOvertimeDays(summary != null ? summary.getOvertimeCount() : 0);
+        statistics.setOvertimeDuration(overtimeDuration);
+        statistics.setOvertimeDurationFormatted(formatDuration(overtimeDuration));
+        return statistics;
+    }
+
+    /**
+     * 計算指定日期範圍內的工作日
      *
      * @param startDate 開始日期
      * @param endDate   結束日期
-     * @return 日期與是否為工作日的映射
+     * @return 工作日列表
      */
-    private Map<LocalDate, Boolean> calculateWorkingDays(LocalDate startDate, LocalDate endDate) {
-        Map<LocalDate, Boolean> workingDayMap = new HashMap<>();
+    private List<LocalDate> calculateWorkingDays(LocalDate startDate, LocalDate endDate) {
+        List<LocalDate> workDays = new ArrayList<>();
         LocalDate currentDate = startDate;
 
         while (!currentDate.isAfter(endDate)) {
-            // 簡單判斷：週一至週五為工作日，週六日為休息日
-            boolean isWorkingDay = !(currentDate.getDayOfWeek() == DayOfWeek.SATURDAY || 
-                                      currentDate.getDayOfWeek() == DayOfWeek.SUNDAY);
-            workingDayMap.put(currentDate, isWorkingDay);
+            // 由工作日曆位圖判斷，已包含假日及調休配置
+            if (workdayCalendarService.isWorkDay(currentDate)) {
+                workDays.add(currentDate);
+            }
             currentDate = currentDate.plusDays(1);
         }
 
-        return workingDayMap;
+        return workDays;
     }
 
     /**
@@ -0,0 +1,63 @@
+package com.clockin.record.service.impl;
+
+import com.clockin.record.dto.ClockInResponse;
+import com.clockin.record.service.ClockInIdempotencyService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * 打卡冪等服務實現
+ * <p>
+ * 響應以 JSON 保存在 Redis 中；Redis 不可用時只記錄日誌，打卡仍照常進行
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ClockInIdempotencyServiceImpl implements ClockInIdempotencyService {
+
+    private static final String REDIS_KEY_PREFIX = "clockin:idempotency:";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * 冪等記錄保留時間（小時）
+     */
+    @Value("${clock-in.idempotency.ttl-hours:24}")
+    private long ttlHours;
+
+    @Override
+    public Optional<ClockInResponse> find(Long userId, String idempotencyKey) {
+        try {
+            String json = stringRedisTemplate.opsForValue().get(key(userId, idempotencyKey));
+            return json == null ? Optional.empty() : Optional.of(objectMapper.readValue(json, ClockInResponse.class));
+        } catch (Exception e) {
+            log.warn("讀取打卡冪等記錄失敗: userId={}, key={}", userId, idempotencyKey, e);
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public void save(Long userId, String idempotencyKey, ClockInResponse response) {
+        try {
+            stringRedisTemplate.opsForValue().set(key(userId, idempotencyKey),
+                    objectMapper.writeValueAsString(response), Duration.ofHours(ttlHours));
+        } catch (JsonProcessingException e) {
+            log.error("序列化打卡響應失敗: userId={}, key={}", userId, idempotencyKey, e);
+        } catch (Exception e) {
+            log.warn("保存打卡冪等記錄失敗: userId={}, key={}", userId, idempotencyKey, e);
+        }
+    }
+
+    private String key(Long userId, String idempotencyKey) {
+        return REDIS_KEY_PREFIX + userId + ":" + idempotencyKey;
+    }
+}
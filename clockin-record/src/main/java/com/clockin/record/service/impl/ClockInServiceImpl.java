@@ -1,5 +1,6 @@
 package com.clockin.record.service.impl;
 
+import com.clockin.common.calendar.WorkdayCalendarService;
 import com.clockin.common.exception.BusinessException;
 import com.clockin.record.dto.ClockInRequest;
 import com.clockin.record.dto.ClockInResponse;
@@ -10,13 +11,22 @@ import com.clockin.record.enums.AbsenceType;
 import com.clockin.record.enums.ClockInStatus;
 import com.clockin.record.enums.ClockInType;
 import com.clockin.record.repository.ClockInRecordRepository;
+import com.clockin.record.repository.ClockInSummaryJdbcRepository;
 import com.clockin.record.repository.ClockInSummaryRepository;
+import com.clockin.record.service.ClockInIdempotencyService;
 import com.clockin.record.service.ClockInService;
-import com.clockin.record.service.WorkConfigClient;
+import com.clockin.record.service.ClockInSummaryBatchService;
+import com.clockin.record.service.MonthlySummaryRollupService;
+import com.clockin.record.service.PunchIngestionService;
+import com.clockin.record.service.WorkConfigSnapshotService;
+import com.clockin.record.service.UserLockService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
@@ -26,7 +36,6 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 /**
  * 打卡服務實現
@@ -41,35 +50,83 @@ public class ClockInServiceImpl implements ClockInService {
     
     private final ClockInRecordRepository recordRepository;
     private final ClockInSummaryRepository summaryRepository;
-    private final WorkConfigClient workConfigClient;
+    private final ClockInSummaryJdbcRepository summaryJdbcRepository;
+    private final WorkConfigSnapshotService workConfigSnapshotService;
+    private final WorkdayCalendarService workdayCalendarService;
+    private final ClockInSummaryBatchService summaryBatchService;
+    private final UserLockService userLockService;
+    private final ClockInIdempotencyService idempotencyService;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectProvider<PunchIngestionService> punchIngestionService;
+    private final MonthlySummaryRollupService monthlySummaryRollupService;
 
     @Override
-    @Transactional
     public ClockInResponse clockIn(Long userId, ClockInRequest request) {
         // 校驗參數
         if (userId == null || request.getClockType() == null) {
             throw new BusinessException("參數不完整");
         }
 
+        // 同一用戶的打卡串行執行，事務在持有鎖期間提交
+        return userLockService.executeWithLock(userId, () -> {
+            String idempotencyKey = request.getIdempotencyKey();
+            if (!StringUtils.hasText(idempotencyKey)) {
+                return submitClockIn(userId, request);
+            }
+
+            Optional<ClockInResponse> previous = idempotencyService.find(userId, idempotencyKey);
+            if (previous.isPresent()) {
+                if (previous.get().getClockType() != request.getClockType()) {
+                    throw new BusinessException("冪等鍵已被其他打卡請求使用");
+                }
+                log.info("用戶 {} 重複提交打卡請求，返回首次結果，冪等鍵：{}", userId, idempotencyKey);
+                return previous.get();
+            }
+
+            ClockInResponse response = submitClockIn(userId, request);
+            idempotencyService.save(userId, idempotencyKey, response);
+            return response;
+        });
+    }
+
+    /**
+     * 啟用打卡隊列時寫入隊列後直接返回，否則在事務內寫入數據庫；補卡需要記錄ID供審批使用，始終直接寫入
+     */
+    private ClockInResponse submitClockIn(Long userId, ClockInRequest request) {
+        PunchIngestionService ingestion = Boolean.TRUE.equals(request.getIsMakeup())
+                ? null : punchIngestionService.getIfAvailable();
+        if (ingestion != null) {
+            return doClockIn(userId, request, ingestion);
+        }
+        return transactionTemplate.execute(status -> doClockIn(userId, request, null));
+    }
+
+    /**
+     * 執行打卡，調用方需持有用戶鎖；直接寫入時需開啟事務
+     *
+     * @param ingestion 打卡隊列，為 null 時直接寫入數據庫
+     */
+    private ClockInResponse doClockIn(Long userId, ClockInRequest request, PunchIngestionService ingestion) {
         // 設置默認值
         LocalDate clockDate = request.getClockDate() != null ? request.getClockDate() : LocalDate.now();
         LocalTime clockTime = request.getClockTime() != null ? request.getClockTime() : LocalTime.now();
 
-        // 檢查是否是工作日
-        boolean isWorkDay = workConfigClient.isWorkDay(clockDate);
+        // 檢查是否是工作日（本地快照，不發起遠程調用）
+        boolean isWorkDay = workdayCalendarService.isWorkDay(clockDate);
         if (!isWorkDay) {
             log.info("用戶 {} 在非工作日 {} 打卡", userId, clockDate);
         }
 
         // 獲取工作時間配置
-        LocalTime standardClockInTime = workConfigClient.getStandardClockInTime(userId);
-        LocalTime standardClockOutTime = workConfigClient.getStandardClockOutTime(userId);
-        int lateMinutes = workConfigClient.getLateThresholdMinutes();
-        int earlyLeaveMinutes = workConfigClient.getEarlyLeaveThresholdMinutes();
+        LocalTime standardClockInTime = workConfigSnapshotService.getStandardClockInTime(userId, clockDate);
+        LocalTime standardClockOutTime = workConfigSnapshotService.getStandardClockOutTime(userId, clockDate);
+        int lateMinutes = workConfigSnapshotService.getLateThresholdMinutes(userId, clockDate);
+        int earlyLeaveMinutes = workConfigSnapshotService.getEarlyLeaveThresholdMinutes(userId, clockDate);
 
-        // 檢查是否已經打過卡
-        boolean isFirstClockIn = !recordRepository.existsByUserIdAndClockDateAndClockTypeAndIsDeleted(
-                userId, clockDate, request.getClockType(), NOT_DELETED);
+        // 檢查是否已經打過卡；走隊列時之前的打卡可能尚未落庫，無法判斷，不返回該欄位
+        Boolean isFirstClockIn = ingestion != null ? null
+                : !recordRepository.existsByUserIdAndClockDateAndClockTypeAndIsDeleted(
+                        userId, clockDate, request.getClockType(), NOT_DELETED);
 
         // 判斷打卡狀態
         ClockInStatus status;
@@ -98,12 +155,18 @@ public class ClockInServiceImpl implements ClockInService {
                 .isDeleted(NOT_DELETED)
                 .build();
 
-        // 保存記錄
-        record = recordRepository.save(record);
-        log.info("用戶 {} 在 {} {} 打卡成功，狀態：{}", userId, clockDate, clockTime, status.getDesc());
+        if (ingestion != null) {
+            // 寫入隊列，由後台批量保存記錄並更新匯總
+            ingestion.submit(record, isWorkDay);
+            log.info("用戶 {} 在 {} {} 打卡已受理，狀態：{}", userId, clockDate, clockTime, status.getDesc());
+        } else {
+            // 保存記錄
+            record = recordRepository.save(record);
+            log.info("用戶 {} 在 {} {} 打卡成功，狀態：{}", userId, clockDate, clockTime, status.getDesc());
 
-        // 更新匯總數據
-        calculateAndUpdateSummary(userId, clockDate);
+            // 增量更新匯總數據
+            mergeIntoSummary(record, isWorkDay);
+        }
 
         // 構建響應
         return ClockInResponse.builder()
@@ -120,6 +183,7 @@ public class ClockInServiceImpl implements ClockInService {
                 .standardClockInTime(standardClockInTime)
                 .standardClockOutTime(standardClockOutTime)
                 .message(buildClockInMessage(request.getClockType(), status, clockTime))
+                .queued(ingestion != null)
                 .build();
     }
 
@@ -168,12 +232,7 @@ public class ClockInServiceImpl implements ClockInService {
         List<ClockInSummary> summaries = getSummaryByDateRange(userId, startDate, endDate);
 
         // 統計工作日數量
-        int workingDays = 0;
-        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
-            if (workConfigClient.isWorkDay(date)) {
-                workingDays++;
-            }
-        }
+        int workingDays = workdayCalendarService.countWorkingDays(startDate, endDate);
 
         // 統計各類型出勤情況
         int normalDays = 0;
@@ -250,7 +309,6 @@ public class ClockInServiceImpl implements ClockInService {
     }
 
     @Override
-    @Transactional
     public ClockInResponse applyForMakeup(Long userId, ClockInRequest request) {
         // 設置為補卡請求
         request.setIsMakeup(true);
@@ -260,9 +318,21 @@ public class ClockInServiceImpl implements ClockInService {
     }
 
     @Override
-    @Transactional
     public boolean approveMakeup(Long recordId, boolean approved, Long approver, String remark) {
-        // 查詢補卡記錄
+        // 先查出記錄所屬用戶，審批與該用戶的打卡串行執行，事務在持有鎖期間提交
+        Long userId = recordRepository.findById(recordId)
+                .map(ClockInRecord::getUserId)
+                .orElseThrow(() -> new BusinessException("補卡記錄不存在"));
+
+        return Boolean.TRUE.equals(userLockService.executeWithLock(userId, () -> transactionTemplate.execute(status ->
+                doApproveMakeup(recordId, approved, approver, remark))));
+    }
+
+    /**
+     * 執行補卡審批，調用方需持有用戶鎖並開啟事務
+     */
+    private boolean doApproveMakeup(Long recordId, boolean approved, Long approver, String remark) {
+        // 查詢補卡記錄，持有鎖後重新讀取，避免使用加鎖前的舊狀態
         ClockInRecord record = recordRepository.findById(recordId)
                 .orElseThrow(() -> new BusinessException("補卡記錄不存在"));
 
@@ -284,8 +354,12 @@ public class ClockInServiceImpl implements ClockInService {
         // 保存記錄
         recordRepository.save(record);
 
-        // 更新匯總數據
-        calculateAndUpdateSummary(record.getUserId(), record.getClockDate());
+        // 更新匯總數據：批准只改變記錄狀態，增量合併即可；拒絕會移除記錄，需要完整重算
+        if (approved) {
+            mergeIntoSummary(record, workdayCalendarService.isWorkDay(record.getClockDate()));
+        } else {
+            calculateAndUpdateSummary(record.getUserId(), record.getClockDate());
+        }
 
         log.info("補卡審批: 記錄ID={}, 用戶ID={}, 審批結果={}, 審批人={}", 
                 recordId, record.getUserId(), approved ? "批准" : "拒絕", approver);
@@ -311,103 +385,32 @@ public class ClockInServiceImpl implements ClockInService {
                 .isDeleted(NOT_DELETED)
                 .build());
 
-        // 默認缺勤類型為曠工
-        AbsenceType absenceType = AbsenceType.ABSENCE;
-        
-        // 查找上班打卡記錄
-        Optional<ClockInRecord> clockInRecord = records.stream()
-                .filter(r -> r.getClockType() == ClockInType.CLOCK_IN)
-                .findFirst();
-        
-        // 查找下班打卡記錄
-        Optional<ClockInRecord> clockOutRecord = records.stream()
-                .filter(r -> r.getClockType() == ClockInType.CLOCK_OUT)
-                .findFirst();
-
-        // 更新上班打卡信息
-        if (clockInRecord.isPresent()) {
-            ClockInRecord inRecord = clockInRecord.get();
-            summary.setClockInTime(inRecord.getClockTime());
-            summary.setClockInStatus(inRecord.getStatus().getValue());
-            
-            // 如果有上班打卡，缺勤類型更新為遲到或正常
-            absenceType = inRecord.getStatus() == ClockInStatus.LATE ? 
-                    AbsenceType.LATE : AbsenceType.NORMAL;
-        }
-
-        // 更新下班打卡信息
-        if (clockOutRecord.isPresent()) {
-            ClockInRecord outRecord = clockOutRecord.get();
-            summary.setClockOutTime(outRecord.getClockTime());
-            summary.setClockOutStatus(outRecord.getStatus().getValue());
-            
-            // 如果是早退，缺勤類型更新為早退
-            if (outRecord.getStatus() == ClockInStatus.EARLY_LEAVE) {
-                absenceType = AbsenceType.EARLY_LEAVE;
-            }
-        }
-
-        // 計算工作時長（分鐘）
-        if (clockInRecord.isPresent() && clockOutRecord.isPresent()) {
-            LocalTime inTime = clockInRecord.get().getClockTime();
-            LocalTime outTime = clockOutRecord.get().getClockTime();
-            int workMinutes = (int) inTime.until(outTime, ChronoUnit.MINUTES);
-            
-            // 如果工作時間為負數或過大，可能是打卡錯誤
-            if (workMinutes < 0 || workMinutes > 24 * 60) {
-                log.warn("用戶 {} 在 {} 的工作時長異常: {} 分鐘", userId, date, workMinutes);
-                workMinutes = 0;
-            }
-            
-            summary.setWorkDuration(workMinutes);
-        }
-
-        // 檢查是否為工作日
-        boolean isWorkDay = workConfigClient.isWorkDay(date);
-        if (!isWorkDay) {
-            // 非工作日，如果有打卡記錄，視為正常
-            if (clockInRecord.isPresent() || clockOutRecord.isPresent()) {
-                absenceType = AbsenceType.NORMAL;
-            } else {
-                // 非工作日沒有打卡，不計入缺勤
-                absenceType = AbsenceType.NORMAL;
-            }
-        }
-
-        // 更新缺勤類型
-        summary.setAbsenceType(absenceType.getValue());
+        // 檢查是否為工作日並填充匯總
+        boolean isWorkDay = workdayCalendarService.isWorkDay(date);
+        ClockInSummaryCalculator.apply(summary, records, isWorkDay);
 
         // 保存匯總記錄
-        return summaryRepository.save(summary);
+        ClockInSummary saved = summaryRepository.save(summary);
+        monthlySummaryRollupService.markChanged(userId, date);
+        return saved;
     }
 
     @Override
-    @Transactional
     public int batchCalculateAndUpdateSummary(LocalDate date) {
         log.info("批量計算並更新 {} 的打卡匯總", date);
-        
-        // 查詢當日有打卡記錄的用戶
-        List<Long> userIds = recordRepository.findAll((root, query, cb) -> {
-            query.select(root.get("userId")).distinct(true);
-            return cb.and(
-                    cb.equal(root.get("clockDate"), date),
-                    cb.equal(root.get("isDeleted"), NOT_DELETED)
-            );
-        }).stream().map(ClockInRecord::getUserId).collect(Collectors.toList());
-        
-        // 批量更新匯總
-        int count = 0;
-        for (Long userId : userIds) {
-            try {
-                calculateAndUpdateSummary(userId, date);
-                count++;
-            } catch (Exception e) {
-                log.error("計算用戶 {} 在 {} 的打卡匯總失敗: {}", userId, date, e.getMessage(), e);
-            }
-        }
-        
-        log.info("批量計算完成，共處理 {} 條記錄", count);
-        return count;
+        return summaryBatchService.recalculate(date);
+    }
+
+    /**
+     * 將單條打卡記錄增量合併到當日匯總，不重新讀取當日所有記錄
+     *
+     * @param record    打卡記錄
+     * @param isWorkDay 當日是否為工作日
+     */
+    private void mergeIntoSummary(ClockInRecord record, boolean isWorkDay) {
+        summaryJdbcRepository.mergeRecord(ClockInSummaryCalculator.initial(record, isWorkDay),
+                record.getClockType(), isWorkDay);
+        monthlySummaryRollupService.markChanged(record.getUserId(), record.getClockDate());
     }
 
     /**
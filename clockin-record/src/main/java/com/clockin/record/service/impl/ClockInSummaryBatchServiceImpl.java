@@ -0,0 +1,203 @@
+package com.clockin.record.service.impl;
+
+import com.clockin.common.calendar.WorkdayCalendarService;
+import com.clockin.record.entity.ClockInRecord;
+import com.clockin.record.entity.ClockInSummary;
+import com.clockin.record.repository.ClockInRecordRepository;
+import com.clockin.record.repository.ClockInSummaryJdbcRepository;
+import com.clockin.record.service.ClockInSummaryBatchService;
+import com.clockin.record.service.MonthlySummaryRollupService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 打卡匯總批量重算服務實現
+ * <p>
+ * 不再為整日重算開啟單一長事務：每塊用戶的讀取、計算與寫入在各自的短事務中完成，
+ * 失敗只影響當前塊
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ClockInSummaryBatchServiceImpl implements ClockInSummaryBatchService {
+
+    private static final int NOT_DELETED = 0;
+
+    private static final String METRIC_PREFIX = "clockin.summary.batch";
+
+    private final ClockInRecordRepository recordRepository;
+    private final ClockInSummaryJdbcRepository summaryJdbcRepository;
+    private final WorkdayCalendarService workdayCalendarService;
+    private final PlatformTransactionManager transactionManager;
+    private final MeterRegistry meterRegistry;
+    private final MonthlySummaryRollupService monthlySummaryRollupService;
+
+    /**
+     * 每塊處理的用戶數
+     */
+    @Value("${clock-in.summary.batch.chunk-size:500}")
+    private int chunkSize;
+
+    /**
+     * 所有進行中的重算尚未處理的用戶數
+     */
+    private final AtomicLong pendingUsers = new AtomicLong();
+
+    private TransactionTemplate transactionTemplate;
+    private Counter successCounter;
+    private Counter failureCounter;
+    private Timer chunkTimer;
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+
+        successCounter = Counter.builder(METRIC_PREFIX + ".users")
+                .tag("outcome", "success")
+                .description("批量重算成功寫入匯總的用戶數")
+                .register(meterRegistry);
+        failureCounter = Counter.builder(METRIC_PREFIX + ".users")
+                .tag("outcome", "failure")
+                .description("批量重算失敗的用戶數")
+                .register(meterRegistry);
+        chunkTimer = Timer.builder(METRIC_PREFIX + ".chunk")
+                .description("每塊讀取、計算及寫入的耗時")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".pending-users", pendingUsers, AtomicLong::get)
+                .description("進行中的批量重算尚未處理的用戶數")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public int recalculate(LocalDate date) {
+        return recalculateRange(date, Long.MIN_VALUE, Long.MAX_VALUE).processed;
+    }
+
+    @Override
+    public int recalculate(LocalDate date, long fromUserId, long toUserId) {
+        RangeResult result = recalculateRange(date, fromUserId, toUserId);
+        if (result.failed > 0) {
+            throw new IllegalStateException(String.format("重算 %s 用戶 %d 至 %d 的打卡匯總時有 %d 位用戶失敗",
+                    date, fromUserId, toUserId, result.failed));
+        }
+        return result.processed;
+    }
+
+    /**
+     * 按塊重算用戶ID區間 [fromUserId, toUserId] 內的匯總
+     * <p>
+     * 每塊覆蓋上一塊之後至本塊最後一位用戶的整段ID，段內打卡記錄已全部刪除的用戶，其匯總一併軟刪除
+     */
+    private RangeResult recalculateRange(LocalDate date, long fromUserId, long toUserId) {
+        long totalUsers = recordRepository.countUsersByClockDate(date, NOT_DELETED, fromUserId, toUserId);
+        log.info("開始批量重算 {} 的打卡匯總，共 {} 位用戶，每塊 {} 位", date, totalUsers, chunkSize);
+        pendingUsers.addAndGet(totalUsers);
+
+        // 整日共用一次工作日判斷
+        boolean workDay = workdayCalendarService.isWorkDay(date);
+
+        int processed = 0;
+        int failed = 0;
+        long chunkFromUserId = fromUserId;
+        try {
+            while (true) {
+                List<Long> userIds = recordRepository.findUserIdsByClockDateAfter(
+                        date, NOT_DELETED, chunkFromUserId, toUserId, PageRequest.of(0, chunkSize));
+                // 沒有更多打卡用戶時，剩餘區間只需清理匯總
+                long chunkToUserId = userIds.isEmpty() ? toUserId : userIds.get(userIds.size() - 1);
+
+                long from = chunkFromUserId;
+                try {
+                    int written = chunkTimer.record(() -> processChunk(date, from, chunkToUserId, workDay));
+                    processed += written;
+                    successCounter.increment(written);
+                } catch (Exception e) {
+                    failed += userIds.size();
+                    failureCounter.increment(userIds.size());
+                    log.error("重算 {} 用戶 {} 至 {} 的打卡匯總失敗: {}", date, from, chunkToUserId, e.getMessage(), e);
+                }
+                pendingUsers.addAndGet(-userIds.size());
+                totalUsers -= userIds.size();
+
+                log.debug("{} 的打卡匯總重算進度：已處理 {}，失敗 {}，剩餘約 {}", date, processed, failed, Math.max(totalUsers, 0));
+                // 先判斷是否到達區間終點，避免 toUserId 為 Long.MAX_VALUE 時溢出
+                if (userIds.isEmpty() || chunkToUserId >= toUserId) {
+                    break;
+                }
+                chunkFromUserId = chunkToUserId + 1;
+            }
+        } finally {
+            // 期間新增打卡的用戶會使實際數量與開始時統計的不同，結束時校正
+            pendingUsers.addAndGet(-totalUsers);
+        }
+
+        log.info("完成批量重算 {} 的打卡匯總，成功 {} 位，失敗 {} 位", date, processed, failed);
+        return new RangeResult(processed, failed);
+    }
+
+    /**
+     * 在獨立事務中處理一段用戶ID區間
+     *
+     * @return 寫入的匯總數量
+     */
+    private int processChunk(LocalDate date, long fromUserId, long toUserId, boolean workDay) {
+        Integer written = transactionTemplate.execute(status -> {
+            List<ClockInRecord> records = recordRepository
+                    .findByClockDateAndIsDeletedAndUserIdBetweenOrderByUserIdAscClockTimeAsc(
+                            date, NOT_DELETED, fromUserId, toUserId);
+
+            // 記錄已按用戶排序，按順序分組即可
+            Map<Long, List<ClockInRecord>> recordsByUser = new LinkedHashMap<>();
+            for (ClockInRecord record : records) {
+                recordsByUser.computeIfAbsent(record.getUserId(), key -> new ArrayList<>()).add(record);
+            }
+
+            List<ClockInSummary> summaries = new ArrayList<>(recordsByUser.size());
+            recordsByUser.forEach((userId, userRecords) -> summaries.add(ClockInSummaryCalculator.apply(
+                    ClockInSummary.builder().userId(userId).clockDate(date).isDeleted(NOT_DELETED).build(),
+                    userRecords, workDay)));
+
+            summaryJdbcRepository.batchUpsert(summaries);
+            List<Long> cleared = summaryJdbcRepository.softDeleteWithoutRecords(date, fromUserId, toUserId);
+            if (!cleared.isEmpty()) {
+                log.info("{} 用戶 {} 至 {} 中有 {} 位已無有效打卡記錄，匯總已軟刪除", date, fromUserId, toUserId, cleared.size());
+            }
+
+            Set<Long> changedUserIds = new HashSet<>(recordsByUser.keySet());
+            changedUserIds.addAll(cleared);
+            monthlySummaryRollupService.markChanged(changedUserIds, date);
+            return summaries.size();
+        });
+        return written != null ? written : 0;
+    }
+
+    private static final class RangeResult {
+
+        private final int processed;
+        private final int failed;
+
+        private RangeResult(int processed, int failed) {
+            this.processed = processed;
+            this.failed = failed;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.clockin.record.service.impl;
+
+import com.clockin.record.entity.ClockInRecord;
+import com.clockin.record.entity.ClockInSummary;
+import com.clockin.record.enums.AbsenceType;
+import com.clockin.record.enums.ClockInStatus;
+import com.clockin.record.enums.ClockInType;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * 打卡匯總計算
+ * <p>
+ * 根據用戶當日的打卡記錄填充匯總，單筆計算、批量重算與打卡時的增量更新共用同一套規則
+ */
+@Slf4j
+final class ClockInSummaryCalculator {
+
+    private ClockInSummaryCalculator() {
+    }
+
+    /**
+     * 根據打卡記錄重新填充匯總，原有的打卡欄位會先清空
+     *
+     * @param summary  待填充的匯總，userId 與 clockDate 必須已設置
+     * @param records  用戶當日的打卡記錄
+     * @param workDay  當日是否為工作日
+     * @return 填充後的匯總
+     */
+    static ClockInSummary apply(ClockInSummary summary, List<ClockInRecord> records, boolean workDay) {
+        summary.setClockInTime(null);
+        summary.setClockInStatus(null);
+        summary.setClockOutTime(null);
+        summary.setClockOutStatus(null);
+        summary.setWorkDuration(null);
+
+        for (ClockInRecord record : records) {
+            merge(summary, record);
+        }
+        derive(summary, workDay);
+        return summary;
+    }
+
+    /**
+     * 建立僅包含單條打卡記錄的匯總，作為增量合併時匯總不存在的初始值
+     *
+     * @param record  打卡記錄
+     * @param workDay 當日是否為工作日
+     * @return 匯總
+     */
+    static ClockInSummary initial(ClockInRecord record, boolean workDay) {
+        ClockInSummary summary = ClockInSummary.builder()
+                .userId(record.getUserId())
+                .clockDate(record.getClockDate())
+                .isDeleted(0)
+                .build();
+        merge(summary, record);
+        derive(summary, workDay);
+        return summary;
+    }
+
+    /**
+     * 將單條打卡記錄合併到匯總：上班取最早的一次，下班取最晚的一次，時間相同時以後合併的為準
+     *
+     * @param summary 匯總
+     * @param record  打卡記錄
+     */
+    static void merge(ClockInSummary summary, ClockInRecord record) {
+        LocalTime clockTime = record.getClockTime();
+        if (record.getClockType() == ClockInType.CLOCK_IN) {
+            if (summary.getClockInTime() == null || !clockTime.isAfter(summary.getClockInTime())) {
+                summary.setClockInTime(clockTime);
+                summary.setClockInStatus(record.getStatus().getValue());
+            }
+        } else if (record.getClockType() == ClockInType.CLOCK_OUT) {
+            if (summary.getClockOutTime() == null || !clockTime.isBefore(summary.getClockOutTime())) {
+                summary.setClockOutTime(clockTime);
+                summary.setClockOutStatus(record.getStatus().getValue());
+            }
+        }
+    }
+
+    /**
+     * 根據上下班打卡欄位推導工作時長與缺勤類型
+     * <p>
+     * 規則需與 {@code ClockInSummaryJdbcRepository} 中增量 upsert 的 SQL 表達式保持一致
+     *
+     * @param summary 匯總
+     * @param workDay 當日是否為工作日
+     */
+    static void derive(ClockInSummary summary, boolean workDay) {
+        // 計算工作時長（分鐘）
+        if (summary.getClockInTime() != null && summary.getClockOutTime() != null) {
+            int workMinutes = (int) summary.getClockInTime().until(summary.getClockOutTime(), ChronoUnit.MINUTES);
+            
+            // 如果工作時間為負數，可能是打卡錯誤
+            if (workMinutes < 0) {
+                log.warn("用戶 {} 在 {} 的工作時長異常: {} 分鐘", summary.getUserId(), summary.getClockDate(), workMinutes);
+                workMinutes = 0;
+            }
+            summary.setWorkDuration(workMinutes);
+        } else {
+            summary.setWorkDuration(null);
+        }
+
+        summary.setAbsenceType(absenceType(summary, workDay).getValue());
+    }
+
+    private static AbsenceType absenceType(ClockInSummary summary, boolean workDay) {
+        // 非工作日不計入缺勤，有打卡記錄亦視為正常
+        if (!workDay) {
+            return AbsenceType.NORMAL;
+        }
+        // 早退優先，其次按上班打卡判斷遲到或正常，沒有上班打卡視為曠工
+        if (ClockInStatus.EARLY_LEAVE.getValue().equals(summary.getClockOutStatus())) {
+            return AbsenceType.EARLY_LEAVE;
+        }
+        if (summary.getClockInStatus() == null) {
+            return AbsenceType.ABSENCE;
+        }
+        return ClockInStatus.LATE.getValue().equals(summary.getClockInStatus()) ? AbsenceType.LATE : AbsenceType.NORMAL;
+    }
+}
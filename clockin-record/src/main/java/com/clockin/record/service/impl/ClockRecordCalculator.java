@@ -0,0 +1,75 @@
+package com.clockin.record.service.impl;
+
+import com.clockin.record.entity.ClockRecord;
+
+import java.time.Duration;
+
+/**
+ * 打卡記錄計算
+ * <p>
+ * 根據上下班時間計算工作時長並判斷是否異常，打卡與批量導入共用同一套規則
+ */
+final class ClockRecordCalculator {
+
+    private ClockRecordCalculator() {
+    }
+
+    /**
+     * 檢查打卡記錄是否異常
+     *
+     * @param record 打卡記錄
+     */
+    static void checkAbnormal(ClockRecord record) {
+        boolean isAbnormal = false;
+        StringBuilder reason = new StringBuilder();
+        
+        // 檢查是否為假日
+        if (record.getIsHoliday() != null && record.getIsHoliday()) {
+            // 假日打卡，不標記為異常
+            record.setIsAbnormal(false);
+            record.setAbnormalReason(null);
+            return;
+        }
+        
+        // 檢查上班打卡是否缺失
+        if (record.getClockInTime() == null && record.getClockOutTime() != null) {
+            isAbnormal = true;
+            reason.append("缺少上班打卡記錄; ");
+        }
+        
+        // 檢查下班打卡是否缺失
+        if (record.getClockInTime() != null && record.getClockOutTime() == null) {
+            isAbnormal = true;
+            reason.append("缺少下班打卡記錄; ");
+        }
+        
+        // 檢查打卡時間是否異常 (例如：工作時間過短或過長)
+        if (record.getClockInTime() != null && record.getClockOutTime() != null) {
+            // 計算工作時長
+            Duration duration = Duration.between(record.getClockInTime(), record.getClockOutTime());
+            int workMinutes = (int) duration.toMinutes();
+            record.setWorkDuration(workMinutes);
+            
+            // 例如：工作時間少於 4 小時或超過 12 小時視為異常
+            if (workMinutes < 240) {
+                isAbnormal = true;
+                reason.append("工作時間過短 (").append(workMinutes / 60).append("小時").append(workMinutes % 60).append("分鐘); ");
+            } else if (workMinutes > 720) {
+                isAbnormal = true;
+                reason.append("工作時間過長 (").append(workMinutes / 60).append("小時").append(workMinutes % 60).append("分鐘); ");
+            }
+        }
+        
+        // 設置異常狀態和原因
+        record.setIsAbnormal(isAbnormal);
+        if (isAbnormal) {
+            if (reason.length() > 0) {
+                // 移除末尾的分號和空格
+                reason.setLength(reason.length() - 2);
+            }
+            record.setAbnormalReason(reason.toString());
+        } else {
+            record.setAbnormalReason(null);
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.clockin.record.service.impl;
 
 import com.clockin.record.dto.ClockRecordDTO;
+import com.clockin.record.dto.CursorPage;
+import com.clockin.record.dto.DepartmentDTO;
 import com.clockin.record.dto.SysUserDTO;
 import com.clockin.record.entity.ClockRecord;
 import com.clockin.record.exception.ApiException;
@@ -18,8 +20,14 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -35,14 +43,12 @@ public class ClockRecordDTOServiceImpl implements ClockRecordDTOService {
     private final ClockRecordConverter converter;
 
     @Override
-    @Transactional
     public ClockRecordDTO clockIn(Long userId, LocalDateTime clockInTime, String workLocation, String ipAddress, String deviceInfo, String remark) {
         ClockRecord record = clockRecordService.clockIn(userId, clockInTime, workLocation, ipAddress, deviceInfo, remark);
         return convertToDTO(record);
     }
 
     @Override
-    @Transactional
     public ClockRecordDTO clockOut(Long userId, LocalDateTime clockOutTime, String workLocation, String ipAddress, String deviceInfo, String remark) {
         ClockRecord record = clockRecordService.clockOut(userId, clockOutTime, workLocation, ipAddress, deviceInfo, remark);
         return convertToDTO(record);
@@ -74,22 +80,26 @@ public class ClockRecordDTOServiceImpl implements ClockRecordDTOService {
     @Override
     public List<ClockRecordDTO> getRecordsByUserAndDateRange(Long userId, LocalDate startDate, LocalDate endDate) {
         List<ClockRecord> records = clockRecordService.getRecordsByUserAndDateRange(userId, startDate, endDate);
-        return records.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return convertToDTOs(records);
     }
 
     @Override
     public Page<ClockRecordDTO> getRecordsPage(Long userId, LocalDate date, Boolean isAbnormal, Pageable pageable) {
         Page<ClockRecord> recordPage = clockRecordService.getRecordsPage(userId, date, isAbnormal, pageable);
         
-        List<ClockRecordDTO> dtoList = recordPage.getContent().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        List<ClockRecordDTO> dtoList = convertToDTOs(recordPage.getContent());
         
         return new PageImpl<>(dtoList, pageable, recordPage.getTotalElements());
     }
 
+    @Override
+    public CursorPage<ClockRecordDTO> scrollRecords(Long userId, LocalDate date, Boolean isAbnormal, String cursor,
+                                                    int size, boolean withTotal) {
+        CursorPage<ClockRecord> page = clockRecordService.scrollRecords(userId, date, isAbnormal, cursor, size,
+                withTotal);
+        return page.withContent(convertToDTOs(page.getContent()));
+    }
+
     @Override
     public Optional<ClockRecordDTO> getLatestRecord(Long userId) {
         return clockRecordService.getLatestRecord(userId)
@@ -105,21 +115,16 @@ public class ClockRecordDTOServiceImpl implements ClockRecordDTOService {
     @Override
     public List<ClockRecordDTO> getTodayRecords() {
         List<ClockRecord> records = clockRecordService.getTodayRecords();
-        return records.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return convertToDTOs(records);
     }
 
     @Override
     public List<ClockRecordDTO> getAbnormalRecords(LocalDate startDate, LocalDate endDate) {
         List<ClockRecord> records = clockRecordService.getAbnormalRecords(startDate, endDate);
-        return records.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return convertToDTOs(records);
     }
 
     @Override
-    @Transactional
     public ClockRecordDTO currentUserClockIn(LocalDateTime clockInTime, String workLocation, String ipAddress, String deviceInfo, String remark) {
         SysUserDTO currentUser = userService.getCurrentUser();
         if (currentUser == null) {
@@ -135,7 +140,6 @@ public class ClockRecordDTOServiceImpl implements ClockRecordDTOService {
     }
 
     @Override
-    @Transactional
     public ClockRecordDTO currentUserClockOut(LocalDateTime clockOutTime, String workLocation, String ipAddress, String deviceInfo, String remark) {
         SysUserDTO currentUser = userService.getCurrentUser();
         if (currentUser == null) {
@@ -157,24 +161,65 @@ public class ClockRecordDTOServiceImpl implements ClockRecordDTOService {
      * @return 打卡記錄DTO
      */
     private ClockRecordDTO convertToDTO(ClockRecord record) {
-        ClockRecordDTO dto = converter.toDTO(record);
-        
+        return convertToDTOs(Collections.singletonList(record)).get(0);
+    }
+
+    /**
+     * 批量將打卡記錄實體轉換為DTO並附加用戶和部門信息
+     * <p>
+     * 先收集結果集中的用戶ID並一次性獲取用戶信息，部門名稱在本次轉換內按部門ID記憶，
+     * 最後逐條組裝DTO，避免每條記錄各自發起遠程調用
+     *
+     * @param records 打卡記錄實體列表
+     * @return 打卡記錄DTO列表，順序與輸入一致
+     */
+    private List<ClockRecordDTO> convertToDTOs(List<ClockRecord> records) {
+        if (records.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Map<Long, SysUserDTO> users;
         try {
-            // 獲取用戶信息
-            SysUserDTO user = userService.getUserById(record.getUserId());
+            Set<Long> userIds = records.stream()
+                    .map(ClockRecord::getUserId)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toSet());
+            users = userService.getUsersByIds(userIds);
+        } catch (Exception e) {
+            log.warn("獲取用戶或部門信息失敗: {}", e.getMessage());
+            users = Collections.emptyMap();
+        }
+
+        Map<Long, Optional<String>> departmentNames = new HashMap<>();
+        List<ClockRecordDTO> dtoList = new ArrayList<>(records.size());
+        for (ClockRecord record : records) {
+            ClockRecordDTO dto = converter.toDTO(record);
+            SysUserDTO user = users.get(record.getUserId());
             if (user != null) {
                 dto.setUserName(user.getUsername());
-                
+
                 // 設置部門信息
                 if (user.getDepartmentId() != null) {
                     dto.setDepartmentId(user.getDepartmentId());
-                    dto.setDepartmentName(user.getDepartmentName());
+                    dto.setDepartmentName(user.getDepartmentName() != null
+                            ? user.getDepartmentName()
+                            : departmentNames.computeIfAbsent(user.getDepartmentId(), this::findDepartmentName).orElse(null));
                 }
             }
+            dtoList.add(dto);
+        }
+        return dtoList;
+    }
+
+    /**
+     * 用戶信息中缺少部門名稱時查詢部門
+     */
+    private Optional<String> findDepartmentName(Long departmentId) {
+        try {
+            return Optional.ofNullable(userService.getDepartmentById(departmentId)).map(DepartmentDTO::getDeptName);
         } catch (Exception e) {
-            log.warn("獲取用戶或部門信息失敗: {}", e.getMessage());
+            log.warn("獲取部門信息失敗: {}", e.getMessage());
+            return Optional.empty();
         }
-        
-        return dto;
     }
 }
@@ -0,0 +1,485 @@
+package com.clockin.record.service.impl;
+
+import com.clockin.common.calendar.WorkdayCalendarService;
+import com.clockin.record.dto.ExportJobDTO;
+import com.clockin.record.dto.ImportResultDTO;
+import com.clockin.record.entity.ClockRecord;
+import com.clockin.record.enums.ExportType;
+import com.clockin.record.exception.ApiException;
+import com.clockin.record.repository.ClockRecordJdbcRepository;
+import com.clockin.record.service.ExportJobService;
+import com.clockin.record.service.UserService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoField;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 打卡記錄導入流程
+ * <p>
+ * 讀取線程以 SAX 逐行解析並按塊提交校驗，校驗在線程池中並行執行；
+ * 校驗結果按提交順序取回後以 JDBC 批處理寫入，每塊獨立提交。同時在途的塊數有上限，
+ * 錯誤行直接寫入錯誤文件，記憶體佔用與文件行數無關
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+class ClockRecordImporter {
+
+    /**
+     * 導入記錄的打卡類型：系統修正
+     */
+    private static final int IMPORTED_CLOCK_TYPE = 3;
+
+    /**
+     * 結果中返回的錯誤信息條數
+     */
+    private static final int MAX_ERROR_MESSAGES = 100;
+
+    private static final String[] ERROR_HEADERS = {"行號", "用戶ID", "打卡日期", "上班時間", "下班時間", "工作地點", "備註",
+            "錯誤原因"};
+
+    private static final DateTimeFormatter DATE_FORMATTER = new DateTimeFormatterBuilder()
+            .appendPattern("[yyyy-MM-dd][yyyy/M/d][yyyy-M-d]")
+            .toFormatter();
+
+    private static final DateTimeFormatter TIME_FORMATTER = new DateTimeFormatterBuilder()
+            .appendPattern("H:mm")
+            .optionalStart().appendPattern(":ss").optionalEnd()
+            .parseDefaulting(ChronoField.SECOND_OF_MINUTE, 0)
+            .toFormatter();
+
+    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd H:mm[:ss]");
+
+    private final ClockRecordJdbcRepository clockRecordJdbcRepository;
+    private final UserService userService;
+    private final WorkdayCalendarService workdayCalendarService;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * 延遲獲取，避免與導出任務服務循環依賴
+     */
+    private final ObjectProvider<ExportJobService> exportJobService;
+
+    /**
+     * 每塊的行數，即每次 JDBC 批處理的行數
+     */
+    @Value("${clock-in.import.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${clock-in.import.validation-threads:4}")
+    private int validationThreads;
+
+    /**
+     * 單次導入同時在途（已讀取未寫入）的最大塊數
+     */
+    @Value("${clock-in.import.max-in-flight:8}")
+    private int maxInFlight;
+
+    /**
+     * 是否向認證服務確認用戶存在
+     */
+    @Value("${clock-in.import.verify-users:true}")
+    private boolean verifyUsers;
+
+    /**
+     * 單個文件的最大數據行數，超出時停止導入；已寫入的塊保留，按用戶和日期覆蓋，拆分文件後重新導入即可
+     */
+    @Value("${clock-in.import.max-rows:1000000}")
+    private int maxRows;
+
+    @Value("${clock-in.export.row-window:100}")
+    private int rowWindow;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void init() {
+        // 隊列滿時由讀取線程自行校驗，多個導入同時執行也不會無限堆積
+        executor = new ThreadPoolExecutor(validationThreads, validationThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(validationThreads * 2), new CustomizableThreadFactory("import-validate-"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 校驗文件表頭
+     *
+     * @param file XLSX 文件
+     * @return 錯誤信息，格式正確時為 null
+     */
+    String validateHeader(File file) throws IOException {
+        String[] error = new String[1];
+        boolean[] seen = new boolean[1];
+        XlsxRowReader.read(file, (rowNum, cells) -> {
+            seen[0] = true;
+            error[0] = checkHeader(cells);
+            return false;
+        });
+        return seen[0] ? error[0] : "Excel 文件為空";
+    }
+
+    /**
+     * 導入 XLSX 文件
+     *
+     * @param file XLSX 文件
+     * @return 導入結果
+     */
+    ImportResultDTO importFile(File file) throws IOException {
+        try (ImportRun run = new ImportRun()) {
+            List<RawRow> chunk = new ArrayList<>(chunkSize);
+            String[] headerError = new String[1];
+            XlsxRowReader.read(file, (rowNum, cells) -> {
+                if (rowNum == 0) {
+                    headerError[0] = checkHeader(cells);
+                    return headerError[0] == null;
+                }
+                if (cells.stream().allMatch(String::isEmpty)) {
+                    return true;
+                }
+                if (run.totalRows + chunk.size() >= maxRows) {
+                    throw new ApiException("文件數據行數超過上限 " + maxRows + "，請拆分後導入");
+                }
+                chunk.add(new RawRow(rowNum + 1, cells));
+                if (chunk.size() >= chunkSize) {
+                    run.submit(new ArrayList<>(chunk));
+                    chunk.clear();
+                }
+                return true;
+            });
+            if (headerError[0] != null) {
+                throw new ApiException(headerError[0]);
+            }
+            if (!chunk.isEmpty()) {
+                run.submit(chunk);
+            }
+            return run.finish();
+        }
+    }
+
+    /**
+     * 導入已轉換的打卡記錄，按塊校驗並批量寫入
+     *
+     * @param records 打卡記錄
+     * @return 導入結果
+     */
+    ImportResultDTO importRecords(List<ClockRecord> records) {
+        try (ImportRun run = new ImportRun()) {
+            for (int from = 0; from < records.size(); from += chunkSize) {
+                List<ClockRecord> slice = records.subList(from, Math.min(from + chunkSize, records.size()));
+                int firstIndex = from;
+                List<RawRow> chunk = new ArrayList<>(slice.size());
+                for (int i = 0; i < slice.size(); i++) {
+                    chunk.add(new RawRow(firstIndex + i + 1, slice.get(i)));
+                }
+                run.submit(chunk);
+            }
+            return run.finish();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String checkHeader(List<String> cells) {
+        String[] expected = ImportExportServiceImpl.IMPORT_HEADERS;
+        for (int i = 0; i < expected.length; i++) {
+            String actual = i < cells.size() ? cells.get(i) : "";
+            if (!expected[i].equals(actual)) {
+                return "模板格式不正確，第 " + (i + 1) + " 列應為「" + expected[i] + "」";
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 校驗一塊數據，在校驗線程中執行
+     */
+    private ChunkResult validate(List<RawRow> chunk) {
+        ChunkResult result = new ChunkResult();
+        List<ClockRecord> parsed = new ArrayList<>(chunk.size());
+        List<RawRow> parsedRows = new ArrayList<>(chunk.size());
+        for (RawRow row : chunk) {
+            try {
+                parsed.add(row.record != null ? row.record : parse(row.cells));
+                parsedRows.add(row);
+            } catch (ApiException | DateTimeParseException | NumberFormatException e) {
+                result.errors.add(new RowError(row, errorMessage(e)));
+            }
+        }
+
+        Set<Long> existingUsers = verifyUsers
+                ? userService.getUsersByIds(parsed.stream().map(ClockRecord::getUserId).collect(Collectors.toSet())).keySet()
+                : null;
+        for (int i = 0; i < parsed.size(); i++) {
+            ClockRecord record = parsed.get(i);
+            RawRow row = parsedRows.get(i);
+            String error = check(record, existingUsers);
+            if (error != null) {
+                result.errors.add(new RowError(row, error));
+                continue;
+            }
+            record.setClockType(record.getClockType() != null ? record.getClockType() : IMPORTED_CLOCK_TYPE);
+            record.setIsHoliday(!workdayCalendarService.isWorkDay(record.getClockDate()));
+            ClockRecordCalculator.checkAbnormal(record);
+            result.records.add(record);
+            result.recordRows.add(row);
+        }
+        return result;
+    }
+
+    private static ClockRecord parse(List<String> cells) {
+        String userId = cell(cells, 0);
+        String date = cell(cells, 1);
+        if (userId.isEmpty()) {
+            throw new ApiException("用戶ID不能為空");
+        }
+        if (date.isEmpty()) {
+            throw new ApiException("打卡日期不能為空");
+        }
+
+        ClockRecord record = new ClockRecord();
+        record.setUserId(Long.parseLong(userId.endsWith(".0") ? userId.substring(0, userId.length() - 2) : userId));
+        LocalDate clockDate = LocalDate.parse(date.length() > 10 ? date.substring(0, 10) : date, DATE_FORMATTER);
+        record.setClockDate(clockDate);
+        record.setClockInTime(parseTime(clockDate, cell(cells, 2)));
+        record.setClockOutTime(parseTime(clockDate, cell(cells, 3)));
+        record.setWorkLocation(emptyToNull(cell(cells, 4)));
+        record.setRemark(emptyToNull(cell(cells, 5)));
+        return record;
+    }
+
+    private static String check(ClockRecord record, Set<Long> existingUsers) {
+        if (record.getUserId() == null || record.getClockDate() == null) {
+            return "用戶ID和打卡日期不能為空";
+        }
+        if (existingUsers != null && !existingUsers.contains(record.getUserId())) {
+            return "用戶不存在";
+        }
+        if (record.getClockInTime() == null && record.getClockOutTime() == null) {
+            return "上班時間和下班時間不能同時為空";
+        }
+        if (record.getClockInTime() != null && record.getClockOutTime() != null
+                && record.getClockOutTime().isBefore(record.getClockInTime())) {
+            return "下班時間早於上班時間";
+        }
+        return null;
+    }
+
+    /**
+     * 解析時間，只有時間時與打卡日期組合
+     */
+    private static LocalDateTime parseTime(LocalDate clockDate, String value) {
+        if (value.isEmpty()) {
+            return null;
+        }
+        if (value.length() > 8) {
+            return LocalDateTime.parse(value, DATE_TIME_FORMATTER);
+        }
+        return clockDate.atTime(LocalTime.parse(value, TIME_FORMATTER));
+    }
+
+    private static String cell(List<String> cells, int index) {
+        return index < cells.size() && cells.get(index) != null ? cells.get(index).trim() : "";
+    }
+
+    private static String emptyToNull(String value) {
+        return value.isEmpty() ? null : value;
+    }
+
+    private static String errorMessage(Exception e) {
+        if (e instanceof DateTimeParseException) {
+            return "日期或時間格式不正確: " + ((DateTimeParseException) e).getParsedString();
+        }
+        if (e instanceof NumberFormatException) {
+            return "用戶ID不是數字";
+        }
+        return e.getMessage();
+    }
+
+    /**
+     * 原始行，來自文件時保存單元格文本，來自接口時保存已轉換的記錄
+     */
+    private static final class RawRow {
+
+        private final int rowNum;
+        private final List<String> cells;
+        private final ClockRecord record;
+
+        private RawRow(int rowNum, List<String> cells) {
+            this.rowNum = rowNum;
+            this.cells = cells;
+            this.record = null;
+        }
+
+        private RawRow(int rowNum, ClockRecord record) {
+            this.rowNum = rowNum;
+            this.cells = Collections.emptyList();
+            this.record = record;
+        }
+
+        private Object[] values() {
+            if (record != null) {
+                return new Object[]{record.getUserId(), record.getClockDate(), record.getClockInTime(),
+                        record.getClockOutTime(), record.getWorkLocation(), record.getRemark()};
+            }
+            Object[] values = new Object[6];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = cell(cells, i);
+            }
+            return values;
+        }
+    }
+
+    private static final class RowError {
+
+        private final RawRow row;
+        private final String message;
+
+        private RowError(RawRow row, String message) {
+            this.row = row;
+            this.message = message;
+        }
+    }
+
+    private static final class ChunkResult {
+
+        private final List<ClockRecord> records = new ArrayList<>();
+        private final List<RawRow> recordRows = new ArrayList<>();
+        private final List<RowError> errors = new ArrayList<>();
+    }
+
+    /**
+     * 單次導入的狀態，只在讀取線程中使用
+     */
+    private final class ImportRun implements AutoCloseable {
+
+        private final Deque<Future<ChunkResult>> inFlight = new ArrayDeque<>();
+        private final List<String> errorMessages = new ArrayList<>();
+        private StreamingExcelWriter errorWriter;
+        private long totalRows;
+        private long successRows;
+        private long failedRows;
+
+        private void submit(List<RawRow> chunk) {
+            totalRows += chunk.size();
+            inFlight.add(executor.submit(() -> validate(chunk)));
+            while (inFlight.size() >= maxInFlight) {
+                write(inFlight.poll());
+            }
+        }
+
+        private ImportResultDTO finish() throws IOException {
+            while (!inFlight.isEmpty()) {
+                write(inFlight.poll());
+            }
+
+            String errorFileJobId = null;
+            if (errorWriter != null) {
+                Path errorFile = Files.createTempFile("clockin-import-errors-", ".xlsx");
+                try (OutputStream out = Files.newOutputStream(errorFile)) {
+                    errorWriter.finish(out);
+                }
+                String fileName = "打卡記錄導入錯誤_"
+                        + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss")) + ".xlsx";
+                ExportJobDTO job = exportJobService.getObject()
+                        .storeFile(ExportType.IMPORT_ERRORS, fileName, errorFile, failedRows);
+                errorFileJobId = job.getJobId();
+            }
+
+            log.info("打卡記錄導入完成，共 {} 行，成功 {} 行，失敗 {} 行", totalRows, successRows, failedRows);
+            return ImportResultDTO.builder()
+                    .totalRows(totalRows)
+                    .successRows(successRows)
+                    .failedRows(failedRows)
+                    .errorFileJobId(errorFileJobId)
+                    .errors(errorMessages)
+                    .build();
+        }
+
+        private void write(Future<ChunkResult> future) {
+            ChunkResult result;
+            try {
+                result = future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ApiException("導入已中斷");
+            } catch (ExecutionException e) {
+                throw new ApiException("校驗導入數據失敗: " + e.getCause().getMessage());
+            }
+
+            if (!result.records.isEmpty()) {
+                try {
+                    transactionTemplate.executeWithoutResult(status ->
+                            clockRecordJdbcRepository.batchUpsert(result.records));
+                    successRows += result.records.size();
+                } catch (RuntimeException e) {
+                    log.error("寫入導入數據失敗，{} 行", result.records.size(), e);
+                    for (RawRow row : result.recordRows) {
+                        recordError(new RowError(row, "寫入失敗: " + e.getMessage()));
+                    }
+                }
+            }
+            result.errors.forEach(this::recordError);
+        }
+
+        private void recordError(RowError error) {
+            failedRows++;
+            if (errorMessages.size() < MAX_ERROR_MESSAGES) {
+                errorMessages.add("第 " + error.row.rowNum + " 行: " + error.message);
+            }
+            if (errorWriter == null) {
+                errorWriter = new StreamingExcelWriter(rowWindow, "錯誤記錄", ERROR_HEADERS);
+            }
+            Object[] values = error.row.values();
+            Object[] line = Arrays.copyOf(new Object[]{error.row.rowNum}, ERROR_HEADERS.length);
+            System.arraycopy(values, 0, line, 1, values.length);
+            line[ERROR_HEADERS.length - 1] = error.message;
+            errorWriter.writeRow(line);
+        }
+
+        @Override
+        public void close() throws IOException {
+            // 異常結束時取消未完成的校驗
+            inFlight.forEach(future -> future.cancel(true));
+            if (errorWriter != null) {
+                errorWriter.close();
+            }
+        }
+    }
+}
@@ -1,16 +1,23 @@
 package com.clockin.record.service.impl;
 
 import com.clockin.common.util.DateTimeUtil;
+import com.clockin.record.dto.CursorPage;
 import com.clockin.record.entity.ClockRecord;
 import com.clockin.record.repository.ClockRecordRepository;
+import com.clockin.record.repository.PageCountJdbcRepository;
 import com.clockin.record.service.ClockRecordService;
+import com.clockin.record.service.UserLockService;
+import com.clockin.record.util.PageCursor;
 import jakarta.persistence.criteria.Predicate;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.Duration;
 import java.time.LocalDate;
@@ -28,6 +35,9 @@ import java.util.Optional;
 public class ClockRecordServiceImpl implements ClockRecordService {
     
     private final ClockRecordRepository clockRecordRepository;
+    private final PageCountJdbcRepository pageCountJdbcRepository;
+    private final UserLockService userLockService;
+    private final TransactionTemplate transactionTemplate;
     
     @Override
     @Transactional
@@ -39,8 +49,13 @@ public class ClockRecordServiceImpl implements ClockRecordService {
     }
     
     @Override
-    @Transactional
     public ClockRecord clockIn(Long userId, LocalDateTime clockInTime, String workLocation, String ipAddress, String deviceInfo, String remark) {
+        // 同一用戶的打卡串行執行，事務在持有鎖期間提交
+        return userLockService.executeWithLock(userId, () -> transactionTemplate.execute(status ->
+                doClockIn(userId, clockInTime, workLocation, ipAddress, deviceInfo, remark)));
+    }
+
+    private ClockRecord doClockIn(Long userId, LocalDateTime clockInTime, String workLocation, String ipAddress, String deviceInfo, String remark) {
         LocalDate today = clockInTime.toLocalDate();
         Optional<ClockRecord> existingRecord = clockRecordRepository.findByUserIdAndClockDate(userId, today);
         
@@ -68,8 +83,12 @@ public class ClockRecordServiceImpl implements ClockRecordService {
     }
     
     @Override
-    @Transactional
     public ClockRecord clockOut(Long userId, LocalDateTime clockOutTime, String workLocation, String ipAddress, String deviceInfo, String remark) {
+        return userLockService.executeWithLock(userId, () -> transactionTemplate.execute(status ->
+                doClockOut(userId, clockOutTime, workLocation, ipAddress, deviceInfo, remark)));
+    }
+
+    private ClockRecord doClockOut(Long userId, LocalDateTime clockOutTime, String workLocation, String ipAddress, String deviceInfo, String remark) {
         LocalDate today = clockOutTime.toLocalDate();
         Optional<ClockRecord> existingRecord = clockRecordRepository.findByUserIdAndClockDate(userId, today);
         
@@ -152,7 +171,28 @@ public class ClockRecordServiceImpl implements ClockRecordService {
     
     @Override
     public Page<ClockRecord> getRecordsPage(Long userId, LocalDate date, Boolean isAbnormal, Pageable pageable) {
-        Specification<ClockRecord> spec = (root, query, criteriaBuilder) -> {
+        return clockRecordRepository.findAll(recordSpecification(userId, date, isAbnormal), pageable);
+    }
+
+    @Override
+    public CursorPage<ClockRecord> scrollRecords(Long userId, LocalDate date, Boolean isAbnormal, String cursor,
+                                                 int size, boolean withTotal) {
+        String scope = "clock-record:" + userId + ":" + date + ":" + isAbnormal;
+        ScrollPosition position = PageCursor.decode(cursor, scope, "clockDate", LocalDate::parse);
+        Window<ClockRecord> window = clockRecordRepository.findBy(recordSpecification(userId, date, isAbnormal),
+                query -> query.sortBy(PageCursor.sort("clockDate")).limit(PageCursor.limit(size)).scroll(position));
+
+        CursorPage<ClockRecord> page = PageCursor.toPage(window, scope, "clockDate");
+        if (withTotal) {
+            PageCountJdbcRepository.Count count = pageCountJdbcRepository.countClockRecords(userId, date, isAbnormal);
+            page.setTotal(count.getValue());
+            page.setTotalExact(count.isExact());
+        }
+        return page;
+    }
+
+    private static Specification<ClockRecord> recordSpecification(Long userId, LocalDate date, Boolean isAbnormal) {
+        return (root, query, criteriaBuilder) -> {
             List<Predicate> predicates = new ArrayList<>();
             
             if (userId != null) {
@@ -169,8 +209,6 @@ public class ClockRecordServiceImpl implements ClockRecordService {
             
             return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
         };
-        
-        return clockRecordRepository.findAll(spec, pageable);
     }
     
     @Override
@@ -207,56 +245,6 @@ public class ClockRecordServiceImpl implements ClockRecordService {
      * @param record 打卡記錄
      */
     private void checkAbnormal(ClockRecord record) {
-        boolean isAbnormal = false;
-        StringBuilder reason = new StringBuilder();
-        
-        // 檢查是否為假日
-        if (record.getIsHoliday() != null && record.getIsHoliday()) {
-            // 假日打卡，不標記為異常
-            record.setIsAbnormal(false);
-            record.setAbnormalReason(null);
-            return;
-        }
-        
-        // 檢查上班打卡是否缺失
-        if (record.getClockInTime() == null && record.getClockOutTime() != null) {
-            isAbnormal = true;
-            reason.append("缺少上班打卡記錄; ");
-        }
-        
-        // 檢查下班打卡是否缺失
-        if (record.getClockInTime() != null && record.getClockOutTime() == null) {
-            isAbnormal = true;
-            reason.append("缺少下班打卡記錄; ");
-        }
-        
-        // 檢查打卡時間是否異常 (例如：工作時間過短或過長)
-        if (record.getClockInTime() != null && record.getClockOutTime() != null) {
-            // 計算工作時長
-            Duration duration = Duration.between(record.getClockInTime(), record.getClockOutTime());
-            int workMinutes = (int) duration.toMinutes();
-            record.setWorkDuration(workMinutes);
-            
-            // 例如：工作時間少於 4 小時或超過 12 小時視為異常
-            if (workMinutes < 240) {
-                isAbnormal = true;
-                reason.append("工作時間過短 (").append(workMinutes / 60).append("小時").append(workMinutes % 60).append("分鐘); ");
-            } else if (workMinutes > 720) {
-                isAbnormal = true;
-                reason.append("工作時間過長 (").append(workMinutes / 60).append("小時").append(workMinutes % 60).append("分鐘); ");
-            }
-        }
-        
-        // 設置異常狀態和原因
-        record.setIsAbnormal(isAbnormal);
-        if (isAbnormal) {
-            if (reason.length() > 0) {
-                // 移除末尾的分號和空格
-                reason.setLength(reason.length() - 2);
-            }
-            record.setAbnormalReason(reason.toString());
-        } else {
-            record.setAbnormalReason(null);
-        }
+        ClockRecordCalculator.checkAbnormal(record);
     }
 }
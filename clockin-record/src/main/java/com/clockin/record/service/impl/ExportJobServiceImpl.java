@@ -0,0 +1,357 @@
+package com.clockin.record.service.impl;
+
+import com.clockin.record.dto.ExportJobDTO;
+import com.clockin.record.dto.ExportJobRequest;
+import com.clockin.record.enums.ExportFormat;
+import com.clockin.record.enums.ExportJobStatus;
+import com.clockin.record.enums.ExportType;
+import com.clockin.record.exception.ApiException;
+import com.clockin.record.service.ExportJobService;
+import com.clockin.record.service.ImportExportService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * 導出任務服務實現
+ * <p>
+ * 任務狀態保存在本實例記憶體中，文件寫入本地磁盤，因此查詢與下載需要路由到提交任務的實例。
+ * 相同參數的任務在有效期內共用同一個文件
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ExportJobServiceImpl implements ExportJobService {
+
+    private static final DateTimeFormatter FILE_DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private final ImportExportService importExportService;
+
+    private final Map<String, ExportJob> jobs = new ConcurrentHashMap<>();
+
+    /**
+     * 導出參數與任務ID的映射，用於複用相同參數的任務
+     */
+    private final Map<String, String> jobsByParameters = new ConcurrentHashMap<>();
+
+    @Value("${clock-in.export.job.directory:${java.io.tmpdir}/clockin-exports}")
+    private String directory;
+
+    @Value("${clock-in.export.job.threads:2}")
+    private int threads;
+
+    @Value("${clock-in.export.job.queue-capacity:20}")
+    private int queueCapacity;
+
+    /**
+     * 任務完成後文件保留及可被複用的時間（毫秒）
+     */
+    @Value("${clock-in.export.job.ttl:1800000}")
+    private long ttl;
+
+    private Path baseDirectory;
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void init() throws IOException {
+        baseDirectory = Paths.get(directory).toAbsolutePath();
+        Files.createDirectories(baseDirectory);
+        // 任務狀態不跨重啟保留，清除上次運行留下的文件
+        try (Stream<Path> files = Files.list(baseDirectory)) {
+            files.forEach(ExportJobServiceImpl::deleteQuietly);
+        }
+
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("export-job-"));
+        log.info("導出任務線程池已初始化，線程數: {}，隊列容量: {}，目錄: {}", threads, queueCapacity, baseDirectory);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdownNow();
+        executor.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public ExportJobDTO submit(ExportJobRequest submitted) {
+        ExportJobRequest request = normalize(submitted);
+        String parameters = parameterKey(request);
+        // 同一參數並發提交時只創建一個任務
+        ExportJob[] reused = new ExportJob[1];
+        String jobId = jobsByParameters.compute(parameters, (key, existingId) -> {
+            ExportJob existing = existingId != null ? jobs.get(existingId) : null;
+            if (existing != null && existing.isReusable()) {
+                reused[0] = existing;
+                return existingId;
+            }
+            ExportJob job = new ExportJob(newJobId(), request.getType(), request.getFormat(), fileName(request),
+                    request, key);
+            jobs.put(job.id, job);
+            return job.id;
+        });
+
+        if (reused[0] != null) {
+            log.info("複用導出任務 {}，類型: {}", jobId, request.getType());
+            return reused[0].toDTO(true);
+        }
+
+        ExportJob job = jobs.get(jobId);
+        try {
+            executor.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(jobId);
+            jobsByParameters.remove(parameters, jobId);
+            throw new ApiException("導出任務過多，請稍後重試");
+        }
+        log.info("已提交導出任務 {}，類型: {}", jobId, request.getType());
+        return job.toDTO(false);
+    }
+
+    @Override
+    public ExportJobDTO storeFile(ExportType type, String fileName, Path source, long rows) {
+        ExportJob job = new ExportJob(newJobId(), type, ExportFormat.XLSX, fileName, null, null);
+        try {
+            Files.move(source, job.file, StandardCopyOption.REPLACE_EXISTING);
+            job.fileSize = Files.size(job.file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("保存文件失敗", e);
+        }
+        job.rowsWritten.set(rows);
+        job.complete(ExportJobStatus.COMPLETED, null);
+        jobs.put(job.id, job);
+        return job.toDTO(false);
+    }
+
+    @Override
+    public ExportJobDTO getJob(String jobId) {
+        return findJob(jobId).toDTO(false);
+    }
+
+    @Override
+    public Path getFile(String jobId) {
+        ExportJob job = findJob(jobId);
+        if (job.status != ExportJobStatus.COMPLETED) {
+            throw new ApiException("導出任務尚未完成");
+        }
+        if (!Files.exists(job.file)) {
+            throw new ApiException("導出文件已過期，請重新提交");
+        }
+        return job.file;
+    }
+
+    @Override
+    public int cleanExpired() {
+        long now = System.currentTimeMillis();
+        int removed = 0;
+        for (ExportJob job : jobs.values()) {
+            if (job.expireAt > 0 && job.expireAt <= now) {
+                jobs.remove(job.id);
+                if (job.parameters != null) {
+                    jobsByParameters.remove(job.parameters, job.id);
+                }
+                deleteQuietly(job.file);
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    private static String newJobId() {
+        return UUID.randomUUID().toString().replace("-", "");
+    }
+
+    private ExportJob findJob(String jobId) {
+        ExportJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new ApiException("導出任務不存在或已過期");
+        }
+        return job;
+    }
+
+    private void run(ExportJob job) {
+        job.status = ExportJobStatus.RUNNING;
+        Path partial = baseDirectory.resolve(job.id + ".part");
+        try {
+            try (OutputStream out = Files.newOutputStream(partial)) {
+                long rows = importExportService.export(job.request, out, job.rowsWritten::set);
+                job.rowsWritten.set(rows);
+            }
+            // 寫完後才改為正式文件名，下載不會讀到未完成的文件
+            Files.move(partial, job.file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            job.fileSize = Files.size(job.file);
+            job.complete(ExportJobStatus.COMPLETED, null);
+            log.info("導出任務 {} 完成，{} 行，{} 字節", job.id, job.rowsWritten.get(), job.fileSize);
+        } catch (Exception e) {
+            deleteQuietly(partial);
+            // 失敗的任務保留一段時間供查詢原因，但不再被複用
+            job.complete(ExportJobStatus.FAILED, e.getMessage());
+            log.error("導出任務 {} 失敗", job.id, e);
+        }
+    }
+
+    /**
+     * 校驗導出參數並只保留該導出類型使用的參數，參數錯誤在提交時即返回而不是在任務中失敗
+     */
+    private static ExportJobRequest normalize(ExportJobRequest request) {
+        ExportJobRequest.ExportJobRequestBuilder normalized = ExportJobRequest.builder()
+                .type(request.getType())
+                .format(request.getFormat() != null ? request.getFormat() : ExportFormat.XLSX);
+        switch (request.getType()) {
+            case CLOCK_RECORDS:
+            case CLOCK_IN_SUMMARIES:
+                validateDateRange(request);
+                return normalized.startDate(request.getStartDate()).endDate(request.getEndDate())
+                        .userId(request.getUserId()).departmentId(request.getDepartmentId()).build();
+            case ATTENDANCE_STATISTICS:
+                if (request.getYear() == null || request.getMonth() == null) {
+                    throw new ApiException("年份和月份不能為空");
+                }
+                return normalized.year(request.getYear()).month(request.getMonth())
+                        .departmentId(request.getDepartmentId()).build();
+            case DEPARTMENT_LEAVE:
+                if (request.getDepartmentId() == null) {
+                    throw new ApiException("部門ID不能為空");
+                }
+                validateDateRange(request);
+                return normalized.startDate(request.getStartDate()).endDate(request.getEndDate())
+                        .departmentId(request.getDepartmentId()).build();
+            default:
+                throw new ApiException("不支持的導出類型: " + request.getType());
+        }
+    }
+
+    private static void validateDateRange(ExportJobRequest request) {
+        if (request.getStartDate() == null || request.getEndDate() == null) {
+            throw new ApiException("開始日期和結束日期不能為空");
+        }
+        if (request.getStartDate().isAfter(request.getEndDate())) {
+            throw new ApiException("開始日期不能晚於結束日期");
+        }
+    }
+
+    /**
+     * 生成導出參數的規範化表示
+     */
+    private static String parameterKey(ExportJobRequest request) {
+        return String.join("|",
+                String.valueOf(request.getType()),
+                String.valueOf(request.getFormat()),
+                String.valueOf(request.getStartDate()),
+                String.valueOf(request.getEndDate()),
+                String.valueOf(request.getUserId()),
+                String.valueOf(request.getDepartmentId()),
+                String.valueOf(request.getYear()),
+                String.valueOf(request.getMonth()));
+    }
+
+    private static String fileName(ExportJobRequest request) {
+        StringBuilder name = new StringBuilder(request.getType().getDesc());
+        if (request.getDepartmentId() != null) {
+            name.append('_').append(request.getDepartmentId());
+        }
+        if (request.getUserId() != null) {
+            name.append('_').append(request.getUserId());
+        }
+        if (request.getYear() != null && request.getMonth() != null) {
+            name.append('_').append(request.getYear()).append('年').append(request.getMonth()).append('月');
+        }
+        if (request.getStartDate() != null && request.getEndDate() != null) {
+            name.append('_').append(request.getStartDate().format(FILE_DATE_FORMATTER))
+                    .append('_').append(request.getEndDate().format(FILE_DATE_FORMATTER));
+        }
+        return name.append('.').append(request.getFormat().getExtension()).toString();
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("刪除導出文件 {} 失敗: {}", path, e.getMessage());
+        }
+    }
+
+    /**
+     * 導出任務，狀態由執行線程更新，查詢線程讀取
+     */
+    private final class ExportJob {
+
+        private final String id;
+        private final ExportType type;
+        private final ExportFormat format;
+        private final String fileName;
+        private final ExportJobRequest request;
+        private final String parameters;
+        private final Path file;
+        private final LocalDateTime submittedTime = LocalDateTime.now();
+        private final AtomicLong rowsWritten = new AtomicLong();
+
+        private volatile ExportJobStatus status = ExportJobStatus.QUEUED;
+        private volatile long fileSize;
+        private volatile String errorMessage;
+        private volatile LocalDateTime completedTime;
+        private volatile long expireAt;
+
+        private ExportJob(String id, ExportType type, ExportFormat format, String fileName, ExportJobRequest request,
+                          String parameters) {
+            this.id = id;
+            this.type = type;
+            this.format = format;
+            this.fileName = fileName;
+            this.request = request;
+            this.parameters = parameters;
+            this.file = baseDirectory.resolve(id + "." + format.getExtension());
+        }
+
+        private boolean isReusable() {
+            return status != ExportJobStatus.FAILED && (expireAt == 0 || expireAt > System.currentTimeMillis());
+        }
+
+        private void complete(ExportJobStatus finalStatus, String message) {
+            errorMessage = message;
+            completedTime = LocalDateTime.now();
+            expireAt = System.currentTimeMillis() + ttl;
+            status = finalStatus;
+        }
+
+        private ExportJobDTO toDTO(boolean reused) {
+            return ExportJobDTO.builder()
+                    .jobId(id)
+                    .type(type)
+                    .format(format)
+                    .status(status)
+                    .rowsWritten(rowsWritten.get())
+                    .fileSize(status == ExportJobStatus.COMPLETED ? fileSize : null)
+                    .fileName(fileName)
+                    .errorMessage(errorMessage)
+                    .submittedTime(submittedTime)
+                    .completedTime(completedTime)
+                    .expireTime(completedTime != null ? completedTime.plus(Duration.ofMillis(ttl)) : null)
+                    .reused(reused)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.clockin.record.service.impl;
+
+import com.clockin.record.enums.ExportFormat;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.function.LongConsumer;
+
+/**
+ * 導出行寫入器
+ * <p>
+ * 各導出格式共用同一個查詢回調，按行寫入，記憶體佔用與行數無關
+ */
+interface ExportRowWriter extends Closeable {
+
+    /**
+     * 創建指定格式的寫入器
+     *
+     * @param format           導出格式
+     * @param out              輸出流，寫入器關閉時不關閉
+     * @param rowWindow        Excel 在記憶體中保留的行數
+     * @param progressListener 已寫入行數的通知，可為 null
+     * @param sheetName        Excel 工作表名稱
+     * @param headers          表頭
+     * @return 寫入器
+     */
+    static ExportRowWriter open(ExportFormat format, OutputStream out, int rowWindow, LongConsumer progressListener,
+                                String sheetName, String... headers) throws IOException {
+        switch (format) {
+            case CSV:
+                return new StreamingCsvWriter(out, false, progressListener, headers);
+            case CSV_GZIP:
+                return new StreamingCsvWriter(out, true, progressListener, headers);
+            case XLSX:
+            default:
+                return new ExcelRowWriter(new StreamingExcelWriter(rowWindow, progressListener, sheetName, headers),
+                        out);
+        }
+    }
+
+    /**
+     * 寫入一行數據，null 寫為空值
+     *
+     * @param values 各列的值
+     */
+    void writeRow(Object... values);
+
+    /**
+     * 已寫入的數據行數
+     */
+    long getRowCount();
+
+    /**
+     * 寫出剩餘內容並刷新輸出流
+     */
+    void finish() throws IOException;
+
+    /**
+     * Excel 寫入器的適配，工作簿在 finish 時一次寫出
+     */
+    final class ExcelRowWriter implements ExportRowWriter {
+
+        private final StreamingExcelWriter writer;
+        private final OutputStream out;
+
+        private ExcelRowWriter(StreamingExcelWriter writer, OutputStream out) {
+            this.writer = writer;
+            this.out = out;
+        }
+
+        @Override
+        public void writeRow(Object... values) {
+            writer.writeRow(values);
+        }
+
+        @Override
+        public long getRowCount() {
+            return writer.getRowCount();
+        }
+
+        @Override
+        public void finish() throws IOException {
+            writer.finish(out);
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.close();
+        }
+    }
+}
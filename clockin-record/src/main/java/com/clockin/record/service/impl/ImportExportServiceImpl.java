@@ -0,0 +1,408 @@
+package com.clockin.record.service.impl;
+
+import com.clockin.record.dto.AttendanceStatisticsDTO;
+import com.clockin.record.dto.ClockRecordDTO;
+import com.clockin.record.dto.DepartmentDTO;
+import com.clockin.record.dto.ExportJobRequest;
+import com.clockin.record.dto.ImportResultDTO;
+import com.clockin.record.dto.SysUserDTO;
+import com.clockin.record.enums.ExportFormat;
+import com.clockin.record.exception.ApiException;
+import com.clockin.record.repository.ExportJdbcRepository;
+import com.clockin.record.service.AttendanceStatisticsService;
+import com.clockin.record.service.ImportExportService;
+import com.clockin.record.service.UserDirectoryService;
+import com.clockin.record.service.UserService;
+import com.clockin.record.util.ClockRecordConverter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.LongConsumer;
+import java.util.stream.Collectors;
+
+/**
+ * 數據導入導出服務實現類
+ * <p>
+ * 導出以串流結果集逐行讀取，按格式經 SXSSF 或 CSV 寫入輸出流，記憶體中只保留固定行數；
+ * 導入以 SAX 逐行解析，分塊校驗後批量寫入
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ImportExportServiceImpl implements ImportExportService {
+
+    /**
+     * 導入模板的表頭，導入時按相同順序讀取
+     */
+    static final String[] IMPORT_HEADERS = {"用戶ID", "打卡日期", "上班時間", "下班時間", "工作地點", "備註"};
+
+    private static final String[] CLOCK_RECORD_HEADERS = {"用戶ID", "用戶名", "部門", "打卡日期", "上班時間", "下班時間",
+            "工作時長(分鐘)", "是否異常", "異常原因", "工作地點", "備註"};
+
+    private static final String[] STATISTICS_HEADERS = {"用戶ID", "用戶名", "部門", "工作日", "正常天數", "異常天數",
+            "缺勤天數", "遲到天數", "早退天數", "總工作時長", "平均工作時長", "加班天數", "加班時長"};
+
+    private static final String[] CLOCK_IN_SUMMARY_HEADERS = {"用戶ID", "用戶名", "部門", "日期", "上班時間",
+            "上班狀態", "下班時間", "下班狀態", "工作時長(分鐘)", "缺勤類型", "備註"};
+
+    private static final String[] LEAVE_HEADERS = {"用戶ID", "用戶名", "請假類型", "開始時間", "結束時間", "天數",
+            "事由", "狀態", "審批人", "審批時間"};
+
+    private final ExportJdbcRepository exportRepository;
+    private final UserService userService;
+    private final UserDirectoryService userDirectoryService;
+    private final AttendanceStatisticsService attendanceStatisticsService;
+    private final ClockRecordImporter clockRecordImporter;
+    private final ClockRecordConverter clockRecordConverter;
+
+    /**
+     * SXSSF 在記憶體中保留的行數
+     */
+    @Value("${clock-in.export.row-window:100}")
+    private int rowWindow;
+
+    @Override
+    public ImportResultDTO importClockRecordsFromExcel(MultipartFile file) {
+        File temp = toTempFile(file);
+        try {
+            return clockRecordImporter.importFile(temp);
+        } catch (IOException e) {
+            throw new UncheckedIOException("讀取導入文件失敗", e);
+        } finally {
+            deleteQuietly(temp);
+        }
+    }
+
+    @Override
+    public long exportClockRecordsToExcel(LocalDate startDate, LocalDate endDate, Long userId, Long departmentId,
+                                          OutputStream out) {
+        return exportClockRecords(startDate, endDate, userId, departmentId, ExportFormat.XLSX, out, null);
+    }
+
+    @Override
+    public long export(ExportJobRequest request, OutputStream out, LongConsumer progress) {
+        ExportFormat format = request.getFormat() != null ? request.getFormat() : ExportFormat.XLSX;
+        switch (request.getType()) {
+            case CLOCK_RECORDS:
+                return exportClockRecords(request.getStartDate(), request.getEndDate(), request.getUserId(),
+                        request.getDepartmentId(), format, out, progress);
+            case ATTENDANCE_STATISTICS:
+                if (request.getYear() == null || request.getMonth() == null) {
+                    throw new ApiException("年份和月份不能為空");
+                }
+                return exportStatistics(request.getYear(), request.getMonth(), request.getDepartmentId(), format,
+                        out, progress);
+            case DEPARTMENT_LEAVE:
+                if (request.getDepartmentId() == null) {
+                    throw new ApiException("部門ID不能為空");
+                }
+                return exportLeaveRecords(request.getDepartmentId(), request.getStartDate(), request.getEndDate(),
+                        format, out, progress);
+            case CLOCK_IN_SUMMARIES:
+                return exportClockInSummaries(request.getStartDate(), request.getEndDate(), request.getUserId(),
+                        request.getDepartmentId(), format, out, progress);
+            default:
+                throw new ApiException("不支持的導出類型: " + request.getType());
+        }
+    }
+
+    private long exportClockRecords(LocalDate startDate, LocalDate endDate, Long userId, Long departmentId,
+                                    ExportFormat format, OutputStream out, LongConsumer progress) {
+        validateDateRange(startDate, endDate);
+
+        // 串流讀取期間連接被佔用，用戶信息需在查詢前準備好
+        Map<Long, SysUserDTO> users = resolveUsers(userId, departmentId);
+        Collection<Long> userIds = filterUserIds(users, userId, departmentId);
+
+        try (ExportRowWriter writer = ExportRowWriter.open(format, out, rowWindow, progress, "打卡記錄",
+                CLOCK_RECORD_HEADERS)) {
+            exportRepository.streamClockRecords(startDate, endDate, userIds, rs -> {
+                long recordUserId = rs.getLong("user_id");
+                SysUserDTO user = users.get(recordUserId);
+                Object abnormal = rs.getObject("is_abnormal");
+                writer.writeRow(
+                        recordUserId,
+                        user != null ? user.getUsername() : null,
+                        user != null ? user.getDepartmentName() : null,
+                        rs.getObject("clock_date", LocalDate.class),
+                        toLocalDateTime(rs.getTimestamp("clock_in_time")),
+                        toLocalDateTime(rs.getTimestamp("clock_out_time")),
+                        rs.getObject("work_duration"),
+                        abnormal != null ? rs.getBoolean("is_abnormal") : null,
+                        rs.getString("abnormal_reason"),
+                        rs.getString("work_location"),
+                        rs.getString("remark"));
+            });
+            writer.finish();
+            log.info("導出打卡記錄 {} 條，格式: {}，日期: {} ~ {}", writer.getRowCount(), format, startDate, endDate);
+            return writer.getRowCount();
+        } catch (IOException e) {
+            throw new UncheckedIOException("寫出打卡記錄失敗", e);
+        }
+    }
+
+    private long exportClockInSummaries(LocalDate startDate, LocalDate endDate, Long userId, Long departmentId,
+                                        ExportFormat format, OutputStream out, LongConsumer progress) {
+        validateDateRange(startDate, endDate);
+        Map<Long, SysUserDTO> users = resolveUsers(userId, departmentId);
+        Collection<Long> userIds = filterUserIds(users, userId, departmentId);
+
+        try (ExportRowWriter writer = ExportRowWriter.open(format, out, rowWindow, progress, "每日考勤匯總",
+                CLOCK_IN_SUMMARY_HEADERS)) {
+            exportRepository.streamClockInSummaries(startDate, endDate, userIds, rs -> {
+                long summaryUserId = rs.getLong("user_id");
+                SysUserDTO user = users.get(summaryUserId);
+                writer.writeRow(
+                        summaryUserId,
+                        user != null ? user.getUsername() : null,
+                        user != null ? user.getDepartmentName() : null,
+                        rs.getObject("clock_date", LocalDate.class),
+                        rs.getObject("clock_in_time", LocalTime.class),
+                        rs.getObject("clock_in_status"),
+                        rs.getObject("clock_out_time", LocalTime.class),
+                        rs.getObject("clock_out_status"),
+                        rs.getObject("work_duration"),
+                        rs.getObject("absence_type"),
+                        rs.getString("remark"));
+            });
+            writer.finish();
+            log.info("導出每日考勤匯總 {} 條，格式: {}，日期: {} ~ {}", writer.getRowCount(), format, startDate, endDate);
+            return writer.getRowCount();
+        } catch (IOException e) {
+            throw new UncheckedIOException("寫出每日考勤匯總失敗", e);
+        }
+    }
+
+    @Override
+    public String validateExcelTemplate(MultipartFile file) {
+        File temp = toTempFile(file);
+        try {
+            return clockRecordImporter.validateHeader(temp);
+        } catch (IOException e) {
+            return "無法讀取 Excel 文件: " + e.getMessage();
+        } finally {
+            deleteQuietly(temp);
+        }
+    }
+
+    /**
+     * 上傳文件轉存為臨時文件，SAX 解析需要可隨機讀取的文件
+     */
+    private File toTempFile(MultipartFile file) {
+        try {
+            File temp = Files.createTempFile("clockin-import-", ".xlsx").toFile();
+            file.transferTo(temp);
+            return temp;
+        } catch (IOException e) {
+            throw new UncheckedIOException("保存導入文件失敗", e);
+        }
+    }
+
+    private static void deleteQuietly(File file) {
+        if (!file.delete() && file.exists()) {
+            log.warn("刪除臨時文件失敗: {}", file);
+        }
+    }
+
+    @Override
+    public InputStream downloadImportTemplate() {
+        // 模板只有表頭，直接在記憶體中生成
+        try (Workbook workbook = new XSSFWorkbook(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            Sheet sheet = workbook.createSheet("打卡記錄");
+            Row header = sheet.createRow(0);
+            for (int i = 0; i < IMPORT_HEADERS.length; i++) {
+                header.createCell(i).setCellValue(IMPORT_HEADERS[i]);
+                sheet.setColumnWidth(i, 18 * 256);
+            }
+            Row example = sheet.createRow(1);
+            example.createCell(0).setCellValue(1);
+            example.createCell(1).setCellValue("2024-01-02");
+            example.createCell(2).setCellValue("09:00");
+            example.createCell(3).setCellValue("18:00");
+            example.createCell(4).setCellValue("總部");
+            workbook.write(out);
+            return new ByteArrayInputStream(out.toByteArray());
+        } catch (IOException e) {
+            throw new UncheckedIOException("生成導入模板失敗", e);
+        }
+    }
+
+    @Override
+    public long exportAttendanceStatistics(int year, int month, Long departmentId, OutputStream out) {
+        return exportStatistics(year, month, departmentId, ExportFormat.XLSX, out, null);
+    }
+
+    private long exportStatistics(int year, int month, Long departmentId, ExportFormat format, OutputStream out,
+                                  LongConsumer progress) {
+        // 月報表按用戶一行，行數不超過用戶數
+        List<AttendanceStatisticsDTO> report = attendanceStatisticsService.generateMonthlyReport(year, month);
+        if (departmentId != null) {
+            report = report.stream()
+                    .filter(statistics -> departmentId.equals(statistics.getDepartmentId()))
+                    .collect(Collectors.toList());
+        }
+
+        String sheetName = YearMonth.of(year, month) + " 考勤統計";
+        try (ExportRowWriter writer = ExportRowWriter.open(format, out, rowWindow, progress, sheetName,
+                STATISTICS_HEADERS)) {
+            for (AttendanceStatisticsDTO statistics : report) {
+                writer.writeRow(
+                        statistics.getUserId(),
+                        statistics.getUserName(),
+                        statistics.getDepartmentName(),
+                        statistics.getWorkingDays(),
+                        statistics.getNormalDays(),
+                        statistics.getAbnormalDays(),
+                        statistics.getMissingDays(),
+                        statistics.getLateDays(),
+                        statistics.getEarlyLeaveDays(),
+                        statistics.getTotalWorkDurationFormatted(),
+                        statistics.getAverageWorkDurationFormatted(),
+                        statistics.getOvertimeDays(),
+                        statistics.getOvertimeDurationFormatted());
+            }
+            writer.finish();
+            return writer.getRowCount();
+        } catch (IOException e) {
+            throw new UncheckedIOException("寫出考勤統計失敗", e);
+        }
+    }
+
+    @Override
+    public Map<String, Object> processBatchImport(List<ClockRecordDTO> records) {
+        ImportResultDTO result = clockRecordImporter.importRecords(records.stream()
+                .filter(Objects::nonNull)
+                .map(clockRecordConverter::toEntity)
+                .collect(Collectors.toList()));
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("total", result.getTotalRows());
+        response.put("success", result.getSuccessRows());
+        response.put("failed", result.getFailedRows());
+        response.put("errors", result.getErrors());
+        return response;
+    }
+
+    @Override
+    public long exportUserClockRecords(Long userId, LocalDate startDate, LocalDate endDate, OutputStream out) {
+        return exportClockRecordsToExcel(startDate, endDate, userId, null, out);
+    }
+
+    @Override
+    public long exportDepartmentLeaveRecords(Long departmentId, LocalDate startDate, LocalDate endDate,
+                                             OutputStream out) {
+        return exportLeaveRecords(departmentId, startDate, endDate, ExportFormat.XLSX, out, null);
+    }
+
+    private long exportLeaveRecords(Long departmentId, LocalDate startDate, LocalDate endDate, ExportFormat format,
+                                    OutputStream out, LongConsumer progress) {
+        validateDateRange(startDate, endDate);
+        Map<Long, SysUserDTO> users = resolveUsers(null, departmentId);
+
+        try (ExportRowWriter writer = ExportRowWriter.open(format, out, rowWindow, progress, "請假記錄",
+                LEAVE_HEADERS)) {
+            exportRepository.streamLeaveRequests(startDate, endDate, users.keySet(), rs -> writer.writeRow(
+                    rs.getLong("user_id"),
+                    rs.getString("user_name"),
+                    rs.getString("leave_type"),
+                    toLocalDateTime(rs.getTimestamp("start_time")),
+                    toLocalDateTime(rs.getTimestamp("end_time")),
+                    rs.getBigDecimal("total_days"),
+                    rs.getString("reason"),
+                    rs.getString("status"),
+                    rs.getString("approver_name"),
+                    toLocalDateTime(rs.getTimestamp("approval_time"))));
+            writer.finish();
+            return writer.getRowCount();
+        } catch (IOException e) {
+            throw new UncheckedIOException("寫出請假記錄失敗", e);
+        }
+    }
+
+    /**
+     * 準備導出範圍內的用戶信息
+     *
+     * @param userId       用戶ID
+     * @param departmentId 部門ID
+     * @return 用戶ID與用戶信息的映射；兩者都為空時為所有用戶
+     */
+    private Map<Long, SysUserDTO> resolveUsers(Long userId, Long departmentId) {
+        Map<Long, SysUserDTO> users = new HashMap<>();
+        if (userId != null) {
+            SysUserDTO user = userService.getUserById(userId);
+            if (user != null && departmentId != null && !departmentId.equals(user.getDepartmentId())) {
+                throw new ApiException("用戶不屬於該部門");
+            }
+            if (user != null) {
+                users.put(userId, user);
+            }
+            return users;
+        }
+
+        if (departmentId != null) {
+            if (userDirectoryService.getDepartment(departmentId) == null
+                    && userService.getDepartmentById(departmentId) == null) {
+                throw new ApiException("部門不存在");
+            }
+            userDirectoryService.getUsersByDepartment(departmentId).stream()
+                    .filter(Objects::nonNull)
+                    .forEach(user -> users.put(user.getId(), user));
+            return users;
+        }
+
+        for (DepartmentDTO department : userDirectoryService.getDepartments()) {
+            userDirectoryService.getUsersByDepartment(department.getId())
+                    .forEach(user -> users.put(user.getId(), user));
+        }
+        return users;
+    }
+
+    /**
+     * 查詢使用的用戶ID過濾條件
+     *
+     * @return 未指定用戶和部門時為 null，表示不過濾
+     */
+    private static Collection<Long> filterUserIds(Map<Long, SysUserDTO> users, Long userId, Long departmentId) {
+        if (userId != null && users.isEmpty()) {
+            // 認證服務中已不存在的用戶仍可導出其歷史記錄
+            return List.of(userId);
+        }
+        return userId != null || departmentId != null ? users.keySet() : null;
+    }
+
+    private static void validateDateRange(LocalDate startDate, LocalDate endDate) {
+        if (startDate == null || endDate == null || startDate.isAfter(endDate)) {
+            throw new ApiException("日期範圍不正確");
+        }
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
@@ -1,10 +1,17 @@
 package com.clockin.record.service.impl;
 
+import com.clockin.record.dto.CursorPage;
 import com.clockin.record.dto.LeaveRequestDTO;
 import com.clockin.record.entity.LeaveRequest;
+import com.clockin.record.entity.UserDepartment;
 import com.clockin.record.exception.BusinessException;
 import com.clockin.record.repository.LeaveRequestRepository;
+import com.clockin.record.repository.PageCountJdbcRepository;
 import com.clockin.record.service.LeaveRequestService;
+import com.clockin.record.util.PageCursor;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.CacheConfig;
@@ -12,10 +19,14 @@ import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -29,6 +40,9 @@ public class LeaveRequestServiceImpl implements LeaveRequestService {
     @Autowired
     private LeaveRequestRepository leaveRequestRepository;
 
+    @Autowired
+    private PageCountJdbcRepository pageCountJdbcRepository;
+
     @Override
     @Transactional
     public LeaveRequestDTO createRequest(LeaveRequestDTO requestDTO) {
@@ -246,4 +260,76 @@ public class LeaveRequestServiceImpl implements LeaveRequestService {
             return requestDTO;
         }).collect(Collectors.toList());
     }
+
+    @Override
+    public CursorPage<LeaveRequestDTO> scrollUserRequests(Long userId, String cursor, int size, boolean withTotal) {
+        return scroll("user:" + userId, userId, null, null, cursor, size, withTotal);
+    }
+
+    @Override
+    public CursorPage<LeaveRequestDTO> scrollRequestsByStatus(LeaveRequest.RequestStatus status, String cursor, int size,
+            boolean withTotal) {
+        return scroll("status:" + status, null, null, status, cursor, size, withTotal);
+    }
+
+    @Override
+    public CursorPage<LeaveRequestDTO> scrollDepartmentRequests(Long departmentId, LeaveRequest.RequestStatus status,
+            String cursor, int size, boolean withTotal) {
+        return scroll("department:" + departmentId + ":" + status, null, departmentId, status, cursor, size, withTotal);
+    }
+
+    /**
+     * 按開始時間及ID降序做 keyset 分頁
+     *
+     * @param scope 查詢範圍，與游標綁定
+     * @param userId 申請人ID，為 null 時不過濾
+     * @param departmentId 申請人所屬部門ID，按本庫的用戶部門投影過濾，為 null 時不過濾
+     * @param status 狀態，為 null 時不過濾
+     * @param cursor 游標
+     * @param size 每頁行數
+     * @param withTotal 是否統計總數
+     * @return 分頁結果
+     */
+    private CursorPage<LeaveRequestDTO> scroll(String scope, Long userId, Long departmentId,
+            LeaveRequest.RequestStatus status, String cursor, int size, boolean withTotal) {
+        ScrollPosition position = PageCursor.decode(cursor, scope, "startTime", LocalDateTime::parse);
+
+        Specification<LeaveRequest> spec = (root, query, criteriaBuilder) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (userId != null) {
+                predicates.add(criteriaBuilder.equal(root.get("userId"), userId));
+            }
+            if (departmentId != null) {
+                // 部門成員取自本庫的用戶部門投影，不關聯認證庫的用戶表
+                Subquery<Long> members = query.subquery(Long.class);
+                Root<UserDepartment> member = members.from(UserDepartment.class);
+                members.select(member.get("userId"))
+                        .where(criteriaBuilder.equal(member.get("departmentId"), departmentId));
+                predicates.add(root.get("userId").in(members));
+            }
+            if (status != null) {
+                predicates.add(criteriaBuilder.equal(root.get("status"), status));
+            }
+            return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
+        };
+        Window<LeaveRequest> window = leaveRequestRepository.findBy(spec, query -> query
+                .sortBy(PageCursor.sort("startTime"))
+                .limit(PageCursor.limit(size))
+                .scroll(position));
+        CursorPage<LeaveRequest> page = PageCursor.toPage(window, scope, "startTime");
+
+        if (withTotal) {
+            PageCountJdbcRepository.Count count = pageCountJdbcRepository.countRequests("leave_request", userId, departmentId,
+                    status != null ? status.name() : null);
+            page.setTotal(count.getValue());
+            page.setTotalExact(count.isExact());
+        }
+
+        // 轉換並返回DTO分頁
+        return page.map(request -> {
+            LeaveRequestDTO requestDTO = new LeaveRequestDTO();
+            BeanUtils.copyProperties(request, requestDTO);
+            return requestDTO;
+        });
+    }
 }
@@ -0,0 +1,46 @@
+package com.clockin.record.service.impl;
+
+import com.clockin.common.exception.BusinessException;
+import com.clockin.record.service.UserLockService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * 單實例用戶鎖服務實現
+ * <p>
+ * 使用進程內的分段鎖，適用於只部署一個 record 實例的情況
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "clock-in.user-lock.type", havingValue = "local", matchIfMissing = true)
+public class LocalUserLockService implements UserLockService {
+
+    private final UserLockStripes stripes;
+
+    private final long waitTimeout;
+
+    public LocalUserLockService(@Value("${clock-in.user-lock.stripes:1024}") int stripes,
+                                @Value("${clock-in.user-lock.wait-timeout:5000}") long waitTimeout) {
+        this.stripes = new UserLockStripes(stripes);
+        this.waitTimeout = waitTimeout;
+    }
+
+    @Override
+    public <T> T executeWithLock(Long userId, Supplier<T> action) {
+        ReentrantLock lock = stripes.tryLock(userId, waitTimeout);
+        if (lock == null) {
+            log.warn("用戶 {} 等待打卡鎖超時", userId);
+            throw new BusinessException("操作過於頻繁，請稍後重試");
+        }
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
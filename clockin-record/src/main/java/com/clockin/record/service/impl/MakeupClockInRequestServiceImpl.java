@@ -1,10 +1,17 @@
 package com.clockin.record.service.impl;
 
+import com.clockin.record.dto.CursorPage;
 import com.clockin.record.dto.MakeupClockInRequestDTO;
 import com.clockin.record.entity.MakeupClockInRequest;
+import com.clockin.record.entity.UserDepartment;
 import com.clockin.record.exception.BusinessException;
 import com.clockin.record.repository.MakeupClockInRequestRepository;
+import com.clockin.record.repository.PageCountJdbcRepository;
 import com.clockin.record.service.MakeupClockInRequestService;
+import com.clockin.record.util.PageCursor;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.CacheConfig;
@@ -12,11 +19,15 @@ import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -30,6 +41,9 @@ public class MakeupClockInRequestServiceImpl implements MakeupClockInRequestServ
     @Autowired
     private MakeupClockInRequestRepository makeupClockInRequestRepository;
 
+    @Autowired
+    private PageCountJdbcRepository pageCountJdbcRepository;
+
     @Override
     @Transactional
     public MakeupClockInRequestDTO createRequest(MakeupClockInRequestDTO requestDTO) {
@@ -208,4 +222,76 @@ public class MakeupClockInRequestServiceImpl implements MakeupClockInRequestServ
         // 查詢待審批的補卡申請數量
         return makeupClockInRequestRepository.countByStatus(MakeupClockInRequest.RequestStatus.PENDING);
     }
+
+    @Override
+    public CursorPage<MakeupClockInRequestDTO> scrollUserRequests(Long userId, String cursor, int size, boolean withTotal) {
+        return scroll("user:" + userId, userId, null, null, cursor, size, withTotal);
+    }
+
+    @Override
+    public CursorPage<MakeupClockInRequestDTO> scrollRequestsByStatus(MakeupClockInRequest.RequestStatus status, String cursor, int size,
+            boolean withTotal) {
+        return scroll("status:" + status, null, null, status, cursor, size, withTotal);
+    }
+
+    @Override
+    public CursorPage<MakeupClockInRequestDTO> scrollDepartmentRequests(Long departmentId, MakeupClockInRequest.RequestStatus status,
+            String cursor, int size, boolean withTotal) {
+        return scroll("department:" + departmentId + ":" + status, null, departmentId, status, cursor, size, withTotal);
+    }
+
+    /**
+     * 按補卡日期及ID降序做 keyset 分頁
+     *
+     * @param scope 查詢範圍，與游標綁定
+     * @param userId 申請人ID，為 null 時不過濾
+     * @param departmentId 申請人所屬部門ID，按本庫的用戶部門投影過濾，為 null 時不過濾
+     * @param status 狀態，為 null 時不過濾
+     * @param cursor 游標
+     * @param size 每頁行數
+     * @param withTotal 是否統計總數
+     * @return 分頁結果
+     */
+    private CursorPage<MakeupClockInRequestDTO> scroll(String scope, Long userId, Long departmentId,
+            MakeupClockInRequest.RequestStatus status, String cursor, int size, boolean withTotal) {
+        ScrollPosition position = PageCursor.decode(cursor, scope, "requestDate", LocalDate::parse);
+
+        Specification<MakeupClockInRequest> spec = (root, query, criteriaBuilder) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (userId != null) {
+                predicates.add(criteriaBuilder.equal(root.get("userId"), userId));
+            }
+            if (departmentId != null) {
+                // 部門成員取自本庫的用戶部門投影，不關聯認證庫的用戶表
+                Subquery<Long> members = query.subquery(Long.class);
+                Root<UserDepartment> member = members.from(UserDepartment.class);
+                members.select(member.get("userId"))
+                        .where(criteriaBuilder.equal(member.get("departmentId"), departmentId));
+                predicates.add(root.get("userId").in(members));
+            }
+            if (status != null) {
+                predicates.add(criteriaBuilder.equal(root.get("status"), status));
+            }
+            return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
+        };
+        Window<MakeupClockInRequest> window = makeupClockInRequestRepository.findBy(spec, query -> query
+                .sortBy(PageCursor.sort("requestDate"))
+                .limit(PageCursor.limit(size))
+                .scroll(position));
+        CursorPage<MakeupClockInRequest> page = PageCursor.toPage(window, scope, "requestDate");
+
+        if (withTotal) {
+            PageCountJdbcRepository.Count count = pageCountJdbcRepository.countRequests("makeup_clock_in_request", userId, departmentId,
+                    status != null ? status.name() : null);
+            page.setTotal(count.getValue());
+            page.setTotalExact(count.isExact());
+        }
+
+        // 轉換並返回DTO分頁
+        return page.map(request -> {
+            MakeupClockInRequestDTO requestDTO = new MakeupClockInRequestDTO();
+            BeanUtils.copyProperties(request, requestDTO);
+            return requestDTO;
+        });
+    }
 }
@@ -0,0 +1,124 @@
+package com.clockin.record.service.impl;
+
+import com.clockin.record.repository.ClockMonthlySummaryJdbcRepository;
+import com.clockin.record.repository.ClockMonthlySummaryJdbcRepository.MonthlySummary;
+import com.clockin.record.service.MonthlySummaryRollupService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 打卡月報表彙總服務實現
+ * <p>
+ * 標記保存在記憶體中，同一用戶月份在兩次刷新之間的多次變更只重算一次；
+ * 實例重啟時丟失的標記由月結重建補回
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MonthlySummaryRollupServiceImpl implements MonthlySummaryRollupService {
+
+    private final ClockMonthlySummaryJdbcRepository monthlySummaryRepository;
+
+    private final Map<YearMonth, Set<Long>> changed = new ConcurrentHashMap<>();
+
+    /**
+     * 每條語句重算的用戶數
+     */
+    @Value("${clock-in.monthly-rollup.chunk-size:500}")
+    private int chunkSize;
+
+    @Override
+    public void markChanged(Long userId, LocalDate date) {
+        markChanged(Collections.singletonList(userId), date);
+    }
+
+    @Override
+    public void markChanged(Collection<Long> userIds, LocalDate date) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        YearMonth month = YearMonth.from(date);
+        // 提交前刷新會讀到舊的日匯總，因此提交後才標記
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            List<Long> ids = new ArrayList<>(userIds);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    addChanged(month, ids);
+                }
+            });
+        } else {
+            addChanged(month, userIds);
+        }
+    }
+
+    @Override
+    public int flush() {
+        int refreshed = 0;
+        for (YearMonth month : new ArrayList<>(changed.keySet())) {
+            Set<Long> users = changed.remove(month);
+            if (users == null || users.isEmpty()) {
+                continue;
+            }
+            List<Long> userIds = new ArrayList<>(users);
+            for (int from = 0; from < userIds.size(); from += chunkSize) {
+                List<Long> chunk = userIds.subList(from, Math.min(from + chunkSize, userIds.size()));
+                try {
+                    monthlySummaryRepository.refreshUsers(month, chunk);
+                    refreshed += chunk.size();
+                } catch (Exception e) {
+                    // 放回標記，下次刷新重試
+                    addChanged(month, chunk);
+                    log.error("更新 {} 的月報表失敗，用戶數: {}", month, chunk.size(), e);
+                }
+            }
+        }
+        return refreshed;
+    }
+
+    @Override
+    public int closeMonth(YearMonth month) {
+        // 重建已包含所有標記的變更
+        changed.remove(month);
+        int count = monthlySummaryRepository.rebuildMonth(month, ClockMonthlySummaryJdbcRepository.STATUS_CLOSED);
+        log.info("完成 {} 的月報表重建，影響 {} 行", month, count);
+        return count;
+    }
+
+    @Override
+    public List<MonthlySummary> getMonth(YearMonth month) {
+        List<MonthlySummary> summaries = monthlySummaryRepository.findByMonth(month);
+        if (summaries.isEmpty()) {
+            // 上線前的月份尚未彙總過，先按日匯總重建一次
+            monthlySummaryRepository.rebuildMonth(month, month.isBefore(YearMonth.now())
+                    ? ClockMonthlySummaryJdbcRepository.STATUS_CLOSED : ClockMonthlySummaryJdbcRepository.STATUS_OPEN);
+            summaries = monthlySummaryRepository.findByMonth(month);
+        }
+        return summaries;
+    }
+
+    /**
+     * 在 compute 中加入標記，與 flush 取走整個集合互斥，避免標記加入已被取走的集合而丟失
+     */
+    private void addChanged(YearMonth month, Collection<Long> userIds) {
+        changed.compute(month, (key, users) -> {
+            Set<Long> target = users != null ? users : ConcurrentHashMap.newKeySet();
+            target.addAll(userIds);
+            return target;
+        });
+    }
+}
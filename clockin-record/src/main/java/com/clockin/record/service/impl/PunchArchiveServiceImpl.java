@@ -0,0 +1,180 @@
+package com.clockin.record.service.impl;
+
+import com.clockin.record.repository.PartitionJdbcRepository;
+import com.clockin.record.repository.PartitionJdbcRepository.Partition;
+import com.clockin.record.service.PunchArchiveService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 打卡記錄分區及歸檔服務實現
+ * <p>
+ * 分區名為 pYYYYMM，上界為次月一日。範圍分區只有上界，第一個分區同時容納更早的數據，
+ * 因此刪除最舊的分區後遲到的舊日期記錄仍有分區可寫入，並在下次歸檔時一併搬走。
+ * 過期分區以 EXCHANGE PARTITION 整體移到暫存表後再寫入歸檔表
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PunchArchiveServiceImpl implements PunchArchiveService {
+
+    /**
+     * 分區表與歸檔表
+     */
+    private static final Map<String, String> ARCHIVE_TABLES = new LinkedHashMap<>();
+
+    static {
+        ARCHIVE_TABLES.put("clock_in_record", "clock_in_record_archive");
+        ARCHIVE_TABLES.put("clock_record", "clock_record_archive");
+    }
+
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'p'yyyyMM");
+
+    private final PartitionJdbcRepository partitionJdbcRepository;
+
+    /**
+     * 熱表保留的月數（不含當月）
+     */
+    @Value("${clock-in.archive.retention-months:6}")
+    private int retentionMonths;
+
+    /**
+     * 提前建立分區的月數
+     */
+    @Value("${clock-in.archive.ahead-months:3}")
+    private int aheadMonths;
+
+    @Value("${clock-in.archive.batch-size:5000}")
+    private int batchSize;
+
+    @Override
+    public int createPartitions() {
+        YearMonth current = YearMonth.now();
+        LocalDate lastBound = current.plusMonths(aheadMonths + 1L).atDay(1);
+        int created = 0;
+        for (String table : ARCHIVE_TABLES.keySet()) {
+            List<Partition> partitions = findPartitions(table);
+            if (partitions == null) {
+                continue;
+            }
+
+            // 首次拆分時從保留期起點開始，之前的數據落在第一個分區
+            LocalDate existingBound = partitions.stream()
+                    .map(Partition::getUpperBound)
+                    .filter(Objects::nonNull)
+                    .max(LocalDate::compareTo)
+                    .orElse(null);
+            YearMonth month = existingBound != null ? YearMonth.from(existingBound) : current.minusMonths(retentionMonths);
+
+            List<Partition> additions = new ArrayList<>();
+            for (; !month.plusMonths(1).atDay(1).isAfter(lastBound); month = month.plusMonths(1)) {
+                additions.add(new Partition(month.format(PARTITION_NAME), month.plusMonths(1).atDay(1)));
+            }
+            if (additions.isEmpty()) {
+                continue;
+            }
+
+            partitionJdbcRepository.splitMaxPartition(table, additions);
+            created += additions.size();
+            log.info("表 {} 已新建分區 {} 至 {}", table, additions.get(0).getName(),
+                    additions.get(additions.size() - 1).getName());
+        }
+        return created;
+    }
+
+    @Override
+    public int archiveExpiredPartitions() {
+        LocalDate cutoff = YearMonth.now().minusMonths(retentionMonths).atDay(1);
+        int archived = 0;
+        for (Map.Entry<String, String> entry : ARCHIVE_TABLES.entrySet()) {
+            List<Partition> partitions = findPartitions(entry.getKey());
+            if (partitions == null) {
+                continue;
+            }
+
+            List<String> columns = partitionJdbcRepository.findColumns(entry.getValue());
+            if (columns.isEmpty()) {
+                log.warn("歸檔表 {} 不存在，跳過歸檔", entry.getValue());
+                continue;
+            }
+
+            for (Partition partition : partitions) {
+                if (partition.getUpperBound() == null || partition.getUpperBound().isAfter(cutoff)
+                        || !archive(entry.getKey(), entry.getValue(), partition, columns)) {
+                    break;
+                }
+                archived++;
+            }
+        }
+        return archived;
+    }
+
+    /**
+     * 把分區交換到暫存表並刪除分區，再把暫存表寫入歸檔表
+     * <p>
+     * 分區在寫鎖內整體移出，之後的遲到寫入落在下一個分區，不會在未歸檔的情況下被刪除；
+     * 歸檔以暫存表為準，移出後不會再有更新，歸檔表中不會留下舊版本
+     *
+     * @return 是否已刪除分區
+     */
+    private boolean archive(String table, String archiveTable, Partition partition, List<String> columns) {
+        String stagingTable = stagingTable(table);
+        // 上次中斷留下的暫存數據先完成歸檔
+        if (partitionJdbcRepository.tableExists(stagingTable) && !flushStaging(table, archiveTable, columns)) {
+            return false;
+        }
+
+        partitionJdbcRepository.createStagingTable(table, stagingTable);
+        partitionJdbcRepository.detachPartition(table, partition.getName(), stagingTable);
+        log.info("表 {} 分區 {} 已移出到暫存表 {}", table, partition.getName(), stagingTable);
+        return flushStaging(table, archiveTable, columns);
+    }
+
+    /**
+     * 把暫存表寫入歸檔表，確認所有行都已歸檔後刪除暫存表
+     *
+     * @return 是否已完成歸檔
+     */
+    private boolean flushStaging(String table, String archiveTable, List<String> columns) {
+        String stagingTable = stagingTable(table);
+        long copied = partitionJdbcRepository.copyToArchive(stagingTable, archiveTable, columns, batchSize);
+        long missing = partitionJdbcRepository.countMissingInArchive(stagingTable, archiveTable);
+        if (missing > 0) {
+            log.error("暫存表 {} 有 {} 行未寫入歸檔表 {}，保留暫存表待下次重試", stagingTable, missing, archiveTable);
+            return false;
+        }
+
+        partitionJdbcRepository.dropTable(stagingTable);
+        log.info("暫存表 {} 已歸檔到 {}，寫入 {} 行", stagingTable, archiveTable, copied);
+        return true;
+    }
+
+    private static String stagingTable(String table) {
+        return table + "_archive_staging";
+    }
+
+    /**
+     * 查詢表的分區，未按遷移腳本分區時返回 null
+     */
+    private List<Partition> findPartitions(String table) {
+        List<Partition> partitions = partitionJdbcRepository.findPartitions(table);
+        boolean hasMax = partitions.stream()
+                .anyMatch(partition -> PartitionJdbcRepository.MAX_PARTITION.equals(partition.getName()));
+        if (!hasMax) {
+            log.warn("表 {} 未分區，跳過分區維護", table);
+            return null;
+        }
+        return partitions;
+    }
+}
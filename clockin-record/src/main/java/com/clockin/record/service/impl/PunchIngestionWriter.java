@@ -0,0 +1,330 @@
+package com.clockin.record.service.impl;
+
+import com.clockin.record.entity.ClockInRecord;
+import com.clockin.record.repository.ClockInRecordJdbcRepository;
+import com.clockin.record.repository.ClockInRecordRepository;
+import com.clockin.record.repository.ClockInSummaryJdbcRepository;
+import com.clockin.record.service.MonthlySummaryRollupService;
+import com.clockin.record.service.PunchIngestionService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.PendingMessage;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.core.StreamOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 打卡隊列後台寫入
+ * <p>
+ * 每個實例一個寫入線程，以消費者組讀取 Redis Stream，每批記錄在一個事務內批量插入並增量更新匯總，
+ * 提交後才確認並刪除；負載高時每次讀到的記錄多，自然合併為大批次提交。
+ * 未確認的記錄在重啟後重新處理，其他實例崩潰遺留的記錄在空閒超時後被接管。
+ * 重新處理時逐條檢查相同時間的打卡是否已寫入，避免提交成功但確認前崩潰導致重複；
+ * 同一批內的重複打卡先行合併，整批因數據錯誤失敗時改為逐條寫入，無法寫入的記錄丟棄，不阻塞後續記錄
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "clock-in.ingestion.mode", havingValue = "queued")
+public class PunchIngestionWriter {
+
+    private static final int NOT_DELETED = 0;
+
+    private static final String METRIC_PREFIX = "clockin.ingestion";
+
+    private static final String CONSUMER_GROUP = "clockin-record-writer";
+
+    private static final long ERROR_BACKOFF_MILLIS = 1000;
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final PunchIngestionService punchIngestionService;
+    private final ClockInRecordRepository recordRepository;
+    private final ClockInRecordJdbcRepository recordJdbcRepository;
+    private final ClockInSummaryJdbcRepository summaryJdbcRepository;
+    private final MonthlySummaryRollupService monthlySummaryRollupService;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${clock-in.ingestion.stream-key:clockin:punch-stream}")
+    private String streamKey;
+
+    /**
+     * 每批最多寫入的記錄數
+     */
+    @Value("${clock-in.ingestion.batch-size:500}")
+    private int batchSize;
+
+    /**
+     * 隊列為空時每次等待新記錄的時間（毫秒）
+     */
+    @Value("${clock-in.ingestion.poll-timeout:1000}")
+    private long pollTimeout;
+
+    /**
+     * 其他消費者的記錄超過該時間未確認即被接管（毫秒）
+     */
+    @Value("${clock-in.ingestion.claim-idle:60000}")
+    private long claimIdle;
+
+    private final Consumer consumer = Consumer.from(CONSUMER_GROUP, ManagementFactory.getRuntimeMXBean().getName());
+
+    private volatile boolean running;
+    private Thread worker;
+
+    private Timer lagTimer;
+    private Timer batchTimer;
+    private Counter persistedCounter;
+    private Counter discardedCounter;
+
+    @PostConstruct
+    public void init() {
+        lagTimer = Timer.builder(METRIC_PREFIX + ".lag")
+                .description("打卡從受理到寫入數據庫的延遲")
+                .register(meterRegistry);
+        batchTimer = Timer.builder(METRIC_PREFIX + ".batch")
+                .description("每批打卡寫入數據庫的耗時")
+                .register(meterRegistry);
+        persistedCounter = Counter.builder(METRIC_PREFIX + ".persisted")
+                .description("寫入數據庫的打卡數")
+                .register(meterRegistry);
+        discardedCounter = Counter.builder(METRIC_PREFIX + ".discarded")
+                .description("無法解析而丟棄的隊列記錄數")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        try {
+            stringRedisTemplate.opsForStream().createGroup(streamKey, ReadOffset.from("0"), CONSUMER_GROUP);
+        } catch (Exception e) {
+            // 消費者組已存在
+            log.debug("打卡隊列消費者組已存在: {}", e.getMessage());
+        }
+
+        running = true;
+        worker = new CustomizableThreadFactory("punch-writer-").newThread(this::run);
+        worker.setDaemon(true);
+        worker.start();
+        log.info("打卡隊列寫入線程已啟動，消費者: {}", consumer.getName());
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (worker != null) {
+            worker.join(pollTimeout * 2);
+        }
+    }
+
+    private void run() {
+        // 啟動時先處理本消費者上次未確認的記錄
+        boolean replayOwn = true;
+        long nextClaimAt = 0;
+        while (running) {
+            try {
+                if (System.currentTimeMillis() >= nextClaimAt) {
+                    claimAbandoned();
+                    nextClaimAt = System.currentTimeMillis() + claimIdle / 2;
+                }
+
+                if (replayOwn) {
+                    List<MapRecord<String, Object, Object>> pending = read(ReadOffset.from("0"), null);
+                    replayOwn = !pending.isEmpty();
+                    if (replayOwn) {
+                        persist(pending, true);
+                        continue;
+                    }
+                }
+
+                List<MapRecord<String, Object, Object>> records = read(ReadOffset.lastConsumed(),
+                        Duration.ofMillis(pollTimeout));
+                if (!records.isEmpty()) {
+                    persist(records, false);
+                }
+            } catch (Exception e) {
+                // 寫入失敗的記錄仍在本消費者的待確認列表中，稍後重新處理
+                log.error("打卡隊列寫入失敗，{} 毫秒後重試", ERROR_BACKOFF_MILLIS, e);
+                replayOwn = true;
+                sleepQuietly();
+            }
+        }
+        log.info("打卡隊列寫入線程已停止");
+    }
+
+    private List<MapRecord<String, Object, Object>> read(ReadOffset offset, Duration block) {
+        StreamReadOptions options = StreamReadOptions.empty().count(batchSize);
+        if (block != null) {
+            options = options.block(block);
+        }
+        List<MapRecord<String, Object, Object>> records = stringRedisTemplate.opsForStream()
+                .read(consumer, options, StreamOffset.create(streamKey, offset));
+        return records == null ? List.of() : records;
+    }
+
+    /**
+     * 接管其他消費者超時未確認的記錄
+     */
+    private void claimAbandoned() {
+        StreamOperations<String, Object, Object> streamOps = stringRedisTemplate.opsForStream();
+        Duration minIdle = Duration.ofMillis(claimIdle);
+        RecordId[] ids = streamOps.pending(streamKey, CONSUMER_GROUP, Range.unbounded(), batchSize).stream()
+                .filter(message -> !consumer.getName().equals(message.getConsumerName()))
+                .filter(message -> message.getElapsedTimeSinceLastDelivery().compareTo(minIdle) >= 0)
+                .map(PendingMessage::getId)
+                .toArray(RecordId[]::new);
+        if (ids.length == 0) {
+            return;
+        }
+
+        List<MapRecord<String, Object, Object>> claimed = streamOps.claim(streamKey, CONSUMER_GROUP,
+                consumer.getName(), minIdle, ids);
+        log.info("接管其他實例未確認的打卡記錄 {} 條", claimed.size());
+        persist(claimed, true);
+    }
+
+    /**
+     * 在一個事務內寫入一批記錄並更新匯總，提交後確認並從隊列刪除
+     *
+     * @param records 隊列記錄
+     * @param replay  是否為重新處理，重新處理時跳過已寫入的打卡
+     */
+    private void persist(List<MapRecord<String, Object, Object>> records, boolean replay) {
+        if (records.isEmpty()) {
+            return;
+        }
+
+        List<PunchStreamEntry> entries = new ArrayList<>(records.size());
+        for (MapRecord<String, Object, Object> record : records) {
+            try {
+                entries.add(PunchStreamEntry.fromFields(toStringMap(record.getValue())));
+            } catch (RuntimeException e) {
+                discardedCounter.increment();
+                log.error("無法解析打卡隊列記錄 {}，已丟棄: {}", record.getId(), record.getValue(), e);
+            }
+        }
+
+        List<PunchStreamEntry> unique = deduplicate(entries);
+        List<PunchStreamEntry> toWrite = replay
+                ? unique.stream().filter(entry -> !isPersisted(entry.record)).collect(Collectors.toList())
+                : unique;
+        int written = toWrite.size();
+        try {
+            batchTimer.record(() -> write(toWrite));
+        } catch (DataIntegrityViolationException e) {
+            // 個別記錄的數據錯誤不應使整批一直重試，逐條寫入以隔離出錯的記錄
+            log.warn("打卡批量寫入失敗，改為逐條寫入 {} 條記錄: {}", toWrite.size(), e.getMessage());
+            written = writeEach(toWrite);
+        }
+
+        RecordId[] ids = records.stream().map(MapRecord::getId).toArray(RecordId[]::new);
+        StreamOperations<String, Object, Object> streamOps = stringRedisTemplate.opsForStream();
+        streamOps.acknowledge(streamKey, CONSUMER_GROUP, ids);
+        streamOps.delete(streamKey, ids);
+
+        long now = System.currentTimeMillis();
+        for (PunchStreamEntry entry : entries) {
+            lagTimer.record(Math.max(0, now - entry.acceptedAt), TimeUnit.MILLISECONDS);
+        }
+        persistedCounter.increment(written);
+        punchIngestionService.getBacklog();
+        log.debug("打卡隊列寫入 {} 條記錄", written);
+    }
+
+    /**
+     * 在一個事務內寫入記錄並增量更新匯總
+     */
+    private void write(List<PunchStreamEntry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            recordJdbcRepository.batchInsert(entries.stream().map(entry -> entry.record).collect(Collectors.toList()));
+            for (PunchStreamEntry entry : entries) {
+                summaryJdbcRepository.mergeRecord(ClockInSummaryCalculator.initial(entry.record, entry.workDay),
+                        entry.record.getClockType(), entry.workDay);
+                monthlySummaryRollupService.markChanged(entry.record.getUserId(), entry.record.getClockDate());
+            }
+        });
+    }
+
+    /**
+     * 逐條寫入，數據錯誤的記錄丟棄；其他異常（如數據庫不可用）繼續拋出，整批留待重試
+     *
+     * @return 寫入的記錄數
+     */
+    private int writeEach(List<PunchStreamEntry> entries) {
+        int written = 0;
+        for (PunchStreamEntry entry : entries) {
+            try {
+                write(List.of(entry));
+                written++;
+            } catch (DataIntegrityViolationException e) {
+                discardedCounter.increment();
+                log.error("打卡記錄無法寫入，已丟棄: {}", entry.toFields(), e);
+            }
+        }
+        return written;
+    }
+
+    /**
+     * 合併同一批內用戶、日期、類型及時間相同的打卡（如寫入冪等記錄前的客戶端重試），保留第一條
+     */
+    private static List<PunchStreamEntry> deduplicate(List<PunchStreamEntry> entries) {
+        Map<List<Object>, PunchStreamEntry> unique = new LinkedHashMap<>();
+        for (PunchStreamEntry entry : entries) {
+            ClockInRecord record = entry.record;
+            unique.putIfAbsent(Arrays.asList(record.getUserId(), record.getClockDate(), record.getClockType(),
+                    record.getClockTime()), entry);
+        }
+        return unique.size() == entries.size() ? entries : new ArrayList<>(unique.values());
+    }
+
+    private boolean isPersisted(ClockInRecord record) {
+        return recordRepository.existsByUserIdAndClockDateAndClockTypeAndClockTimeAndIsDeleted(
+                record.getUserId(), record.getClockDate(), record.getClockType(), record.getClockTime(), NOT_DELETED);
+    }
+
+    private static Map<String, String> toStringMap(Map<Object, Object> value) {
+        Map<String, String> fields = new HashMap<>(value.size());
+        value.forEach((k, v) -> fields.put(String.valueOf(k), String.valueOf(v)));
+        return fields;
+    }
+
+    private static void sleepQuietly() {
+        try {
+            Thread.sleep(ERROR_BACKOFF_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
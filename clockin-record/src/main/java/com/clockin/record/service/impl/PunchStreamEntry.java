@@ -0,0 +1,81 @@
+package com.clockin.record.service.impl;
+
+import com.clockin.record.entity.ClockInRecord;
+import com.clockin.record.enums.ClockInStatus;
+import com.clockin.record.enums.ClockInType;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 打卡隊列中的一條記錄
+ * <p>
+ * 以 Redis Stream 欄位保存，空值欄位不寫入
+ */
+final class PunchStreamEntry {
+
+    private static final String USER_ID = "userId";
+    private static final String CLOCK_DATE = "clockDate";
+    private static final String CLOCK_TIME = "clockTime";
+    private static final String CLOCK_TYPE = "clockType";
+    private static final String STATUS = "status";
+    private static final String LOCATION = "location";
+    private static final String DEVICE = "device";
+    private static final String REMARK = "remark";
+    private static final String WORK_DAY = "workDay";
+    private static final String ACCEPTED_AT = "acceptedAt";
+
+    final ClockInRecord record;
+
+    final boolean workDay;
+
+    /**
+     * 受理時間（毫秒時間戳），用於計算寫入延遲
+     */
+    final long acceptedAt;
+
+    PunchStreamEntry(ClockInRecord record, boolean workDay, long acceptedAt) {
+        this.record = record;
+        this.workDay = workDay;
+        this.acceptedAt = acceptedAt;
+    }
+
+    Map<String, String> toFields() {
+        Map<String, String> fields = new HashMap<>();
+        fields.put(USER_ID, record.getUserId().toString());
+        fields.put(CLOCK_DATE, record.getClockDate().toString());
+        fields.put(CLOCK_TIME, record.getClockTime().toString());
+        fields.put(CLOCK_TYPE, record.getClockType().name());
+        fields.put(STATUS, record.getStatus().name());
+        putIfNotNull(fields, LOCATION, record.getLocation());
+        putIfNotNull(fields, DEVICE, record.getDevice());
+        putIfNotNull(fields, REMARK, record.getRemark());
+        fields.put(WORK_DAY, Boolean.toString(workDay));
+        fields.put(ACCEPTED_AT, Long.toString(acceptedAt));
+        return fields;
+    }
+
+    static PunchStreamEntry fromFields(Map<String, String> fields) {
+        ClockInRecord record = ClockInRecord.builder()
+                .userId(Long.valueOf(fields.get(USER_ID)))
+                .clockDate(LocalDate.parse(fields.get(CLOCK_DATE)))
+                .clockTime(LocalTime.parse(fields.get(CLOCK_TIME)))
+                .clockType(ClockInType.valueOf(fields.get(CLOCK_TYPE)))
+                .status(ClockInStatus.valueOf(fields.get(STATUS)))
+                .location(fields.get(LOCATION))
+                .device(fields.get(DEVICE))
+                .remark(fields.get(REMARK))
+                .isDeleted(0)
+                .build();
+        return new PunchStreamEntry(record, Boolean.parseBoolean(fields.get(WORK_DAY)),
+                Long.parseLong(fields.get(ACCEPTED_AT)));
+    }
+
+    private static void putIfNotNull(Map<String, String> fields, String name, String value) {
+        if (value != null) {
+            fields.put(name, value);
+        }
+    }
+}
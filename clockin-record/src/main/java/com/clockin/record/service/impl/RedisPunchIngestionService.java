@@ -0,0 +1,90 @@
+package com.clockin.record.service.impl;
+
+import com.clockin.common.exception.BusinessException;
+import com.clockin.record.entity.ClockInRecord;
+import com.clockin.record.service.PunchIngestionService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 基於 Redis Stream 的打卡寫入隊列
+ * <p>
+ * 打卡記錄追加到 Stream 後即視為受理，由 {@link PunchIngestionWriter} 批量寫入數據庫；
+ * 寫入成功的記錄會從 Stream 中刪除，因此 Stream 長度即為積壓數量
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "clock-in.ingestion.mode", havingValue = "queued")
+public class RedisPunchIngestionService implements PunchIngestionService {
+
+    private static final String METRIC_PREFIX = "clockin.ingestion";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${clock-in.ingestion.stream-key:clockin:punch-stream}")
+    private String streamKey;
+
+    /**
+     * 積壓上限，超過時拒絕新的打卡
+     */
+    @Value("${clock-in.ingestion.max-backlog:100000}")
+    private long maxBacklog;
+
+    /**
+     * 最近一次查詢到的積壓數量
+     */
+    private final AtomicLong backlog = new AtomicLong();
+
+    private Counter acceptedCounter;
+    private Counter rejectedCounter;
+
+    @PostConstruct
+    public void init() {
+        acceptedCounter = Counter.builder(METRIC_PREFIX + ".submitted")
+                .tag("outcome", "accepted")
+                .description("寫入隊列的打卡數")
+                .register(meterRegistry);
+        rejectedCounter = Counter.builder(METRIC_PREFIX + ".submitted")
+                .tag("outcome", "rejected")
+                .description("因隊列積壓被拒絕的打卡數")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".backlog", backlog, AtomicLong::get)
+                .description("尚未寫入數據庫的打卡數")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void submit(ClockInRecord record, boolean workDay) {
+        if (getBacklog() >= maxBacklog) {
+            rejectedCounter.increment();
+            log.warn("打卡隊列積壓已達上限 {}，拒絕用戶 {} 的打卡", maxBacklog, record.getUserId());
+            throw new BusinessException("打卡人數過多，請稍後重試");
+        }
+
+        PunchStreamEntry entry = new PunchStreamEntry(record, workDay, System.currentTimeMillis());
+        stringRedisTemplate.opsForStream().add(StreamRecords.string(entry.toFields()).withStreamKey(streamKey));
+        backlog.incrementAndGet();
+        acceptedCounter.increment();
+    }
+
+    @Override
+    public long getBacklog() {
+        Long size = stringRedisTemplate.opsForStream().size(streamKey);
+        long value = size == null ? 0 : size;
+        backlog.set(value);
+        return value;
+    }
+}
@@ -0,0 +1,122 @@
+package com.clockin.record.service.impl;
+
+import com.clockin.common.exception.BusinessException;
+import com.clockin.record.service.UserLockService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * 多實例用戶鎖服務實現
+ * <p>
+ * 以 Redis 鍵作為跨實例的用戶鎖，持有者令牌防止誤刪他人的鎖；
+ * 同一實例內的請求先經過本地分段鎖排隊，只有隊首請求才會輪詢 Redis
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "clock-in.user-lock.type", havingValue = "redis")
+public class RedisUserLockService implements UserLockService {
+
+    private static final String REDIS_KEY_PREFIX = "clockin:user-lock:";
+
+    private static final long MIN_BACKOFF_MILLIS = 10;
+
+    private static final long MAX_BACKOFF_MILLIS = 200;
+
+    /**
+     * 僅在值仍為自身令牌時刪除鍵
+     */
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    private final UserLockStripes stripes;
+
+    private final long waitTimeout;
+
+    private final Duration leaseTime;
+
+    public RedisUserLockService(StringRedisTemplate stringRedisTemplate,
+                                @Value("${clock-in.user-lock.stripes:1024}") int stripes,
+                                @Value("${clock-in.user-lock.wait-timeout:5000}") long waitTimeout,
+                                @Value("${clock-in.user-lock.lease-time:30000}") long leaseTime) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.stripes = new UserLockStripes(stripes);
+        this.waitTimeout = waitTimeout;
+        this.leaseTime = Duration.ofMillis(leaseTime);
+    }
+
+    @Override
+    public <T> T executeWithLock(Long userId, Supplier<T> action) {
+        long deadline = System.currentTimeMillis() + waitTimeout;
+        ReentrantLock localLock = stripes.tryLock(userId, waitTimeout);
+        if (localLock == null) {
+            throw lockTimeout(userId);
+        }
+        try {
+            String key = REDIS_KEY_PREFIX + userId;
+            String token = UUID.randomUUID().toString();
+            if (!acquire(key, token, deadline)) {
+                throw lockTimeout(userId);
+            }
+            try {
+                return action.get();
+            } finally {
+                release(key, token);
+            }
+        } finally {
+            localLock.unlock();
+        }
+    }
+
+    /**
+     * 輪詢獲取 Redis 鎖，等待間隔指數增長
+     */
+    private boolean acquire(String key, String token, long deadline) {
+        long backoff = MIN_BACKOFF_MILLIS;
+        while (true) {
+            if (Boolean.TRUE.equals(stringRedisTemplate.opsForValue().setIfAbsent(key, token, leaseTime))) {
+                return true;
+            }
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                return false;
+            }
+            try {
+                Thread.sleep(Math.min(backoff, remaining));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+            backoff = Math.min(backoff * 2, MAX_BACKOFF_MILLIS);
+        }
+    }
+
+    private void release(String key, String token) {
+        try {
+            Long deleted = stringRedisTemplate.execute(RELEASE_SCRIPT, Collections.singletonList(key), token);
+            if (deleted == null || deleted == 0) {
+                log.warn("用戶鎖 {} 在釋放前已過期，操作耗時超過租約時間 {}", key, leaseTime);
+            }
+        } catch (Exception e) {
+            log.error("釋放用戶鎖 {} 失敗，將在租約到期後自動釋放", key, e);
+        }
+    }
+
+    private BusinessException lockTimeout(Long userId) {
+        log.warn("用戶 {} 等待打卡鎖超時", userId);
+        return new BusinessException("操作過於頻繁，請稍後重試");
+    }
+}
@@ -0,0 +1,56 @@
+package com.clockin.record.service.impl;
+
+import com.clockin.common.calendar.WorkdayBitset;
+import com.clockin.common.calendar.WorkdayCalendarSource;
+import com.clockin.common.response.Result;
+import com.clockin.record.dto.WorkdayCalendarDTO;
+import com.clockin.record.service.WorkConfigClient;
+import com.clockin.record.service.WorkConfigSnapshotService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * 基於工作配置本地快照的工作日曆數據來源
+ * <p>
+ * 假日配置以 admin 服務為準，版本即快照版本
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SnapshotWorkdayCalendarSource implements WorkdayCalendarSource {
+
+    private final WorkConfigSnapshotService workConfigSnapshotService;
+    private final WorkConfigClient workConfigClient;
+
+    @Override
+    public String getVersion() {
+        return workConfigSnapshotService.getVersion();
+    }
+
+    @Override
+    public WorkdayBitset loadYear(int year) {
+        Map<LocalDate, Boolean> overrides = workConfigSnapshotService.getWorkdayOverrides();
+        if (overrides != null) {
+            return WorkdayBitset.of(year, overrides);
+        }
+
+        // 快照尚未載入時，整年只發起一次遠程調用
+        try {
+            Result<WorkdayCalendarDTO> response = workConfigClient.getWorkdayCalendar(
+                    LocalDate.of(year, 1, 1), LocalDate.of(year, 12, 31));
+            if (response != null && response.isSuccess() && response.getData() != null) {
+                return WorkdayBitset.of(year, response.getData()::isWorkDay);
+            }
+            log.warn("獲取 {} 年工作日曆失敗，按週一至週五計算: {}", year,
+                    response != null ? response.getMessage() : "響應為空");
+        } catch (Exception e) {
+            log.warn("獲取 {} 年工作日曆異常，按週一至週五計算: {}", year, e.getMessage());
+        }
+        return WorkdayBitset.of(year, Collections.emptyMap());
+    }
+}
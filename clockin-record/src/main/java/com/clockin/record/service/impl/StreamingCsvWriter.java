@@ -0,0 +1,147 @@
+package com.clockin.record.service.impl;
+
+import java.io.BufferedWriter;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.function.LongConsumer;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 串流 CSV 寫入器
+ * <p>
+ * 按 RFC 4180 轉義，每行直接寫入緩衝後的輸出流，可選在寫入時 gzip 壓縮。
+ * 日期使用 ISO 格式，布爾值寫為 true / false，便於數據倉庫直接載入
+ */
+final class StreamingCsvWriter implements ExportRowWriter {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * 每寫入該行數通知一次進度
+     */
+    private static final int PROGRESS_INTERVAL = 1000;
+
+    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm:ss");
+
+    private final OutputStream target;
+    private final GZIPOutputStream gzip;
+    private final Writer writer;
+    private final LongConsumer progressListener;
+    private long rowCount;
+
+    /**
+     * @param out              輸出流，寫入器關閉時不關閉
+     * @param compress         是否 gzip 壓縮
+     * @param progressListener 已寫入行數的通知，可為 null
+     * @param headers          表頭
+     */
+    StreamingCsvWriter(OutputStream out, boolean compress, LongConsumer progressListener, String... headers)
+            throws IOException {
+        this.target = new FilterOutputStream(out) {
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                out.write(b, off, len);
+            }
+
+            @Override
+            public void close() throws IOException {
+                // 由調用方關閉底層輸出流
+                flush();
+            }
+        };
+        this.gzip = compress ? new GZIPOutputStream(target, BUFFER_SIZE) : null;
+        this.writer = new BufferedWriter(new OutputStreamWriter(compress ? gzip : target, StandardCharsets.UTF_8),
+                BUFFER_SIZE);
+        this.progressListener = progressListener;
+        writeLine(headers);
+    }
+
+    @Override
+    public void writeRow(Object... values) {
+        try {
+            writeLine(values);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        rowCount++;
+        if (progressListener != null && rowCount % PROGRESS_INTERVAL == 0) {
+            progressListener.accept(rowCount);
+        }
+    }
+
+    @Override
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public void finish() throws IOException {
+        writer.flush();
+        if (gzip != null) {
+            gzip.finish();
+        }
+        target.flush();
+        if (progressListener != null) {
+            progressListener.accept(rowCount);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+
+    private void writeLine(Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writeValue(values[i]);
+        }
+        writer.write("\r\n");
+    }
+
+    private void writeValue(Object value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        String text;
+        if (value instanceof BigDecimal) {
+            text = ((BigDecimal) value).toPlainString();
+        } else if (value instanceof LocalDateTime) {
+            text = ((LocalDateTime) value).format(DATE_TIME_FORMATTER);
+        } else if (value instanceof LocalTime) {
+            text = ((LocalTime) value).format(TIME_FORMATTER);
+        } else {
+            text = value.toString();
+        }
+
+        if (needsQuoting(text)) {
+            writer.write('"');
+            writer.write(text.replace("\"", "\"\""));
+            writer.write('"');
+        } else {
+            writer.write(text);
+        }
+    }
+
+    private static boolean needsQuoting(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,165 @@
+package com.clockin.record.service.impl;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.function.LongConsumer;
+
+/**
+ * 串流 Excel 寫入器
+ * <p>
+ * 基於 POI SXSSF，記憶體中只保留最近的若干行，其餘行寫入壓縮的臨時文件；
+ * 超過單個工作表的行數上限時自動換到新工作表。使用後必須關閉以刪除臨時文件
+ */
+final class StreamingExcelWriter implements Closeable {
+
+    /**
+     * 單個工作表的數據行上限，低於 Excel 的 1048576 行
+     */
+    private static final int MAX_ROWS_PER_SHEET = 1_000_000;
+
+    /**
+     * 每寫入該行數通知一次進度
+     */
+    private static final int PROGRESS_INTERVAL = 1000;
+
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm:ss");
+
+    private final SXSSFWorkbook workbook;
+    private final CellStyle headerStyle;
+    private final String sheetName;
+    private final String[] headers;
+    private final LongConsumer progressListener;
+
+    private SXSSFSheet sheet;
+    private int sheetCount;
+    private int rowIndex;
+    private long rowCount;
+
+    /**
+     * @param rowWindow 記憶體中保留的行數
+     * @param sheetName 工作表名稱，換頁後的工作表加上序號
+     * @param headers   表頭
+     */
+    StreamingExcelWriter(int rowWindow, String sheetName, String... headers) {
+        this(rowWindow, null, sheetName, headers);
+    }
+
+    /**
+     * @param rowWindow        記憶體中保留的行數
+     * @param progressListener 已寫入行數的通知，可為 null
+     * @param sheetName        工作表名稱，換頁後的工作表加上序號
+     * @param headers          表頭
+     */
+    StreamingExcelWriter(int rowWindow, LongConsumer progressListener, String sheetName, String... headers) {
+        this.progressListener = progressListener;
+        this.workbook = new SXSSFWorkbook(rowWindow);
+        this.workbook.setCompressTempFiles(true);
+        this.sheetName = sheetName;
+        this.headers = headers;
+
+        this.headerStyle = workbook.createCellStyle();
+        Font font = workbook.createFont();
+        font.setBold(true);
+        this.headerStyle.setFont(font);
+    }
+
+    /**
+     * 寫入一行數據，null 寫為空白單元格
+     *
+     * @param values 單元格值
+     */
+    void writeRow(Object... values) {
+        if (sheet == null || rowIndex > MAX_ROWS_PER_SHEET) {
+            newSheet();
+        }
+        Row row = sheet.createRow(rowIndex++);
+        for (int i = 0; i < values.length; i++) {
+            setValue(row.createCell(i), values[i]);
+        }
+        rowCount++;
+        if (progressListener != null && rowCount % PROGRESS_INTERVAL == 0) {
+            progressListener.accept(rowCount);
+        }
+    }
+
+    /**
+     * 已寫入的數據行數
+     */
+    long getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * 將工作簿寫入輸出流，不關閉輸出流
+     *
+     * @param out 輸出流
+     */
+    void finish(OutputStream out) throws IOException {
+        if (sheet == null) {
+            newSheet();
+        }
+        workbook.write(out);
+        out.flush();
+        if (progressListener != null) {
+            progressListener.accept(rowCount);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        workbook.dispose();
+        workbook.close();
+    }
+
+    private void newSheet() {
+        sheetCount++;
+        sheet = workbook.createSheet(sheetCount == 1 ? sheetName : sheetName + "_" + sheetCount);
+        // 串流模式下無法按內容自動計算列寬，使用固定列寬
+        for (int i = 0; i < headers.length; i++) {
+            sheet.setColumnWidth(i, 18 * 256);
+        }
+        Row row = sheet.createRow(0);
+        for (int i = 0; i < headers.length; i++) {
+            Cell cell = row.createCell(i);
+            cell.setCellValue(headers[i]);
+            cell.setCellStyle(headerStyle);
+        }
+        sheet.createFreezePane(0, 1);
+        rowIndex = 1;
+    }
+
+    private static void setValue(Cell cell, Object value) {
+        if (value == null) {
+            return;
+        }
+        if (value instanceof Number) {
+            cell.setCellValue(value instanceof BigDecimal
+                    ? ((BigDecimal) value).doubleValue() : ((Number) value).doubleValue());
+        } else if (value instanceof Boolean) {
+            cell.setCellValue((Boolean) value ? "是" : "否");
+        } else if (value instanceof LocalDateTime) {
+            cell.setCellValue(((LocalDateTime) value).format(DATE_TIME_FORMATTER));
+        } else if (value instanceof LocalTime) {
+            cell.setCellValue(((LocalTime) value).format(TIME_FORMATTER));
+        } else if (value instanceof LocalDate) {
+            cell.setCellValue(((LocalDate) value).format(DATE_FORMATTER));
+        } else {
+            cell.setCellValue(value.toString());
+        }
+    }
+}
@@ -0,0 +1,282 @@
+package com.clockin.record.service.impl;
+
+import com.clockin.record.entity.SummaryRecalculationCheckpoint;
+import com.clockin.record.repository.ClockInRecordRepository;
+import com.clockin.record.repository.SummaryRecalculationCheckpointRepository;
+import com.clockin.record.service.ClockInSummaryBatchService;
+import com.clockin.record.service.SummaryRecalculationService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * 打卡匯總分區重算服務實現
+ * <p>
+ * 任務在單線程的協調線程上排隊執行，不佔用排程線程；分區在有界線程池中執行，
+ * 並行度不超過連接池大小減去保留連接數，避免擠佔線上請求的數據庫連接
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SummaryRecalculationServiceImpl implements SummaryRecalculationService {
+
+    private static final int NOT_DELETED = 0;
+
+    private static final String MONTHLY_JOB_PREFIX = "monthly:";
+
+    private final ClockInRecordRepository recordRepository;
+    private final SummaryRecalculationCheckpointRepository checkpointRepository;
+    private final ClockInSummaryBatchService summaryBatchService;
+
+    /**
+     * 並行度，0 表示按 CPU 核數自動計算
+     */
+    @Value("${clock-in.summary.monthly.parallelism:0}")
+    private int configuredParallelism;
+
+    /**
+     * 每天劃分的用戶ID區間數
+     */
+    @Value("${clock-in.summary.monthly.user-partitions:4}")
+    private int userPartitions;
+
+    /**
+     * 為線上請求保留的數據庫連接數
+     */
+    @Value("${clock-in.summary.monthly.reserved-connections:5}")
+    private int reservedConnections;
+
+    @Value("${spring.datasource.hikari.maximum-pool-size:10}")
+    private int maximumPoolSize;
+
+    /**
+     * 已完成任務檢查點的保留天數
+     */
+    @Value("${clock-in.summary.monthly.checkpoint-retention-days:30}")
+    private int checkpointRetentionDays;
+
+    /**
+     * 正在執行的任務，避免排程與啟動恢復同時執行同一任務
+     */
+    private final Set<String> runningJobs = ConcurrentHashMap.newKeySet();
+
+    private ExecutorService coordinator;
+    private ThreadPoolExecutor executor;
+    private Semaphore submitPermits;
+    private int parallelism;
+
+    @PostConstruct
+    public void init() {
+        int limit = Math.max(1, maximumPoolSize - reservedConnections);
+        parallelism = configuredParallelism > 0 ? configuredParallelism : Runtime.getRuntime().availableProcessors();
+        if (parallelism > limit) {
+            log.warn("打卡匯總重算並行度 {} 超過可用連接數 {}，已調整為 {}", parallelism, limit, limit);
+            parallelism = limit;
+        }
+
+        coordinator = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("summary-recalc-coordinator-"));
+        executor = new ThreadPoolExecutor(parallelism, parallelism, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(parallelism), new CustomizableThreadFactory("summary-recalc-"));
+        // 提交端限流，線程與隊列都滿時阻塞等待而不是拒絕
+        submitPermits = new Semaphore(parallelism * 2);
+        log.info("打卡匯總重算線程池已初始化，並行度: {}", parallelism);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        // 未完成的分區保持未完成狀態，下次啟動時恢復
+        coordinator.shutdown();
+        executor.shutdown();
+        if (!executor.awaitTermination(60, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+        if (!coordinator.awaitTermination(10, TimeUnit.SECONDS)) {
+            coordinator.shutdownNow();
+        }
+    }
+
+    @Override
+    public CompletableFuture<Integer> recalculateMonth(YearMonth month) {
+        return CompletableFuture.supplyAsync(() -> runMonth(month), coordinator);
+    }
+
+    @Override
+    public CompletableFuture<Integer> resumeUnfinished() {
+        return CompletableFuture.supplyAsync(this::runUnfinished, coordinator);
+    }
+
+    @Override
+    @Transactional
+    public int purgeCompletedCheckpoints() {
+        List<String> jobKeys = checkpointRepository.findCompletedJobKeysBefore(
+                LocalDateTime.now().minusDays(checkpointRetentionDays));
+        if (jobKeys.isEmpty()) {
+            return 0;
+        }
+        // 正在執行的任務不刪除，下次再清理
+        jobKeys = jobKeys.stream().filter(jobKey -> !runningJobs.contains(jobKey)).collect(Collectors.toList());
+        return jobKeys.isEmpty() ? 0 : checkpointRepository.deleteByJobKeys(jobKeys);
+    }
+
+    private int runMonth(YearMonth month) {
+        String jobKey = MONTHLY_JOB_PREFIX + month;
+        if (!runningJobs.add(jobKey)) {
+            log.warn("任務 {} 正在執行，忽略本次請求", jobKey);
+            return 0;
+        }
+
+        try {
+            List<SummaryRecalculationCheckpoint> partitions = checkpointRepository.findByJobKeyOrderByClockDateAscFromUserIdAsc(jobKey);
+            boolean unfinished = partitions.stream()
+                    .anyMatch(partition -> partition.getStatus() != SummaryRecalculationCheckpoint.Status.COMPLETED);
+            if (unfinished) {
+                log.info("任務 {} 有未完成的分區，從檢查點繼續執行", jobKey);
+            } else {
+                checkpointRepository.deleteAll(partitions);
+                partitions = createPartitions(jobKey, month);
+            }
+            return runPartitions(jobKey, partitions);
+        } finally {
+            runningJobs.remove(jobKey);
+        }
+    }
+
+    private int runUnfinished() {
+        int total = 0;
+        for (String jobKey : checkpointRepository.findUnfinishedJobKeys()) {
+            if (!runningJobs.add(jobKey)) {
+                continue;
+            }
+            try {
+                log.info("恢復中斷的打卡匯總重算任務: {}", jobKey);
+                total += runPartitions(jobKey, checkpointRepository.findByJobKeyOrderByClockDateAscFromUserIdAsc(jobKey));
+            } finally {
+                runningJobs.remove(jobKey);
+            }
+        }
+        return total;
+    }
+
+    /**
+     * 按（日期 × 用戶ID區間）劃分分區並保存檢查點
+     */
+    private List<SummaryRecalculationCheckpoint> createPartitions(String jobKey, YearMonth month) {
+        LocalDate startDate = month.atDay(1);
+        LocalDate endDate = month.atEndOfMonth();
+        List<Object[]> range = recordRepository.findUserIdRangeByClockDateBetween(startDate, endDate, NOT_DELETED);
+        if (range.isEmpty() || range.get(0)[0] == null) {
+            log.info("{} 沒有打卡記錄，無需重算", month);
+            return List.of();
+        }
+
+        long minUserId = ((Number) range.get(0)[0]).longValue();
+        long maxUserId = ((Number) range.get(0)[1]).longValue();
+        long width = Math.max(1, (maxUserId - minUserId + userPartitions) / userPartitions);
+
+        List<SummaryRecalculationCheckpoint> partitions = new ArrayList<>();
+        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
+            for (long from = minUserId; from <= maxUserId; from += width) {
+                // 首尾區間向外延伸，涵蓋劃分後才出現的用戶
+                long to = from + width > maxUserId ? Long.MAX_VALUE : from + width - 1;
+                partitions.add(SummaryRecalculationCheckpoint.builder()
+                        .jobKey(jobKey)
+                        .clockDate(date)
+                        .fromUserId(from == minUserId ? 0L : from)
+                        .toUserId(to)
+                        .status(SummaryRecalculationCheckpoint.Status.PENDING)
+                        .build());
+            }
+        }
+        log.info("任務 {} 劃分為 {} 個分區，用戶ID範圍 {} 至 {}", jobKey, partitions.size(), minUserId, maxUserId);
+        return checkpointRepository.saveAll(partitions);
+    }
+
+    /**
+     * 並行執行所有未完成的分區，在協調線程上等待全部結束後返回
+     */
+    private int runPartitions(String jobKey, List<SummaryRecalculationCheckpoint> partitions) {
+        List<SummaryRecalculationCheckpoint> pending = partitions.stream()
+                .filter(partition -> partition.getStatus() != SummaryRecalculationCheckpoint.Status.COMPLETED)
+                .collect(Collectors.toList());
+        log.info("任務 {} 開始執行 {} 個分區（共 {} 個），並行度: {}", jobKey, pending.size(), partitions.size(), parallelism);
+
+        AtomicInteger processed = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        List<CompletableFuture<Void>> futures = new ArrayList<>(pending.size());
+        for (SummaryRecalculationCheckpoint partition : pending) {
+            try {
+                submitPermits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.warn("任務 {} 提交分區時被中斷，未提交的分區將在下次恢復時執行", jobKey);
+                break;
+            }
+            try {
+                futures.add(CompletableFuture.runAsync(() -> {
+                    try {
+                        if (!runPartition(partition, processed)) {
+                            failed.incrementAndGet();
+                        }
+                    } finally {
+                        submitPermits.release();
+                    }
+                }, executor));
+            } catch (RejectedExecutionException e) {
+                submitPermits.release();
+                log.warn("任務 {} 提交分區時線程池已關閉，未提交的分區將在下次恢復時執行", jobKey);
+                break;
+            }
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+
+        log.info("任務 {} 執行結束，成功處理 {} 位用戶日，失敗分區 {} 個", jobKey, processed.get(), failed.get());
+        return processed.get();
+    }
+
+    /**
+     * 執行單個分區並更新檢查點
+     *
+     * @return 是否成功
+     */
+    private boolean runPartition(SummaryRecalculationCheckpoint partition, AtomicInteger processed) {
+        boolean success;
+        try {
+            int count = summaryBatchService.recalculate(
+                    partition.getClockDate(), partition.getFromUserId(), partition.getToUserId());
+            processed.addAndGet(count);
+            partition.setProcessedCount(count);
+            partition.setStatus(SummaryRecalculationCheckpoint.Status.COMPLETED);
+            success = true;
+        } catch (Exception e) {
+            log.error("分區 {} 用戶 {} 至 {} 重算失敗: {}", partition.getClockDate(),
+                    partition.getFromUserId(), partition.getToUserId(), e.getMessage(), e);
+            partition.setStatus(SummaryRecalculationCheckpoint.Status.FAILED);
+            success = false;
+        }
+        checkpointRepository.save(partition);
+        return success;
+    }
+}
@@ -0,0 +1,66 @@
+package com.clockin.record.service.impl;
+
+import com.clockin.common.event.UserDepartmentChange;
+import com.clockin.record.repository.UserDepartmentJdbcRepository;
+import com.clockin.record.service.UserDepartmentService;
+import com.clockin.record.service.UserDirectoryService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+
+/**
+ * 用戶部門投影服務實現
+ * <p>
+ * 變更消息經 Redis 發布訂閱傳遞，訂閱斷開期間的消息會丟失，因此定期以用戶目錄全量對賬
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserDepartmentServiceImpl implements UserDepartmentService {
+
+    private final UserDepartmentJdbcRepository userDepartmentJdbcRepository;
+
+    private final UserDirectoryService userDirectoryService;
+
+    /**
+     * 已刪除用戶的空部門行保留時間（毫秒），超過後延遲到達的舊消息不再需要攔截
+     */
+    @Value("${clock-in.user-department.tombstone-retention:604800000}")
+    private long tombstoneRetention;
+
+    @Override
+    public void apply(UserDepartmentChange change) {
+        if (change == null || change.getUserId() == null) {
+            return;
+        }
+        userDepartmentJdbcRepository.apply(change.getUserId(), change.getDepartmentId(), change.getChangedAt());
+    }
+
+    @Override
+    public int reconcile() {
+        // 快照時間取在載入快照之前，載入期間到達的消息時間更新，不會被快照覆蓋
+        long snapshotAt = System.currentTimeMillis();
+
+        // 直接讀取完整快照，不經過本地目錄；讀取失敗時不能以空快照對賬，否則會清空所有用戶的部門
+        Map<Long, Long> departments;
+        try {
+            departments = userDirectoryService.loadUserDepartments();
+        } catch (Exception e) {
+            log.error("讀取用戶快照失敗，跳過本次用戶部門對賬: {}", e.getMessage(), e);
+            return 0;
+        }
+        if (departments.isEmpty()) {
+            log.warn("用戶快照中沒有已分配部門的用戶，跳過本次用戶部門對賬");
+            return 0;
+        }
+
+        int cleared = userDepartmentJdbcRepository.applySnapshot(departments, snapshotAt);
+        int purged = userDepartmentJdbcRepository.purgeRemoved(snapshotAt - tombstoneRetention);
+        log.info("用戶部門對賬完成，寫入 {} 個用戶，清空 {} 個用戶的部門，清理 {} 行已刪除用戶",
+                departments.size(), cleared, purged);
+        return departments.size();
+    }
+}
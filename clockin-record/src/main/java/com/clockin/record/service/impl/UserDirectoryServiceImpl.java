@@ -0,0 +1,251 @@
+package com.clockin.record.service.impl;
+
+import com.clockin.record.dto.DepartmentDTO;
+import com.clockin.record.dto.SysUserDTO;
+import com.clockin.record.dto.UserChangeSet;
+import com.clockin.record.dto.UserSnapshotPage;
+import com.clockin.record.service.UserDirectoryService;
+import com.clockin.record.service.UserService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 用戶目錄服務實現
+ * <p>
+ * 目錄為不可變快照，過期後由第一個讀取的線程刷新，其他線程在刷新期間繼續使用舊快照；
+ * 刷新失敗時保留舊快照。用戶在首次載入時分頁讀取全量快照，之後只按版本號拉取增量變更，
+ * 認證服務要求重新同步時才再次讀取全量快照
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserDirectoryServiceImpl implements UserDirectoryService {
+
+    /**
+     * 每次讀取的用戶或變更數，不超過認證服務的上限
+     */
+    private static final int PAGE_SIZE = 1000;
+
+    private final UserService userService;
+
+    private final AtomicReference<Directory> current = new AtomicReference<>();
+
+    private final ReentrantLock reloadLock = new ReentrantLock();
+
+    @Value("${clock-in.user-directory.refresh-interval:60000}")
+    private long refreshInterval;
+
+    @Override
+    public List<DepartmentDTO> getDepartments() {
+        return List.copyOf(directory().departments.values());
+    }
+
+    @Override
+    public DepartmentDTO getDepartment(Long departmentId) {
+        return directory().departments.get(departmentId);
+    }
+
+    @Override
+    public List<SysUserDTO> getUsersByDepartment(Long departmentId) {
+        List<SysUserDTO> users = directory().usersByDepartment.get(departmentId);
+        if (users != null) {
+            return users;
+        }
+        // 目錄載入後新建的部門直接查詢認證服務
+        return userService.getUsersByDepartment(departmentId);
+    }
+
+    @Override
+    public Map<Long, Long> loadUserDepartments() {
+        Replica replica = loadSnapshot();
+        Map<Long, Long> departments = new HashMap<>();
+        for (SysUserDTO user : replica.users.values()) {
+            if (user.getDepartmentId() != null) {
+                departments.put(user.getId(), user.getDepartmentId());
+            }
+        }
+        return departments;
+    }
+
+    @Override
+    public void evict() {
+        current.set(null);
+    }
+
+    private Directory directory() {
+        Directory directory = current.get();
+        if (directory != null && System.currentTimeMillis() - directory.loadedAt < refreshInterval) {
+            return directory;
+        }
+
+        // 已有舊目錄時不等待其他線程的刷新
+        if (directory != null && !reloadLock.tryLock()) {
+            return directory;
+        }
+        if (directory == null) {
+            reloadLock.lock();
+        }
+        try {
+            Directory latest = current.get();
+            if (latest != null && latest != directory) {
+                return latest;
+            }
+            Directory loaded = load(directory);
+            if (loaded == null) {
+                return directory != null ? directory : Directory.EMPTY;
+            }
+            current.set(loaded);
+            return loaded;
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    private Directory load(Directory previous) {
+        try {
+            List<DepartmentDTO> departmentList = userService.getAllDepartments();
+            Map<Long, DepartmentDTO> departments = new LinkedHashMap<>();
+            for (DepartmentDTO department : departmentList) {
+                departments.put(department.getId(), department);
+            }
+
+            Replica replica = previous != null ? applyChanges(previous.users, previous.version) : null;
+            if (replica == null) {
+                replica = loadSnapshot();
+            }
+
+            Map<Long, List<SysUserDTO>> usersByDepartment = new LinkedHashMap<>();
+            for (Long departmentId : departments.keySet()) {
+                usersByDepartment.put(departmentId, new ArrayList<>());
+            }
+            List<SysUserDTO> sorted = new ArrayList<>(replica.users.values());
+            sorted.sort(Comparator.comparing(SysUserDTO::getId));
+            for (SysUserDTO user : sorted) {
+                DepartmentDTO department = departments.get(user.getDepartmentId());
+                if (department == null) {
+                    continue;
+                }
+                if (user.getDepartmentName() == null) {
+                    user.setDepartmentName(department.getDeptName());
+                }
+                usersByDepartment.get(department.getId()).add(user);
+            }
+            usersByDepartment.replaceAll((departmentId, users) -> Collections.unmodifiableList(users));
+
+            if (previous == null || previous.version == null || !previous.version.equals(replica.version)) {
+                log.info("用戶目錄已更新至版本 {}，部門數: {}，用戶數: {}", replica.version, departments.size(),
+                        replica.users.size());
+            }
+            return new Directory(departments, replica.users, usersByDepartment, replica.version,
+                    System.currentTimeMillis());
+        } catch (Exception e) {
+            log.error("刷新用戶目錄失敗，繼續使用舊目錄", e);
+            return null;
+        }
+    }
+
+    /**
+     * 分頁讀取全量快照，再以第一頁的版本號補回分頁期間的變更
+     */
+    private Replica loadSnapshot() {
+        Map<Long, SysUserDTO> users = new HashMap<>();
+        String version = null;
+        Long afterId = null;
+        do {
+            UserSnapshotPage page = userService.getUserSnapshot(afterId, PAGE_SIZE);
+            if (page == null) {
+                throw new IllegalStateException("讀取用戶目錄快照失敗");
+            }
+            if (version == null) {
+                version = page.getVersion();
+            }
+            for (SysUserDTO user : page.getUsers()) {
+                users.put(user.getId(), user);
+            }
+            afterId = page.getNextAfterId();
+        } while (afterId != null);
+
+        Replica replica = applyChanges(users, version);
+        return replica != null ? replica : new Replica(users, version);
+    }
+
+    /**
+     * 從指定版本拉取變更並應用到用戶副本，沒有變更時沿用原副本
+     *
+     * @return 新副本，需要重新讀取全量快照時為 null
+     */
+    private Replica applyChanges(Map<Long, SysUserDTO> base, String version) {
+        if (version == null) {
+            return null;
+        }
+        Map<Long, SysUserDTO> users = base;
+        UserChangeSet changes;
+        do {
+            changes = userService.getUserChanges(version, PAGE_SIZE);
+            if (changes == null) {
+                throw new IllegalStateException("獲取用戶目錄變更失敗");
+            }
+            if (changes.isResyncRequired()) {
+                log.info("用戶目錄版本 {} 已無法增量同步，重新讀取全量快照", version);
+                return null;
+            }
+            if (!changes.getUpdated().isEmpty() || !changes.getDeletedIds().isEmpty()) {
+                if (users == base) {
+                    users = new HashMap<>(base);
+                }
+                for (SysUserDTO user : changes.getUpdated()) {
+                    users.put(user.getId(), user);
+                }
+                for (Long id : changes.getDeletedIds()) {
+                    users.remove(id);
+                }
+            }
+            version = changes.getVersion();
+        } while (changes.isHasMore());
+        return new Replica(users, version);
+    }
+
+    private static final class Replica {
+
+        private final Map<Long, SysUserDTO> users;
+        private final String version;
+
+        private Replica(Map<Long, SysUserDTO> users, String version) {
+            this.users = users;
+            this.version = version;
+        }
+    }
+
+    private static final class Directory {
+
+        private static final Directory EMPTY = new Directory(Collections.emptyMap(), Collections.emptyMap(),
+                Collections.emptyMap(), null, 0L);
+
+        private final Map<Long, DepartmentDTO> departments;
+        private final Map<Long, SysUserDTO> users;
+        private final Map<Long, List<SysUserDTO>> usersByDepartment;
+        private final String version;
+        private final long loadedAt;
+
+        private Directory(Map<Long, DepartmentDTO> departments, Map<Long, SysUserDTO> users,
+                          Map<Long, List<SysUserDTO>> usersByDepartment, String version, long loadedAt) {
+            this.departments = Collections.unmodifiableMap(departments);
+            this.users = Collections.unmodifiableMap(users);
+            this.usersByDepartment = Collections.unmodifiableMap(usersByDepartment);
+            this.version = version;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
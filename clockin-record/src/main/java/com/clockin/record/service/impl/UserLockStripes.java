@@ -0,0 +1,48 @@
+package com.clockin.record.service.impl;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 按用戶ID雜湊分段的鎖
+ * <p>
+ * 鎖數量固定為 2 的冪，用戶ID經雜湊擴散後映射到其中一把，記憶體佔用與用戶數無關；
+ * 不同用戶可能共用同一把鎖，但只會在極少數情況下互相等待
+ */
+final class UserLockStripes {
+
+    private final ReentrantLock[] locks;
+
+    private final int mask;
+
+    UserLockStripes(int stripes) {
+        int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        this.locks = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+    }
+
+    /**
+     * 在指定時間內嘗試獲取用戶對應的鎖
+     *
+     * @param userId  用戶ID
+     * @param timeout 等待時間（毫秒）
+     * @return 已獲取的鎖，超時時為 null
+     */
+    ReentrantLock tryLock(Long userId, long timeout) {
+        ReentrantLock lock = locks[indexOf(userId)];
+        try {
+            return lock.tryLock(timeout, TimeUnit.MILLISECONDS) ? lock : null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private int indexOf(Long userId) {
+        int hash = Long.hashCode(userId);
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+}
@@ -5,16 +5,26 @@ import com.clockin.record.common.R;
 import com.clockin.record.dto.DepartmentDTO;
 import com.clockin.record.dto.PositionDTO;
 import com.clockin.record.dto.SysUserDTO;
+import com.clockin.record.dto.UserChangeSet;
+import com.clockin.record.dto.UserSnapshotPage;
 import com.clockin.record.exception.ApiException;
 import com.clockin.record.service.UserService;
 import com.clockin.record.util.SecurityUtil;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 /**
  * 用戶服務實現類
@@ -23,9 +33,22 @@ import java.util.List;
 @Service
 public class UserServiceImpl implements UserService {
 
+    /**
+     * 用戶緩存名稱，與 getUserById 的 @Cacheable 共用
+     */
+    private static final String USER_CACHE = "users";
+
+    /**
+     * 每次批量調用的用戶數，不超過認證服務的上限
+     */
+    private static final int BATCH_SIZE = 500;
+
     @Autowired
     private AuthServiceClient authServiceClient;
 
+    @Autowired
+    private CacheManager cacheManager;
+
     @Override
     @Cacheable(value = "users", key = "#id", unless = "#result == null")
     public SysUserDTO getUserById(Long id) {
@@ -42,6 +65,95 @@ public class UserServiceImpl implements UserService {
         }
     }
 
+    @Override
+    public Map<Long, SysUserDTO> getUsersByIds(Collection<Long> ids) {
+        Map<Long, SysUserDTO> users = new HashMap<>();
+        if (ids == null || ids.isEmpty()) {
+            return users;
+        }
+
+        // 先讀緩存，只對未命中的用戶發起遠程調用
+        Cache cache = cacheManager.getCache(USER_CACHE);
+        List<Long> missing = new ArrayList<>();
+        for (Long id : new LinkedHashSet<>(ids)) {
+            if (id == null) {
+                continue;
+            }
+            SysUserDTO cached = getCachedUser(cache, id);
+            if (cached != null) {
+                users.put(id, cached);
+            } else {
+                missing.add(id);
+            }
+        }
+
+        for (int from = 0; from < missing.size(); from += BATCH_SIZE) {
+            List<Long> batch = missing.subList(from, Math.min(from + BATCH_SIZE, missing.size()));
+            try {
+                R<List<SysUserDTO>> response = authServiceClient.getUsersByIds(batch);
+                if (!R.isSuccess(response)) {
+                    log.error("批量獲取用戶信息失敗: {}", response != null ? response.getMessage() : null);
+                    continue;
+                }
+                List<SysUserDTO> fetched = R.getData(response);
+                if (fetched == null) {
+                    continue;
+                }
+                fetched.stream().filter(Objects::nonNull).forEach(user -> {
+                    users.put(user.getId(), user);
+                    if (cache != null) {
+                        cache.put(user.getId(), user);
+                    }
+                });
+            } catch (Exception e) {
+                log.error("調用認證服務批量獲取用戶信息異常", e);
+            }
+        }
+        return users;
+    }
+
+    private SysUserDTO getCachedUser(Cache cache, Long id) {
+        if (cache == null) {
+            return null;
+        }
+        try {
+            return cache.get(id, SysUserDTO.class);
+        } catch (Exception e) {
+            log.warn("讀取用戶緩存失敗: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public UserSnapshotPage getUserSnapshot(Long afterId, int size) {
+        try {
+            R<UserSnapshotPage> response = authServiceClient.getUserSnapshot(afterId, size);
+            if (R.isSuccess(response)) {
+                return R.getData(response);
+            }
+            log.error("獲取用戶目錄快照失敗: {}", response.getMessage());
+            return null;
+        } catch (Exception e) {
+            log.error("調用認證服務獲取用戶目錄快照異常", e);
+            return null;
+        }
+    }
+
+    @Override
+    public UserChangeSet getUserChanges(String since, int size) {
+        try {
+            R<UserChangeSet> response = authServiceClient.getUserChanges(since, size);
+            if (R.isSuccess(response)) {
+                return R.getData(response);
+            }
+            log.error("獲取用戶目錄變更失敗: {}", response.getMessage());
+            return null;
+        } catch (Exception e) {
+            log.error("調用認證服務獲取用戶目錄變更異常", e);
+            return null;
+        }
+    }
+
     @Override
     @Cacheable(value = "users", key = "#username", unless = "#result == null")
     public SysUserDTO getUserByUsername(String username) {
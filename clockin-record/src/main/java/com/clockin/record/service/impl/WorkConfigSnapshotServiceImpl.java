@@ -0,0 +1,298 @@
+package com.clockin.record.service.impl;
+
+import com.clockin.common.calendar.WorkdayBitset;
+import com.clockin.common.response.Result;
+import com.clockin.record.dto.WorkConfigSnapshotDTO;
+import com.clockin.record.service.WorkConfigClient;
+import com.clockin.record.service.WorkConfigSnapshotService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 工作配置本地快照服務實現
+ * <p>
+ * 快照為不可變對象，刷新時整體替換，讀取無需加鎖
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class WorkConfigSnapshotServiceImpl implements WorkConfigSnapshotService {
+
+    private static final int STATUS_ENABLED = 1;
+
+    private static final LocalTime DEFAULT_CLOCK_IN_TIME = LocalTime.of(9, 0);
+    private static final LocalTime DEFAULT_CLOCK_OUT_TIME = LocalTime.of(18, 0);
+
+    private static final String METRIC_PREFIX = "clockin.work-config.snapshot";
+
+    private final WorkConfigClient workConfigClient;
+    private final MeterRegistry meterRegistry;
+
+    private final AtomicReference<Snapshot> current = new AtomicReference<>();
+
+    /**
+     * 最後一次確認快照與 admin 服務一致的時間（毫秒）
+     */
+    private volatile long lastSyncMillis;
+
+    @Value("${clock-in.threshold.late-minutes:10}")
+    private int defaultLateMinutes;
+
+    @Value("${clock-in.threshold.early-leave-minutes:10}")
+    private int defaultEarlyLeaveMinutes;
+
+    private Counter hitCounter;
+    private Counter missCounter;
+    private Counter refreshSuccessCounter;
+    private Counter refreshFailureCounter;
+
+    /**
+     * 註冊快照命中率及過期時間指標
+     */
+    @PostConstruct
+    public void registerMetrics() {
+        hitCounter = Counter.builder(METRIC_PREFIX + ".lookups")
+                .tag("result", "hit")
+                .description("由本地快照回答的查詢次數")
+                .register(meterRegistry);
+        missCounter = Counter.builder(METRIC_PREFIX + ".lookups")
+                .tag("result", "miss")
+                .description("快照尚未載入而使用預設值回答的查詢次數")
+                .register(meterRegistry);
+        refreshSuccessCounter = Counter.builder(METRIC_PREFIX + ".refresh")
+                .tag("outcome", "success")
+                .register(meterRegistry);
+        refreshFailureCounter = Counter.builder(METRIC_PREFIX + ".refresh")
+                .tag("outcome", "failure")
+                .register(meterRegistry);
+
+        Gauge.builder(METRIC_PREFIX + ".hit-rate", this, service -> {
+                    double hits = service.hitCounter.count();
+                    double total = hits + service.missCounter.count();
+                    return total > 0 ? hits / total : Double.NaN;
+                })
+                .description("本地快照命中率")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".staleness", this, service -> service.lastSyncMillis > 0
+                        ? (System.currentTimeMillis() - service.lastSyncMillis) / 1000.0 : Double.NaN)
+                .description("距離最後一次與 admin 服務確認一致的秒數")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Map<LocalDate, Boolean> getWorkdayOverrides() {
+        Snapshot snapshot = lookup();
+        return snapshot != null ? snapshot.workdayOverrides : null;
+    }
+
+    @Override
+    public LocalTime getStandardClockInTime(Long userId, LocalDate date) {
+        WorkConfigSnapshotDTO.WorkTime config = resolveWorkTime(userId, date);
+        return config != null && config.getWorkStartTime() != null ? config.getWorkStartTime() : DEFAULT_CLOCK_IN_TIME;
+    }
+
+    @Override
+    public LocalTime getStandardClockOutTime(Long userId, LocalDate date) {
+        WorkConfigSnapshotDTO.WorkTime config = resolveWorkTime(userId, date);
+        return config != null && config.getWorkEndTime() != null ? config.getWorkEndTime() : DEFAULT_CLOCK_OUT_TIME;
+    }
+
+    @Override
+    public int getLateThresholdMinutes(Long userId, LocalDate date) {
+        WorkConfigSnapshotDTO.WorkTime config = resolveWorkTime(userId, date);
+        if (config != null && Boolean.TRUE.equals(config.getEnableFlexibleTime()) && config.getFlexibleDuration() != null) {
+            return config.getFlexibleDuration();
+        }
+        return defaultLateMinutes;
+    }
+
+    @Override
+    public int getEarlyLeaveThresholdMinutes(Long userId, LocalDate date) {
+        return defaultEarlyLeaveMinutes;
+    }
+
+    @Override
+    public boolean refresh() {
+        try {
+            Result<WorkConfigSnapshotDTO> response = workConfigClient.getWorkConfigSnapshot();
+            if (response == null || !response.isSuccess() || response.getData() == null) {
+                log.warn("拉取工作配置快照失敗: {}", response != null ? response.getMessage() : "響應為空");
+                refreshFailureCounter.increment();
+                return false;
+            }
+
+            Snapshot snapshot = Snapshot.of(response.getData());
+            current.set(snapshot);
+            lastSyncMillis = System.currentTimeMillis();
+            refreshSuccessCounter.increment();
+            log.info("工作配置快照已更新，版本: {}，假日: {}，工作時間配置: {}，用戶配置: {}",
+                    snapshot.version, snapshot.workdayOverrides.size(),
+                    snapshot.workTimesById.size(), snapshot.userWorkTimes.size());
+            return true;
+        } catch (Exception e) {
+            log.warn("拉取工作配置快照異常，繼續使用版本 {}: {}", getVersion(), e.getMessage());
+            refreshFailureCounter.increment();
+            return false;
+        }
+    }
+
+    @Override
+    public boolean refreshIfChanged() {
+        Snapshot snapshot = current.get();
+        if (snapshot == null) {
+            return refresh();
+        }
+
+        try {
+            Result<String> response = workConfigClient.getWorkConfigVersion();
+            if (response == null || !response.isSuccess()) {
+                log.warn("獲取工作配置版本失敗: {}", response != null ? response.getMessage() : "響應為空");
+                refreshFailureCounter.increment();
+                return false;
+            }
+            if (Objects.equals(response.getData(), snapshot.version)) {
+                lastSyncMillis = System.currentTimeMillis();
+                return false;
+            }
+        } catch (Exception e) {
+            log.warn("獲取工作配置版本異常，繼續使用版本 {}: {}", snapshot.version, e.getMessage());
+            refreshFailureCounter.increment();
+            return false;
+        }
+
+        log.info("工作配置版本已變更，重新拉取快照");
+        return refresh();
+    }
+
+    @Override
+    public String getVersion() {
+        Snapshot snapshot = current.get();
+        return snapshot != null ? snapshot.version : null;
+    }
+
+    /**
+     * 獲取當前快照並記錄命中情況
+     *
+     * @return 當前快照，尚未載入時為 null
+     */
+    private Snapshot lookup() {
+        Snapshot snapshot = current.get();
+        if (snapshot != null) {
+            hitCounter.increment();
+        } else {
+            missCounter.increment();
+        }
+        return snapshot;
+    }
+
+    /**
+     * 解析用戶在指定日期生效的工作時間配置，沒有用戶配置時使用預設配置
+     *
+     * @param userId 用戶ID
+     * @param date   日期
+     * @return 工作時間配置，快照尚未載入時為 null
+     */
+    private WorkConfigSnapshotDTO.WorkTime resolveWorkTime(Long userId, LocalDate date) {
+        Snapshot snapshot = lookup();
+        if (snapshot == null) {
+            return null;
+        }
+
+        if (userId != null) {
+            for (WorkConfigSnapshotDTO.UserWorkTime userWorkTime : snapshot.userWorkTimes.getOrDefault(userId, Collections.emptyList())) {
+                boolean effective = userWorkTime.getEffectiveStartDate() != null
+                        && !date.isBefore(userWorkTime.getEffectiveStartDate())
+                        && (userWorkTime.getEffectiveEndDate() == null || !date.isAfter(userWorkTime.getEffectiveEndDate()));
+                if (effective) {
+                    WorkConfigSnapshotDTO.WorkTime config = snapshot.workTimesById.get(userWorkTime.getConfigId());
+                    if (config != null) {
+                        return config;
+                    }
+                }
+            }
+        }
+        return snapshot.defaultWorkTime;
+    }
+
+    /**
+     * 不可變的工作配置快照索引
+     */
+    private static final class Snapshot {
+
+        private final String version;
+        private final Map<LocalDate, Boolean> workdayOverrides;
+        private final Map<Long, WorkConfigSnapshotDTO.WorkTime> workTimesById;
+        private final WorkConfigSnapshotDTO.WorkTime defaultWorkTime;
+        private final Map<Long, List<WorkConfigSnapshotDTO.UserWorkTime>> userWorkTimes;
+
+        private Snapshot(String version,
+                         Map<LocalDate, Boolean> workdayOverrides,
+                         Map<Long, WorkConfigSnapshotDTO.WorkTime> workTimesById,
+                         WorkConfigSnapshotDTO.WorkTime defaultWorkTime,
+                         Map<Long, List<WorkConfigSnapshotDTO.UserWorkTime>> userWorkTimes) {
+            this.version = version;
+            this.workdayOverrides = workdayOverrides;
+            this.workTimesById = workTimesById;
+            this.defaultWorkTime = defaultWorkTime;
+            this.userWorkTimes = userWorkTimes;
+        }
+
+        private static Snapshot of(WorkConfigSnapshotDTO dto) {
+            Map<LocalDate, Boolean> workdayOverrides = new HashMap<>();
+            for (WorkConfigSnapshotDTO.Holiday holiday : nullToEmpty(dto.getHolidays())) {
+                if (holiday.getHolidayDate() != null && Objects.equals(holiday.getStatus(), STATUS_ENABLED)) {
+                    workdayOverrides.put(holiday.getHolidayDate(), WorkdayBitset.isWorkdayHolidayType(holiday.getHolidayType()));
+                }
+            }
+
+            Map<Long, WorkConfigSnapshotDTO.WorkTime> workTimesById = new HashMap<>();
+            WorkConfigSnapshotDTO.WorkTime defaultWorkTime = null;
+            for (WorkConfigSnapshotDTO.WorkTime workTime : nullToEmpty(dto.getWorkTimeConfigs())) {
+                if (!Objects.equals(workTime.getStatus(), STATUS_ENABLED)) {
+                    continue;
+                }
+                workTimesById.put(workTime.getId(), workTime);
+                if (Boolean.TRUE.equals(workTime.getIsDefault())) {
+                    defaultWorkTime = workTime;
+                }
+            }
+
+            // 同一用戶按生效開始日期倒序，當前生效配置優先
+            Map<Long, List<WorkConfigSnapshotDTO.UserWorkTime>> userWorkTimes = new HashMap<>();
+            for (WorkConfigSnapshotDTO.UserWorkTime userWorkTime : nullToEmpty(dto.getUserWorkTimeConfigs())) {
+                if (userWorkTime.getUserId() != null && Objects.equals(userWorkTime.getStatus(), STATUS_ENABLED)) {
+                    userWorkTimes.computeIfAbsent(userWorkTime.getUserId(), key -> new ArrayList<>()).add(userWorkTime);
+                }
+            }
+            Comparator<WorkConfigSnapshotDTO.UserWorkTime> order = Comparator
+                    .comparing((WorkConfigSnapshotDTO.UserWorkTime u) -> Boolean.TRUE.equals(u.getIsCurrent())).reversed()
+                    .thenComparing(WorkConfigSnapshotDTO.UserWorkTime::getEffectiveStartDate,
+                            Comparator.nullsLast(Comparator.reverseOrder()));
+            userWorkTimes.values().forEach(list -> list.sort(order));
+
+            return new Snapshot(dto.getVersion(), Collections.unmodifiableMap(workdayOverrides), workTimesById, defaultWorkTime, userWorkTimes);
+        }
+
+        private static <T> List<T> nullToEmpty(List<T> list) {
+            return list != null ? list : Collections.emptyList();
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.clockin.record.service.impl;
+
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * XLSX 逐行讀取器
+ * <p>
+ * 基於 POI 事件 API 以 SAX 解析第一個工作表，不建立單元格對象模型，記憶體佔用與行數無關
+ * （共享字符串表仍會整體載入）。日期格式的單元格統一轉為 ISO 格式字符串
+ */
+final class XlsxRowReader {
+
+    private XlsxRowReader() {
+    }
+
+    /**
+     * 行處理器
+     */
+    interface RowHandler {
+
+        /**
+         * 處理一行
+         *
+         * @param rowNum 行號（從 0 開始）
+         * @param cells  單元格文本，空白單元格為空字符串
+         * @return 是否繼續讀取
+         */
+        boolean row(int rowNum, List<String> cells);
+    }
+
+    /**
+     * 讀取第一個工作表
+     *
+     * @param file    XLSX 文件
+     * @param handler 行處理器
+     */
+    static void read(File file, RowHandler handler) throws IOException {
+        try (OPCPackage pkg = OPCPackage.open(file, PackageAccess.READ)) {
+            ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg, false);
+            XSSFReader reader = new XSSFReader(pkg);
+            Iterator<InputStream> sheets = reader.getSheetsData();
+            if (!sheets.hasNext()) {
+                return;
+            }
+            try (InputStream sheet = sheets.next()) {
+                XMLReader parser = XMLHelper.newXMLReader();
+                parser.setContentHandler(new XSSFSheetXMLHandler(reader.getStylesTable(), null, strings,
+                        new RowCollector(handler), new IsoDataFormatter(), false));
+                parser.parse(new InputSource(sheet));
+            }
+        } catch (StopReading e) {
+            // 處理器要求提前結束
+        } catch (OpenXML4JException | SAXException | ParserConfigurationException e) {
+            throw new IOException("無法解析 Excel 文件: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 將單元格事件組裝為行，補齊被跳過的空白單元格
+     */
+    private static final class RowCollector implements XSSFSheetXMLHandler.SheetContentsHandler {
+
+        private final RowHandler handler;
+        private final List<String> cells = new ArrayList<>();
+
+        private RowCollector(RowHandler handler) {
+            this.handler = handler;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            cells.clear();
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            if (!handler.row(rowNum, new ArrayList<>(cells))) {
+                throw new StopReading();
+            }
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            int column = cellReference != null ? new CellReference(cellReference).getCol() : cells.size();
+            while (cells.size() < column) {
+                cells.add("");
+            }
+            cells.add(formattedValue != null ? formattedValue.trim() : "");
+        }
+    }
+
+    /**
+     * 日期格式的單元格輸出 ISO 格式：只有時間時為 HH:mm:ss，只有日期時為 yyyy-MM-dd
+     */
+    private static final class IsoDataFormatter extends DataFormatter {
+
+        private static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+        private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("HH:mm:ss");
+        private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+        @Override
+        public String formatRawCellContents(double value, int formatIndex, String formatString,
+                                            boolean use1904Windowing) {
+            if (!DateUtil.isADateFormat(formatIndex, formatString) || !DateUtil.isValidExcelDate(value)) {
+                return super.formatRawCellContents(value, formatIndex, formatString, use1904Windowing);
+            }
+            LocalDateTime dateTime = DateUtil.getLocalDateTime(value, use1904Windowing, true);
+            if (value < 1) {
+                return dateTime.format(TIME);
+            }
+            return value == Math.floor(value) ? dateTime.format(DATE) : dateTime.format(DATE_TIME);
+        }
+    }
+
+    /**
+     * 提前結束解析，不需要堆棧
+     */
+    private static final class StopReading extends RuntimeException {
+
+        private StopReading() {
+            super(null, null, false, false);
+        }
+    }
+}
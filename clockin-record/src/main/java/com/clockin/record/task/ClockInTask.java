@@ -1,12 +1,17 @@
 package com.clockin.record.task;
 
 import com.clockin.record.service.ClockInService;
+import com.clockin.record.service.MonthlySummaryRollupService;
+import com.clockin.record.service.SummaryRecalculationService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDate;
+import java.time.YearMonth;
 
 /**
  * 打卡排程任務
@@ -17,6 +22,8 @@ import java.time.LocalDate;
 public class ClockInTask {
 
     private final ClockInService clockInService;
+    private final SummaryRecalculationService summaryRecalculationService;
+    private final MonthlySummaryRollupService monthlySummaryRollupService;
 
     /**
      * 每天凌晨1點執行，計算前一天的打卡匯總
@@ -36,29 +43,56 @@ public class ClockInTask {
 
     /**
      * 每月1號凌晨2點執行，重新計算上個月的所有打卡匯總
+     * <p>
+     * 按（日期 × 用戶ID區間）分區並行重算，每個分區完成後記錄檢查點，全部完成後月結重建月報表。
+     * 重算交由重算服務的協調線程執行，排程線程提交後立即返回
      */
     @Scheduled(cron = "0 0 2 1 * ?")
     public void recalculateMonthlyClockInSummary() {
-        LocalDate firstDayOfLastMonth = LocalDate.now().withDayOfMonth(1).minusMonths(1);
-        LocalDate lastDayOfLastMonth = LocalDate.now().withDayOfMonth(1).minusDays(1);
-        
-        log.info("開始重新計算 {} 至 {} 的打卡匯總數據", firstDayOfLastMonth, lastDayOfLastMonth);
+        YearMonth lastMonth = YearMonth.now().minusMonths(1);
+        log.info("開始重新計算 {} 的打卡匯總數據", lastMonth);
         
+        summaryRecalculationService.recalculateMonth(lastMonth).whenComplete((totalCount, throwable) -> {
+            if (throwable != null) {
+                log.error("重新計算 {} 的打卡匯總數據失敗: {}", lastMonth, throwable.getMessage(), throwable);
+            } else {
+                log.info("完成 {} 的打卡匯總數據重新計算，共處理 {} 條記錄", lastMonth, totalCount);
+            }
+
+            try {
+                monthlySummaryRollupService.closeMonth(lastMonth);
+            } catch (Exception e) {
+                log.error("重建 {} 的月報表失敗: {}", lastMonth, e.getMessage(), e);
+            }
+        });
+    }
+
+    /**
+     * 應用啟動後恢復中斷的重算任務，不阻塞啟動流程
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeUnfinishedRecalculation() {
+        summaryRecalculationService.resumeUnfinished().whenComplete((count, throwable) -> {
+            if (throwable != null) {
+                log.error("恢復中斷的打卡匯總重算任務失敗: {}", throwable.getMessage(), throwable);
+            } else if (count > 0) {
+                log.info("已恢復中斷的打卡匯總重算任務，共處理 {} 條記錄", count);
+            }
+        });
+    }
+
+    /**
+     * 每天凌晨2點半執行，清理超過保留期的已完成重算檢查點
+     */
+    @Scheduled(cron = "0 30 2 * * ?")
+    public void purgeRecalculationCheckpoints() {
         try {
-            int totalCount = 0;
-            LocalDate currentDate = firstDayOfLastMonth;
-            
-            while (!currentDate.isAfter(lastDayOfLastMonth)) {
-                int count = clockInService.batchCalculateAndUpdateSummary(currentDate);
-                totalCount += count;
-                currentDate = currentDate.plusDays(1);
+            int deleted = summaryRecalculationService.purgeCompletedCheckpoints();
+            if (deleted > 0) {
+                log.info("已清理 {} 個已完成的打卡匯總重算檢查點", deleted);
             }
-            
-            log.info("完成 {} 至 {} 的打卡匯總數據重新計算，共處理 {} 條記錄", 
-                    firstDayOfLastMonth, lastDayOfLastMonth, totalCount);
         } catch (Exception e) {
-            log.error("重新計算 {} 至 {} 的打卡匯總數據失敗: {}", 
-                    firstDayOfLastMonth, lastDayOfLastMonth, e.getMessage(), e);
+            log.error("清理打卡匯總重算檢查點失敗: {}", e.getMessage(), e);
         }
     }
 
@@ -0,0 +1,29 @@
+package com.clockin.record.task;
+
+import com.clockin.record.service.ExportJobService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 導出任務清理任務
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ExportJobTask {
+
+    private final ExportJobService exportJobService;
+
+    /**
+     * 每分鐘刪除過期的導出任務及文件
+     */
+    @Scheduled(fixedDelay = 60000, initialDelay = 60000)
+    public void cleanExpiredExportJobs() {
+        int removed = exportJobService.cleanExpired();
+        if (removed > 0) {
+            log.info("已清理 {} 個過期的導出任務", removed);
+        }
+    }
+}
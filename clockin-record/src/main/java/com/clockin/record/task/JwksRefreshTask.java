@@ -0,0 +1,26 @@
+package com.clockin.record.task;
+
+import com.clockin.common.security.JwksKeyLocator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * JWKS 公鑰刷新任務
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "jwt", name = "jwks-uri")
+public class JwksRefreshTask {
+
+    private final JwksKeyLocator jwksKeyLocator;
+
+    /**
+     * 啟動時及之後定期刷新公鑰，間隔需小於認證服務的密鑰啟用延遲
+     */
+    @Scheduled(fixedDelayString = "${jwt.jwks-refresh-interval:300000}", initialDelay = 0)
+    public void refreshJwks() {
+        jwksKeyLocator.refresh();
+    }
+}
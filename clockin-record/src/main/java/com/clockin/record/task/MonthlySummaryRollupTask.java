@@ -0,0 +1,30 @@
+package com.clockin.record.task;
+
+import com.clockin.record.service.MonthlySummaryRollupService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 打卡月報表增量更新任務
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MonthlySummaryRollupTask {
+
+    private final MonthlySummaryRollupService monthlySummaryRollupService;
+
+    /**
+     * 定期重算日匯總有變更的月報表
+     */
+    @Scheduled(fixedDelayString = "${clock-in.monthly-rollup.flush-interval:30000}",
+            initialDelayString = "${clock-in.monthly-rollup.flush-interval:30000}")
+    public void flushChangedMonthlySummaries() {
+        int count = monthlySummaryRollupService.flush();
+        if (count > 0) {
+            log.debug("已更新 {} 個用戶月份的月報表", count);
+        }
+    }
+}
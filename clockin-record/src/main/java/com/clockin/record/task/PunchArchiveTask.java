@@ -0,0 +1,41 @@
+package com.clockin.record.task;
+
+import com.clockin.record.service.PunchArchiveService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 打卡記錄分區維護及歸檔任務
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "clock-in.archive.enabled", havingValue = "true", matchIfMissing = true)
+public class PunchArchiveTask {
+
+    private final PunchArchiveService punchArchiveService;
+
+    /**
+     * 每天凌晨3點半建立未來月份的分區，並歸檔超過保留期的分區
+     */
+    @Scheduled(cron = "${clock-in.archive.cron:0 30 3 * * ?}")
+    public void maintainPunchPartitions() {
+        try {
+            punchArchiveService.createPartitions();
+        } catch (Exception e) {
+            log.error("建立打卡記錄分區失敗: {}", e.getMessage(), e);
+        }
+
+        try {
+            int archived = punchArchiveService.archiveExpiredPartitions();
+            if (archived > 0) {
+                log.info("已歸檔 {} 個打卡記錄分區", archived);
+            }
+        } catch (Exception e) {
+            log.error("歸檔打卡記錄分區失敗: {}", e.getMessage(), e);
+        }
+    }
+}
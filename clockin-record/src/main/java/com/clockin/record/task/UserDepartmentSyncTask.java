@@ -0,0 +1,30 @@
+package com.clockin.record.task;
+
+import com.clockin.record.service.UserDepartmentService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 用戶部門投影對賬任務
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserDepartmentSyncTask {
+
+    private final UserDepartmentService userDepartmentService;
+
+    /**
+     * 定期以用戶目錄全量對賬，啟動後不久執行首次對賬以填充投影
+     */
+    @Scheduled(fixedDelayString = "${clock-in.user-department.reconcile-interval:3600000}", initialDelay = 60000)
+    public void reconcileUserDepartments() {
+        try {
+            userDepartmentService.reconcile();
+        } catch (Exception e) {
+            log.error("用戶部門對賬失敗，將在下次執行時重試", e);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.clockin.record.task;
+
+import com.clockin.record.service.WorkConfigSnapshotService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 工作配置快照同步任務
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class WorkConfigSnapshotTask {
+
+    private final WorkConfigSnapshotService workConfigSnapshotService;
+
+    /**
+     * 應用啟動完成後載入工作配置快照
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadSnapshotOnStartup() {
+        log.info("開始載入工作配置快照");
+        if (!workConfigSnapshotService.refresh()) {
+            log.warn("工作配置快照載入失敗，將在下次版本檢查時重試，期間使用預設工作時間");
+        }
+    }
+
+    /**
+     * 定期檢查工作配置版本，版本變更時刷新本地快照
+     */
+    @Scheduled(fixedDelayString = "${clock-in.work-config.refresh-interval:30000}",
+            initialDelayString = "${clock-in.work-config.refresh-interval:30000}")
+    public void pollWorkConfigVersion() {
+        workConfigSnapshotService.refreshIfChanged();
+    }
+}
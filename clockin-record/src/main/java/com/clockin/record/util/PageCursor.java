@@ -0,0 +1,114 @@
+package com.clockin.record.util;
+
+import com.clockin.record.dto.CursorPage;
+import com.clockin.record.exception.BusinessException;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * 游標分頁工具
+ * <p>
+ * 按排序欄位降序、ID 降序做 keyset 查詢，每頁只讀取本頁行數加一行，不執行 COUNT，
+ * 耗時與翻頁深度無關。游標內容為查詢範圍、上一頁最後一行的排序值及 ID，以 Base64 URL 編碼，
+ * 對調用方不透明；查詢範圍不一致的游標視為無效，避免更換篩選條件後沿用舊游標
+ */
+public final class PageCursor {
+
+    /**
+     * 每頁最大行數
+     */
+    public static final int MAX_SIZE = 200;
+
+    private static final String ID_PROPERTY = "id";
+
+    private static final String SEPARATOR = "\n";
+
+    private PageCursor() {
+    }
+
+    /**
+     * 排序：排序欄位降序，相同時按 ID 降序
+     *
+     * @param sortProperty 排序屬性
+     * @return 排序
+     */
+    public static Sort sort(String sortProperty) {
+        return Sort.by(Sort.Order.desc(sortProperty), Sort.Order.desc(ID_PROPERTY));
+    }
+
+    /**
+     * 每頁行數，限制在 1 到 {@link #MAX_SIZE} 之間
+     *
+     * @param size 請求的行數
+     * @return 實際行數
+     */
+    public static int limit(int size) {
+        return Math.max(1, Math.min(size, MAX_SIZE));
+    }
+
+    /**
+     * 解析游標
+     *
+     * @param cursor       游標，為空表示第一頁
+     * @param scope        查詢範圍，需與生成游標時一致
+     * @param sortProperty 排序屬性
+     * @param parser       排序值的解析函數
+     * @return 查詢位置
+     */
+    public static ScrollPosition decode(String cursor, String scope, String sortProperty,
+                                        Function<String, ?> parser) {
+        if (cursor == null || cursor.isEmpty()) {
+            return ScrollPosition.keyset();
+        }
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)
+                    .split(SEPARATOR, -1);
+            if (parts.length != 3 || !parts[0].equals(scope)) {
+                throw invalid();
+            }
+            Map<String, Object> keys = new LinkedHashMap<>();
+            keys.put(sortProperty, parser.apply(parts[1]));
+            keys.put(ID_PROPERTY, Long.valueOf(parts[2]));
+            return ScrollPosition.forward(keys);
+        } catch (IllegalArgumentException | DateTimeException e) {
+            throw invalid();
+        }
+    }
+
+    /**
+     * 將查詢結果轉為分頁結果
+     *
+     * @param window       查詢結果
+     * @param scope        查詢範圍
+     * @param sortProperty 排序屬性
+     * @param <T>          數據類型
+     * @return 分頁結果，不含總數
+     */
+    public static <T> CursorPage<T> toPage(Window<T> window, String scope, String sortProperty) {
+        String nextCursor = null;
+        if (window.hasNext() && !window.isEmpty()) {
+            Map<String, ?> keys = ((KeysetScrollPosition) window.positionAt(window.size() - 1)).getKeys();
+            String raw = scope + SEPARATOR + keys.get(sortProperty) + SEPARATOR + keys.get(ID_PROPERTY);
+            nextCursor = Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+        return CursorPage.<T>builder()
+                .content(window.getContent())
+                .nextCursor(nextCursor)
+                .hasNext(nextCursor != null)
+                .build();
+    }
+
+    private static BusinessException invalid() {
+        return new BusinessException("分頁游標無效，請從第一頁重新查詢");
+    }
+}
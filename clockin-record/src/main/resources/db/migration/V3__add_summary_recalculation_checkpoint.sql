@@ -0,0 +1,14 @@
+-- 打卡匯總重算分區檢查點表
+CREATE TABLE summary_recalculation_checkpoint (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    job_key VARCHAR(64) NOT NULL COMMENT '任務標識',
+    clock_date DATE NOT NULL COMMENT '分區日期',
+    from_user_id BIGINT NOT NULL COMMENT '分區起始用戶ID（包含）',
+    to_user_id BIGINT NOT NULL COMMENT '分區結束用戶ID（包含）',
+    status VARCHAR(20) NOT NULL COMMENT '狀態',
+    processed_count INT COMMENT '成功處理的用戶數',
+    create_time DATETIME COMMENT '創建時間',
+    update_time DATETIME COMMENT '更新時間',
+    UNIQUE KEY uk_job_partition (job_key, clock_date, from_user_id),
+    INDEX idx_status (status)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='打卡匯總重算分區檢查點表';
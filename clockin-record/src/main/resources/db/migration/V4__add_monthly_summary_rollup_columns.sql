@@ -0,0 +1,5 @@
+-- 打卡月報表補充由日匯總彙總所需的欄位
+ALTER TABLE `clock_monthly_summary`
+  ADD COLUMN `normal_count` int DEFAULT '0' COMMENT '正常天數' AFTER `overtime_hours`,
+  ADD COLUMN `outside_work_count` int DEFAULT '0' COMMENT '外勤天數' AFTER `leave_count`,
+  ADD COLUMN `overtime_count` int DEFAULT '0' COMMENT '加班天數' AFTER `outside_work_count`;
@@ -0,0 +1,9 @@
+-- 請假及補卡申請的游標分頁按（排序欄位, id）降序讀取，
+-- 二級索引隱含主鍵，以下索引可直接定位到游標位置並按索引順序返回
+ALTER TABLE leave_request
+  ADD INDEX idx_leave_user_start (user_id, start_time),
+  ADD INDEX idx_leave_status_start (status, start_time);
+
+ALTER TABLE makeup_clock_in_request
+  ADD INDEX idx_makeup_user_date (user_id, request_date),
+  ADD INDEX idx_makeup_status_date (status, request_date);
@@ -0,0 +1,8 @@
+-- 用戶部門投影表，由認證服務的變更消息及定期對賬維護，部門範圍的查詢不再關聯 sys_user
+CREATE TABLE user_department (
+    user_id BIGINT NOT NULL COMMENT '用戶ID',
+    department_id BIGINT COMMENT '部門ID，用戶已刪除或未分配部門時為空',
+    changed_at BIGINT NOT NULL COMMENT '最後變更時間（毫秒時間戳），只應用更新的變更',
+    PRIMARY KEY (user_id),
+    KEY idx_department_user (department_id, user_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='用戶部門投影表';
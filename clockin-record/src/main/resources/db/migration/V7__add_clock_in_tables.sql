@@ -0,0 +1,180 @@
+-- 打卡記錄、日匯總、工作地點及考勤規則表，與實體映射一致
+-- 索引按資源庫的查詢方法設計，欄位順序為：等值條件、範圍條件、排序欄位、查詢需要的其餘欄位
+-- 新庫由 CREATE TABLE 建立；已由 ddl-auto 建立的表在文末補齊欄位精度、去重並補建缺少的索引
+
+-- 打卡記錄表
+CREATE TABLE IF NOT EXISTS `clock_in_record` (
+  `id` bigint NOT NULL AUTO_INCREMENT COMMENT '記錄ID',
+  `user_id` bigint NOT NULL COMMENT '用戶ID',
+  `clock_date` date NOT NULL COMMENT '打卡日期',
+  `clock_time` time(6) NOT NULL COMMENT '打卡時間',
+  `clock_type` tinyint NOT NULL COMMENT '打卡類型(按枚舉序號保存：0-上班 1-下班)',
+  `status` tinyint NOT NULL COMMENT '打卡狀態(0-正常 1-遲到 2-早退 3-補卡 4-異常)',
+  `location` varchar(255) DEFAULT NULL COMMENT '打卡位置',
+  `device` varchar(100) DEFAULT NULL COMMENT '打卡設備',
+  `remark` varchar(255) DEFAULT NULL COMMENT '備註',
+  `create_time` datetime(6) DEFAULT NULL COMMENT '創建時間',
+  `update_time` datetime(6) DEFAULT NULL COMMENT '更新時間',
+  `is_deleted` int NOT NULL DEFAULT '0' COMMENT '是否刪除(0-未刪除 1-已刪除)',
+  PRIMARY KEY (`id`),
+  -- 同一用戶同一類型允許多次打卡，時間相同即為重複寫入；亦用於按類型查詢當日打卡
+  UNIQUE KEY `uk_user_date_type_time` (`user_id`,`clock_date`,`clock_type`,`clock_time`),
+  -- 用戶當日打卡按時間排序、用戶日期範圍計數
+  KEY `idx_user_date_deleted_time` (`user_id`,`clock_date`,`is_deleted`,`clock_time`),
+  -- 按日期劃分用戶區間、分組計數及按用戶區間讀取當日打卡
+  KEY `idx_date_deleted_user_time` (`clock_date`,`is_deleted`,`user_id`,`clock_time`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci COMMENT='打卡記錄表';
+
+-- 打卡日匯總表
+CREATE TABLE IF NOT EXISTS `clock_in_summary` (
+  `id` bigint NOT NULL AUTO_INCREMENT COMMENT 'ID',
+  `user_id` bigint NOT NULL COMMENT '用戶ID',
+  `clock_date` date NOT NULL COMMENT '打卡日期',
+  `clock_in_time` time(6) DEFAULT NULL COMMENT '上班打卡時間',
+  `clock_in_status` int DEFAULT NULL COMMENT '上班打卡狀態(0-正常 1-遲到 2-早退 3-補卡 4-異常)',
+  `clock_out_time` time(6) DEFAULT NULL COMMENT '下班打卡時間',
+  `clock_out_status` int DEFAULT NULL COMMENT '下班打卡狀態(0-正常 1-遲到 2-早退 3-補卡 4-異常)',
+  `work_duration` int DEFAULT NULL COMMENT '工作時長(分鐘)',
+  `absence_type` int NOT NULL COMMENT '缺勤類型(0-正常 1-遲到 2-早退 3-曠工 4-請假 5-外勤)',
+  `remark` varchar(255) DEFAULT NULL COMMENT '備註',
+  `create_time` datetime(6) DEFAULT NULL COMMENT '創建時間',
+  `update_time` datetime(6) DEFAULT NULL COMMENT '更新時間',
+  `is_deleted` int NOT NULL DEFAULT '0' COMMENT '是否刪除(0-未刪除 1-已刪除)',
+  PRIMARY KEY (`id`),
+  -- upsert 及增量合併依賴的唯一鍵
+  UNIQUE KEY `uk_user_date` (`user_id`,`clock_date`),
+  -- 用戶日期範圍的缺勤、異常計數及部門出勤率，只讀索引
+  KEY `idx_user_date_status` (`user_id`,`clock_date`,`is_deleted`,`absence_type`,`clock_in_status`,`clock_out_status`),
+  -- 按日期範圍彙總月報表及導出，月報表彙總只讀索引
+  KEY `idx_date_deleted_user` (`clock_date`,`is_deleted`,`user_id`,`absence_type`,`work_duration`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci COMMENT='打卡日匯總表';
+
+-- 工作地點表
+CREATE TABLE IF NOT EXISTS `t_work_location` (
+  `id` bigint NOT NULL AUTO_INCREMENT COMMENT '主鍵ID',
+  `name` varchar(100) NOT NULL COMMENT '地點名稱',
+  `address` varchar(200) NOT NULL COMMENT '地點詳細地址',
+  `longitude` double NOT NULL COMMENT '經度',
+  `latitude` double NOT NULL COMMENT '緯度',
+  `allowed_range` int NOT NULL COMMENT '允許範圍(米)',
+  `wifi_ssid` varchar(100) DEFAULT NULL COMMENT 'WiFi名稱',
+  `wifi_mac` varchar(100) DEFAULT NULL COMMENT 'WiFi MAC地址',
+  `enable_wifi_validation` tinyint(1) NOT NULL COMMENT '是否啟用WiFi打卡驗證',
+  `create_time` datetime(6) NOT NULL COMMENT '創建時間',
+  `create_by` varchar(255) DEFAULT NULL COMMENT '創建者',
+  `update_time` datetime(6) DEFAULT NULL COMMENT '更新時間',
+  `update_by` varchar(255) DEFAULT NULL COMMENT '更新者',
+  `is_enabled` tinyint(1) NOT NULL DEFAULT '1' COMMENT '是否啟用',
+  `is_deleted` tinyint(1) NOT NULL DEFAULT '0' COMMENT '刪除標記(0-存在 1-刪除)',
+  `remark` varchar(500) DEFAULT NULL COMMENT '備註',
+  PRIMARY KEY (`id`),
+  -- 打卡時讀取啟用中的地點
+  KEY `idx_deleted_enabled` (`is_deleted`,`is_enabled`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci COMMENT='工作地點表';
+
+-- 考勤規則表
+CREATE TABLE IF NOT EXISTS `t_attendance_rule` (
+  `id` bigint NOT NULL AUTO_INCREMENT COMMENT '主鍵ID',
+  `name` varchar(100) NOT NULL COMMENT '規則名稱',
+  `work_start_time` time(6) NOT NULL COMMENT '上班時間',
+  `work_end_time` time(6) NOT NULL COMMENT '下班時間',
+  `flexible_time` int NOT NULL COMMENT '彈性時間(分鐘)',
+  `enable_flexible_time` tinyint(1) NOT NULL COMMENT '是否啟用彈性工作時間',
+  `lunch_start_time` time(6) DEFAULT NULL COMMENT '午休開始時間',
+  `lunch_end_time` time(6) DEFAULT NULL COMMENT '午休結束時間',
+  `enable_lunch_time` tinyint(1) NOT NULL COMMENT '是否啟用午休時間',
+  `late_threshold` int NOT NULL COMMENT '遲到閾值(分鐘)',
+  `early_leave_threshold` int NOT NULL COMMENT '早退閾值(分鐘)',
+  `overtime_threshold` int NOT NULL COMMENT '加班閾值(分鐘)',
+  `work_duration` int NOT NULL COMMENT '工作時長(分鐘)',
+  `check_holidays` tinyint(1) NOT NULL COMMENT '是否考勤特殊節假日',
+  `enable_out_working` tinyint(1) NOT NULL COMMENT '是否啟用外勤打卡',
+  `enable_photo_clock` tinyint(1) NOT NULL COMMENT '是否啟用拍照打卡',
+  `enable_wifi_validation` tinyint(1) NOT NULL COMMENT '是否啟用WiFi打卡驗證',
+  `enable_location_validation` tinyint(1) NOT NULL COMMENT '是否啟用位置打卡驗證',
+  `description` varchar(500) DEFAULT NULL COMMENT '規則描述',
+  `department_id` bigint DEFAULT NULL COMMENT '部門ID(NULL表示全公司通用規則)',
+  `create_time` datetime(6) NOT NULL COMMENT '創建時間',
+  `create_by` varchar(255) DEFAULT NULL COMMENT '創建者',
+  `update_time` datetime(6) DEFAULT NULL COMMENT '更新時間',
+  `update_by` varchar(255) DEFAULT NULL COMMENT '更新者',
+  `remark` varchar(500) DEFAULT NULL COMMENT '備註',
+  `is_enabled` tinyint(1) NOT NULL DEFAULT '1' COMMENT '是否啟用',
+  `is_deleted` tinyint(1) NOT NULL DEFAULT '0' COMMENT '刪除標記(0-存在 1-刪除)',
+  `priority` int NOT NULL COMMENT '優先級(數字越小優先級越高)',
+  PRIMARY KEY (`id`),
+  -- 按部門（或全公司）取優先級最高的啟用規則
+  KEY `idx_department_priority` (`department_id`,`is_deleted`,`is_enabled`,`priority`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci COMMENT='考勤規則表';
+
+-- 以下處理 ddl-auto 已建立的表，新建的表上均不產生變更
+
+-- 打卡時間統一為微秒精度，唯一鍵按完整時間判斷重複
+ALTER TABLE `clock_in_record`
+  MODIFY `clock_time` time(6) NOT NULL COMMENT '打卡時間';
+ALTER TABLE `clock_in_summary`
+  MODIFY `clock_in_time` time(6) DEFAULT NULL COMMENT '上班打卡時間',
+  MODIFY `clock_out_time` time(6) DEFAULT NULL COMMENT '下班打卡時間';
+
+-- 加唯一鍵前去重：同一次打卡保留未刪除的行中最早寫入的一條
+DELETE r FROM `clock_in_record` r
+  JOIN `clock_in_record` d
+    ON d.`user_id` = r.`user_id`
+   AND d.`clock_date` = r.`clock_date`
+   AND d.`clock_type` = r.`clock_type`
+   AND d.`clock_time` = r.`clock_time`
+   AND (d.`is_deleted` < r.`is_deleted` OR (d.`is_deleted` = r.`is_deleted` AND d.`id` < r.`id`));
+
+-- 日匯總保留未刪除的行中最後寫入的一條
+DELETE r FROM `clock_in_summary` r
+  JOIN `clock_in_summary` d
+    ON d.`user_id` = r.`user_id`
+   AND d.`clock_date` = r.`clock_date`
+   AND (d.`is_deleted` < r.`is_deleted` OR (d.`is_deleted` = r.`is_deleted` AND d.`id` > r.`id`));
+
+-- 只補建缺少的索引（MySQL 不支持 ADD INDEX IF NOT EXISTS）
+SET @ddl = (SELECT CONCAT_WS(', ',
+    IF(SUM(index_name = 'uk_user_date_type_time') = 0,
+       'ADD UNIQUE KEY `uk_user_date_type_time` (`user_id`,`clock_date`,`clock_type`,`clock_time`)', NULL),
+    IF(SUM(index_name = 'idx_user_date_deleted_time') = 0,
+       'ADD KEY `idx_user_date_deleted_time` (`user_id`,`clock_date`,`is_deleted`,`clock_time`)', NULL),
+    IF(SUM(index_name = 'idx_date_deleted_user_time') = 0,
+       'ADD KEY `idx_date_deleted_user_time` (`clock_date`,`is_deleted`,`user_id`,`clock_time`)', NULL))
+  FROM information_schema.statistics
+  WHERE table_schema = DATABASE() AND table_name = 'clock_in_record');
+SET @ddl = IF(@ddl = '', 'DO 0', CONCAT('ALTER TABLE `clock_in_record` ', @ddl));
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = (SELECT CONCAT_WS(', ',
+    IF(SUM(index_name = 'uk_user_date') = 0,
+       'ADD UNIQUE KEY `uk_user_date` (`user_id`,`clock_date`)', NULL),
+    IF(SUM(index_name = 'idx_user_date_status') = 0,
+       'ADD KEY `idx_user_date_status` (`user_id`,`clock_date`,`is_deleted`,`absence_type`,`clock_in_status`,`clock_out_status`)', NULL),
+    IF(SUM(index_name = 'idx_date_deleted_user') = 0,
+       'ADD KEY `idx_date_deleted_user` (`clock_date`,`is_deleted`,`user_id`,`absence_type`,`work_duration`)', NULL))
+  FROM information_schema.statistics
+  WHERE table_schema = DATABASE() AND table_name = 'clock_in_summary');
+SET @ddl = IF(@ddl = '', 'DO 0', CONCAT('ALTER TABLE `clock_in_summary` ', @ddl));
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.statistics
+               WHERE table_schema = DATABASE() AND table_name = 't_work_location'
+                 AND index_name = 'idx_deleted_enabled') = 0,
+              'ALTER TABLE `t_work_location` ADD KEY `idx_deleted_enabled` (`is_deleted`,`is_enabled`)',
+              'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.statistics
+               WHERE table_schema = DATABASE() AND table_name = 't_attendance_rule'
+                 AND index_name = 'idx_department_priority') = 0,
+              'ALTER TABLE `t_attendance_rule` ADD KEY `idx_department_priority` (`department_id`,`is_deleted`,`is_enabled`,`priority`)',
+              'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
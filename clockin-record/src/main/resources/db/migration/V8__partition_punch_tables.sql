@@ -0,0 +1,32 @@
+-- 打卡記錄按打卡日期做月度範圍分區，過期分區由歸檔任務搬到壓縮歸檔表後刪除
+-- 初始只有 pmax 一個分區，月度分區由歸檔任務從 pmax 拆分並提前建立
+-- 分區表的唯一鍵必須包含分區欄位，主鍵改為 (id, clock_date)；執行時會重建表
+
+-- 歸檔表（不分區、壓縮存儲），需在原表分區前複製結構
+CREATE TABLE IF NOT EXISTS `clock_in_record_archive` LIKE `clock_in_record`;
+ALTER TABLE `clock_in_record_archive`
+  ROW_FORMAT=COMPRESSED,
+  DROP INDEX `uk_user_date_type_time`,
+  DROP INDEX `idx_date_deleted_user_time`,
+  COMMENT='打卡記錄歸檔表';
+
+CREATE TABLE IF NOT EXISTS `clock_record_archive` LIKE `clock_record`;
+ALTER TABLE `clock_record_archive`
+  ROW_FORMAT=COMPRESSED,
+  COMMENT='打卡記錄歸檔表';
+
+ALTER TABLE `clock_in_record`
+  DROP PRIMARY KEY,
+  ADD PRIMARY KEY (`id`,`clock_date`);
+ALTER TABLE `clock_in_record`
+  PARTITION BY RANGE COLUMNS (`clock_date`) (
+    PARTITION pmax VALUES LESS THAN (MAXVALUE)
+  );
+
+ALTER TABLE `clock_record`
+  DROP PRIMARY KEY,
+  ADD PRIMARY KEY (`id`,`clock_date`);
+ALTER TABLE `clock_record`
+  PARTITION BY RANGE COLUMNS (`clock_date`) (
+    PARTITION pmax VALUES LESS THAN (MAXVALUE)
+  );
@@ -0,0 +1,84 @@
+-- V1 建立的 clock_record 欄位與實體 ClockRecord 不一致（ddl-auto 建立的表則已一致），
+-- 先按實體補齊欄位；舊欄位（clock_time、location 等）保留不刪，只放寬 NOT NULL 以免實體寫入失敗。
+-- 歸檔表由 V8 以 LIKE 複製，需同樣對齊，否則 EXCHANGE PARTITION 後的歸檔拷貝會缺欄位
+SET @ddl = (SELECT CONCAT_WS(', ',
+    IF(SUM(column_name = 'clock_in_time') = 0,
+       'ADD COLUMN `clock_in_time` datetime(6) DEFAULT NULL COMMENT ''上班打卡時間''', NULL),
+    IF(SUM(column_name = 'clock_out_time') = 0,
+       'ADD COLUMN `clock_out_time` datetime(6) DEFAULT NULL COMMENT ''下班打卡時間''', NULL),
+    IF(SUM(column_name = 'work_location') = 0,
+       'ADD COLUMN `work_location` varchar(100) DEFAULT NULL COMMENT ''工作地點''', NULL),
+    IF(SUM(column_name = 'device_info') = 0,
+       'ADD COLUMN `device_info` varchar(200) DEFAULT NULL COMMENT ''設備信息''', NULL),
+    IF(SUM(column_name = 'is_abnormal') = 0,
+       'ADD COLUMN `is_abnormal` tinyint(1) DEFAULT NULL COMMENT ''是否異常(0-正常 1-異常)''', NULL),
+    IF(SUM(column_name = 'abnormal_reason') = 0,
+       'ADD COLUMN `abnormal_reason` varchar(500) DEFAULT NULL COMMENT ''異常原因''', NULL),
+    IF(SUM(column_name = 'work_duration') = 0,
+       'ADD COLUMN `work_duration` int DEFAULT NULL COMMENT ''工作時長(分鐘)''', NULL),
+    IF(SUM(column_name = 'is_holiday') = 0,
+       'ADD COLUMN `is_holiday` tinyint(1) DEFAULT NULL COMMENT ''是否休假日(0-否 1-是)''', NULL),
+    IF(SUM(column_name = 'holiday_type') = 0,
+       'ADD COLUMN `holiday_type` int DEFAULT NULL COMMENT ''休假類型(1-法定假日 2-公司假日 3-個人假日)''', NULL),
+    IF(SUM(column_name = 'deleted') = 0,
+       'ADD COLUMN `deleted` tinyint(1) NOT NULL DEFAULT ''0'' COMMENT ''是否刪除(0-未刪除 1-已刪除)''', NULL),
+    IF(SUM(column_name = 'clock_type' AND (data_type <> 'int' OR is_nullable = 'NO')) > 0,
+       'MODIFY COLUMN `clock_type` int DEFAULT NULL COMMENT ''打卡類型(1-手動打卡 2-自動打卡 3-系統修正)''', NULL),
+    IF(SUM(column_name = 'clock_time' AND is_nullable = 'NO') > 0,
+       'MODIFY COLUMN `clock_time` datetime DEFAULT NULL COMMENT ''打卡時間''', NULL))
+  FROM information_schema.columns
+  WHERE table_schema = DATABASE() AND table_name = 'clock_record');
+SET @ddl = IF(@ddl = '', 'DO 0', CONCAT('ALTER TABLE `clock_record` ', @ddl));
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = (SELECT CONCAT_WS(', ',
+    IF(SUM(column_name = 'clock_in_time') = 0,
+       'ADD COLUMN `clock_in_time` datetime(6) DEFAULT NULL COMMENT ''上班打卡時間''', NULL),
+    IF(SUM(column_name = 'clock_out_time') = 0,
+       'ADD COLUMN `clock_out_time` datetime(6) DEFAULT NULL COMMENT ''下班打卡時間''', NULL),
+    IF(SUM(column_name = 'work_location') = 0,
+       'ADD COLUMN `work_location` varchar(100) DEFAULT NULL COMMENT ''工作地點''', NULL),
+    IF(SUM(column_name = 'device_info') = 0,
+       'ADD COLUMN `device_info` varchar(200) DEFAULT NULL COMMENT ''設備信息''', NULL),
+    IF(SUM(column_name = 'is_abnormal') = 0,
+       'ADD COLUMN `is_abnormal` tinyint(1) DEFAULT NULL COMMENT ''是否異常(0-正常 1-異常)''', NULL),
+    IF(SUM(column_name = 'abnormal_reason') = 0,
+       'ADD COLUMN `abnormal_reason` varchar(500) DEFAULT NULL COMMENT ''異常原因''', NULL),
+    IF(SUM(column_name = 'work_duration') = 0,
+       'ADD COLUMN `work_duration` int DEFAULT NULL COMMENT ''工作時長(分鐘)''', NULL),
+    IF(SUM(column_name = 'is_holiday') = 0,
+       'ADD COLUMN `is_holiday` tinyint(1) DEFAULT NULL COMMENT ''是否休假日(0-否 1-是)''', NULL),
+    IF(SUM(column_name = 'holiday_type') = 0,
+       'ADD COLUMN `holiday_type` int DEFAULT NULL COMMENT ''休假類型(1-法定假日 2-公司假日 3-個人假日)''', NULL),
+    IF(SUM(column_name = 'deleted') = 0,
+       'ADD COLUMN `deleted` tinyint(1) NOT NULL DEFAULT ''0'' COMMENT ''是否刪除(0-未刪除 1-已刪除)''', NULL),
+    IF(SUM(column_name = 'clock_type' AND (data_type <> 'int' OR is_nullable = 'NO')) > 0,
+       'MODIFY COLUMN `clock_type` int DEFAULT NULL COMMENT ''打卡類型(1-手動打卡 2-自動打卡 3-系統修正)''', NULL),
+    IF(SUM(column_name = 'clock_time' AND is_nullable = 'NO') > 0,
+       'MODIFY COLUMN `clock_time` datetime DEFAULT NULL COMMENT ''打卡時間''', NULL))
+  FROM information_schema.columns
+  WHERE table_schema = DATABASE() AND table_name = 'clock_record_archive');
+SET @ddl = IF(@ddl = '', 'DO 0', CONCAT('ALTER TABLE `clock_record_archive` ', @ddl));
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- 打卡記錄導入以 INSERT ... ON DUPLICATE KEY UPDATE 按 (user_id, clock_date) 覆蓋，依賴該唯一鍵
+-- 舊的逐筆導入可能已寫入重複行，先按鍵去重：保留未刪除的行，其中 id 最大（最後導入）的一條
+DELETE r FROM `clock_record` r
+  JOIN `clock_record` d
+    ON d.`user_id` = r.`user_id`
+   AND d.`clock_date` = r.`clock_date`
+   AND (d.`deleted` < r.`deleted` OR (d.`deleted` = r.`deleted` AND d.`id` > r.`id`));
+
+-- 唯一鍵包含分區欄位 clock_date，可直接加在已分區的表上；ddl-auto 建立的表可能已有該鍵
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.statistics
+               WHERE table_schema = DATABASE() AND table_name = 'clock_record'
+                 AND index_name = 'uk_clock_record_user_date') = 0,
+              'ALTER TABLE `clock_record` ADD UNIQUE KEY `uk_clock_record_user_date` (`user_id`,`clock_date`)',
+              'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
@@ -0,0 +1,107 @@
+package com.clockin.record.repository;
+
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * 依賴 MySQL 行為的測試共用的臨時數據庫
+ * <p>
+ * 建立臨時庫並按版本順序執行全部遷移腳本，關閉時刪除。
+ * 需要 MySQL 8，通過 -Dclock-in.plan-test.url=jdbc:mysql://host:3306 指定（可選 .user、.password），未指定時跳過。
+ * CI 在 MySQL 8 服務容器旁執行，並加上 -Dclock-in.plan-test.required=true，未提供地址時測試失敗而不是跳過：
+ * {@code mvn -pl clockin-record test -Dclock-in.plan-test.required=true
+ * -Dclock-in.plan-test.url=jdbc:mysql://127.0.0.1:3306 -Dclock-in.plan-test.password=...}
+ */
+public final class MySqlTestDatabase implements AutoCloseable {
+
+    private static final String URL_PROPERTY = "clock-in.plan-test.url";
+
+    /**
+     * 設為 true 時未指定數據庫地址即失敗，CI 以此確保檢查不會被靜默跳過
+     */
+    private static final String REQUIRED_PROPERTY = "clock-in.plan-test.required";
+
+    private static final String MIGRATION_PATTERN = "classpath:db/migration/V*__*.sql";
+
+    private static final Pattern MIGRATION_VERSION = Pattern.compile("V(\\d+)__.*\\.sql");
+
+    private final SingleConnectionDataSource dataSource;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final String database;
+
+    private MySqlTestDatabase(SingleConnectionDataSource dataSource, String database) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.database = database;
+    }
+
+    /**
+     * 建立臨時庫並執行全部遷移腳本，未指定數據庫地址時跳過當前測試
+     *
+     * @param prefix 臨時庫名稱前綴
+     * @return 臨時數據庫
+     */
+    public static MySqlTestDatabase create(String prefix) throws SQLException, IOException {
+        String url = System.getProperty(URL_PROPERTY);
+        if (Boolean.getBoolean(REQUIRED_PROPERTY)) {
+            assertTrue(url != null && !url.isEmpty(), "已設置 " + REQUIRED_PROPERTY + "，但未指定 " + URL_PROPERTY);
+        }
+        assumeTrue(url != null && !url.isEmpty(), "未指定 " + URL_PROPERTY + "，跳過需要 MySQL 的測試");
+
+        SingleConnectionDataSource dataSource = new SingleConnectionDataSource(url,
+                System.getProperty(URL_PROPERTY + ".user", "root"), System.getProperty(URL_PROPERTY + ".password", ""), true);
+        MySqlTestDatabase testDatabase = new MySqlTestDatabase(dataSource, prefix + "_" + System.currentTimeMillis());
+        testDatabase.jdbcTemplate.execute("CREATE DATABASE " + testDatabase.database);
+        testDatabase.jdbcTemplate.execute("USE " + testDatabase.database);
+        try (Connection connection = dataSource.getConnection()) {
+            for (Resource migration : migrations()) {
+                ScriptUtils.executeSqlScript(connection, migration);
+            }
+        }
+        return testDatabase;
+    }
+
+    public JdbcTemplate getJdbcTemplate() {
+        return jdbcTemplate;
+    }
+
+    @Override
+    public void close() {
+        jdbcTemplate.execute("DROP DATABASE IF EXISTS " + database);
+        dataSource.destroy();
+    }
+
+    /**
+     * 按版本號順序列出全部遷移腳本，與 Flyway 的執行順序一致，新增腳本無需修改測試
+     */
+    private static List<Resource> migrations() throws IOException {
+        Resource[] resources = new PathMatchingResourcePatternResolver().getResources(MIGRATION_PATTERN);
+        List<Resource> migrations = new ArrayList<>(List.of(resources));
+        migrations.sort(Comparator.comparingInt(MySqlTestDatabase::migrationVersion));
+        assertFalse(migrations.isEmpty(), "未找到遷移腳本");
+        return migrations;
+    }
+
+    private static int migrationVersion(Resource migration) {
+        Matcher matcher = MIGRATION_VERSION.matcher(String.valueOf(migration.getFilename()));
+        assertTrue(matcher.matches(), "遷移腳本命名不符合 V<版本>__<描述>.sql: " + migration.getFilename());
+        return Integer.parseInt(matcher.group(1));
+    }
+}
@@ -0,0 +1,173 @@
+package com.clockin.record.repository;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 熱點查詢執行計劃回歸測試
+ * <p>
+ * 在臨時數據庫中按版本順序執行全部遷移腳本並寫入測試數據，以 EXPLAIN 檢查各資源庫方法對應的語句沒有退化為全表或全索引掃描，
+ * 且打卡記錄查詢只訪問日期範圍內的分區。
+ * 數據庫的指定方式見 {@link MySqlTestDatabase}
+ */
+public class QueryPlanRegressionTest {
+
+    private static final int USERS = 200;
+
+    private static final int DAYS = 180;
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2024, 1, 1);
+
+    private static MySqlTestDatabase testDatabase;
+
+    private static JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    public static void setup() throws SQLException, IOException {
+        testDatabase = MySqlTestDatabase.create("clockin_plan");
+        jdbcTemplate = testDatabase.getJdbcTemplate();
+
+        jdbcTemplate.execute("SET SESSION cte_max_recursion_depth = " + USERS * DAYS * 2);
+        // 每天每個用戶一條上班及一條下班打卡
+        jdbcTemplate.update("INSERT INTO clock_in_record (user_id, clock_date, clock_time, clock_type, status, is_deleted) " +
+                "WITH RECURSIVE seq (n) AS (SELECT 0 UNION ALL SELECT n + 1 FROM seq WHERE n < ?) " +
+                "SELECT n % ? + 1, DATE_ADD(?, INTERVAL n DIV ? DAY), " +
+                "MAKETIME(IF((n DIV ?) % 2 = 0, 9, 18), n % 60, 0), (n DIV ?) % 2, 0, 0 FROM seq",
+                USERS * DAYS * 2 - 1, USERS, FIRST_DAY, USERS * 2, USERS, USERS);
+        jdbcTemplate.update("INSERT INTO clock_in_summary (user_id, clock_date, clock_in_time, clock_in_status, " +
+                "clock_out_time, clock_out_status, work_duration, absence_type, is_deleted) " +
+                "WITH RECURSIVE seq (n) AS (SELECT 0 UNION ALL SELECT n + 1 FROM seq WHERE n < ?) " +
+                "SELECT n % ? + 1, DATE_ADD(?, INTERVAL n DIV ? DAY), '09:00:00', 0, '18:00:00', 0, 540, n % 6, 0 FROM seq",
+                USERS * DAYS - 1, USERS, FIRST_DAY, USERS);
+        jdbcTemplate.update("INSERT INTO user_department (user_id, department_id, changed_at) " +
+                "WITH RECURSIVE seq (n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < ?) " +
+                "SELECT n, n % 10 + 1, 0 FROM seq", USERS);
+
+        // 按測試數據的日期範圍建立月度分區
+        List<PartitionJdbcRepository.Partition> partitions = new ArrayList<>();
+        for (YearMonth month = YearMonth.from(FIRST_DAY); !month.isAfter(YearMonth.from(FIRST_DAY.plusDays(DAYS)));
+             month = month.plusMonths(1)) {
+            partitions.add(new PartitionJdbcRepository.Partition("p" + month.toString().replace("-", ""),
+                    month.plusMonths(1).atDay(1)));
+        }
+        new PartitionJdbcRepository(jdbcTemplate).splitMaxPartition("clock_in_record", partitions);
+        jdbcTemplate.execute("ANALYZE TABLE clock_in_record, clock_in_summary, user_department");
+    }
+
+    @AfterAll
+    public static void cleanup() {
+        if (testDatabase != null) {
+            testDatabase.close();
+        }
+    }
+
+    @Test
+    public void testClockInRecordQueriesUseIndexes() {
+        LocalDate day = FIRST_DAY.plusDays(30);
+
+        assertIndexed("findByUserIdAndClockDateAndIsDeletedOrderByClockTimeAsc",
+                "SELECT * FROM clock_in_record WHERE user_id = ? AND clock_date = ? AND is_deleted = ? " +
+                        "ORDER BY clock_time", 1L, day, 0);
+        assertIndexed("findFirstByUserIdAndClockDateAndClockTypeAndIsDeletedOrderByClockTimeDesc",
+                "SELECT * FROM clock_in_record WHERE user_id = ? AND clock_date = ? AND clock_type = ? " +
+                        "AND is_deleted = ? ORDER BY clock_time DESC LIMIT 1", 1L, day, 1, 0);
+        assertIndexed("existsByUserIdAndClockDateAndClockTypeAndIsDeleted",
+                "SELECT id FROM clock_in_record WHERE user_id = ? AND clock_date = ? AND clock_type = ? " +
+                        "AND is_deleted = ? LIMIT 1", 1L, day, 0, 0);
+        assertIndexed("existsByUserIdAndClockDateAndClockTypeAndClockTimeAndIsDeleted",
+                "SELECT id FROM clock_in_record WHERE user_id = ? AND clock_date = ? AND clock_type = ? " +
+                        "AND clock_time = ? AND is_deleted = ? LIMIT 1", 1L, day, 0, LocalTime.of(9, 1), 0);
+        assertIndexed("countByUserIdAndClockDateBetweenAndIsDeleted",
+                "SELECT COUNT(id) FROM clock_in_record WHERE user_id = ? AND clock_date BETWEEN ? AND ? " +
+                        "AND is_deleted = ?", 1L, day, day.plusDays(29), 0);
+        assertIndexed("countByUserGroupAndDateRange",
+                "SELECT user_id, COUNT(id) FROM clock_in_record WHERE clock_date BETWEEN ? AND ? AND is_deleted = ? " +
+                        "GROUP BY user_id", day, day.plusDays(6), 0);
+        assertIndexed("findUserIdsByClockDateAfter",
+                "SELECT DISTINCT user_id FROM clock_in_record WHERE clock_date = ? AND is_deleted = ? " +
+                        "AND user_id >= ? AND user_id <= ? ORDER BY user_id LIMIT 50", day, 0, 1L, (long) USERS);
+        assertIndexed("countUsersByClockDate",
+                "SELECT COUNT(DISTINCT user_id) FROM clock_in_record WHERE clock_date = ? AND is_deleted = ? " +
+                        "AND user_id >= ? AND user_id <= ?", day, 0, 1L, (long) USERS);
+        assertIndexed("findUserIdRangeByClockDateBetween",
+                "SELECT MIN(user_id), MAX(user_id) FROM clock_in_record WHERE clock_date BETWEEN ? AND ? " +
+                        "AND is_deleted = ?", day, day.plusDays(6), 0);
+        assertIndexed("findByClockDateAndIsDeletedAndUserIdBetweenOrderByUserIdAscClockTimeAsc",
+                "SELECT * FROM clock_in_record WHERE clock_date = ? AND is_deleted = ? AND user_id BETWEEN ? AND ? " +
+                        "ORDER BY user_id, clock_time", day, 0, 1L, 50L);
+    }
+
+    @Test
+    public void testClockInSummaryQueriesUseIndexes() {
+        LocalDate day = FIRST_DAY.plusDays(30);
+
+        assertIndexed("findByUserIdAndClockDateAndIsDeleted",
+                "SELECT * FROM clock_in_summary WHERE user_id = ? AND clock_date = ? AND is_deleted = ?",
+                1L, day, 0);
+        assertIndexed("findByUserIdAndClockDateBetweenAndIsDeletedOrderByClockDateAsc",
+                "SELECT * FROM clock_in_summary WHERE user_id = ? AND clock_date BETWEEN ? AND ? AND is_deleted = ? " +
+                        "ORDER BY clock_date", 1L, day, day.plusDays(29), 0);
+        assertIndexed("countByUserIdAndClockDateBetweenAndAbsenceTypeInAndIsDeleted",
+                "SELECT COUNT(id) FROM clock_in_summary WHERE user_id = ? AND clock_date BETWEEN ? AND ? " +
+                        "AND absence_type IN (?, ?) AND is_deleted = ?", 1L, day, day.plusDays(29), 1, 2, 0);
+        assertIndexed("countAbnormalRecords",
+                "SELECT COUNT(id) FROM clock_in_summary WHERE user_id = ? AND clock_date BETWEEN ? AND ? " +
+                        "AND is_deleted = ? AND (clock_in_status > 0 OR clock_out_status > 0 OR absence_type > 0)",
+                1L, day, day.plusDays(29), 0);
+        assertIndexed("statisticAttendanceRateByDepartment",
+                "SELECT s.clock_date, COUNT(CASE WHEN s.absence_type = 0 THEN 1 END) * 1.0 / COUNT(*) " +
+                        "FROM clock_in_summary s JOIN user_department ud ON s.user_id = ud.user_id " +
+                        "WHERE ud.department_id = ? AND s.clock_date BETWEEN ? AND ? AND s.is_deleted = ? " +
+                        "GROUP BY s.clock_date ORDER BY s.clock_date", 1L, day, day.plusDays(29), 0);
+        assertIndexed("ClockMonthlySummaryJdbcRepository 月報表彙總",
+                "SELECT user_id, COUNT(*), SUM(work_duration), SUM(CASE WHEN absence_type = 1 THEN 1 ELSE 0 END) " +
+                        "FROM clock_in_summary WHERE clock_date BETWEEN ? AND ? AND is_deleted = 0 GROUP BY user_id",
+                day, day.plusMonths(1).minusDays(1));
+        assertIndexed("ExportJdbcRepository 日匯總導出",
+                "SELECT user_id, clock_date, clock_in_time, clock_in_status, clock_out_time, clock_out_status, " +
+                        "work_duration, absence_type, remark FROM clock_in_summary " +
+                        "WHERE clock_date BETWEEN ? AND ? AND is_deleted = 0 ORDER BY clock_date, user_id",
+                day, day.plusDays(6));
+        assertIndexed("ClockInSummaryJdbcRepository 清理無打卡記錄的匯總",
+                "SELECT s.user_id FROM clock_in_summary s WHERE s.clock_date = ? AND s.user_id BETWEEN ? AND ? " +
+                        "AND s.is_deleted = 0 AND NOT EXISTS (SELECT 1 FROM clock_in_record r " +
+                        "WHERE r.user_id = s.user_id AND r.clock_date = s.clock_date AND r.is_deleted = 0)",
+                day, 1L, 50L);
+    }
+
+    /**
+     * 檢查執行計劃中每張表都通過索引訪問，分區表不訪問 pmax 分區
+     *
+     * @param name 查詢名稱，用於失敗信息
+     * @param sql  查詢語句
+     * @param args 參數
+     */
+    private static void assertIndexed(String name, String sql, Object... args) {
+        List<Map<String, Object>> plan = jdbcTemplate.queryForList("EXPLAIN " + sql, args);
+        assertFalse(plan.isEmpty(), name + " 沒有執行計劃");
+        for (Map<String, Object> row : plan) {
+            String type = String.valueOf(row.get("type"));
+            assertNotEquals("ALL", type, name + " 退化為全表掃描: " + row);
+            assertNotEquals("index", type, name + " 退化為全索引掃描: " + row);
+            assertNotNull(row.get("key"), name + " 沒有使用索引: " + row);
+            Object partitions = row.get("partitions");
+            if (partitions != null) {
+                assertFalse(partitions.toString().contains(PartitionJdbcRepository.MAX_PARTITION),
+                        name + " 沒有按日期裁剪分區: " + row);
+            }
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.clockin.record.service.impl;
+
+import com.clockin.common.calendar.WorkdayCalendarService;
+import com.clockin.common.exception.BusinessException;
+import com.clockin.record.dto.ClockInRequest;
+import com.clockin.record.dto.ClockInResponse;
+import com.clockin.record.entity.ClockInRecord;
+import com.clockin.record.enums.ClockInType;
+import com.clockin.record.repository.ClockInRecordRepository;
+import com.clockin.record.repository.ClockInSummaryJdbcRepository;
+import com.clockin.record.repository.ClockInSummaryRepository;
+import com.clockin.record.service.ClockInIdempotencyService;
+import com.clockin.record.service.ClockInSummaryBatchService;
+import com.clockin.record.service.MonthlySummaryRollupService;
+import com.clockin.record.service.PunchIngestionService;
+import com.clockin.record.service.UserLockService;
+import com.clockin.record.service.WorkConfigSnapshotService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 打卡冪等重放測試
+ */
+public class ClockInIdempotencyReplayTest {
+
+    private static final Long USER_ID = 1L;
+
+    private static final String KEY = "f3b1c2d4";
+
+    @InjectMocks
+    private ClockInServiceImpl clockInService;
+
+    @Mock
+    private ClockInRecordRepository recordRepository;
+
+    @Mock
+    private ClockInSummaryRepository summaryRepository;
+
+    @Mock
+    private ClockInSummaryJdbcRepository summaryJdbcRepository;
+
+    @Mock
+    private WorkConfigSnapshotService workConfigSnapshotService;
+
+    @Mock
+    private WorkdayCalendarService workdayCalendarService;
+
+    @Mock
+    private ClockInSummaryBatchService summaryBatchService;
+
+    @Mock
+    private UserLockService userLockService;
+
+    @Mock
+    private ClockInIdempotencyService idempotencyService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private ObjectProvider<PunchIngestionService> punchIngestionService;
+
+    @Mock
+    private MonthlySummaryRollupService monthlySummaryRollupService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        MockitoAnnotations.openMocks(this);
+        when(userLockService.executeWithLock(eq(USER_ID), any()))
+                .thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(1)).get());
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> ((TransactionCallback<?>) invocation.getArgument(0)).doInTransaction(null));
+        when(workdayCalendarService.isWorkDay(any())).thenReturn(true);
+        when(workConfigSnapshotService.getStandardClockInTime(eq(USER_ID), any())).thenReturn(LocalTime.of(9, 0));
+        when(workConfigSnapshotService.getStandardClockOutTime(eq(USER_ID), any())).thenReturn(LocalTime.of(18, 0));
+        when(recordRepository.save(any(ClockInRecord.class))).thenAnswer(invocation -> {
+            ClockInRecord record = invocation.getArgument(0);
+            record.setId(100L);
+            return record;
+        });
+    }
+
+    @Test
+    public void testFirstRequestIsSavedUnderKey() {
+        when(idempotencyService.find(USER_ID, KEY)).thenReturn(Optional.empty());
+
+        ClockInResponse response = clockInService.clockIn(USER_ID, request(ClockInType.CLOCK_IN, KEY));
+
+        assertEquals(100L, response.getId());
+        verify(recordRepository).save(any(ClockInRecord.class));
+        verify(idempotencyService).save(USER_ID, KEY, response);
+    }
+
+    @Test
+    public void testReplayReturnsFirstResponseWithoutWriting() {
+        ClockInResponse first = ClockInResponse.builder()
+                .id(100L)
+                .userId(USER_ID)
+                .clockType(ClockInType.CLOCK_IN)
+                .clockTime(LocalTime.of(8, 55))
+                .build();
+        when(idempotencyService.find(USER_ID, KEY)).thenReturn(Optional.of(first));
+
+        ClockInResponse response = clockInService.clockIn(USER_ID, request(ClockInType.CLOCK_IN, KEY));
+
+        assertSame(first, response);
+        verify(recordRepository, never()).save(any());
+        verifyNoInteractions(summaryJdbcRepository, transactionTemplate);
+        verify(idempotencyService, never()).save(any(), any(), any());
+    }
+
+    @Test
+    public void testKeyReusedForOtherClockTypeIsRejected() {
+        ClockInResponse first = ClockInResponse.builder().id(100L).clockType(ClockInType.CLOCK_IN).build();
+        when(idempotencyService.find(USER_ID, KEY)).thenReturn(Optional.of(first));
+
+        assertThrows(BusinessException.class,
+                () -> clockInService.clockIn(USER_ID, request(ClockInType.CLOCK_OUT, KEY)));
+        verify(recordRepository, never()).save(any());
+    }
+
+    @Test
+    public void testRequestWithoutKeySkipsIdempotency() {
+        clockInService.clockIn(USER_ID, request(ClockInType.CLOCK_IN, null));
+
+        verify(recordRepository).save(any(ClockInRecord.class));
+        verifyNoInteractions(idempotencyService);
+    }
+
+    @Test
+    public void testLookupHappensInsideUserLock() {
+        // 冪等查詢與保存都在用戶鎖內執行，並發的重複請求不會都判定為首次
+        when(userLockService.executeWithLock(eq(USER_ID), any())).thenReturn(null);
+
+        clockInService.clockIn(USER_ID, request(ClockInType.CLOCK_IN, KEY));
+
+        verifyNoInteractions(idempotencyService, recordRepository);
+    }
+
+    private static ClockInRequest request(ClockInType clockType, String idempotencyKey) {
+        return ClockInRequest.builder()
+                .clockType(clockType)
+                .clockDate(LocalDate.of(2024, 3, 4))
+                .clockTime(LocalTime.of(8, 55))
+                .isMakeup(false)
+                .idempotencyKey(idempotencyKey)
+                .build();
+    }
+}
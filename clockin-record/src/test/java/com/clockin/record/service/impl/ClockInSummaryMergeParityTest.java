@@ -0,0 +1,173 @@
+package com.clockin.record.service.impl;
+
+import com.clockin.record.entity.ClockInRecord;
+import com.clockin.record.entity.ClockInSummary;
+import com.clockin.record.enums.AbsenceType;
+import com.clockin.record.enums.ClockInStatus;
+import com.clockin.record.enums.ClockInType;
+import com.clockin.record.repository.ClockInSummaryJdbcRepository;
+import com.clockin.record.repository.MySqlTestDatabase;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 打卡匯總增量合併與整日重算一致性測試
+ * <p>
+ * 打卡時的增量合併（ClockInSummaryJdbcRepository 的合併語句）與批量重算（ClockInSummaryCalculator）
+ * 必須得出相同的匯總；需要 MySQL 的用例在未指定數據庫時跳過，見 {@link MySqlTestDatabase}
+ */
+public class ClockInSummaryMergeParityTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 3, 4);
+
+    private static final long USER_ID = 1L;
+
+    /**
+     * 各場景的打卡記錄，按打卡提交順序排列
+     */
+    private static List<List<ClockInRecord>> scenarios() {
+        return List.of(
+                List.of(punch(ClockInType.CLOCK_IN, "08:55", ClockInStatus.NORMAL)),
+                List.of(punch(ClockInType.CLOCK_OUT, "17:20", ClockInStatus.EARLY_LEAVE)),
+                List.of(punch(ClockInType.CLOCK_IN, "09:20", ClockInStatus.LATE),
+                        punch(ClockInType.CLOCK_OUT, "18:05", ClockInStatus.NORMAL)),
+                // 較早的上班及較晚的下班覆蓋原值
+                List.of(punch(ClockInType.CLOCK_IN, "09:20", ClockInStatus.LATE),
+                        punch(ClockInType.CLOCK_OUT, "17:30", ClockInStatus.EARLY_LEAVE),
+                        punch(ClockInType.CLOCK_IN, "08:50", ClockInStatus.NORMAL),
+                        punch(ClockInType.CLOCK_OUT, "18:10", ClockInStatus.NORMAL)),
+                // 較晚的上班及較早的下班不覆蓋
+                List.of(punch(ClockInType.CLOCK_IN, "08:50", ClockInStatus.NORMAL),
+                        punch(ClockInType.CLOCK_OUT, "18:10", ClockInStatus.NORMAL),
+                        punch(ClockInType.CLOCK_IN, "09:20", ClockInStatus.LATE),
+                        punch(ClockInType.CLOCK_OUT, "17:30", ClockInStatus.EARLY_LEAVE)),
+                // 時間相同時以後合併的為準
+                List.of(punch(ClockInType.CLOCK_IN, "09:00", ClockInStatus.NORMAL),
+                        punch(ClockInType.CLOCK_IN, "09:00", ClockInStatus.MAKEUP)),
+                // 下班早於上班，時長記為 0
+                List.of(punch(ClockInType.CLOCK_OUT, "08:00", ClockInStatus.EARLY_LEAVE),
+                        punch(ClockInType.CLOCK_IN, "09:00", ClockInStatus.NORMAL)),
+                // 不足一分鐘的部分捨去
+                List.of(punch(ClockInType.CLOCK_IN, "09:00:40", ClockInStatus.NORMAL),
+                        punch(ClockInType.CLOCK_OUT, "18:00:20", ClockInStatus.NORMAL)));
+    }
+
+    @Test
+    public void testIncrementalMergeMatchesRecalculation() {
+        for (boolean workDay : new boolean[]{true, false}) {
+            for (List<ClockInRecord> records : scenarios()) {
+                ClockInSummary incremental = ClockInSummaryCalculator.initial(records.get(0), workDay);
+                for (ClockInRecord record : records.subList(1, records.size())) {
+                    ClockInSummaryCalculator.merge(incremental, record);
+                    ClockInSummaryCalculator.derive(incremental, workDay);
+                }
+
+                assertSameSummary(recalculate(records, workDay), incremental, records + ", workDay=" + workDay);
+            }
+        }
+    }
+
+    @Test
+    public void testRecalculationIgnoresPunchOrder() {
+        // 不含同時間打卡的場景與提交順序無關
+        List<ClockInRecord> records = new ArrayList<>(scenarios().get(3));
+        ClockInSummary expected = recalculate(records, true);
+        for (int i = 0; i < records.size(); i++) {
+            Collections.rotate(records, 1);
+            assertSameSummary(expected, recalculate(records, true), records.toString());
+        }
+    }
+
+    @Test
+    public void testAbsenceType() {
+        // 早退優先於曠工
+        assertEquals(AbsenceType.EARLY_LEAVE.getValue(), recalculate(scenarios().get(1), true).getAbsenceType());
+        assertEquals(AbsenceType.ABSENCE.getValue(), recalculate(
+                List.of(punch(ClockInType.CLOCK_OUT, "18:00", ClockInStatus.NORMAL)), true).getAbsenceType());
+        assertEquals(AbsenceType.NORMAL.getValue(), recalculate(scenarios().get(1), false).getAbsenceType());
+        assertEquals(AbsenceType.LATE.getValue(), recalculate(scenarios().get(2), true).getAbsenceType());
+        assertEquals(AbsenceType.NORMAL.getValue(), recalculate(scenarios().get(3), true).getAbsenceType());
+        assertEquals(AbsenceType.NORMAL.getValue(), recalculate(scenarios().get(4), true).getAbsenceType());
+        assertEquals(0, recalculate(scenarios().get(6), true).getWorkDuration());
+        assertEquals(539, recalculate(scenarios().get(7), true).getWorkDuration());
+    }
+
+    @Test
+    public void testMergeSqlMatchesCalculator() throws SQLException, IOException {
+        try (MySqlTestDatabase testDatabase = MySqlTestDatabase.create("clockin_parity")) {
+            JdbcTemplate jdbcTemplate = testDatabase.getJdbcTemplate();
+            ClockInSummaryJdbcRepository repository = new ClockInSummaryJdbcRepository(jdbcTemplate);
+
+            for (boolean workDay : new boolean[]{true, false}) {
+                for (List<ClockInRecord> records : scenarios()) {
+                    jdbcTemplate.update("DELETE FROM clock_in_summary");
+                    for (ClockInRecord record : records) {
+                        repository.mergeRecord(ClockInSummaryCalculator.initial(record, workDay), record.getClockType(), workDay);
+                    }
+
+                    assertSameSummary(recalculate(records, workDay), load(jdbcTemplate), records + ", workDay=" + workDay);
+                }
+            }
+
+            // 已軟刪除的匯總視為不存在，舊值不參與合併
+            jdbcTemplate.update("UPDATE clock_in_summary SET is_deleted = 1");
+            ClockInRecord record = punch(ClockInType.CLOCK_OUT, "16:00", ClockInStatus.EARLY_LEAVE);
+            repository.mergeRecord(ClockInSummaryCalculator.initial(record, true), record.getClockType(), true);
+            ClockInSummary merged = load(jdbcTemplate);
+            assertEquals(0, merged.getIsDeleted());
+            assertSameSummary(recalculate(List.of(record), true), merged, "軟刪除後合併");
+        }
+    }
+
+    private static ClockInRecord punch(ClockInType type, String time, ClockInStatus status) {
+        return ClockInRecord.builder()
+                .userId(USER_ID)
+                .clockDate(DAY)
+                .clockType(type)
+                .clockTime(LocalTime.parse(time))
+                .status(status)
+                .isDeleted(0)
+                .build();
+    }
+
+    private static ClockInSummary recalculate(List<ClockInRecord> records, boolean workDay) {
+        return ClockInSummaryCalculator.apply(
+                ClockInSummary.builder().userId(USER_ID).clockDate(DAY).isDeleted(0).build(), records, workDay);
+    }
+
+    private static ClockInSummary load(JdbcTemplate jdbcTemplate) {
+        return jdbcTemplate.queryForObject("SELECT clock_in_time, clock_in_status, clock_out_time, clock_out_status, " +
+                        "work_duration, absence_type, is_deleted FROM clock_in_summary WHERE user_id = ? AND clock_date = ?",
+                (rs, rowNum) -> ClockInSummary.builder()
+                        .userId(USER_ID)
+                        .clockDate(DAY)
+                        .clockInTime(rs.getObject("clock_in_time", LocalTime.class))
+                        .clockInStatus(rs.getObject("clock_in_status", Integer.class))
+                        .clockOutTime(rs.getObject("clock_out_time", LocalTime.class))
+                        .clockOutStatus(rs.getObject("clock_out_status", Integer.class))
+                        .workDuration(rs.getObject("work_duration", Integer.class))
+                        .absenceType(rs.getInt("absence_type"))
+                        .isDeleted(rs.getInt("is_deleted"))
+                        .build(),
+                USER_ID, DAY);
+    }
+
+    private static void assertSameSummary(ClockInSummary expected, ClockInSummary actual, String scenario) {
+        assertEquals(expected.getClockInTime(), actual.getClockInTime(), scenario);
+        assertEquals(expected.getClockInStatus(), actual.getClockInStatus(), scenario);
+        assertEquals(expected.getClockOutTime(), actual.getClockOutTime(), scenario);
+        assertEquals(expected.getClockOutStatus(), actual.getClockOutStatus(), scenario);
+        assertEquals(expected.getWorkDuration(), actual.getWorkDuration(), scenario);
+        assertEquals(expected.getAbsenceType(), actual.getAbsenceType(), scenario);
+    }
+}
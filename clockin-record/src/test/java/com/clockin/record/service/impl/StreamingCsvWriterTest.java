@@ -0,0 +1,118 @@
+package com.clockin.record.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 串流 CSV 寫入器測試
+ */
+public class StreamingCsvWriterTest {
+
+    @Test
+    public void testEscaping() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (StreamingCsvWriter writer = new StreamingCsvWriter(out, false, null, "name", "remark")) {
+            writer.writeRow("plain", "a,b");
+            writer.writeRow("say \"hi\"", "line1\nline2");
+            writer.writeRow("cr\r", null);
+            writer.writeRow("", "中文,備註");
+            writer.finish();
+        }
+
+        assertEquals("name,remark\r\n" +
+                "plain,\"a,b\"\r\n" +
+                "\"say \"\"hi\"\"\",\"line1\nline2\"\r\n" +
+                "\"cr\r\",\r\n" +
+                ",\"中文,備註\"\r\n", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testValueFormats() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (StreamingCsvWriter writer = new StreamingCsvWriter(out, false, null, "v")) {
+            writer.writeRow(new BigDecimal("1E+3"), LocalDateTime.of(2024, 3, 4, 9, 5, 7),
+                    LocalTime.of(18, 0, 30, 500), LocalDate.of(2024, 3, 4), true, 42L);
+            writer.finish();
+        }
+
+        assertEquals("v\r\n1000,2024-03-04 09:05:07,18:00:30,2024-03-04,true,42\r\n",
+                out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testGzipRoundTrip() throws IOException {
+        ByteArrayOutputStream plain = new ByteArrayOutputStream();
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (StreamingCsvWriter plainWriter = new StreamingCsvWriter(plain, false, null, "id", "remark");
+             StreamingCsvWriter gzipWriter = new StreamingCsvWriter(compressed, true, null, "id", "remark")) {
+            for (int i = 0; i < 5000; i++) {
+                plainWriter.writeRow(i, "備註 \"" + i + "\", 第二段");
+                gzipWriter.writeRow(i, "備註 \"" + i + "\", 第二段");
+            }
+            plainWriter.finish();
+            gzipWriter.finish();
+        }
+
+        byte[] bytes = compressed.toByteArray();
+        assertEquals((byte) 0x1f, bytes[0]);
+        assertEquals((byte) 0x8b, bytes[1]);
+        assertTrue(bytes.length < plain.size());
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            assertArrayEquals(plain.toByteArray(), in.readAllBytes());
+        }
+    }
+
+    @Test
+    public void testFinishCompletesGzipWithoutClosingTarget() throws IOException {
+        TrackingOutputStream out = new TrackingOutputStream();
+        StreamingCsvWriter writer = new StreamingCsvWriter(out, true, null, "id");
+        writer.writeRow(1);
+        writer.finish();
+
+        // finish 後已是完整的 gzip 流，可在關閉前交給調用方
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            assertEquals("id\r\n1\r\n", new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        writer.close();
+        assertFalse(out.closed);
+    }
+
+    @Test
+    public void testRowCountAndProgress() throws IOException {
+        List<Long> progress = new ArrayList<>();
+        try (StreamingCsvWriter writer = new StreamingCsvWriter(new ByteArrayOutputStream(), false, progress::add, "id")) {
+            for (int i = 0; i < 2500; i++) {
+                writer.writeRow(i);
+            }
+            writer.finish();
+            // 表頭不計入行數
+            assertEquals(2500, writer.getRowCount());
+        }
+
+        assertEquals(List.of(1000L, 2000L, 2500L), progress);
+    }
+
+    private static final class TrackingOutputStream extends ByteArrayOutputStream {
+
+        private boolean closed;
+
+        @Override
+        public void close() throws IOException {
+            closed = true;
+            super.close();
+        }
+    }
+}
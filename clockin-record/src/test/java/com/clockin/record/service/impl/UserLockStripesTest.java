@@ -0,0 +1,116 @@
+package com.clockin.record.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 用戶分段鎖測試
+ */
+public class UserLockStripesTest {
+
+    @Test
+    public void testSameUserGetsSameLock() {
+        UserLockStripes stripes = new UserLockStripes(16);
+
+        ReentrantLock first = stripes.tryLock(42L, 0);
+        ReentrantLock second = stripes.tryLock(42L, 0);
+        try {
+            assertNotNull(first);
+            // 同一線程可重入
+            assertSame(first, second);
+            assertEquals(2, first.getHoldCount());
+        } finally {
+            second.unlock();
+            first.unlock();
+        }
+    }
+
+    @Test
+    public void testConsecutiveUsersUseDistinctStripes() {
+        // 鎖數量向上取整為 2 的冪，連續的用戶ID分佈到不同的鎖
+        UserLockStripes stripes = new UserLockStripes(1000);
+        Set<ReentrantLock> locks = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (long userId = 0; userId < 1024; userId++) {
+            ReentrantLock lock = stripes.tryLock(userId, 0);
+            assertNotNull(lock);
+            locks.add(lock);
+            lock.unlock();
+        }
+        assertEquals(1024, locks.size());
+
+        // 超出鎖數量後按掩碼回繞
+        ReentrantLock wrapped = stripes.tryLock(1024L, 0);
+        ReentrantLock first = stripes.tryLock(0L, 0);
+        try {
+            assertSame(first, wrapped);
+        } finally {
+            first.unlock();
+            wrapped.unlock();
+        }
+    }
+
+    @Test
+    public void testTryLockTimesOutWhileHeldByAnotherThread() throws InterruptedException {
+        UserLockStripes stripes = new UserLockStripes(16);
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread holder = new Thread(() -> {
+            ReentrantLock lock = stripes.tryLock(7L, 0);
+            locked.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                lock.unlock();
+            }
+        });
+        holder.start();
+        try {
+            assertTrue(locked.await(5, TimeUnit.SECONDS));
+
+            long start = System.nanoTime();
+            assertNull(stripes.tryLock(7L, 50));
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 50);
+        } finally {
+            release.countDown();
+            holder.join();
+        }
+
+        // 持有者釋放後可以獲取
+        ReentrantLock lock = stripes.tryLock(7L, 0);
+        assertNotNull(lock);
+        lock.unlock();
+    }
+
+    @Test
+    public void testInterruptedWaitReturnsNullAndKeepsFlag() throws InterruptedException {
+        UserLockStripes stripes = new UserLockStripes(16);
+        ReentrantLock held = stripes.tryLock(9L, 0);
+        AtomicReference<ReentrantLock> result = new AtomicReference<>(held);
+        AtomicReference<Boolean> interrupted = new AtomicReference<>();
+        Thread waiter = new Thread(() -> {
+            Thread.currentThread().interrupt();
+            result.set(stripes.tryLock(9L, 5000));
+            interrupted.set(Thread.currentThread().isInterrupted());
+        });
+        try {
+            waiter.start();
+            waiter.join(5000);
+        } finally {
+            held.unlock();
+        }
+
+        assertNull(result.get());
+        assertTrue(interrupted.get());
+    }
+}
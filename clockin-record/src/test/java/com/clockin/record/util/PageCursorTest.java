@@ -0,0 +1,118 @@
+package com.clockin.record.util;
+
+import com.clockin.record.dto.CursorPage;
+import com.clockin.record.exception.BusinessException;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 游標分頁工具測試
+ */
+public class PageCursorTest {
+
+    private static final String SCOPE = "clock-record:1:null:null";
+
+    @Test
+    public void testFirstPageWithoutCursor() {
+        ScrollPosition position = PageCursor.decode(null, SCOPE, "clockDate", LocalDate::parse);
+        assertTrue(position.isInitial());
+        assertTrue(PageCursor.decode("", SCOPE, "clockDate", LocalDate::parse).isInitial());
+    }
+
+    @Test
+    public void testRoundTrip() {
+        Window<String> window = window(List.of("a", "b"), List.of(LocalDate.of(2024, 3, 5), LocalDate.of(2024, 3, 4)),
+                List.of(20L, 17L), true);
+
+        CursorPage<String> page = PageCursor.toPage(window, SCOPE, "clockDate");
+        assertEquals(List.of("a", "b"), page.getContent());
+        assertTrue(page.isHasNext());
+        assertNotNull(page.getNextCursor());
+        // URL 安全且不含填充
+        assertTrue(page.getNextCursor().matches("[A-Za-z0-9_-]+"));
+
+        KeysetScrollPosition position = (KeysetScrollPosition) PageCursor.decode(
+                page.getNextCursor(), SCOPE, "clockDate", LocalDate::parse);
+        assertEquals(LocalDate.of(2024, 3, 4), position.getKeys().get("clockDate"));
+        assertEquals(17L, position.getKeys().get("id"));
+        assertEquals(List.of("clockDate", "id"), List.copyOf(position.getKeys().keySet()));
+    }
+
+    @Test
+    public void testRoundTripWithDateTimeKey() {
+        LocalDateTime startTime = LocalDateTime.of(2024, 3, 4, 9, 30, 15);
+        Window<String> window = window(List.of("a"), List.of(startTime), List.of(5L), true);
+
+        String cursor = PageCursor.toPage(window, "leave:all", "startTime").getNextCursor();
+
+        KeysetScrollPosition position = (KeysetScrollPosition) PageCursor.decode(
+                cursor, "leave:all", "startTime", LocalDateTime::parse);
+        assertEquals(startTime, position.getKeys().get("startTime"));
+    }
+
+    @Test
+    public void testLastPageHasNoCursor() {
+        Window<String> window = window(List.of("a"), List.of(LocalDate.of(2024, 3, 4)), List.of(1L), false);
+
+        CursorPage<String> page = PageCursor.toPage(window, SCOPE, "clockDate");
+        assertFalse(page.isHasNext());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    public void testCursorFromOtherScopeIsRejected() {
+        String cursor = encode(SCOPE + "\n2024-03-04\n17");
+
+        // 更換篩選條件後沿用舊游標
+        assertThrows(BusinessException.class,
+                () -> PageCursor.decode(cursor, "clock-record:2:null:null", "clockDate", LocalDate::parse));
+        // 修改游標中的範圍以查看其他用戶的數據
+        String tampered = encode("clock-record:2:null:null\n2024-03-04\n17");
+        assertThrows(BusinessException.class,
+                () -> PageCursor.decode(tampered, SCOPE, "clockDate", LocalDate::parse));
+    }
+
+    @Test
+    public void testMalformedCursorIsRejected() {
+        for (String cursor : List.of("not base64!", encode(SCOPE + "\n2024-03-04"),
+                encode(SCOPE + "\n2024-03-04\n17\nextra"), encode(SCOPE + "\n2024-13-40\n17"),
+                encode(SCOPE + "\n2024-03-04\nabc"))) {
+            assertThrows(BusinessException.class,
+                    () -> PageCursor.decode(cursor, SCOPE, "clockDate", LocalDate::parse), cursor);
+        }
+    }
+
+    @Test
+    public void testSortAndLimit() {
+        assertEquals(Sort.by(Sort.Order.desc("clockDate"), Sort.Order.desc("id")), PageCursor.sort("clockDate"));
+        assertEquals(1, PageCursor.limit(0));
+        assertEquals(50, PageCursor.limit(50));
+        assertEquals(PageCursor.MAX_SIZE, PageCursor.limit(10_000));
+    }
+
+    private static <T> Window<T> window(List<T> content, List<?> sortValues, List<Long> ids, boolean hasNext) {
+        return Window.from(content, index -> {
+            Map<String, Object> keys = new LinkedHashMap<>();
+            keys.put(sortValues.get(0) instanceof LocalDate ? "clockDate" : "startTime", sortValues.get(index));
+            keys.put("id", ids.get(index));
+            return ScrollPosition.forward(keys);
+        }, hasNext);
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
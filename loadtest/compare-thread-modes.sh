@@ -0,0 +1,59 @@
+#!/bin/bash
+
+# 比較 record 服務在平台線程與虛擬線程模式下的打卡吞吐量及 p99 延遲
+#
+#   ./compare-thread-modes.sh <record jar> <Base64 JWT 密鑰>
+#
+# jar 需以 java21 Maven 配置構建（mvn -P java21 -pl clockin-record -am package），並以 Java 21 運行；
+# 兩種模式依次在同一端口啟動，使用同一個數據庫及 Redis，其餘參數可通過 VUS、DURATION 環境變量調整
+
+set -e
+
+JAR=$1
+JWT_SECRET=$2
+PORT=${PORT:-8082}
+BASE_URL="http://localhost:${PORT}/record"
+SCRIPT_DIR=$(cd "$(dirname "$0")" && pwd)
+
+if [ -z "$JAR" ] || [ -z "$JWT_SECRET" ]; then
+    echo "用法: $0 <record jar> <Base64 JWT 密鑰>"
+    exit 1
+fi
+
+if ! command -v k6 &> /dev/null; then
+    echo "錯誤: 未安裝 k6，請參考 https://k6.io/docs/get-started/installation/"
+    exit 1
+fi
+
+mkdir -p "${SCRIPT_DIR}/results"
+
+run_mode() {
+    local label=$1
+    local profiles=$2
+
+    echo "啟動 record 服務（${label}，配置: ${profiles}）..."
+    java -jar "$JAR" --server.port="$PORT" --spring.profiles.active="$profiles" --jwt.secret="$JWT_SECRET" \
+        > "${SCRIPT_DIR}/results/${label}.log" 2>&1 &
+    local pid=$!
+
+    for _ in $(seq 1 60); do
+        if curl -sf "${BASE_URL}/actuator/health" > /dev/null; then
+            break
+        fi
+        sleep 2
+    done
+
+    (cd "$SCRIPT_DIR" && k6 run -q -e BASE_URL="$BASE_URL" -e JWT_SECRET="$JWT_SECRET" -e LABEL="$label" punch-load.js) || true
+
+    kill "$pid"
+    wait "$pid" 2> /dev/null || true
+}
+
+run_mode platform loadtest
+run_mode virtual loadtest,virtual-threads
+
+echo ""
+echo "結果（詳見 ${SCRIPT_DIR}/results）："
+for label in platform virtual; do
+    cat "${SCRIPT_DIR}/results/${label}.json"
+done
@@ -0,0 +1,99 @@
+// 打卡壓力測試（k6）：每個虛擬用戶代表一名員工，持續提交上下班打卡
+//
+//   k6 run -e BASE_URL=http://localhost:8082/record -e JWT_SECRET=<base64 密鑰> -e LABEL=platform punch-load.js
+//
+// 環境變量：
+//   BASE_URL    record 服務地址，默認 http://localhost:8082/record
+//   JWT_SECRET  與 record 服務 jwt.secret 相同的 Base64 密鑰，用於簽發測試令牌
+//   VUS         並發打卡數，默認 5000
+//   DURATION    持續時間，默認 2m
+//   LABEL       結果標籤，摘要寫入 results/<LABEL>.json
+import http from 'k6/http';
+import crypto from 'k6/crypto';
+import encoding from 'k6/encoding';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8082/record';
+const JWT_SECRET = __ENV.JWT_SECRET;
+const VUS = parseInt(__ENV.VUS || '5000', 10);
+const DURATION = __ENV.DURATION || '2m';
+const LABEL = __ENV.LABEL || 'run';
+
+export const options = {
+    scenarios: {
+        punches: {
+            executor: 'constant-vus',
+            vus: VUS,
+            duration: DURATION,
+        },
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+    thresholds: {
+        http_req_failed: ['rate<0.01'],
+    },
+};
+
+let token = null;
+
+/**
+ * 簽發 HS256 令牌，userId 聲明決定打卡用戶，不同虛擬用戶之間不會爭用同一把用戶鎖
+ */
+function issueToken(userId) {
+    const header = encoding.b64encode(JSON.stringify({ alg: 'HS256', typ: 'JWT' }), 'rawurl');
+    const now = Math.floor(Date.now() / 1000);
+    const payload = encoding.b64encode(JSON.stringify({
+        sub: `loadtest-${userId}@clockin.local`,
+        userId: userId,
+        iat: now,
+        exp: now + 3600,
+    }), 'rawurl');
+    const signature = crypto.hmac('sha256', encoding.b64decode(JWT_SECRET), `${header}.${payload}`, 'base64rawurl');
+    return `${header}.${payload}.${signature}`;
+}
+
+export function setup() {
+    if (!JWT_SECRET) {
+        throw new Error('必須設置 JWT_SECRET');
+    }
+}
+
+export default function () {
+    if (token === null) {
+        token = issueToken(__VU);
+    }
+
+    const body = JSON.stringify({
+        clockType: __ITER % 2 === 0 ? 'CLOCK_IN' : 'CLOCK_OUT',
+        device: 'k6',
+        remark: 'load test',
+        idempotencyKey: `${LABEL}-${__VU}-${__ITER}`,
+    });
+    const response = http.post(`${BASE_URL}/clock`, body, {
+        headers: {
+            'Content-Type': 'application/json',
+            Authorization: `Bearer ${token}`,
+        },
+        tags: { name: 'clock' },
+    });
+    check(response, { 'status is 200': (r) => r.status === 200 });
+}
+
+export function handleSummary(data) {
+    const duration = data.metrics.http_req_duration.values;
+    const result = {
+        label: LABEL,
+        vus: VUS,
+        requests: data.metrics.http_reqs.values.count,
+        throughput: data.metrics.http_reqs.values.rate,
+        failedRate: data.metrics.http_req_failed.values.rate,
+        p50: duration['p(50)'],
+        p95: duration['p(95)'],
+        p99: duration['p(99)'],
+        max: duration.max,
+    };
+    return {
+        stdout: `${LABEL}: ${result.throughput.toFixed(1)} req/s, p99 ${result.p99.toFixed(1)} ms, `
+            + `失敗率 ${(result.failedRate * 100).toFixed(2)}%\n`,
+        [`results/${LABEL}.json`]: JSON.stringify(result, null, 2),
+    };
+}